@@ -0,0 +1,289 @@
+package com.bank.simulator.config;
+
+import com.bank.simulator.model.Account;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+// Read-through cache of Account rows by account number, with an index from account id.
+// Entries live for account.cache.ttl.ms and each of the SEGMENTS segments keeps its share of
+// account.cache.max.entries in least-recently-used order. Every balance-changing transfer,
+// account update and delete invalidates the accounts it touched, so within this process a
+// hit is never older than the last committed write; another node's writes are seen once
+// the TTL runs out. Callers always get their own copy.
+public class AccountCache {
+
+    private static final int SEGMENTS = 16;
+
+    public interface Loader {
+        Account load() throws SQLException;
+    }
+
+    private static final class Entry {
+        final Account account;
+        final long expiresAtMillis;
+
+        Entry(Account account, long expiresAtMillis) {
+            this.account = account;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    // A load registers a token before it queries and installs its row only if the token is
+    // still there afterwards; invalidating the key removes the token, so a row read before a
+    // write committed can never be installed after that write's invalidation.
+    private static final class Segment {
+        final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        final Map<String, Object> loading = new HashMap<>();
+    }
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final int maxEntriesPerSegment;
+    private final long ttlMs;
+    private final LongSupplier clock;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final ConcurrentHashMap<String, String> accountNumberById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Object> loadingById = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private static final class Holder {
+        static final AccountCache INSTANCE = new AccountCache(
+                Boolean.parseBoolean(DBConfig.getProperty("account.cache.enabled", "true").trim()),
+                Integer.parseInt(DBConfig.getProperty("account.cache.max.entries", "10000").trim()),
+                Long.parseLong(DBConfig.getProperty("account.cache.ttl.ms", "30000").trim()),
+                System::currentTimeMillis);
+    }
+
+    AccountCache(boolean enabled, int maxEntries, long ttlMs, LongSupplier clock) {
+        this.enabled = enabled && maxEntries > 0 && ttlMs > 0;
+        this.maxEntries = maxEntries;
+        this.maxEntriesPerSegment = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    public static AccountCache getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Account getByAccountNumber(String accountNumber, Loader loader) throws SQLException {
+        if (!enabled || accountNumber == null) {
+            return loader.load();
+        }
+
+        Segment segment = segmentFor(accountNumber);
+        Object token = new Object();
+        synchronized (segment) {
+            Account cached = lookup(segment, accountNumber);
+            if (cached != null) {
+                return cached;
+            }
+            segment.loading.put(accountNumber, token);
+        }
+
+        Account account = loader.load();
+        synchronized (segment) {
+            if (segment.loading.remove(accountNumber, token) && account != null
+                    && accountNumber.equals(account.getAccountNumber())) {
+                install(segment, account);
+            }
+        }
+        return account;
+    }
+
+    public Account getById(String accountId, Loader loader) throws SQLException {
+        if (!enabled || accountId == null) {
+            return loader.load();
+        }
+
+        String accountNumber = accountNumberById.get(accountId);
+        if (accountNumber != null) {
+            Segment segment = segmentFor(accountNumber);
+            synchronized (segment) {
+                Account cached = lookup(segment, accountNumber);
+                if (cached != null && accountId.equals(cached.getAccountId())) {
+                    return cached;
+                }
+            }
+        } else {
+            misses.increment();
+        }
+
+        // The account number is only known once the row is back, so any invalidation during
+        // the load cancels it.
+        Object token = new Object();
+        loadingById.put(accountId, token);
+        Account account = loader.load();
+        if (account != null && account.getAccountNumber() != null) {
+            Segment segment = segmentFor(account.getAccountNumber());
+            synchronized (segment) {
+                if (loadingById.remove(accountId, token)) {
+                    install(segment, account);
+                }
+            }
+        } else {
+            loadingById.remove(accountId, token);
+        }
+        return account;
+    }
+
+    public void invalidate(String... accountNumbers) {
+        if (!enabled) {
+            return;
+        }
+        for (String accountNumber : accountNumbers) {
+            if (accountNumber == null) {
+                continue;
+            }
+            Segment segment = segmentFor(accountNumber);
+            synchronized (segment) {
+                segment.loading.remove(accountNumber);
+                loadingById.clear();
+                Entry removed = segment.entries.remove(accountNumber);
+                if (removed != null) {
+                    unindex(removed.account);
+                }
+            }
+            invalidations.increment();
+        }
+    }
+
+    public void invalidateById(String accountId) {
+        if (!enabled || accountId == null) {
+            return;
+        }
+        String accountNumber = accountNumberById.get(accountId);
+        if (accountNumber != null) {
+            invalidate(accountNumber);
+            return;
+        }
+        // Not indexed, but a load by id may be about to install it.
+        loadingById.clear();
+        removeWhere(account -> accountId.equals(account.getAccountId()));
+        invalidations.increment();
+    }
+
+    // Deleting a customer cascades to its accounts; customer deletes are rare enough to scan.
+    public void invalidateCustomer(String customerId) {
+        if (!enabled || customerId == null) {
+            return;
+        }
+        loadingById.clear();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.loading.clear();
+            }
+        }
+        removeWhere(account -> customerId.equals(account.getCustomerId()));
+        invalidations.increment();
+    }
+
+    public CacheStats getStats() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+
+        CacheStats stats = new CacheStats();
+        stats.setEnabled(enabled);
+        stats.setSize(size);
+        stats.setMaxEntries(maxEntries);
+        stats.setTtlMillis(ttlMs);
+        stats.setHits(hitCount);
+        stats.setMisses(missCount);
+        stats.setHitRate(hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.setEvictions(evictions.sum());
+        stats.setExpirations(expirations.sum());
+        stats.setInvalidations(invalidations.sum());
+        return stats;
+    }
+
+    // Called with the segment held. Counts the hit or miss.
+    private Account lookup(Segment segment, String accountNumber) {
+        Entry entry = segment.entries.get(accountNumber);
+        if (entry != null && entry.expiresAtMillis <= clock.getAsLong()) {
+            segment.entries.remove(accountNumber);
+            unindex(entry.account);
+            expirations.increment();
+            entry = null;
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copy(entry.account);
+    }
+
+    // Called with the segment held.
+    private void install(Segment segment, Account account) {
+        Account cached = copy(account);
+        Entry previous = segment.entries.put(cached.getAccountNumber(), new Entry(cached, clock.getAsLong() + ttlMs));
+        if (previous != null && !previous.account.getAccountId().equals(cached.getAccountId())) {
+            unindex(previous.account);
+        }
+        accountNumberById.put(cached.getAccountId(), cached.getAccountNumber());
+
+        if (segment.entries.size() > maxEntriesPerSegment) {
+            Iterator<Entry> eldest = segment.entries.values().iterator();
+            Account evicted = eldest.next().account;
+            eldest.remove();
+            unindex(evicted);
+            evictions.increment();
+        }
+    }
+
+    private void removeWhere(Predicate<Account> condition) {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                Iterator<Entry> iterator = segment.entries.values().iterator();
+                while (iterator.hasNext()) {
+                    Account account = iterator.next().account;
+                    if (condition.test(account)) {
+                        iterator.remove();
+                        unindex(account);
+                    }
+                }
+            }
+        }
+    }
+
+    private void unindex(Account account) {
+        accountNumberById.remove(account.getAccountId(), account.getAccountNumber());
+    }
+
+    private Segment segmentFor(String accountNumber) {
+        return segments[Math.floorMod(accountNumber.hashCode(), SEGMENTS)];
+    }
+
+    private static Account copy(Account account) {
+        return new Account(account.getAccountId(), account.getCustomerId(), account.getAccountNumber(),
+                account.getAadharNumber(), account.getIfscCode(), account.getPhoneNumberLinked(),
+                account.getAmount(), account.getBankName(), account.getNameOnAccount(), account.getStatus(),
+                account.getCreated(), account.getModified());
+    }
+}
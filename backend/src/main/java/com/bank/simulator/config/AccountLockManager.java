@@ -0,0 +1,206 @@
+package com.bank.simulator.config;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Serialises transfers that share an account inside the JVM, so they queue here instead of
+// on InnoDB row locks. Stripes are always taken in ascending index order, which makes
+// lock-order deadlocks between two transfers impossible. Other nodes are not covered; the
+// row locks in the database still guard correctness across processes.
+public class AccountLockManager {
+
+    private final boolean enabled;
+    private final ReentrantLock[] stripes;
+    private final long timeoutMs;
+    private final int maxTrackedAccounts;
+    private final ConcurrentHashMap<String, AccountCounters> accounts = new ConcurrentHashMap<>();
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public final class Lease implements AutoCloseable {
+        private final ReentrantLock[] held;
+
+        private Lease(ReentrantLock[] held) {
+            this.held = held;
+        }
+
+        @Override
+        public void close() {
+            for (int i = held.length - 1; i >= 0; i--) {
+                held[i].unlock();
+            }
+        }
+    }
+
+    private static final class Holder {
+        static final AccountLockManager INSTANCE = new AccountLockManager(
+                Boolean.parseBoolean(DBConfig.getProperty("transfer.lock.enabled", "true").trim()),
+                Integer.parseInt(DBConfig.getProperty("transfer.lock.stripes", "1024").trim()),
+                Long.parseLong(DBConfig.getProperty("transfer.lock.timeout.ms", "5000").trim()),
+                Integer.parseInt(DBConfig.getProperty("transfer.lock.tracked.accounts", "10000").trim()));
+    }
+
+    private static final class AccountCounters {
+        final AtomicInteger waiting = new AtomicInteger();
+        final LongAdder contended = new LongAdder();
+        final LongAdder totalWaitNanos = new LongAdder();
+        final AtomicLong maxWaitNanos = new AtomicLong();
+
+        void recordWait(long waitNanos) {
+            contended.increment();
+            totalWaitNanos.add(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        }
+
+        HotAccountStats toStats(String accountNumber) {
+            long count = contended.sum();
+            long total = totalWaitNanos.sum();
+            HotAccountStats stats = new HotAccountStats();
+            stats.setAccountNumber(accountNumber);
+            stats.setWaiting(waiting.get());
+            stats.setContendedAcquisitions(count);
+            stats.setTotalWaitMillis(total / 1_000_000.0);
+            stats.setMeanWaitMillis(count > 0 ? total / 1_000_000.0 / count : 0.0);
+            stats.setMaxWaitMillis(maxWaitNanos.get() / 1_000_000.0);
+            return stats;
+        }
+    }
+
+    AccountLockManager(boolean enabled, int stripeCount, long timeoutMs, int maxTrackedAccounts) {
+        this.enabled = enabled;
+        this.timeoutMs = timeoutMs;
+        this.maxTrackedAccounts = maxTrackedAccounts;
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public static AccountLockManager getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    // Returns null if a stripe could not be taken within the timeout; nothing is held then.
+    public Lease acquire(String senderAccountNumber, String receiverAccountNumber) throws InterruptedException {
+        int senderStripe = stripeFor(senderAccountNumber);
+        int receiverStripe = stripeFor(receiverAccountNumber);
+
+        String[] owners;
+        int[] order;
+        if (senderStripe == receiverStripe) {
+            owners = new String[] { senderAccountNumber };
+            order = new int[] { senderStripe };
+        } else if (senderStripe < receiverStripe) {
+            owners = new String[] { senderAccountNumber, receiverAccountNumber };
+            order = new int[] { senderStripe, receiverStripe };
+        } else {
+            owners = new String[] { receiverAccountNumber, senderAccountNumber };
+            order = new int[] { receiverStripe, senderStripe };
+        }
+
+        ReentrantLock[] held = new ReentrantLock[order.length];
+        for (int i = 0; i < order.length; i++) {
+            if (!lock(stripes[order[i]], owners[i])) {
+                for (int j = i - 1; j >= 0; j--) {
+                    held[j].unlock();
+                }
+                timeouts.increment();
+                return null;
+            }
+            held[i] = stripes[order[i]];
+        }
+        acquisitions.increment();
+        return new Lease(held);
+    }
+
+    private boolean lock(ReentrantLock stripe, String accountNumber) throws InterruptedException {
+        if (stripe.tryLock()) {
+            return true;
+        }
+
+        contendedAcquisitions.increment();
+        AccountCounters counters = counters(accountNumber);
+        counters.waiting.incrementAndGet();
+        long startedNanos = System.nanoTime();
+        try {
+            return stripe.tryLock(timeoutMs, TimeUnit.MILLISECONDS);
+        } finally {
+            counters.waiting.decrementAndGet();
+            counters.recordWait(System.nanoTime() - startedNanos);
+        }
+    }
+
+    public List<HotAccountStats> getHotAccounts(int limit) {
+        List<HotAccountStats> result = new ArrayList<>();
+        for (Map.Entry<String, AccountCounters> entry : accounts.entrySet()) {
+            result.add(entry.getValue().toStats(entry.getKey()));
+        }
+        result.sort(Comparator.comparingDouble(HotAccountStats::getTotalWaitMillis)
+                .thenComparingInt(HotAccountStats::getWaiting)
+                .reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    public long getContendedAcquisitions() {
+        return contendedAcquisitions.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    // Only accounts that have actually waited are tracked. When the table is full the
+    // coolest idle entry makes room, so long-running nodes keep the accounts that matter.
+    private AccountCounters counters(String accountNumber) {
+        AccountCounters counters = accounts.get(accountNumber);
+        if (counters != null) {
+            return counters;
+        }
+        if (accounts.size() >= maxTrackedAccounts) {
+            evictCoolest();
+        }
+        return accounts.computeIfAbsent(accountNumber, key -> new AccountCounters());
+    }
+
+    private void evictCoolest() {
+        String coolest = null;
+        long coolestWait = Long.MAX_VALUE;
+        for (Map.Entry<String, AccountCounters> entry : accounts.entrySet()) {
+            AccountCounters counters = entry.getValue();
+            long totalWait = counters.totalWaitNanos.sum();
+            if (counters.waiting.get() == 0 && totalWait < coolestWait) {
+                coolest = entry.getKey();
+                coolestWait = totalWait;
+            }
+        }
+        if (coolest != null) {
+            accounts.remove(coolest);
+        }
+    }
+
+    private int stripeFor(String accountNumber) {
+        int hash = accountNumber != null ? accountNumber.hashCode() : 0;
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+}
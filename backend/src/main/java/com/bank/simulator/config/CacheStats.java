@@ -0,0 +1,46 @@
+package com.bank.simulator.config;
+
+public class CacheStats {
+    private boolean enabled;
+    private int size;
+    private int maxEntries;
+    private long ttlMillis;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    public CacheStats() {}
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public int getMaxEntries() { return maxEntries; }
+    public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+
+    public long getTtlMillis() { return ttlMillis; }
+    public void setTtlMillis(long ttlMillis) { this.ttlMillis = ttlMillis; }
+
+    public long getHits() { return hits; }
+    public void setHits(long hits) { this.hits = hits; }
+
+    public long getMisses() { return misses; }
+    public void setMisses(long misses) { this.misses = misses; }
+
+    public double getHitRate() { return hitRate; }
+    public void setHitRate(double hitRate) { this.hitRate = hitRate; }
+
+    public long getEvictions() { return evictions; }
+    public void setEvictions(long evictions) { this.evictions = evictions; }
+
+    public long getExpirations() { return expirations; }
+    public void setExpirations(long expirations) { this.expirations = expirations; }
+
+    public long getInvalidations() { return invalidations; }
+    public void setInvalidations(long invalidations) { this.invalidations = invalidations; }
+}
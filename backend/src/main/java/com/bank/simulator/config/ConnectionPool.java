@@ -0,0 +1,471 @@
+package com.bank.simulator.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ConnectionPool {
+
+    private final String poolName;
+    private final String url;
+    private final Properties connectionProperties;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutMs;
+    private final long idleTimeoutMs;
+    private final boolean validateOnBorrow;
+    private final int validationTimeoutSeconds;
+    private final LeakDetector leakDetector;
+    private final int statementCacheSize;
+    private final StatementCache.Counters statementCacheCounters = new StatementCache.Counters();
+
+    private final LinkedBlockingDeque<PooledEntry> idleConnections = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final AtomicInteger waitingThreads = new AtomicInteger();
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAdder acquireTimeouts = new LongAdder();
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final LongAdder connectionsClosed = new LongAdder();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+    private volatile Runnable committedWriteListener;
+
+    public ConnectionPool(String poolName, String url, String username, String password,
+                          Properties poolProps, String propertyPrefix, LeakDetector leakDetector) {
+        this.poolName = poolName;
+        this.leakDetector = leakDetector;
+        this.url = url;
+        this.connectionProperties = new Properties();
+        this.connectionProperties.setProperty("user", username);
+        this.connectionProperties.setProperty("password", password);
+
+        this.maxSize = Math.max(1, intProperty(poolProps, propertyPrefix + "max.size", 20));
+        this.minSize = Math.min(maxSize, Math.max(0, intProperty(poolProps, propertyPrefix + "min.size", 2)));
+        this.acquireTimeoutMs = longProperty(poolProps, propertyPrefix + "acquire.timeout.ms", 5000);
+        this.idleTimeoutMs = longProperty(poolProps, propertyPrefix + "idle.timeout.ms", 600000);
+        this.validateOnBorrow = Boolean.parseBoolean(poolProps.getProperty(propertyPrefix + "validate.on.borrow", "true"));
+        this.validationTimeoutSeconds = intProperty(poolProps, propertyPrefix + "validation.timeout.seconds", 2);
+        long housekeepingIntervalMs = longProperty(poolProps, propertyPrefix + "housekeeping.interval.ms", 30000);
+
+        boolean statementCacheEnabled = Boolean.parseBoolean(poolProps.getProperty("db.statement.cache.enabled", "true"));
+        this.statementCacheSize = statementCacheEnabled ? intProperty(poolProps, "db.statement.cache.size", 64) : 0;
+        if (Boolean.parseBoolean(poolProps.getProperty("db.statement.cache.server.prepare", "false"))) {
+            this.connectionProperties.setProperty("useServerPrepStmts", "true");
+        }
+
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-housekeeper-" + poolName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::runHousekeeping, 0, housekeepingIntervalMs, TimeUnit.MILLISECONDS);
+
+        System.out.println("=== CONNECTION POOL INITIALIZED ===");
+        System.out.println("Pool: " + poolName);
+        System.out.println("Min Size: " + minSize + ", Max Size: " + maxSize);
+        System.out.println("Acquire Timeout: " + acquireTimeoutMs + " ms, Idle Timeout: " + idleTimeoutMs + " ms");
+        System.out.println("Validate On Borrow: " + validateOnBorrow);
+        System.out.println("Statement Cache Size (per connection): " + statementCacheSize);
+    }
+
+    // Runs on the thread that committed, after an INSERT, UPDATE, DELETE or REPLACE prepared on
+    // a connection from this pool was committed: on commit(), or when the connection is handed
+    // back in auto-commit mode. Reads alone never trigger it.
+    void onCommittedWrite(Runnable listener) {
+        this.committedWriteListener = listener;
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool '" + poolName + "' has been shut down");
+        }
+
+        long startNanos = System.nanoTime();
+        waitingThreads.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                acquireTimeouts.increment();
+                throw new SQLTimeoutException("Timed out after " + acquireTimeoutMs
+                        + " ms waiting for a connection from pool '" + poolName + "' (active="
+                        + activeConnections.get() + ", max=" + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waitingThreads.decrementAndGet();
+        }
+
+        try {
+            PooledEntry entry = borrowEntry(startNanos);
+            activeConnections.incrementAndGet();
+            acquireCount.increment();
+            acquireNanos.add(System.nanoTime() - startNanos);
+            return entry.lease(leakDetector.onAcquire(poolName));
+        } catch (SQLException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledEntry borrowEntry(long startNanos) throws SQLException {
+        long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs);
+
+        while (true) {
+            PooledEntry entry = idleConnections.pollFirst();
+
+            if (entry == null) {
+                if (reserveSlot()) {
+                    return createEntry();
+                }
+                // Another thread is mid-way through returning or topping up a connection.
+                try {
+                    entry = idleConnections.pollFirst(10, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a database connection", e);
+                }
+                if (entry == null) {
+                    if (System.nanoTime() > deadline) {
+                        acquireTimeouts.increment();
+                        throw new SQLTimeoutException("Timed out creating a connection for pool '" + poolName + "'");
+                    }
+                    continue;
+                }
+            }
+
+            if (validateOnBorrow && !entry.isValid(validationTimeoutSeconds)) {
+                System.err.println("Discarding broken connection from pool '" + poolName + "'");
+                destroyEntry(entry);
+                continue;
+            }
+            return entry;
+        }
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = totalConnections.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (totalConnections.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private PooledEntry createEntry() throws SQLException {
+        try {
+            Connection physical = DriverManager.getConnection(url, connectionProperties);
+            connectionsCreated.increment();
+            return new PooledEntry(physical);
+        } catch (SQLException e) {
+            totalConnections.decrementAndGet();
+            throw e;
+        }
+    }
+
+    void release(PooledEntry entry) {
+        activeConnections.decrementAndGet();
+        try {
+            if (closed || entry.broken || !entry.reset()) {
+                destroyEntry(entry);
+            } else {
+                entry.lastUsedMillis = System.currentTimeMillis();
+                idleConnections.offerFirst(entry);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroyEntry(PooledEntry entry) {
+        totalConnections.decrementAndGet();
+        connectionsClosed.increment();
+        if (entry.statementCache != null) {
+            entry.statementCache.closeAll();
+        }
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    private void runHousekeeping() {
+        try {
+            evictIdleConnections();
+            fillToMinimum();
+        } catch (Exception e) {
+            System.err.println("Connection pool housekeeping failed for '" + poolName + "': " + e.getMessage());
+        }
+    }
+
+    private void evictIdleConnections() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMs;
+        Iterator<PooledEntry> oldestFirst = idleConnections.descendingIterator();
+
+        while (oldestFirst.hasNext() && totalConnections.get() > minSize) {
+            PooledEntry entry = oldestFirst.next();
+            if (entry.lastUsedMillis < cutoff && idleConnections.remove(entry)) {
+                destroyEntry(entry);
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && totalConnections.get() < minSize) {
+            if (!reserveSlot()) {
+                return;
+            }
+            try {
+                PooledEntry entry = createEntry();
+                idleConnections.offerLast(entry);
+            } catch (SQLException e) {
+                System.err.println("Could not pre-fill pool '" + poolName + "': " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    public PoolStats getStats() {
+        PoolStats stats = new PoolStats();
+        stats.setPoolName(poolName);
+        stats.setMinSize(minSize);
+        stats.setMaxSize(maxSize);
+        stats.setTotalConnections(totalConnections.get());
+        stats.setActiveConnections(activeConnections.get());
+        stats.setIdleConnections(idleConnections.size());
+        stats.setWaitingThreads(waitingThreads.get());
+        long acquires = acquireCount.sum();
+        stats.setAcquireCount(acquires);
+        stats.setAcquireTimeouts(acquireTimeouts.sum());
+        stats.setAverageAcquireMillis(acquires == 0 ? 0.0 : acquireNanos.sum() / (double) acquires / 1_000_000.0);
+        stats.setConnectionsCreated(connectionsCreated.sum());
+        stats.setConnectionsClosed(connectionsClosed.sum());
+        long hits = statementCacheCounters.hits.sum();
+        long misses = statementCacheCounters.misses.sum();
+        stats.setStatementCacheHits(hits);
+        stats.setStatementCacheMisses(misses);
+        stats.setStatementCacheEvictions(statementCacheCounters.evictions.sum());
+        stats.setStatementCacheHitRatio(hits + misses == 0 ? 0.0 : hits / (double) (hits + misses));
+        return stats;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+
+        PooledEntry entry;
+        while ((entry = idleConnections.pollFirst()) != null) {
+            destroyEntry(entry);
+        }
+        System.out.println("Connection pool '" + poolName + "' shut down. Connections still in use: " + activeConnections.get());
+    }
+
+    private static int intProperty(Properties props, String key, int defaultValue) {
+        return (int) longProperty(props, key, defaultValue);
+    }
+
+    private static long longProperty(Properties props, String key, long defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ": " + value + ". Using default " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    final class PooledEntry {
+        final Connection physical;
+        final StatementCache statementCache;
+        volatile long lastUsedMillis = System.currentTimeMillis();
+        volatile boolean broken;
+
+        PooledEntry(Connection physical) {
+            this.physical = physical;
+            this.statementCache = statementCacheSize > 0
+                    ? new StatementCache(statementCacheSize, statementCacheCounters)
+                    : null;
+        }
+
+        Connection lease(LeakDetector.Lease leakLease) {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new LeaseHandler(this, leakLease));
+        }
+
+        boolean isValid(int timeoutSeconds) {
+            try {
+                return !physical.isClosed() && physical.isValid(timeoutSeconds);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        boolean reset() {
+            try {
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                if (physical.isReadOnly()) {
+                    physical.setReadOnly(false);
+                }
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Could not reset pooled connection, discarding it: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private final LeakDetector.Lease leakLease;
+        private boolean released;
+        private boolean uncommittedWrite;
+
+        LeaseHandler(PooledEntry entry, LeakDetector.Lease leakLease) {
+            this.entry = entry;
+            this.leakLease = leakLease;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            switch (name) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        if (uncommittedWrite && autoCommitted()) {
+                            committedWrite();
+                        }
+                        leakDetector.onRelease(leakLease);
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + poolName + "]" + (released ? " (closed)" : "");
+                default:
+                    break;
+            }
+
+            if (released) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            try {
+                Object result;
+                if ("prepareStatement".equals(name) && args.length == 1 && entry.statementCache != null) {
+                    result = entry.statementCache.prepare(entry.physical, (String) args[0]);
+                } else {
+                    result = method.invoke(entry.physical, args);
+                }
+                trackWrites(name, args);
+                if (leakLease != null && result instanceof Statement statement) {
+                    return leakDetector.wrapStatement(leakLease, statement, method.getReturnType());
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw markIfBroken(e.getCause());
+            } catch (SQLException e) {
+                throw markIfBroken(e);
+            }
+        }
+
+        private void trackWrites(String name, Object[] args) {
+            switch (name) {
+                case "prepareStatement":
+                    uncommittedWrite |= isWrite((String) args[0]);
+                    break;
+                case "commit":
+                    if (uncommittedWrite) {
+                        committedWrite();
+                    }
+                    break;
+                case "rollback":
+                    if (args == null) {
+                        uncommittedWrite = false;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private boolean autoCommitted() {
+            try {
+                return entry.physical.getAutoCommit();
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private void committedWrite() {
+            uncommittedWrite = false;
+            Runnable listener = committedWriteListener;
+            if (listener != null) {
+                listener.run();
+            }
+        }
+
+        private Throwable markIfBroken(Throwable cause) {
+            if (cause instanceof SQLException sqlException) {
+                String sqlState = sqlException.getSQLState();
+                if (sqlState != null && sqlState.startsWith("08")) {
+                    entry.broken = true;
+                }
+            }
+            return cause;
+        }
+    }
+
+    static boolean isWrite(String sql) {
+        String statement = sql.stripLeading();
+        int end = 0;
+        while (end < statement.length() && Character.isLetter(statement.charAt(end))) {
+            end++;
+        }
+        String keyword = statement.substring(0, end).toUpperCase();
+        return keyword.equals("INSERT") || keyword.equals("UPDATE") || keyword.equals("DELETE") || keyword.equals("REPLACE");
+    }
+}
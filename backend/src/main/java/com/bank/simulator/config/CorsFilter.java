@@ -16,7 +16,8 @@ public class CorsFilter implements ContainerResponseFilter {
         responseContext.getHeaders().add("Access-Control-Allow-Origin", "*");
         responseContext.getHeaders().add("Access-Control-Allow-Credentials", "true");
         responseContext.getHeaders().add("Access-Control-Allow-Headers", 
-            "origin, content-type, accept, authorization, x-requested-with");
+            "origin, content-type, accept, authorization, x-requested-with, idempotency-key, x-last-write");
+        responseContext.getHeaders().add("Access-Control-Expose-Headers", "X-Last-Write");
         responseContext.getHeaders().add("Access-Control-Allow-Methods", 
             "GET, POST, PUT, DELETE, OPTIONS, HEAD");
         responseContext.getHeaders().add("Access-Control-Max-Age", "3600");
@@ -0,0 +1,393 @@
+package com.bank.simulator.config;
+
+import com.bank.simulator.model.Customer;
+import com.bank.simulator.repository.RepositoryFactory;
+import com.bank.simulator.repository.RowConsumer;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// One entry per customer id, reachable through Aadhaar, phone and email indexes. Lookups read
+// through to the repository until the first existence check loads the whole Customer table;
+// from then on the cache is "warm" and a key it does not hold is known not to exist, so the
+// onboarding duplicate checks cost no query. Every create, update and delete in this process
+// goes through put/replace/remove, and the cache is dropped and rebuilt after
+// customer.cache.ttl.ms so writes made by another node are seen within that window. A table
+// larger than customer.cache.max.entries is never warmed and is cached least-recently-used.
+public class CustomerCache {
+
+    public interface Loader {
+        Customer load() throws SQLException;
+    }
+
+    public interface Check {
+        boolean exists() throws SQLException;
+    }
+
+    public interface Scan {
+        void forEach(RowConsumer<Customer> consumer) throws SQLException, IOException;
+    }
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlMs;
+    private final Scan scan;
+    private final LongSupplier clock;
+    private final ReentrantLock warmLock = new ReentrantLock();
+
+    // All guarded by this. Every write bumps generation, so a load or a warm-up that started
+    // before the write is not installed after it.
+    private final LinkedHashMap<String, Customer> byId = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, String> idByAadhar = new HashMap<>();
+    private final Map<String, String> idByPhone = new HashMap<>();
+    private final Map<String, Set<String>> idsByEmail = new HashMap<>();
+    private long generation;
+    private boolean warm;
+    private long expiresAtMillis;
+    private long nextWarmAtMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private static final class Holder {
+        static final CustomerCache INSTANCE = new CustomerCache(
+                Boolean.parseBoolean(DBConfig.getProperty("customer.cache.enabled", "true").trim()),
+                Integer.parseInt(DBConfig.getProperty("customer.cache.max.entries", "100000").trim()),
+                Long.parseLong(DBConfig.getProperty("customer.cache.ttl.ms", "300000").trim()),
+                consumer -> RepositoryFactory.getCustomerRepository().streamAll(consumer),
+                System::currentTimeMillis);
+    }
+
+    CustomerCache(boolean enabled, int maxEntries, long ttlMs, Scan scan, LongSupplier clock) {
+        this.enabled = enabled && maxEntries > 0 && ttlMs > 0;
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        this.scan = scan;
+        this.clock = clock;
+    }
+
+    public static CustomerCache getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized boolean isWarm() {
+        expireIfDue();
+        return warm;
+    }
+
+    public Customer getById(String customerId, Loader loader) throws SQLException {
+        return get(null, customerId, loader);
+    }
+
+    public Customer getByAadharNumber(String aadharNumber, Loader loader) throws SQLException {
+        return get(idByAadhar, aadharNumber, loader);
+    }
+
+    public Customer getByPhoneNumber(String phoneNumber, Loader loader) throws SQLException {
+        return get(idByPhone, phoneNumber, loader);
+    }
+
+    public boolean aadharNumberExists(String aadharNumber, Check check) throws SQLException {
+        return exists(idByAadhar, aadharNumber, check);
+    }
+
+    public boolean phoneNumberExists(String phoneNumber, Check check) throws SQLException {
+        return exists(idByPhone, phoneNumber, check);
+    }
+
+    public boolean emailExists(String email, Check check) throws SQLException {
+        return exists(idsByEmail, email == null ? null : emailKey(email), check);
+    }
+
+    // A customer this process has just inserted.
+    public void put(Customer customer) {
+        if (!enabled || customer == null || customer.getCustomerId() == null) {
+            return;
+        }
+        synchronized (this) {
+            expireIfDue();
+            generation++;
+            install(customer);
+        }
+    }
+
+    // After an update: the row is read back once it has committed. If that read fails, or
+    // another write to the cache overtakes it, the cache can no longer vouch for this
+    // customer and stops answering misses from memory until it is warmed again.
+    public void replace(String customerId, Loader loader) {
+        if (!enabled || customerId == null) {
+            return;
+        }
+        long seen;
+        synchronized (this) {
+            seen = ++generation;
+        }
+
+        Customer customer = null;
+        try {
+            customer = loader.load();
+        } catch (SQLException e) {
+            System.err.println("Error reloading customer " + customerId + " for the cache: " + e.getMessage());
+        }
+
+        synchronized (this) {
+            expireIfDue();
+            if (generation == seen && customer != null && customerId.equals(customer.getCustomerId())) {
+                install(customer);
+            } else {
+                generation++;
+                drop(customerId);
+                warm = false;
+            }
+        }
+        invalidations.increment();
+    }
+
+    // After a delete: the customer is gone, so a warm cache stays warm.
+    public void remove(String customerId) {
+        if (!enabled || customerId == null) {
+            return;
+        }
+        synchronized (this) {
+            generation++;
+            drop(customerId);
+        }
+        invalidations.increment();
+    }
+
+    public synchronized CacheStats getStats() {
+        expireIfDue();
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+
+        CacheStats stats = new CacheStats();
+        stats.setEnabled(enabled);
+        stats.setSize(byId.size());
+        stats.setMaxEntries(maxEntries);
+        stats.setTtlMillis(ttlMs);
+        stats.setHits(hitCount);
+        stats.setMisses(missCount);
+        stats.setHitRate(hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.setEvictions(evictions.sum());
+        stats.setExpirations(expirations.sum());
+        stats.setInvalidations(invalidations.sum());
+        return stats;
+    }
+
+    private Customer get(Map<String, String> index, String key, Loader loader) throws SQLException {
+        if (!enabled || key == null) {
+            return loader.load();
+        }
+
+        long seen;
+        synchronized (this) {
+            expireIfDue();
+            String customerId = index == null ? key : index.get(key);
+            Customer cached = customerId == null ? null : byId.get(customerId);
+            if (cached != null) {
+                hits.increment();
+                return copy(cached);
+            }
+            if (warm) {
+                hits.increment();
+                return null;
+            }
+            misses.increment();
+            seen = generation;
+        }
+
+        Customer customer = loader.load();
+        if (customer != null && customer.getCustomerId() != null) {
+            synchronized (this) {
+                if (generation == seen) {
+                    install(customer);
+                }
+            }
+        }
+        return customer;
+    }
+
+    private boolean exists(Map<String, ?> index, String key, Check check) throws SQLException {
+        if (!enabled || key == null) {
+            return check.exists();
+        }
+
+        warmIfDue();
+        synchronized (this) {
+            expireIfDue();
+            if (index.containsKey(key)) {
+                hits.increment();
+                return true;
+            }
+            if (warm) {
+                hits.increment();
+                return false;
+            }
+        }
+        misses.increment();
+        return check.exists();
+    }
+
+    // Only one caller scans; anyone arriving meanwhile asks the repository as before.
+    private void warmIfDue() {
+        synchronized (this) {
+            expireIfDue();
+            if (warm || clock.getAsLong() < nextWarmAtMillis) {
+                return;
+            }
+        }
+        if (!warmLock.tryLock()) {
+            return;
+        }
+
+        try {
+            long seen;
+            synchronized (this) {
+                if (warm) {
+                    return;
+                }
+                seen = generation;
+            }
+
+            List<Customer> customers = new ArrayList<>();
+            scan.forEach(customer -> {
+                if (customers.size() == maxEntries) {
+                    throw new IOException("more than " + maxEntries + " customers");
+                }
+                customers.add(customer);
+            });
+
+            synchronized (this) {
+                long now = clock.getAsLong();
+                if (generation != seen) {
+                    System.out.println("Customer cache warm-up discarded: customers changed during the scan");
+                    return;
+                }
+                clear();
+                for (Customer customer : customers) {
+                    install(customer);
+                }
+                warm = true;
+                expiresAtMillis = now + ttlMs;
+            }
+            System.out.println("Customer cache warmed with " + customers.size() + " customers");
+
+        } catch (SQLException | IOException e) {
+            System.err.println("Customer cache not warmed: " + e.getMessage());
+            synchronized (this) {
+                nextWarmAtMillis = clock.getAsLong() + ttlMs;
+            }
+        } finally {
+            warmLock.unlock();
+        }
+    }
+
+    // Called with this held.
+    private void expireIfDue() {
+        if ((warm || !byId.isEmpty()) && clock.getAsLong() >= expiresAtMillis) {
+            expirations.add(byId.size());
+            clear();
+            warm = false;
+        }
+    }
+
+    // Called with this held.
+    private void install(Customer customer) {
+        if (byId.isEmpty() && !warm) {
+            expiresAtMillis = clock.getAsLong() + ttlMs;
+        }
+        Customer cached = copy(customer);
+        String customerId = cached.getCustomerId();
+        Customer previous = byId.put(customerId, cached);
+        if (previous != null) {
+            unindex(previous);
+        }
+
+        // Aadhaar and phone are unique, so whoever held the key before is out of date.
+        String displaced = cached.getAadharNumber() == null ? null : idByAadhar.put(cached.getAadharNumber(), customerId);
+        if (displaced != null && !displaced.equals(customerId)) {
+            drop(displaced);
+        }
+        displaced = cached.getPhoneNumber() == null ? null : idByPhone.put(cached.getPhoneNumber(), customerId);
+        if (displaced != null && !displaced.equals(customerId)) {
+            drop(displaced);
+        }
+        if (cached.getEmail() != null) {
+            idsByEmail.computeIfAbsent(emailKey(cached.getEmail()), key -> new HashSet<>()).add(customerId);
+        }
+
+        if (byId.size() > maxEntries) {
+            Iterator<Customer> eldest = byId.values().iterator();
+            Customer evicted = eldest.next();
+            eldest.remove();
+            unindex(evicted);
+            evictions.increment();
+            // Once something has been evicted a miss no longer means "no such customer".
+            warm = false;
+        }
+    }
+
+    // Called with this held.
+    private void drop(String customerId) {
+        Customer removed = byId.remove(customerId);
+        if (removed != null) {
+            unindex(removed);
+        }
+    }
+
+    // Called with this held.
+    private void unindex(Customer customer) {
+        String customerId = customer.getCustomerId();
+        if (customer.getAadharNumber() != null) {
+            idByAadhar.remove(customer.getAadharNumber(), customerId);
+        }
+        if (customer.getPhoneNumber() != null) {
+            idByPhone.remove(customer.getPhoneNumber(), customerId);
+        }
+        if (customer.getEmail() != null) {
+            String key = emailKey(customer.getEmail());
+            Set<String> ids = idsByEmail.get(key);
+            if (ids != null && ids.remove(customerId) && ids.isEmpty()) {
+                idsByEmail.remove(key);
+            }
+        }
+    }
+
+    // Called with this held.
+    private void clear() {
+        byId.clear();
+        idByAadhar.clear();
+        idByPhone.clear();
+        idsByEmail.clear();
+    }
+
+    // Customer.email compares case-insensitively in MySQL.
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static Customer copy(Customer customer) {
+        return new Customer(customer.getCustomerId(), customer.getName(), customer.getPhoneNumber(),
+                customer.getEmail(), customer.getAddress(), customer.getCustomerPin(),
+                customer.getAadharNumber(), customer.getDob(), customer.getStatus());
+    }
+}
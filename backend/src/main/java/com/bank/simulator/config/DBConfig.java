@@ -1,9 +1,11 @@
 package com.bank.simulator.config;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.io.InputStream;
 import java.io.IOException;
 
@@ -11,7 +13,19 @@ public class DBConfig {
     private static final String DB_URL;
     private static final String DB_USERNAME;
     private static final String DB_PASSWORD;
-    
+    private static final Properties PROPERTIES = new Properties();
+    private static final LeakDetector LEAK_DETECTOR;
+    private static final ConnectionPool PRIMARY_POOL;
+    private static final ConnectionPool REPLICA_POOL;
+    private static final ScheduledExecutorService REPLICA_HEALTH_CHECKER;
+    private static final long READ_YOUR_WRITES_WINDOW_MS;
+    // The last committed write of the client this thread serves. ReadYourWritesFilter sets it
+    // from what the client sent when a request starts, and a write committed on this thread
+    // moves it to now.
+    private static final ThreadLocal<Long> LAST_WRITE_MILLIS = new ThreadLocal<>();
+    private static final boolean IN_MEMORY_STORAGE;
+    private static volatile boolean replicaHealthy;
+
     static {
         try {
             Class.forName("com.mysql.cj.jdbc.Driver");
@@ -20,11 +34,10 @@ public class DBConfig {
             System.err.println("MySQL JDBC Driver not found in DBConfig!");
             e.printStackTrace();
         }
-        
-        Properties props = new Properties();
+
         try (InputStream input = DBConfig.class.getClassLoader().getResourceAsStream("application.properties")) {
             if (input != null) {
-                props.load(input);
+                PROPERTIES.load(input);
                 System.out.println("Loaded database configuration from application.properties");
             } else {
                 System.err.println("application.properties not found!");
@@ -32,22 +45,184 @@ public class DBConfig {
         } catch (IOException e) {
             System.err.println("Could not load application.properties: " + e.getMessage());
         }
-        
-       
-        DB_URL = props.getProperty("db.url", "jdbc:mysql://localhost:3306/bank_simulation?useSSL=false&serverTimezone=UTC");
-        DB_USERNAME = props.getProperty("db.username", "root");
-        DB_PASSWORD = props.getProperty("db.password", "");  
-        
+
+
+        DB_URL = PROPERTIES.getProperty("db.url", "jdbc:mysql://localhost:3306/bank_simulation?useSSL=false&serverTimezone=UTC&rewriteBatchedStatements=true");
+        DB_USERNAME = PROPERTIES.getProperty("db.username", "root");
+        DB_PASSWORD = PROPERTIES.getProperty("db.password", "");
+
         if (DB_PASSWORD.isEmpty()) {
             System.err.println("WARNING: Database password not found in application.properties!");
         }
+
+        LEAK_DETECTOR = new LeakDetector(PROPERTIES);
+        READ_YOUR_WRITES_WINDOW_MS = Long.parseLong(PROPERTIES.getProperty("db.read.your.writes.window.ms", "2000").trim());
+
+        String storageEngine = PROPERTIES.getProperty("storage.engine", "mysql").trim().toLowerCase();
+        if (!storageEngine.equals("mysql") && !storageEngine.equals("memory")) {
+            System.err.println("Unknown storage.engine '" + storageEngine + "'. Falling back to mysql.");
+        }
+        IN_MEMORY_STORAGE = storageEngine.equals("memory");
+
+        PRIMARY_POOL = IN_MEMORY_STORAGE ? null
+                : new ConnectionPool("primary", DB_URL, DB_USERNAME, DB_PASSWORD, PROPERTIES, "db.pool.", LEAK_DETECTOR);
+        if (PRIMARY_POOL != null) {
+            PRIMARY_POOL.onCommittedWrite(() -> LAST_WRITE_MILLIS.set(System.currentTimeMillis()));
+        }
+
+        String replicaUrl = PROPERTIES.getProperty("db.replica.url", "").trim();
+        if (IN_MEMORY_STORAGE) {
+            REPLICA_POOL = null;
+            REPLICA_HEALTH_CHECKER = null;
+            System.out.println("In-memory storage engine selected. Database connection pools are not started.");
+        } else if (replicaUrl.isEmpty()) {
+            REPLICA_POOL = null;
+            REPLICA_HEALTH_CHECKER = null;
+            System.out.println("No read replica configured. All reads use the primary database.");
+        } else {
+            // The shipped properties list these keys with no value; blank means "same as primary".
+            String replicaUsername = nonBlankProperty("db.replica.username", DB_USERNAME);
+            String replicaPassword = nonBlankProperty("db.replica.password", DB_PASSWORD);
+            REPLICA_POOL = new ConnectionPool("replica", replicaUrl, replicaUsername, replicaPassword,
+                    PROPERTIES, "db.replica.pool.", LEAK_DETECTOR);
+
+            long healthCheckIntervalMs = Long.parseLong(
+                    PROPERTIES.getProperty("db.replica.health.check.interval.ms", "10000").trim());
+            REPLICA_HEALTH_CHECKER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "db-replica-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            REPLICA_HEALTH_CHECKER.scheduleWithFixedDelay(DBConfig::checkReplicaHealth,
+                    0, healthCheckIntervalMs, TimeUnit.MILLISECONDS);
+            System.out.println("Read replica configured: " + replicaUrl);
+        }
     }
 
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD);
+        return getWriteConnection();
+    }
+
+    public static Connection getWriteConnection() throws SQLException {
+        requireDatabaseStorage();
+        return PRIMARY_POOL.getConnection();
+    }
+
+    public static Connection getReadConnection() throws SQLException {
+        requireDatabaseStorage();
+        if (REPLICA_POOL == null || !readsFromReplica(replicaHealthy, LAST_WRITE_MILLIS.get(),
+                System.currentTimeMillis(), READ_YOUR_WRITES_WINDOW_MS)) {
+            return PRIMARY_POOL.getConnection();
+        }
+
+        try {
+            Connection conn = REPLICA_POOL.getConnection();
+            conn.setReadOnly(true);
+            return conn;
+        } catch (SQLException e) {
+            markReplicaHealth(false, e.getMessage());
+            return PRIMARY_POOL.getConnection();
+        }
+    }
+
+    private static void requireDatabaseStorage() throws SQLException {
+        if (IN_MEMORY_STORAGE) {
+            throw new SQLException("Database connections are not available when storage.engine=memory");
+        }
+    }
+
+    public static Long getLastWriteMillis() {
+        return LAST_WRITE_MILLIS.get();
+    }
+
+    public static void setLastWriteMillis(Long lastWriteMillis) {
+        if (lastWriteMillis == null) {
+            LAST_WRITE_MILLIS.remove();
+        } else {
+            LAST_WRITE_MILLIS.set(lastWriteMillis);
+        }
+    }
+
+    public static long getReadYourWritesWindowMs() {
+        return READ_YOUR_WRITES_WINDOW_MS;
+    }
+
+    // A client that wrote within the window keeps reading from the primary, so it sees its
+    // own writes even while the replica lags.
+    static boolean readsFromReplica(boolean replicaHealthy, Long lastWriteMillis, long nowMillis, long windowMs) {
+        return replicaHealthy && (lastWriteMillis == null || nowMillis - lastWriteMillis >= windowMs);
+    }
+
+    private static void checkReplicaHealth() {
+        try (Connection conn = REPLICA_POOL.getConnection()) {
+            markReplicaHealth(conn.isValid(2), "validation failed");
+        } catch (SQLException e) {
+            markReplicaHealth(false, e.getMessage());
+        }
+    }
+
+    private static void markReplicaHealth(boolean healthy, String reason) {
+        if (replicaHealthy != healthy) {
+            if (healthy) {
+                System.out.println("Read replica is healthy. Routing admin reads to the replica.");
+            } else {
+                System.err.println("Read replica is unhealthy (" + reason + "). Falling back to the primary database.");
+            }
+        }
+        replicaHealthy = healthy;
+    }
+
+    public static boolean isInMemoryStorage() {
+        return IN_MEMORY_STORAGE;
+    }
+
+    public static PoolStats getPoolStats() {
+        return PRIMARY_POOL != null ? PRIMARY_POOL.getStats() : null;
+    }
+
+    public static PoolStats getReplicaPoolStats() {
+        return REPLICA_POOL != null ? REPLICA_POOL.getStats() : null;
+    }
+
+    public static boolean isReplicaConfigured() {
+        return REPLICA_POOL != null;
+    }
+
+    public static boolean isReplicaHealthy() {
+        return REPLICA_POOL != null && replicaHealthy;
+    }
+
+    public static LeakDetector getLeakDetector() {
+        return LEAK_DETECTOR;
+    }
+
+    public static String getProperty(String key, String defaultValue) {
+        return PROPERTIES.getProperty(key, defaultValue);
+    }
+
+    static String nonBlankProperty(Properties properties, String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    private static String nonBlankProperty(String key, String defaultValue) {
+        return nonBlankProperty(PROPERTIES, key, defaultValue);
+    }
+
+    public static void shutdown() {
+        if (PRIMARY_POOL != null) {
+            System.out.println("Final pool statistics: " + PRIMARY_POOL.getStats());
+            PRIMARY_POOL.shutdown();
+        }
+        if (REPLICA_POOL != null) {
+            System.out.println("Final replica pool statistics: " + REPLICA_POOL.getStats());
+            REPLICA_HEALTH_CHECKER.shutdownNow();
+            REPLICA_POOL.shutdown();
+        }
+        LEAK_DETECTOR.shutdown();
     }
 
-    public static void testConnection() throws SQLException {   
+    public static void testConnection() throws SQLException {
         try (Connection conn = getConnection()) {
             System.out.println("Database connection successful!");
         }
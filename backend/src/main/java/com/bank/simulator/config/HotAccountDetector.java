@@ -0,0 +1,134 @@
+package com.bank.simulator.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// Spots receiver accounts that take more than transfer.hot.account.credits.per.second credits.
+// Credits to a hot account go to one of transfer.hot.account.slots sub-balance rows instead of
+// the Account row, so they no longer queue behind each other; the account stays hot until its
+// rate has stayed below the threshold for transfer.hot.account.hold.ms.
+public class HotAccountDetector {
+
+    private static final long WINDOW_MS = 1000;
+
+    private final boolean enabled;
+    private final int slots;
+    private final int creditsPerSecond;
+    private final long holdMs;
+    private final int maxTrackedAccounts;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, CreditRate> accounts = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+
+    private static final class Holder {
+        static final HotAccountDetector INSTANCE = new HotAccountDetector(
+                Boolean.parseBoolean(DBConfig.getProperty("transfer.hot.account.enabled", "false").trim()),
+                Integer.parseInt(DBConfig.getProperty("transfer.hot.account.slots", "16").trim()),
+                Integer.parseInt(DBConfig.getProperty("transfer.hot.account.credits.per.second", "200").trim()),
+                Long.parseLong(DBConfig.getProperty("transfer.hot.account.hold.ms", "60000").trim()),
+                Integer.parseInt(DBConfig.getProperty("transfer.hot.account.tracked.accounts", "10000").trim()),
+                System::currentTimeMillis);
+    }
+
+    private static final class CreditRate {
+        long windowStartMillis;
+        int credits;
+        long hotUntilMillis;
+
+        CreditRate(long now) {
+            this.windowStartMillis = now;
+        }
+
+        synchronized boolean record(long now, int threshold, long holdMs) {
+            if (now - windowStartMillis >= WINDOW_MS) {
+                windowStartMillis = now;
+                credits = 0;
+            }
+            if (++credits >= threshold) {
+                hotUntilMillis = now + holdMs;
+            }
+            return hotUntilMillis > now;
+        }
+
+        synchronized boolean isHot(long now) {
+            return hotUntilMillis > now;
+        }
+
+        synchronized boolean isIdle(long now) {
+            return hotUntilMillis <= now && now - windowStartMillis >= WINDOW_MS;
+        }
+    }
+
+    HotAccountDetector(boolean enabled, int slots, int creditsPerSecond, long holdMs, int maxTrackedAccounts,
+                       LongSupplier clock) {
+        this.enabled = enabled;
+        this.slots = slots;
+        this.creditsPerSecond = creditsPerSecond;
+        this.holdMs = holdMs;
+        this.maxTrackedAccounts = maxTrackedAccounts;
+        this.clock = clock;
+    }
+
+    public static HotAccountDetector getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    // Called once per transfer with its receiver; returns whether the account is hot now.
+    public boolean recordCredit(String accountNumber) {
+        if (!enabled || accountNumber == null) {
+            return false;
+        }
+        long now = clock.getAsLong();
+        CreditRate rate = accounts.get(accountNumber);
+        if (rate == null) {
+            if (accounts.size() >= maxTrackedAccounts && !evictIdle(now)) {
+                return false;
+            }
+            rate = accounts.computeIfAbsent(accountNumber, key -> new CreditRate(now));
+        }
+        return rate.record(now, creditsPerSecond, holdMs);
+    }
+
+    public boolean isHot(String accountNumber) {
+        if (!enabled || accountNumber == null) {
+            return false;
+        }
+        CreditRate rate = accounts.get(accountNumber);
+        return rate != null && rate.isHot(clock.getAsLong());
+    }
+
+    // Round-robin, so concurrent credits to one account land on different rows.
+    public int nextSlot() {
+        return Math.floorMod(nextSlot.getAndIncrement(), slots);
+    }
+
+    public List<String> getHotAccounts() {
+        long now = clock.getAsLong();
+        List<String> hot = new ArrayList<>();
+        for (Map.Entry<String, CreditRate> entry : accounts.entrySet()) {
+            if (entry.getValue().isHot(now)) {
+                hot.add(entry.getKey());
+            }
+        }
+        Collections.sort(hot);
+        return hot;
+    }
+
+    private boolean evictIdle(long now) {
+        accounts.entrySet().removeIf(entry -> entry.getValue().isIdle(now));
+        return accounts.size() < maxTrackedAccounts;
+    }
+}
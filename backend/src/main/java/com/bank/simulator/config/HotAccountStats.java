@@ -0,0 +1,30 @@
+package com.bank.simulator.config;
+
+public class HotAccountStats {
+    private String accountNumber;
+    private int waiting;
+    private long contendedAcquisitions;
+    private double meanWaitMillis;
+    private double maxWaitMillis;
+    private double totalWaitMillis;
+
+    public HotAccountStats() {}
+
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+
+    public int getWaiting() { return waiting; }
+    public void setWaiting(int waiting) { this.waiting = waiting; }
+
+    public long getContendedAcquisitions() { return contendedAcquisitions; }
+    public void setContendedAcquisitions(long contendedAcquisitions) { this.contendedAcquisitions = contendedAcquisitions; }
+
+    public double getMeanWaitMillis() { return meanWaitMillis; }
+    public void setMeanWaitMillis(double meanWaitMillis) { this.meanWaitMillis = meanWaitMillis; }
+
+    public double getMaxWaitMillis() { return maxWaitMillis; }
+    public void setMaxWaitMillis(double maxWaitMillis) { this.maxWaitMillis = maxWaitMillis; }
+
+    public double getTotalWaitMillis() { return totalWaitMillis; }
+    public void setTotalWaitMillis(double totalWaitMillis) { this.totalWaitMillis = totalWaitMillis; }
+}
@@ -0,0 +1,360 @@
+package com.bank.simulator.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LeakDetector {
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final int REPORTED_STACK_DEPTH = 12;
+
+    private final boolean enabled;
+    private final long thresholdMs;
+    private final Set<Lease> activeLeases = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, SiteCounters> sites = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper;
+
+    public LeakDetector(Properties props) {
+        this.enabled = Boolean.parseBoolean(props.getProperty("db.leak.detection.enabled", "false"));
+        this.thresholdMs = Long.parseLong(props.getProperty("db.leak.detection.threshold.ms", "10000").trim());
+        long sweepIntervalMs = Long.parseLong(props.getProperty("db.leak.detection.sweep.interval.ms", "5000").trim());
+
+        if (enabled) {
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "db-leak-detector");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.sweeper.scheduleWithFixedDelay(this::flagLongHeldConnections,
+                    sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+
+            System.out.println("=== CONNECTION LEAK DETECTION ENABLED ===");
+            System.out.println("Long-hold threshold: " + thresholdMs + " ms");
+        } else {
+            this.sweeper = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getThresholdMs() {
+        return thresholdMs;
+    }
+
+    Lease onAcquire(String poolName) {
+        if (!enabled) {
+            return null;
+        }
+        String callSite = findCallSite();
+        Lease lease = new Lease(poolName, callSite, new Throwable("Connection acquired here"));
+        activeLeases.add(lease);
+        counters(callSite).acquisitions.increment();
+        return lease;
+    }
+
+    void onRelease(Lease lease) {
+        if (lease == null) {
+            return;
+        }
+        activeLeases.remove(lease);
+
+        long heldMillis = System.currentTimeMillis() - lease.acquiredMillis;
+        SiteCounters siteCounters = counters(lease.callSite);
+        siteCounters.recordHold(heldMillis);
+        if (heldMillis > thresholdMs && !lease.flagged) {
+            lease.flagged = true;
+            siteCounters.longHolds.increment();
+        }
+
+        List<TrackedStatement> statements;
+        synchronized (lease) {
+            statements = new ArrayList<>(lease.statements);
+            lease.statements.clear();
+        }
+
+        for (TrackedStatement statement : statements) {
+            if (!statement.closed) {
+                counters(statement.callSite).unclosedStatements.increment();
+                System.err.println("LEAK: Statement created at " + statement.callSite
+                        + " was still open when its connection was returned to the pool");
+            }
+            for (TrackedResultSet resultSet : statement.resultSets) {
+                if (!resultSet.closed) {
+                    counters(resultSet.callSite).unclosedResultSets.increment();
+                }
+            }
+            if (!statement.closed) {
+                try {
+                    statement.physical.close();
+                } catch (SQLException e) {
+                    System.err.println("Error closing leaked statement: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    Object wrapStatement(Lease lease, Statement physical, Class<?> statementInterface) {
+        TrackedStatement tracked = new TrackedStatement(physical, findCallSite());
+        synchronized (lease) {
+            lease.statements.add(tracked);
+        }
+        return Proxy.newProxyInstance(
+                LeakDetector.class.getClassLoader(),
+                new Class<?>[] { statementInterface },
+                new StatementHandler(tracked));
+    }
+
+    private void flagLongHeldConnections() {
+        long now = System.currentTimeMillis();
+        for (Lease lease : activeLeases) {
+            long heldMillis = now - lease.acquiredMillis;
+            if (!lease.flagged && heldMillis > thresholdMs) {
+                lease.flagged = true;
+                counters(lease.callSite).longHolds.increment();
+
+                System.err.println("=== POSSIBLE CONNECTION LEAK ===");
+                System.err.println("Pool: " + lease.poolName);
+                System.err.println("Held for: " + heldMillis + " ms by thread " + lease.threadName);
+                System.err.println("Acquired at: " + lease.callSite);
+                lease.acquiredAt.printStackTrace();
+            }
+        }
+    }
+
+    public List<LeakSiteStats> getTopOffenders(int limit) {
+        List<LeakSiteStats> result = new ArrayList<>();
+        for (Map.Entry<String, SiteCounters> entry : sites.entrySet()) {
+            result.add(entry.getValue().toStats(entry.getKey()));
+        }
+        result.sort(Comparator.comparingLong(LeakSiteStats::getOffenceScore)
+                .thenComparingLong(LeakSiteStats::getMaxHoldMillis)
+                .reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    public List<Map<String, Object>> getLongHeldConnections() {
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> held = new ArrayList<>();
+
+        for (Lease lease : activeLeases) {
+            long heldMillis = now - lease.acquiredMillis;
+            if (heldMillis <= thresholdMs) {
+                continue;
+            }
+            List<String> frames = new ArrayList<>();
+            StackTraceElement[] stack = lease.acquiredAt.getStackTrace();
+            for (int i = 0; i < stack.length && frames.size() < REPORTED_STACK_DEPTH; i++) {
+                frames.add(stack[i].toString());
+            }
+
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("pool", lease.poolName);
+            info.put("callSite", lease.callSite);
+            info.put("thread", lease.threadName);
+            info.put("heldMillis", heldMillis);
+            info.put("acquiredAt", frames);
+            held.add(info);
+        }
+        held.sort(Comparator.comparingLong((Map<String, Object> info) -> (Long) info.get("heldMillis")).reversed());
+        return held;
+    }
+
+    public void shutdown() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    private SiteCounters counters(String callSite) {
+        return sites.computeIfAbsent(callSite, key -> new SiteCounters());
+    }
+
+    private static String findCallSite() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> !isInfrastructureFrame(frame.getClassName()))
+                .findFirst()
+                .map(frame -> frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    private static boolean isInfrastructureFrame(String className) {
+        return className.startsWith("com.bank.simulator.config.")
+                || className.startsWith("java.")
+                || className.startsWith("jdk.")
+                || className.startsWith("com.sun.")
+                || className.contains("$Proxy");
+    }
+
+    static final class Lease {
+        final String poolName;
+        final String callSite;
+        final Throwable acquiredAt;
+        final String threadName = Thread.currentThread().getName();
+        final long acquiredMillis = System.currentTimeMillis();
+        final List<TrackedStatement> statements = new ArrayList<>();
+        volatile boolean flagged;
+
+        Lease(String poolName, String callSite, Throwable acquiredAt) {
+            this.poolName = poolName;
+            this.callSite = callSite;
+            this.acquiredAt = acquiredAt;
+        }
+    }
+
+    private static final class SiteCounters {
+        final LongAdder acquisitions = new LongAdder();
+        final LongAdder longHolds = new LongAdder();
+        final LongAdder unclosedStatements = new LongAdder();
+        final LongAdder unclosedResultSets = new LongAdder();
+        final LongAdder resultSetsClosedByStatement = new LongAdder();
+        final LongAdder releases = new LongAdder();
+        final LongAdder totalHoldMillis = new LongAdder();
+        final AtomicLong maxHoldMillis = new AtomicLong();
+
+        void recordHold(long heldMillis) {
+            releases.increment();
+            totalHoldMillis.add(heldMillis);
+            maxHoldMillis.accumulateAndGet(heldMillis, Math::max);
+        }
+
+        LeakSiteStats toStats(String callSite) {
+            LeakSiteStats stats = new LeakSiteStats();
+            stats.setCallSite(callSite);
+            stats.setAcquisitions(acquisitions.sum());
+            stats.setLongHolds(longHolds.sum());
+            stats.setUnclosedStatements(unclosedStatements.sum());
+            stats.setUnclosedResultSets(unclosedResultSets.sum());
+            stats.setResultSetsClosedByStatement(resultSetsClosedByStatement.sum());
+            stats.setMaxHoldMillis(maxHoldMillis.get());
+            long released = releases.sum();
+            stats.setAverageHoldMillis(released == 0 ? 0.0 : totalHoldMillis.sum() / (double) released);
+            return stats;
+        }
+    }
+
+    private static final class TrackedStatement {
+        final Statement physical;
+        final String callSite;
+        final List<TrackedResultSet> resultSets = new ArrayList<>();
+        volatile boolean closed;
+
+        TrackedStatement(Statement physical, String callSite) {
+            this.physical = physical;
+            this.callSite = callSite;
+        }
+    }
+
+    private static final class TrackedResultSet {
+        final String callSite;
+        volatile boolean closed;
+
+        TrackedResultSet(String callSite) {
+            this.callSite = callSite;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final TrackedStatement tracked;
+
+        StatementHandler(TrackedStatement tracked) {
+            this.tracked = tracked;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if ("close".equals(name)) {
+                if (!tracked.closed) {
+                    tracked.closed = true;
+                    for (TrackedResultSet resultSet : tracked.resultSets) {
+                        if (!resultSet.closed) {
+                            resultSet.closed = true;
+                            counters(resultSet.callSite).resultSetsClosedByStatement.increment();
+                        }
+                    }
+                }
+                return invokePhysical(method, args);
+            }
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+
+            Object result = invokePhysical(method, args);
+            if (result instanceof ResultSet resultSet) {
+                TrackedResultSet trackedResultSet = new TrackedResultSet(findCallSite());
+                tracked.resultSets.add(trackedResultSet);
+                return Proxy.newProxyInstance(
+                        LeakDetector.class.getClassLoader(),
+                        new Class<?>[] { ResultSet.class },
+                        new ResultSetHandler(resultSet, trackedResultSet, proxy));
+            }
+            return result;
+        }
+
+        private Object invokePhysical(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(tracked.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet physical;
+        private final TrackedResultSet tracked;
+        private final Object statementProxy;
+
+        ResultSetHandler(ResultSet physical, TrackedResultSet tracked, Object statementProxy) {
+            this.physical = physical;
+            this.tracked = tracked;
+            this.statementProxy = statementProxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    tracked.closed = true;
+                    break;
+                case "getStatement":
+                    return statementProxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
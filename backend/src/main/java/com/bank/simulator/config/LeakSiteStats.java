@@ -0,0 +1,42 @@
+package com.bank.simulator.config;
+
+public class LeakSiteStats {
+    private String callSite;
+    private long acquisitions;
+    private long longHolds;
+    private long unclosedStatements;
+    private long unclosedResultSets;
+    private long resultSetsClosedByStatement;
+    private long maxHoldMillis;
+    private double averageHoldMillis;
+
+    public LeakSiteStats() {}
+
+    public String getCallSite() { return callSite; }
+    public void setCallSite(String callSite) { this.callSite = callSite; }
+
+    public long getAcquisitions() { return acquisitions; }
+    public void setAcquisitions(long acquisitions) { this.acquisitions = acquisitions; }
+
+    public long getLongHolds() { return longHolds; }
+    public void setLongHolds(long longHolds) { this.longHolds = longHolds; }
+
+    public long getUnclosedStatements() { return unclosedStatements; }
+    public void setUnclosedStatements(long unclosedStatements) { this.unclosedStatements = unclosedStatements; }
+
+    public long getUnclosedResultSets() { return unclosedResultSets; }
+    public void setUnclosedResultSets(long unclosedResultSets) { this.unclosedResultSets = unclosedResultSets; }
+
+    public long getResultSetsClosedByStatement() { return resultSetsClosedByStatement; }
+    public void setResultSetsClosedByStatement(long resultSetsClosedByStatement) { this.resultSetsClosedByStatement = resultSetsClosedByStatement; }
+
+    public long getMaxHoldMillis() { return maxHoldMillis; }
+    public void setMaxHoldMillis(long maxHoldMillis) { this.maxHoldMillis = maxHoldMillis; }
+
+    public double getAverageHoldMillis() { return averageHoldMillis; }
+    public void setAverageHoldMillis(double averageHoldMillis) { this.averageHoldMillis = averageHoldMillis; }
+
+    public long getOffenceScore() {
+        return longHolds + unclosedStatements + unclosedResultSets;
+    }
+}
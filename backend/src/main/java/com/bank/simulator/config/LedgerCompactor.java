@@ -0,0 +1,378 @@
+package com.bank.simulator.config;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Every Account row carries a balance snapshot: amount is the balance as of ledger entry
+// snapshot_entry_id, and the current balance is amount plus the entries after it. This job
+// folds the tail of the double-entry ledger into the snapshot so that sum stays short, and
+// merges the credit slots of hot accounts (see HotAccountDetector) back into amount.
+// Entry ids are handed out at insert, not at commit, so a transfer still open may hold a
+// lower id than one already committed. Only entries that were visible at least
+// ledger.compaction.min.age.ms ago are folded, and only once every transaction still open on
+// the server started after that point (information_schema.innodb_trx), so a transfer that
+// outlives min.age holds compaction back instead of committing below the snapshot.
+public class LedgerCompactor {
+
+    private static final String SNAPSHOT_COLUMN = "snapshot_entry_id";
+
+    private static ScheduledExecutorService scheduler;
+    private static Cutoffs cutoffs;
+    private static long compactedThrough = -1;
+
+    // Samples of MAX(entry_id) over time. Every id up to a sample was allocated before the
+    // sample was taken, so once the sample is older than min.age and than the oldest open
+    // transaction, all of those inserts have settled.
+    static final class Cutoffs {
+        private final long minAgeMs;
+        private final ArrayDeque<long[]> samples = new ArrayDeque<>();
+        private long matured;
+
+        Cutoffs(long minAgeMs) {
+            this.minAgeMs = minAgeMs;
+        }
+
+        synchronized void observe(long nowMillis, long maxEntryId) {
+            long[] last = samples.peekLast();
+            if (maxEntryId > matured && (last == null || maxEntryId > last[1])) {
+                samples.addLast(new long[] {nowMillis, maxEntryId});
+            }
+        }
+
+        synchronized long safeCutoff(long nowMillis, long oldestOpenMs) {
+            long requiredAgeMs = Math.max(minAgeMs, oldestOpenMs + 1);
+            while (!samples.isEmpty() && samples.peekFirst()[0] + requiredAgeMs <= nowMillis) {
+                matured = samples.pollFirst()[1];
+            }
+            return matured;
+        }
+    }
+
+    public static synchronized void start() {
+        boolean enabled = Boolean.parseBoolean(DBConfig.getProperty("ledger.compaction.enabled", "true").trim());
+        if (!enabled || scheduler != null) {
+            return;
+        }
+
+        long intervalMs = Long.parseLong(DBConfig.getProperty("ledger.compaction.interval.ms", "60000").trim());
+        long minAgeMs = Long.parseLong(DBConfig.getProperty("ledger.compaction.min.age.ms", "120000").trim());
+        cutoffs = new Cutoffs(minAgeMs);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(LedgerCompactor::runCompaction, 0, intervalMs, TimeUnit.MILLISECONDS);
+        System.out.println("Ledger compaction scheduled every " + intervalMs + " ms, folding entries older than "
+                + minAgeMs + " ms");
+    }
+
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private static void runCompaction() {
+        try {
+            compact();
+        } catch (SQLException e) {
+            System.err.println("Ledger compaction failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private static void compact() throws SQLException {
+        int chunkSize = Integer.parseInt(DBConfig.getProperty("ledger.compaction.chunk.size", "500").trim());
+        compactLedger(chunkSize);
+        foldSlots(chunkSize);
+    }
+
+    private static void compactLedger(int chunkSize) throws SQLException {
+        long now = System.currentTimeMillis();
+
+        List<String> accountNumbers;
+        long cutoff;
+        try (Connection conn = DBConfig.getConnection()) {
+            // An account missed by a run that failed half way is still correct, because its
+            // balance includes the tail; it is folded again the next time it takes an entry.
+            if (compactedThrough < 0) {
+                compactedThrough = queryLong(conn, "SELECT COALESCE(MAX(" + SNAPSHOT_COLUMN + "), 0) FROM Account");
+            }
+            cutoffs.observe(now, queryLong(conn, "SELECT COALESCE(MAX(entry_id), 0) FROM ledger_entry"));
+            long oldestOpenMs;
+            try {
+                oldestOpenMs = oldestOpenTransactionMillis(conn);
+            } catch (SQLException e) {
+                // Typically a missing PROCESS privilege. The balances stay correct unfolded.
+                System.err.println("Ledger entries not folded, open transactions unknown: " + e.getMessage());
+                return;
+            }
+            if (oldestOpenMs >= cutoffs.minAgeMs) {
+                System.err.println("WARNING: a transaction has been open for " + oldestOpenMs
+                        + " ms, longer than ledger.compaction.min.age.ms; ledger compaction is held back until it ends");
+            }
+            cutoff = cutoffs.safeCutoff(now, oldestOpenMs);
+            if (cutoff <= compactedThrough) {
+                return;
+            }
+            accountNumbers = accountsWithEntries(conn, compactedThrough, cutoff);
+        }
+
+        int folded = 0;
+        for (int from = 0; from < accountNumbers.size(); from += chunkSize) {
+            folded += foldChunk(accountNumbers.subList(from, Math.min(accountNumbers.size(), from + chunkSize)), cutoff);
+        }
+        compactedThrough = cutoff;
+        if (folded > 0) {
+            System.out.println("Ledger compaction folded entries up to " + cutoff + " into " + folded + " account snapshot(s)");
+        }
+    }
+
+    private static void foldSlots(int chunkSize) throws SQLException {
+        List<String> accountNumbers;
+        try (Connection conn = DBConfig.getConnection()) {
+            accountNumbers = queryAccountNumbers(conn, "SELECT DISTINCT a.account_number FROM account_balance_slot s " +
+                                                      "JOIN Account a ON a.account_id = s.account_id");
+        }
+
+        int folded = 0;
+        for (int from = 0; from < accountNumbers.size(); from += chunkSize) {
+            folded += foldSlotChunk(accountNumbers.subList(from, Math.min(accountNumbers.size(), from + chunkSize)));
+        }
+        if (folded > 0) {
+            System.out.println("Ledger compaction merged the balance slots of " + folded + " account(s)");
+        }
+    }
+
+    private static List<String> accountsWithEntries(Connection conn, long afterEntryId, long throughEntryId)
+            throws SQLException {
+        String query = "SELECT DISTINCT a.account_number FROM ledger_entry e " +
+                      "JOIN Account a ON a.account_id = e.account_id " +
+                      "WHERE e.entry_id > ? AND e.entry_id <= ?";
+
+        return queryAccountNumbers(conn, query, afterEntryId, throughEntryId);
+    }
+
+    private static List<String> queryAccountNumbers(Connection conn, String query, long... values) throws SQLException {
+        TreeSet<String> accountNumbers = new TreeSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            for (int i = 0; i < values.length; i++) {
+                stmt.setLong(i + 1, values[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    accountNumbers.add(rs.getString(1));
+                }
+            }
+        }
+        return new ArrayList<>(accountNumbers);
+    }
+
+    // Locks the chunk in account_number order like every transfer path, sums each account's
+    // entries between its own snapshot and the cutoff, and moves them into amount.
+    private static int foldChunk(List<String> sortedAccountNumbers, long cutoff) throws SQLException {
+        try (Connection conn = DBConfig.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                Map<String, Long> snapshots = new LinkedHashMap<>();
+                for (Map.Entry<String, Long> locked : lockAccounts(conn, sortedAccountNumbers).entrySet()) {
+                    if (locked.getValue() < cutoff) {
+                        snapshots.put(locked.getKey(), locked.getValue());
+                    }
+                }
+
+                if (snapshots.isEmpty()) {
+                    conn.rollback();
+                    return 0;
+                }
+
+                StringBuilder sumQuery = new StringBuilder("SELECT account_id, SUM(amount) FROM ledger_entry WHERE entry_id <= ? AND (");
+                for (int i = 0; i < snapshots.size(); i++) {
+                    sumQuery.append(i == 0 ? "" : " OR ").append("(account_id = ? AND entry_id > ?)");
+                }
+                sumQuery.append(") GROUP BY account_id");
+
+                Map<String, BigDecimal> deltas = new HashMap<>();
+                try (PreparedStatement stmt = conn.prepareStatement(sumQuery.toString())) {
+                    int index = 1;
+                    stmt.setLong(index++, cutoff);
+                    for (Map.Entry<String, Long> snapshot : snapshots.entrySet()) {
+                        stmt.setString(index++, snapshot.getKey());
+                        stmt.setLong(index++, snapshot.getValue());
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            deltas.put(rs.getString(1), rs.getBigDecimal(2));
+                        }
+                    }
+                }
+
+                String foldQuery = "UPDATE Account SET amount = amount + ?, " + SNAPSHOT_COLUMN + " = ? WHERE account_id = ?";
+                try (PreparedStatement stmt = conn.prepareStatement(foldQuery)) {
+                    for (String accountId : snapshots.keySet()) {
+                        stmt.setBigDecimal(1, deltas.getOrDefault(accountId, BigDecimal.ZERO));
+                        stmt.setLong(2, cutoff);
+                        stmt.setString(3, accountId);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+
+                conn.commit();
+                return snapshots.size();
+
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    System.err.println("Rollback failed: " + rollbackEx.getMessage());
+                }
+                throw e;
+            }
+        }
+    }
+
+    // Credits into the slots lock only the slot row, so the slots are locked here too, after
+    // the Account rows, and emptied in the same commit that adds them to amount.
+    private static int foldSlotChunk(List<String> sortedAccountNumbers) throws SQLException {
+        try (Connection conn = DBConfig.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                List<String> accountIds = new ArrayList<>(lockAccounts(conn, sortedAccountNumbers).keySet());
+                if (accountIds.isEmpty()) {
+                    conn.rollback();
+                    return 0;
+                }
+
+                String sumQuery = "SELECT account_id, SUM(amount) FROM account_balance_slot " +
+                                 "WHERE account_id IN (" + placeholders(accountIds.size()) + ") GROUP BY account_id FOR UPDATE";
+
+                Map<String, BigDecimal> sums = new LinkedHashMap<>();
+                try (PreparedStatement stmt = conn.prepareStatement(sumQuery)) {
+                    for (int i = 0; i < accountIds.size(); i++) {
+                        stmt.setString(i + 1, accountIds.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            sums.put(rs.getString(1), rs.getBigDecimal(2));
+                        }
+                    }
+                }
+
+                if (sums.isEmpty()) {
+                    conn.rollback();
+                    return 0;
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement("UPDATE Account SET amount = amount + ? WHERE account_id = ?")) {
+                    for (Map.Entry<String, BigDecimal> sum : sums.entrySet()) {
+                        stmt.setBigDecimal(1, sum.getValue());
+                        stmt.setString(2, sum.getKey());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+
+                String clearQuery = "DELETE FROM account_balance_slot WHERE account_id IN (" + placeholders(sums.size()) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(clearQuery)) {
+                    int index = 1;
+                    for (String accountId : sums.keySet()) {
+                        stmt.setString(index++, accountId);
+                    }
+                    stmt.executeUpdate();
+                }
+
+                conn.commit();
+                return sums.size();
+
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    System.err.println("Rollback failed: " + rollbackEx.getMessage());
+                }
+                throw e;
+            }
+        }
+    }
+
+    // Same order as every transfer path: account_number, through its unique index.
+    private static Map<String, Long> lockAccounts(Connection conn, List<String> sortedAccountNumbers) throws SQLException {
+        Map<String, Long> snapshots = new LinkedHashMap<>();
+        String lockQuery = "SELECT account_id, " + SNAPSHOT_COLUMN + " FROM Account " +
+                          "WHERE account_number IN (" + placeholders(sortedAccountNumbers.size()) + ") " +
+                          "ORDER BY account_number FOR UPDATE";
+
+        try (PreparedStatement stmt = conn.prepareStatement(lockQuery)) {
+            for (int i = 0; i < sortedAccountNumbers.size(); i++) {
+                stmt.setString(i + 1, sortedAccountNumbers.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    snapshots.put(rs.getString(1), rs.getLong(2));
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    static void addSnapshotColumn(Connection conn) throws SQLException {
+        String query = "SELECT COUNT(*) FROM information_schema.columns " +
+                      "WHERE table_schema = DATABASE() AND table_name = 'Account' AND column_name = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, SNAPSHOT_COLUMN);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    System.out.println("  Account." + SNAPSHOT_COLUMN + " already exists, skipping");
+                    return;
+                }
+            }
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE Account ADD COLUMN " + SNAPSHOT_COLUMN + " BIGINT NOT NULL DEFAULT 0");
+        }
+        System.out.println("  Added Account." + SNAPSHOT_COLUMN);
+    }
+
+    // Age of the oldest transaction open on the server other than this connection; trx_started
+    // has whole seconds, so this errs on the old side.
+    private static long oldestOpenTransactionMillis(Connection conn) throws SQLException {
+        return queryLong(conn, "SELECT COALESCE(MAX(TIMESTAMPDIFF(MICROSECOND, trx_started, NOW(6))), 0) DIV 1000 " +
+                               "FROM information_schema.innodb_trx WHERE trx_mysql_thread_id <> CONNECTION_ID()");
+    }
+
+    private static long queryLong(Connection conn, String query) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sql = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package com.bank.simulator.config;
+
+public class PoolStats {
+    private String poolName;
+    private int minSize;
+    private int maxSize;
+    private int totalConnections;
+    private int activeConnections;
+    private int idleConnections;
+    private int waitingThreads;
+    private long acquireCount;
+    private long acquireTimeouts;
+    private double averageAcquireMillis;
+    private long connectionsCreated;
+    private long connectionsClosed;
+    private long statementCacheHits;
+    private long statementCacheMisses;
+    private long statementCacheEvictions;
+    private double statementCacheHitRatio;
+
+    public PoolStats() {}
+
+    public String getPoolName() { return poolName; }
+    public void setPoolName(String poolName) { this.poolName = poolName; }
+
+    public int getMinSize() { return minSize; }
+    public void setMinSize(int minSize) { this.minSize = minSize; }
+
+    public int getMaxSize() { return maxSize; }
+    public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+
+    public int getTotalConnections() { return totalConnections; }
+    public void setTotalConnections(int totalConnections) { this.totalConnections = totalConnections; }
+
+    public int getActiveConnections() { return activeConnections; }
+    public void setActiveConnections(int activeConnections) { this.activeConnections = activeConnections; }
+
+    public int getIdleConnections() { return idleConnections; }
+    public void setIdleConnections(int idleConnections) { this.idleConnections = idleConnections; }
+
+    public int getWaitingThreads() { return waitingThreads; }
+    public void setWaitingThreads(int waitingThreads) { this.waitingThreads = waitingThreads; }
+
+    public long getAcquireCount() { return acquireCount; }
+    public void setAcquireCount(long acquireCount) { this.acquireCount = acquireCount; }
+
+    public long getAcquireTimeouts() { return acquireTimeouts; }
+    public void setAcquireTimeouts(long acquireTimeouts) { this.acquireTimeouts = acquireTimeouts; }
+
+    public double getAverageAcquireMillis() { return averageAcquireMillis; }
+    public void setAverageAcquireMillis(double averageAcquireMillis) { this.averageAcquireMillis = averageAcquireMillis; }
+
+    public long getConnectionsCreated() { return connectionsCreated; }
+    public void setConnectionsCreated(long connectionsCreated) { this.connectionsCreated = connectionsCreated; }
+
+    public long getConnectionsClosed() { return connectionsClosed; }
+    public void setConnectionsClosed(long connectionsClosed) { this.connectionsClosed = connectionsClosed; }
+
+    public long getStatementCacheHits() { return statementCacheHits; }
+    public void setStatementCacheHits(long statementCacheHits) { this.statementCacheHits = statementCacheHits; }
+
+    public long getStatementCacheMisses() { return statementCacheMisses; }
+    public void setStatementCacheMisses(long statementCacheMisses) { this.statementCacheMisses = statementCacheMisses; }
+
+    public long getStatementCacheEvictions() { return statementCacheEvictions; }
+    public void setStatementCacheEvictions(long statementCacheEvictions) { this.statementCacheEvictions = statementCacheEvictions; }
+
+    public double getStatementCacheHitRatio() { return statementCacheHitRatio; }
+    public void setStatementCacheHitRatio(double statementCacheHitRatio) { this.statementCacheHitRatio = statementCacheHitRatio; }
+
+    @Override
+    public String toString() {
+        return "PoolStats{" +
+                "poolName='" + poolName + '\'' +
+                ", total=" + totalConnections +
+                ", active=" + activeConnections +
+                ", idle=" + idleConnections +
+                ", waiting=" + waitingThreads +
+                ", acquireCount=" + acquireCount +
+                ", acquireTimeouts=" + acquireTimeouts +
+                ", averageAcquireMillis=" + averageAcquireMillis +
+                ", statementCacheHits=" + statementCacheHits +
+                ", statementCacheMisses=" + statementCacheMisses +
+                '}';
+    }
+}
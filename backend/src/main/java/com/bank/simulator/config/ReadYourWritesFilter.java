@@ -0,0 +1,72 @@
+package com.bank.simulator.config;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.Cookie;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.NewCookie;
+import jakarta.ws.rs.ext.Provider;
+import java.io.IOException;
+
+// Read-your-writes routing in DBConfig follows the client, not the pooled request thread. A
+// response to a request that committed a write carries the time of that write, as a cookie
+// and as the X-Last-Write header; a later request that sends either back reads from the
+// primary until the window has passed, whichever node serves it.
+@Provider
+public class ReadYourWritesFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    static final String COOKIE = "last_write";
+    static final String HEADER = "X-Last-Write";
+    private static final String SENT_PROPERTY = ReadYourWritesFilter.class.getName() + ".sent";
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        Cookie cookie = requestContext.getCookies().get(COOKIE);
+        Long sent = lastWriteMillis(requestContext.getHeaderString(HEADER), cookie != null ? cookie.getValue() : null);
+        DBConfig.setLastWriteMillis(sent);
+        if (sent != null) {
+            requestContext.setProperty(SENT_PROPERTY, sent);
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
+        Long lastWrite = DBConfig.getLastWriteMillis();
+        DBConfig.setLastWriteMillis(null);
+        if (lastWrite == null || lastWrite.equals(requestContext.getProperty(SENT_PROPERTY))) {
+            return;
+        }
+
+        responseContext.getHeaders().add(HEADER, String.valueOf(lastWrite));
+        NewCookie cookie = new NewCookie.Builder(COOKIE)
+                .value(String.valueOf(lastWrite))
+                .path("/")
+                .maxAge((int) Math.max(1, (DBConfig.getReadYourWritesWindowMs() + 999) / 1000))
+                .httpOnly(true)
+                .build();
+        responseContext.getHeaders().add(HttpHeaders.SET_COOKIE, cookie);
+    }
+
+    // The later of the two when both are sent; anything that is not a timestamp is ignored.
+    static Long lastWriteMillis(String header, String cookie) {
+        Long fromHeader = parse(header);
+        Long fromCookie = parse(cookie);
+        if (fromHeader == null || fromCookie == null) {
+            return fromHeader != null ? fromHeader : fromCookie;
+        }
+        return Math.max(fromHeader, fromCookie);
+    }
+
+    private static Long parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.bank.simulator.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+
+final class SchemaMigration {
+
+    interface Action {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    // MySQL DDL commits implicitly, so a migration cannot be rolled back as a unit.
+    // Every step must be safe to run again after a partial failure: tables use
+    // IF NOT EXISTS, index steps are skipped when the index is already present and
+    // actions check the current schema before changing it.
+    static final class Step {
+        final String sql;
+        final String table;
+        final String indexName;
+        final Action action;
+
+        private Step(String sql, String table, String indexName, Action action) {
+            this.sql = sql;
+            this.table = table;
+            this.indexName = indexName;
+            this.action = action;
+        }
+
+        boolean isIndex() {
+            return indexName != null;
+        }
+
+        boolean isAction() {
+            return action != null;
+        }
+    }
+
+    private final int version;
+    private final String description;
+    private final List<Step> steps = new ArrayList<>();
+
+    SchemaMigration(int version, String description) {
+        this.version = version;
+        this.description = description;
+    }
+
+    SchemaMigration sql(String sql) {
+        steps.add(new Step(sql.strip(), null, null, null));
+        return this;
+    }
+
+    SchemaMigration index(String table, String indexName, String... columns) {
+        String sql = "CREATE INDEX " + indexName + " ON " + table + " (" + String.join(", ", columns) + ")";
+        steps.add(new Step(sql, table, indexName, null));
+        return this;
+    }
+
+    // For DDL that depends on the live schema or the current date. The description
+    // stands in for the SQL in the checksum, so change it whenever the action changes.
+    SchemaMigration action(String description, Action action) {
+        steps.add(new Step("ACTION " + description, null, null, action));
+        return this;
+    }
+
+    int getVersion() { return version; }
+    String getDescription() { return description; }
+    List<Step> getSteps() { return Collections.unmodifiableList(steps); }
+
+    String checksum() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Step step : steps) {
+                digest.update(step.sql.replaceAll("\\s+", " ").getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) ';');
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.bank.simulator.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SchemaMigrator {
+
+    private static final String MIGRATIONS_TABLE = "schema_migrations";
+    private static final String MIGRATION_LOCK = "bank_simulation.schema_migrations";
+
+    // Append only. Never edit a migration that has shipped: the checksum check will refuse
+    // to start against a database that applied a different version of it.
+    static final List<SchemaMigration> MIGRATIONS = List.of(
+        new SchemaMigration(1, "baseline tables")
+            .sql("""
+                CREATE TABLE IF NOT EXISTS User (
+                    id VARCHAR(50) PRIMARY KEY,
+                    full_name VARCHAR(100) NOT NULL,
+                    email VARCHAR(100) NOT NULL UNIQUE,
+                    password VARCHAR(255) NOT NULL,
+                    active BOOLEAN DEFAULT TRUE,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+                )
+            """)
+            .sql("""
+                CREATE TABLE IF NOT EXISTS Customer (
+                    customer_id VARCHAR(50) PRIMARY KEY,
+                    name VARCHAR(100) NOT NULL,
+                    phone_number VARCHAR(10) NOT NULL UNIQUE,
+                    email VARCHAR(100) NOT NULL,
+                    address TEXT NOT NULL,
+                    customer_pin VARCHAR(6) NOT NULL,
+                    aadhar_number VARCHAR(12) NOT NULL UNIQUE,
+                    dob DATE NOT NULL,
+                    status VARCHAR(20) DEFAULT 'Inactive'
+                )
+            """)
+            .sql("""
+                CREATE TABLE IF NOT EXISTS Account (
+                    account_id VARCHAR(50) PRIMARY KEY,
+                    customer_id VARCHAR(50) NOT NULL,
+                    account_number VARCHAR(30) NOT NULL UNIQUE,
+                    aadhar_number VARCHAR(12) NOT NULL,
+                    ifsc_code VARCHAR(11) NOT NULL,
+                    phone_number_linked VARCHAR(10) NOT NULL,
+                    amount DECIMAL(15,2) DEFAULT 600.00,
+                    bank_name VARCHAR(100) NOT NULL,
+                    name_on_account VARCHAR(100) NOT NULL,
+                    status VARCHAR(20) DEFAULT 'ACTIVE',
+                    created TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    modified TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                    FOREIGN KEY (customer_id) REFERENCES Customer(customer_id) ON DELETE CASCADE
+                )
+            """)
+            .sql("""
+                CREATE TABLE IF NOT EXISTS Transaction (
+                    transaction_id VARCHAR(50) PRIMARY KEY,
+                    account_id VARCHAR(50) NOT NULL,
+                    sender_account_number VARCHAR(30) NOT NULL,
+                    receiver_account_number VARCHAR(30) NOT NULL,
+                    amount DECIMAL(15,2) NOT NULL,
+                    transaction_type ENUM('ONLINE') NOT NULL DEFAULT 'ONLINE',
+                    description TEXT,
+                    created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    FOREIGN KEY (account_id) REFERENCES Account(account_id) ON DELETE CASCADE
+                )
+            """),
+
+        // Transaction history is "sender = ? OR receiver = ? ORDER BY created_date DESC";
+        // one (number, created_date) index per side lets MySQL index-merge both branches.
+        // Customer email backs isCustomerExistsByEmail and the email uniqueness checks.
+        new SchemaMigration(2, "hot path lookup indexes")
+            .index("Transaction", "idx_transaction_sender_created", "sender_account_number", "created_date")
+            .index("Transaction", "idx_transaction_receiver_created", "receiver_account_number", "created_date")
+            .index("Customer", "idx_customer_email", "email"),
+
+        // MySQL cannot partition a table that has foreign keys, and every unique key must
+        // contain the partitioning column. The Transaction -> Account cascade therefore
+        // moves into the repositories, and transaction_id uniqueness now rests on the
+        // generator rather than the primary key alone. The index MySQL created for the
+        // old foreign key stays in place and still serves the account_id deletes.
+        new SchemaMigration(3, "partition Transaction by month of created_date")
+            .action("drop Transaction foreign keys", TransactionPartitionMaintainer::dropForeignKeys)
+            .sql("""
+                ALTER TABLE Transaction
+                    MODIFY created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    DROP PRIMARY KEY,
+                    ADD PRIMARY KEY (transaction_id, created_date)
+            """)
+            .action("partition Transaction by RANGE(UNIX_TIMESTAMP(created_date)) monthly",
+                    TransactionPartitionMaintainer::partitionTable),
+
+        // Block-allocated ID sequences. Rows are seeded lazily from the existing IDs the
+        // first time each prefix is used, so this only needs the empty table.
+        new SchemaMigration(4, "id sequence table")
+            .sql("""
+                CREATE TABLE IF NOT EXISTS id_sequence (
+                    sequence_name VARCHAR(50) PRIMARY KEY,
+                    next_value BIGINT NOT NULL,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+                )
+            """),
+
+        // Idempotency keys of createTransaction. A partitioned Transaction table cannot carry a
+        // unique key without created_date, so the keys live in their own table and are
+        // inserted in the same commit as the transfer they belong to.
+        new SchemaMigration(5, "idempotency key table")
+            .sql("""
+                CREATE TABLE IF NOT EXISTS idempotency_key (
+                    idempotency_key VARCHAR(100) PRIMARY KEY,
+                    request_hash CHAR(64) NOT NULL,
+                    transaction_id VARCHAR(50) NOT NULL,
+                    created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+                )
+            """),
+
+        // Append-only double-entry ledger: every transfer is one negative entry on the sender
+        // and one positive entry on the receiver. Account.amount becomes the balance snapshot
+        // as of snapshot_entry_id; LedgerCompactor moves older entries into it. Entries are
+        // keyed by account_id because an account number can be edited.
+        new SchemaMigration(6, "double-entry ledger and account balance snapshots")
+            .sql("""
+                CREATE TABLE IF NOT EXISTS ledger_entry (
+                    entry_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    transaction_id VARCHAR(50) NOT NULL,
+                    account_id VARCHAR(50) NOT NULL,
+                    amount DECIMAL(15,2) NOT NULL,
+                    created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    INDEX idx_ledger_entry_account (account_id, entry_id)
+                )
+            """)
+            .action("add Account.snapshot_entry_id BIGINT NOT NULL DEFAULT 0", LedgerCompactor::addSnapshotColumn),
+
+        // Sub-balances of hot receiver accounts. Credits to such an account are spread over
+        // several rows here instead of all updating its Account row; reads add them up and
+        // LedgerCompactor folds them back into Account.amount.
+        new SchemaMigration(7, "account balance slots")
+            .sql("""
+                CREATE TABLE IF NOT EXISTS account_balance_slot (
+                    account_id VARCHAR(50) NOT NULL,
+                    slot INT NOT NULL,
+                    amount DECIMAL(15,2) NOT NULL DEFAULT 0,
+                    PRIMARY KEY (account_id, slot)
+                )
+            """),
+
+        // Standing instructions. The scheduler reads them through the (status, next_run_at)
+        // index a look-ahead window at a time, so only instructions due soon are in memory.
+        new SchemaMigration(8, "standing instruction table")
+            .sql("""
+                CREATE TABLE IF NOT EXISTS standing_instruction (
+                    instruction_id VARCHAR(50) PRIMARY KEY,
+                    sender_account_number VARCHAR(30) NOT NULL,
+                    receiver_account_number VARCHAR(30) NOT NULL,
+                    amount DECIMAL(15,2) NOT NULL,
+                    description TEXT,
+                    frequency VARCHAR(10) NOT NULL,
+                    start_at DATETIME NOT NULL,
+                    end_at DATETIME NULL,
+                    occurrence INT NOT NULL DEFAULT 0,
+                    next_run_at DATETIME NOT NULL,
+                    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+                    failure_count INT NOT NULL DEFAULT 0,
+                    last_run_at DATETIME NULL,
+                    last_transaction_id VARCHAR(50) NULL,
+                    last_error VARCHAR(255) NULL,
+                    pending_transaction_id VARCHAR(50) NULL,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    INDEX idx_standing_instruction_due (status, next_run_at),
+                    INDEX idx_standing_instruction_sender (sender_account_number)
+                )
+            """),
+
+        // When a run was claimed, so a node that finds a claim on load can tell a run that
+        // died from one another node still has in flight.
+        new SchemaMigration(9, "standing instruction claim time")
+            .action("add standing_instruction.claimed_at DATETIME NULL",
+                    conn -> addColumn(conn, "standing_instruction", "claimed_at", "DATETIME NULL"))
+    );
+
+    public static void migrate() throws SQLException {
+        int lockTimeoutSeconds = Integer.parseInt(DBConfig.getProperty("db.migration.lock.timeout.seconds", "60").trim());
+
+        try (Connection conn = DBConfig.getConnection()) {
+            createMigrationsTable(conn);
+
+            // Several app instances may start against the same database at once.
+            if (!acquireLock(conn, lockTimeoutSeconds)) {
+                throw new SQLException("Timed out after " + lockTimeoutSeconds + "s waiting for the schema migration lock");
+            }
+            try {
+                applyPending(conn);
+            } finally {
+                releaseLock(conn);
+            }
+        }
+    }
+
+    private static void applyPending(Connection conn) throws SQLException {
+        Map<Integer, String> applied = loadAppliedChecksums(conn);
+        int latestKnown = MIGRATIONS.get(MIGRATIONS.size() - 1).getVersion();
+
+        for (Integer version : applied.keySet()) {
+            if (version > latestKnown) {
+                System.err.println("WARNING: Database has schema version " + version
+                        + " which is newer than this build (latest " + latestKnown + ")");
+            }
+        }
+
+        int appliedCount = 0;
+        for (SchemaMigration migration : MIGRATIONS) {
+            String checksum = migration.checksum();
+            String appliedChecksum = applied.get(migration.getVersion());
+
+            if (appliedChecksum != null) {
+                if (!appliedChecksum.equals(checksum)) {
+                    throw new SQLException("Checksum mismatch for schema migration V" + migration.getVersion()
+                            + " (" + migration.getDescription() + "): database has " + appliedChecksum
+                            + ", build has " + checksum);
+                }
+                continue;
+            }
+
+            System.out.println("Applying schema migration V" + migration.getVersion() + ": " + migration.getDescription());
+            long start = System.currentTimeMillis();
+            applyMigration(conn, migration);
+            long elapsed = System.currentTimeMillis() - start;
+            recordMigration(conn, migration, checksum, elapsed);
+            System.out.println("Schema migration V" + migration.getVersion() + " applied in " + elapsed + " ms");
+            appliedCount++;
+        }
+
+        System.out.println("Schema is at version " + latestKnown + " (" + appliedCount + " migration(s) applied this startup)");
+    }
+
+    private static void applyMigration(Connection conn, SchemaMigration migration) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (SchemaMigration.Step step : migration.getSteps()) {
+                if (step.isAction()) {
+                    step.action.apply(conn);
+                    continue;
+                }
+                if (step.isIndex() && indexExists(conn, step.table, step.indexName)) {
+                    System.out.println("  Index " + step.indexName + " already exists on " + step.table + ", skipping");
+                    continue;
+                }
+                stmt.executeUpdate(step.sql);
+                if (step.isIndex()) {
+                    System.out.println("  Created index " + step.indexName + " on " + step.table);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("!!! ERROR: Schema migration V" + migration.getVersion() + " failed !!!");
+            System.err.println("Error: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private static void createMigrationsTable(Connection conn) throws SQLException {
+        String query = """
+            CREATE TABLE IF NOT EXISTS %s (
+                version INT PRIMARY KEY,
+                description VARCHAR(200) NOT NULL,
+                checksum CHAR(64) NOT NULL,
+                applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                execution_ms BIGINT NOT NULL
+            )
+        """.formatted(MIGRATIONS_TABLE);
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(query);
+        }
+    }
+
+    private static Map<Integer, String> loadAppliedChecksums(Connection conn) throws SQLException {
+        Map<Integer, String> applied = new LinkedHashMap<>();
+        String query = "SELECT version, checksum FROM " + MIGRATIONS_TABLE + " ORDER BY version";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    private static void recordMigration(Connection conn, SchemaMigration migration, String checksum, long elapsedMs)
+            throws SQLException {
+        String query = "INSERT INTO " + MIGRATIONS_TABLE + " (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, migration.getVersion());
+            stmt.setString(2, migration.getDescription());
+            stmt.setString(3, checksum);
+            stmt.setLong(4, elapsedMs);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static void addColumn(Connection conn, String table, String column, String definition)
+            throws SQLException {
+        String query = "SELECT COUNT(*) FROM information_schema.columns " +
+                      "WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, table);
+            stmt.setString(2, column);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    System.out.println("  Column " + table + "." + column + " already exists, skipping");
+                    return;
+                }
+            }
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+        System.out.println("  Added " + table + "." + column);
+    }
+
+    private static boolean indexExists(Connection conn, String table, String indexName) throws SQLException {
+        String query = "SELECT COUNT(*) FROM information_schema.statistics " +
+                      "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, table);
+            stmt.setString(2, indexName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    private static boolean acquireLock(Connection conn, int timeoutSeconds) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, MIGRATION_LOCK);
+            stmt.setInt(2, timeoutSeconds);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, MIGRATION_LOCK);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            System.err.println("Warning: Could not release schema migration lock: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.bank.simulator.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+class StatementCache {
+
+    private final int maxSize;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+    private final Counters counters;
+    private boolean closed;
+
+    StatementCache(int maxSize, Counters counters) {
+        this.maxSize = maxSize;
+        this.counters = counters;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    synchronized PreparedStatement prepare(Connection physical, String sql) throws SQLException {
+        PreparedStatement cached = statements.remove(sql);
+
+        if (cached != null && !cached.isClosed()) {
+            counters.hits.increment();
+            return wrap(sql, cached);
+        }
+
+        counters.misses.increment();
+        return wrap(sql, physical.prepareStatement(sql));
+    }
+
+    private PreparedStatement wrap(String sql, PreparedStatement physical) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                StatementCache.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                new CachedStatementHandler(sql, physical));
+    }
+
+    private synchronized void checkIn(String sql, PreparedStatement statement) {
+        if (closed || statements.containsKey(sql)) {
+            closeQuietly(statement);
+            return;
+        }
+
+        statements.put(sql, statement);
+
+        if (statements.size() > maxSize) {
+            Iterator<Map.Entry<String, PreparedStatement>> eldest = statements.entrySet().iterator();
+            closeQuietly(eldest.next().getValue());
+            eldest.remove();
+            counters.evictions.increment();
+        }
+    }
+
+    synchronized void closeAll() {
+        closed = true;
+        for (PreparedStatement statement : statements.values()) {
+            closeQuietly(statement);
+        }
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing cached statement: " + e.getMessage());
+        }
+    }
+
+    static final class Counters {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+    }
+
+    private final class CachedStatementHandler implements InvocationHandler {
+        private final String sql;
+        private final PreparedStatement physical;
+        private final List<ResultSet> openResultSets = new ArrayList<>();
+        private boolean logicallyClosed;
+
+        CachedStatementHandler(String sql, PreparedStatement physical) {
+            this.sql = sql;
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!logicallyClosed) {
+                        logicallyClosed = true;
+                        returnToCache();
+                    }
+                    return null;
+                case "isClosed":
+                    return logicallyClosed || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            if (logicallyClosed) {
+                throw new SQLException("Statement has already been closed");
+            }
+
+            try {
+                Object result = method.invoke(physical, args);
+                if (result instanceof ResultSet resultSet) {
+                    openResultSets.add(resultSet);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void returnToCache() {
+            try {
+                for (ResultSet resultSet : openResultSets) {
+                    resultSet.close();
+                }
+                openResultSets.clear();
+                physical.clearParameters();
+                physical.clearWarnings();
+                checkIn(sql, physical);
+            } catch (SQLException e) {
+                System.err.println("Could not reset cached statement, closing it: " + e.getMessage());
+                closeQuietly(physical);
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.bank.simulator.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class TransactionPartitionMaintainer {
+
+    // Partition pYYYYMM holds rows whose created_date falls in that UTC month. p_history
+    // holds everything older than the first monthly partition and p_future catches rows
+    // beyond the last one, so inserts never fail if maintenance falls behind.
+    private static final String TABLE = "Transaction";
+    private static final String HISTORY_PARTITION = "p_history";
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final String ARCHIVE_TABLE_PREFIX = "Transaction_archive_";
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static ScheduledExecutorService scheduler;
+
+    private static final class PartitionInfo {
+        final String name;
+        final Long lessThan;
+
+        PartitionInfo(String name, Long lessThan) {
+            this.name = name;
+            this.lessThan = lessThan;
+        }
+    }
+
+    public static synchronized void start() {
+        boolean enabled = Boolean.parseBoolean(DBConfig.getProperty("db.partition.maintenance.enabled", "true").trim());
+        if (!enabled || scheduler != null) {
+            return;
+        }
+
+        long intervalMs = Long.parseLong(DBConfig.getProperty("db.partition.maintenance.interval.ms", "21600000").trim());
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-partition-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(TransactionPartitionMaintainer::runMaintenance,
+                0, intervalMs, TimeUnit.MILLISECONDS);
+        System.out.println("Transaction partition maintenance scheduled every " + intervalMs + " ms");
+    }
+
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private static void runMaintenance() {
+        try {
+            maintain();
+        } catch (SQLException e) {
+            System.err.println("Transaction partition maintenance failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    public static void maintain() throws SQLException {
+        int monthsAhead = Integer.parseInt(DBConfig.getProperty("db.partition.months.ahead", "3").trim());
+        int retentionMonths = Integer.parseInt(DBConfig.getProperty("db.partition.retention.months", "0").trim());
+
+        try (Connection conn = DBConfig.getConnection()) {
+            List<PartitionInfo> partitions = loadPartitions(conn);
+            if (partitions.isEmpty()) {
+                System.err.println("Transaction table is not partitioned. Skipping partition maintenance.");
+                return;
+            }
+
+            YearMonth current = YearMonth.now(ZoneOffset.UTC);
+            addFuturePartitions(conn, partitions, current.plusMonths(monthsAhead + 1));
+
+            if (retentionMonths > 0) {
+                long cutoff = monthStart(current.minusMonths(retentionMonths));
+                archivePartitionsBefore(conn, loadPartitions(conn), cutoff);
+            }
+        }
+    }
+
+    static void dropForeignKeys(Connection conn) throws SQLException {
+        List<String> constraints = new ArrayList<>();
+        String query = "SELECT constraint_name FROM information_schema.referential_constraints " +
+                      "WHERE constraint_schema = DATABASE() AND table_name = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, TABLE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    constraints.add(rs.getString(1));
+                }
+            }
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String constraint : constraints) {
+                stmt.executeUpdate("ALTER TABLE " + TABLE + " DROP FOREIGN KEY `" + constraint + "`");
+                System.out.println("  Dropped foreign key " + constraint + " on " + TABLE);
+            }
+        }
+    }
+
+    static void partitionTable(Connection conn) throws SQLException {
+        if (!loadPartitions(conn).isEmpty()) {
+            System.out.println("  " + TABLE + " is already partitioned, skipping");
+            return;
+        }
+
+        int monthsAhead = Integer.parseInt(DBConfig.getProperty("db.partition.months.ahead", "3").trim());
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+
+        StringBuilder ddl = new StringBuilder("ALTER TABLE " + TABLE + " PARTITION BY RANGE (UNIX_TIMESTAMP(created_date)) (");
+        ddl.append("PARTITION ").append(HISTORY_PARTITION).append(" VALUES LESS THAN (").append(monthStart(current)).append("), ");
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            ddl.append(monthlyPartition(month)).append(", ");
+        }
+        ddl.append("PARTITION ").append(FUTURE_PARTITION).append(" VALUES LESS THAN MAXVALUE)");
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(ddl.toString());
+        }
+        System.out.println("  Partitioned " + TABLE + " by month from " + current + " with " + monthsAhead + " month(s) ahead");
+    }
+
+    private static void addFuturePartitions(Connection conn, List<PartitionInfo> partitions, YearMonth until)
+            throws SQLException {
+        long highestBound = 0;
+        for (PartitionInfo partition : partitions) {
+            if (partition.lessThan != null) {
+                highestBound = Math.max(highestBound, partition.lessThan);
+            }
+        }
+
+        YearMonth next = YearMonth.from(Instant.ofEpochSecond(highestBound).atZone(ZoneOffset.UTC));
+        try (Statement stmt = conn.createStatement()) {
+            while (!next.isAfter(until.minusMonths(1))) {
+                stmt.executeUpdate("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO ("
+                        + monthlyPartition(next) + ", PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE)");
+                System.out.println("Created transaction partition " + partitionName(next));
+                next = next.plusMonths(1);
+            }
+        }
+    }
+
+    private static void archivePartitionsBefore(Connection conn, List<PartitionInfo> partitions, long cutoff)
+            throws SQLException {
+        for (PartitionInfo partition : partitions) {
+            if (partition.lessThan == null || partition.lessThan > cutoff) {
+                continue;
+            }
+
+            String archiveTable = ARCHIVE_TABLE_PREFIX + partition.name;
+            boolean partitionHasRows = hasRows(conn, TABLE + " PARTITION (" + partition.name + ")");
+
+            try (Statement stmt = conn.createStatement()) {
+                if (partitionHasRows) {
+                    if (tableExists(conn, archiveTable)) {
+                        if (hasRows(conn, archiveTable)) {
+                            System.err.println("Archive table " + archiveTable + " already holds rows. "
+                                    + "Leaving partition " + partition.name + " in place.");
+                            continue;
+                        }
+                    } else {
+                        stmt.executeUpdate("CREATE TABLE " + archiveTable + " LIKE " + TABLE);
+                        stmt.executeUpdate("ALTER TABLE " + archiveTable + " REMOVE PARTITIONING");
+                    }
+                    // EXCHANGE swaps storage in O(1): the old month becomes a standalone table
+                    // that can be dumped or dropped without touching the live table.
+                    stmt.executeUpdate("ALTER TABLE " + TABLE + " EXCHANGE PARTITION " + partition.name
+                            + " WITH TABLE " + archiveTable);
+                }
+                stmt.executeUpdate("ALTER TABLE " + TABLE + " DROP PARTITION " + partition.name);
+            }
+            System.out.println("Archived transaction partition " + partition.name
+                    + (partitionHasRows ? " into " + archiveTable : " (empty)"));
+        }
+    }
+
+    private static List<PartitionInfo> loadPartitions(Connection conn) throws SQLException {
+        List<PartitionInfo> partitions = new ArrayList<>();
+        String query = "SELECT partition_name, partition_description FROM information_schema.partitions " +
+                      "WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL " +
+                      "ORDER BY partition_ordinal_position";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, TABLE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String description = rs.getString(2);
+                    Long lessThan = "MAXVALUE".equalsIgnoreCase(description) ? null : Long.parseLong(description.trim());
+                    partitions.add(new PartitionInfo(rs.getString(1), lessThan));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private static boolean tableExists(Connection conn, String table) throws SQLException {
+        String query = "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    private static boolean hasRows(Connection conn, String source) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT EXISTS (SELECT 1 FROM " + source + ")")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private static String monthlyPartition(YearMonth month) {
+        return "PARTITION " + partitionName(month) + " VALUES LESS THAN (" + monthStart(month.plusMonths(1)) + ")";
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "p" + month.format(PARTITION_MONTH);
+    }
+
+    // Bounds are epoch seconds computed here rather than UNIX_TIMESTAMP('...') in SQL,
+    // which would depend on the session time zone of whoever ran the DDL.
+    private static long monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,119 @@
+package com.bank.simulator.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class TransferMetrics {
+
+    // Latencies are kept in microseconds in log-linear buckets: every power of two is split
+    // into 8 equal sub-buckets, so a reported percentile is at most 12.5% above the true one
+    // and recording stays a single atomic increment.
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private static volatile Window window = new Window();
+
+    private static final class Window {
+        final long startedNanos = System.nanoTime();
+        final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        final LongAdder completed = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder totalMicros = new LongAdder();
+        final AtomicLong maxMicros = new AtomicLong();
+    }
+
+    private TransferMetrics() {}
+
+    public static void recordTransfer(long elapsedNanos, boolean completed) {
+        Window current = window;
+        (completed ? current.completed : current.rejected).increment();
+        recordLatency(current, elapsedNanos);
+    }
+
+    public static void recordFailure(long elapsedNanos) {
+        Window current = window;
+        current.failed.increment();
+        recordLatency(current, elapsedNanos);
+    }
+
+    public static void recordRetry() {
+        window.retries.increment();
+    }
+
+    // Starts a fresh measurement window, e.g. before and after a load run.
+    public static void reset() {
+        window = new Window();
+    }
+
+    public static TransferStats snapshot() {
+        Window current = window;
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = current.buckets.get(i);
+            total += counts[i];
+        }
+
+        double windowSeconds = (System.nanoTime() - current.startedNanos) / 1_000_000_000.0;
+        long maxMicros = current.maxMicros.get();
+
+        TransferStats stats = new TransferStats();
+        stats.setWindowSeconds(windowSeconds);
+        stats.setCompleted(current.completed.sum());
+        stats.setRejected(current.rejected.sum());
+        stats.setFailed(current.failed.sum());
+        stats.setRetries(current.retries.sum());
+        stats.setThroughputPerSecond(windowSeconds > 0 ? stats.getCompleted() / windowSeconds : 0.0);
+        stats.setAverageMillis(total > 0 ? current.totalMicros.sum() / 1000.0 / total : 0.0);
+        stats.setP50Millis(percentileMicros(counts, total, 0.50, maxMicros) / 1000.0);
+        stats.setP95Millis(percentileMicros(counts, total, 0.95, maxMicros) / 1000.0);
+        stats.setP99Millis(percentileMicros(counts, total, 0.99, maxMicros) / 1000.0);
+        stats.setMaxMillis(maxMicros / 1000.0);
+        return stats;
+    }
+
+    private static void recordLatency(Window current, long elapsedNanos) {
+        long micros = Math.max(0, elapsedNanos / 1000);
+        current.buckets.incrementAndGet(bucketIndex(micros));
+        current.totalMicros.add(micros);
+        current.maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) ((micros >>> shift) & (SUB_BUCKETS - 1));
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    static long percentileMicros(long[] counts, long total, double percentile, long maxMicros) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+}
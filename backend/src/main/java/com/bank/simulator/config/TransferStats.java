@@ -0,0 +1,64 @@
+package com.bank.simulator.config;
+
+public class TransferStats {
+    private double windowSeconds;
+    private long completed;
+    private long rejected;
+    private long failed;
+    private long retries;
+    private double throughputPerSecond;
+    private double averageMillis;
+    private double p50Millis;
+    private double p95Millis;
+    private double p99Millis;
+    private double maxMillis;
+
+    public TransferStats() {}
+
+    public double getWindowSeconds() { return windowSeconds; }
+    public void setWindowSeconds(double windowSeconds) { this.windowSeconds = windowSeconds; }
+
+    public long getCompleted() { return completed; }
+    public void setCompleted(long completed) { this.completed = completed; }
+
+    public long getRejected() { return rejected; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public long getRetries() { return retries; }
+    public void setRetries(long retries) { this.retries = retries; }
+
+    public double getThroughputPerSecond() { return throughputPerSecond; }
+    public void setThroughputPerSecond(double throughputPerSecond) { this.throughputPerSecond = throughputPerSecond; }
+
+    public double getAverageMillis() { return averageMillis; }
+    public void setAverageMillis(double averageMillis) { this.averageMillis = averageMillis; }
+
+    public double getP50Millis() { return p50Millis; }
+    public void setP50Millis(double p50Millis) { this.p50Millis = p50Millis; }
+
+    public double getP95Millis() { return p95Millis; }
+    public void setP95Millis(double p95Millis) { this.p95Millis = p95Millis; }
+
+    public double getP99Millis() { return p99Millis; }
+    public void setP99Millis(double p99Millis) { this.p99Millis = p99Millis; }
+
+    public double getMaxMillis() { return maxMillis; }
+    public void setMaxMillis(double maxMillis) { this.maxMillis = maxMillis; }
+
+    @Override
+    public String toString() {
+        return "TransferStats{" +
+                "windowSeconds=" + windowSeconds +
+                ", completed=" + completed +
+                ", rejected=" + rejected +
+                ", failed=" + failed +
+                ", retries=" + retries +
+                ", throughputPerSecond=" + throughputPerSecond +
+                ", p50Millis=" + p50Millis +
+                ", p99Millis=" + p99Millis +
+                '}';
+    }
+}
@@ -0,0 +1,191 @@
+package com.bank.simulator.config;
+
+import com.bank.simulator.model.User;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Email -> (user id, active) for the sender checks on the transfer path. Emails are looked up
+// lazily and an email with no User row is remembered too, so a customer without a login does
+// not cost a query per transfer. UserServiceImpl drops the email as soon as createUser or
+// updateUserStatus has committed, so a deactivation in this process stops the very next
+// transfer; a change made on another node is picked up after user.status.cache.ttl.ms.
+public class UserStatusCache {
+
+    public interface Loader {
+        Map<String, User> load(Collection<String> emails) throws SQLException;
+    }
+
+    private static final class Entry {
+        final String userId;
+        final boolean active;
+        final long expiresAtMillis;
+
+        Entry(String userId, boolean active, long expiresAtMillis) {
+            this.userId = userId;
+            this.active = active;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlMs;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Entry> byEmail = new ConcurrentHashMap<>();
+
+    // Installs and invalidations take this lock; a load that started before an invalidation
+    // sees the generation moved on and keeps its rows to itself.
+    private final Object writeLock = new Object();
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private static final class Holder {
+        static final UserStatusCache INSTANCE = new UserStatusCache(
+                Boolean.parseBoolean(DBConfig.getProperty("user.status.cache.enabled", "true").trim()),
+                Integer.parseInt(DBConfig.getProperty("user.status.cache.max.entries", "100000").trim()),
+                Long.parseLong(DBConfig.getProperty("user.status.cache.ttl.ms", "30000").trim()),
+                System::currentTimeMillis);
+    }
+
+    UserStatusCache(boolean enabled, int maxEntries, long ttlMs, LongSupplier clock) {
+        this.enabled = enabled && maxEntries > 0 && ttlMs > 0;
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+    }
+
+    public static UserStatusCache getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Same shape as UserRepository.findByEmails: keyed by the emails as given, absent when
+    // there is no user. The users carry only id, email and active.
+    public Map<String, User> getUsers(Collection<String> emails, Loader loader) throws SQLException {
+        if (!enabled) {
+            return compact(loader.load(emails));
+        }
+
+        Map<String, User> users = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        long now = clock.getAsLong();
+        for (String email : emails) {
+            if (email == null) {
+                continue;
+            }
+            String key = emailKey(email);
+            Entry entry = byEmail.get(key);
+            if (entry != null && entry.expiresAtMillis <= now) {
+                if (byEmail.remove(key, entry)) {
+                    expirations.increment();
+                }
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                missing.add(email);
+            } else {
+                hits.increment();
+                if (entry.userId != null) {
+                    users.put(email, user(entry.userId, email, entry.active));
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return users;
+        }
+
+        long seen;
+        synchronized (writeLock) {
+            seen = generation;
+        }
+        Map<String, User> loaded = compact(loader.load(missing));
+        users.putAll(loaded);
+
+        synchronized (writeLock) {
+            if (generation == seen) {
+                long expiresAt = clock.getAsLong() + ttlMs;
+                for (String email : missing) {
+                    // Entries are tiny and short-lived, so a full map simply starts over.
+                    if (byEmail.size() >= maxEntries) {
+                        evictions.add(byEmail.size());
+                        byEmail.clear();
+                    }
+                    User user = loaded.get(email);
+                    byEmail.put(emailKey(email), user != null
+                            ? new Entry(user.getId(), user.isActive(), expiresAt)
+                            : new Entry(null, false, expiresAt));
+                }
+            }
+        }
+        return users;
+    }
+
+    public void invalidate(String email) {
+        if (!enabled || email == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            generation++;
+            byEmail.remove(emailKey(email));
+        }
+        invalidations.increment();
+    }
+
+    public CacheStats getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+
+        CacheStats stats = new CacheStats();
+        stats.setEnabled(enabled);
+        stats.setSize(byEmail.size());
+        stats.setMaxEntries(maxEntries);
+        stats.setTtlMillis(ttlMs);
+        stats.setHits(hitCount);
+        stats.setMisses(missCount);
+        stats.setHitRate(hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.setEvictions(evictions.sum());
+        stats.setExpirations(expirations.sum());
+        stats.setInvalidations(invalidations.sum());
+        return stats;
+    }
+
+    private static Map<String, User> compact(Map<String, User> loaded) {
+        Map<String, User> users = new HashMap<>();
+        for (Map.Entry<String, User> entry : loaded.entrySet()) {
+            User user = entry.getValue();
+            users.put(entry.getKey(), user(user.getId(), entry.getKey(), user.isActive()));
+        }
+        return users;
+    }
+
+    private static User user(String userId, String email, boolean active) {
+        User user = new User();
+        user.setId(userId);
+        user.setEmail(email);
+        user.setActive(active);
+        return user;
+    }
+
+    // User.email compares case-insensitively in MySQL.
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -9,7 +9,6 @@ import com.bank.simulator.validation.ValidationResult;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
-import java.util.List;
 
 import java.math.BigDecimal;
 
@@ -271,17 +270,12 @@ public class AccountController {
         try {
             System.out.println(" GET ALL ACCOUNTS REQUEST");
             
-            List<Account> accounts = accountService.getAllAccounts();
-            
-            for (Account account : accounts) {
-                account.setAccountId(null);
-                account.setCustomerId(null);
-            }
-            
-            System.out.println(" Returning " + accounts.size() + " accounts");
-            
-            return Response.ok(ApiResponse.success("Accounts retrieved successfully", accounts))
-                    .build();
+            return JsonStreams.<Account>ok("Accounts retrieved successfully",
+                    consumer -> accountService.streamAllAccounts(account -> {
+                        account.setAccountId(null);
+                        account.setCustomerId(null);
+                        consumer.accept(account);
+                    }));
             
         } catch (Exception e) {
             System.err.println(" Error in getAllAccounts: " + e.getMessage());
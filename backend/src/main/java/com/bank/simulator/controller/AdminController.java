@@ -0,0 +1,195 @@
+package com.bank.simulator.controller;
+
+import com.bank.simulator.config.AccountCache;
+import com.bank.simulator.config.CustomerCache;
+import com.bank.simulator.config.UserStatusCache;
+import com.bank.simulator.config.AccountLockManager;
+import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.config.HotAccountDetector;
+import com.bank.simulator.config.LeakDetector;
+import com.bank.simulator.config.TransferMetrics;
+import com.bank.simulator.ledger.LedgerEngine;
+import com.bank.simulator.model.ApiResponse;
+import com.bank.simulator.service.impl.GroupCommitter;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Path("/admin")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class AdminController {
+
+    @GET
+    @Path("/pool")
+    public Response getPoolStats() {
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("storageEngine", DBConfig.isInMemoryStorage() ? "memory" : "mysql");
+            stats.put("primary", DBConfig.getPoolStats());
+            stats.put("replicaConfigured", DBConfig.isReplicaConfigured());
+            if (DBConfig.isReplicaConfigured()) {
+                stats.put("replicaHealthy", DBConfig.isReplicaHealthy());
+                stats.put("replica", DBConfig.getReplicaPoolStats());
+            }
+            return Response.ok(ApiResponse.success("Connection pool statistics retrieved successfully", stats)).build();
+        } catch (Exception e) {
+            System.err.println("Error fetching pool statistics: " + e.getMessage());
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Internal server error: " + e.getMessage()))
+                .build();
+        }
+    }
+
+    @GET
+    @Path("/leaks")
+    public Response getConnectionLeaks(@QueryParam("limit") @DefaultValue("10") int limit) {
+        try {
+            LeakDetector leakDetector = DBConfig.getLeakDetector();
+
+            if (!leakDetector.isEnabled()) {
+                return Response.status(Response.Status.NOT_FOUND)
+                    .entity(ApiResponse.error("Leak detection is disabled. Set db.leak.detection.enabled=true to enable it."))
+                    .build();
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("thresholdMillis", leakDetector.getThresholdMs());
+            report.put("longHeldConnections", leakDetector.getLongHeldConnections());
+            report.put("topOffenders", leakDetector.getTopOffenders(Math.max(1, limit)));
+
+            return Response.ok(ApiResponse.success("Connection leak report generated successfully", report)).build();
+        } catch (Exception e) {
+            System.err.println("Error generating leak report: " + e.getMessage());
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Internal server error: " + e.getMessage()))
+                .build();
+        }
+    }
+
+    @GET
+    @Path("/transfers")
+    public Response getTransferStats() {
+        try {
+            return Response.ok(ApiResponse.success("Transfer statistics retrieved successfully", TransferMetrics.snapshot())).build();
+        } catch (Exception e) {
+            System.err.println("Error fetching transfer statistics: " + e.getMessage());
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Internal server error: " + e.getMessage()))
+                .build();
+        }
+    }
+
+    @GET
+    @Path("/hot-accounts")
+    public Response getHotAccounts(@QueryParam("limit") @DefaultValue("10") int limit) {
+        try {
+            AccountLockManager lockManager = AccountLockManager.getInstance();
+
+            if (!lockManager.isEnabled()) {
+                return Response.status(Response.Status.NOT_FOUND)
+                    .entity(ApiResponse.error("Account locking is disabled. Set transfer.lock.enabled=true to enable it."))
+                    .build();
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("acquisitions", lockManager.getAcquisitions());
+            report.put("contendedAcquisitions", lockManager.getContendedAcquisitions());
+            report.put("timeouts", lockManager.getTimeouts());
+            report.put("timeoutMillis", lockManager.getTimeoutMs());
+            report.put("hotAccounts", lockManager.getHotAccounts(Math.max(1, limit)));
+            report.put("hotCreditAccounts", HotAccountDetector.getInstance().getHotAccounts());
+
+            return Response.ok(ApiResponse.success("Hot account report generated successfully", report)).build();
+        } catch (Exception e) {
+            System.err.println("Error generating hot account report: " + e.getMessage());
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Internal server error: " + e.getMessage()))
+                .build();
+        }
+    }
+
+    @GET
+    @Path("/ledger")
+    public Response getLedgerStats() {
+        try {
+            if (!LedgerEngine.isEnabled()) {
+                return Response.status(Response.Status.NOT_FOUND)
+                    .entity(ApiResponse.error("Ledger engine is disabled. Set ledger.enabled=true to enable it."))
+                    .build();
+            }
+            return Response.ok(ApiResponse.success("Ledger statistics retrieved successfully",
+                    LedgerEngine.getInstance().getStats())).build();
+        } catch (Exception e) {
+            System.err.println("Error fetching ledger statistics: " + e.getMessage());
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Internal server error: " + e.getMessage()))
+                .build();
+        }
+    }
+
+    @GET
+    @Path("/group-commit")
+    public Response getGroupCommitStats() {
+        try {
+            if (!GroupCommitter.isEnabled()) {
+                return Response.status(Response.Status.NOT_FOUND)
+                    .entity(ApiResponse.error("Group commit is disabled. Set transaction.group.commit.enabled=true to enable it."))
+                    .build();
+            }
+            return Response.ok(ApiResponse.success("Group commit statistics retrieved successfully",
+                    GroupCommitter.getInstance().getStats())).build();
+        } catch (Exception e) {
+            System.err.println("Error fetching group commit statistics: " + e.getMessage());
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Internal server error: " + e.getMessage()))
+                .build();
+        }
+    }
+
+    @POST
+    @Path("/group-commit/reset")
+    public Response resetGroupCommitStats() {
+        if (!GroupCommitter.isEnabled()) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(ApiResponse.error("Group commit is disabled. Set transaction.group.commit.enabled=true to enable it."))
+                .build();
+        }
+        GroupCommitter.getInstance().resetStats();
+        return Response.ok(ApiResponse.success("Group commit statistics reset successfully")).build();
+    }
+
+    @GET
+    @Path("/caches")
+    public Response getCacheStats() {
+        try {
+            Map<String, Object> caches = new LinkedHashMap<>();
+            caches.put("accounts", AccountCache.getInstance().getStats());
+            caches.put("customers", CustomerCache.getInstance().getStats());
+            caches.put("userStatus", UserStatusCache.getInstance().getStats());
+            return Response.ok(ApiResponse.success("Cache statistics retrieved successfully", caches)).build();
+        } catch (Exception e) {
+            System.err.println("Error fetching cache statistics: " + e.getMessage());
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Internal server error: " + e.getMessage()))
+                .build();
+        }
+    }
+
+    @POST
+    @Path("/transfers/reset")
+    public Response resetTransferStats() {
+        TransferMetrics.reset();
+        return Response.ok(ApiResponse.success("Transfer statistics reset successfully")).build();
+    }
+}
@@ -253,30 +253,7 @@ public Response login(LoginRequest request) {
         try {
             System.out.println("\n=== GET ALL USERS REQUEST ===");
             
-            String query = "SELECT id, full_name, email, active, created_at, updated_at FROM User ORDER BY created_at DESC";
-            
-            java.util.List<User> users = new java.util.ArrayList<>();
-            
-            try (java.sql.Connection conn = com.bank.simulator.config.DBConfig.getConnection();
-                 java.sql.Statement stmt = conn.createStatement();
-                 java.sql.ResultSet rs = stmt.executeQuery(query)) {
-                
-                while (rs.next()) {
-                    User user = new User();
-                    user.setId(rs.getString("id"));
-                    user.setFullName(rs.getString("full_name"));
-                    user.setEmail(rs.getString("email"));
-                    user.setActive(rs.getBoolean("active"));
-                    user.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-                    user.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-                    users.add(user);
-                }
-            }
-            
-            System.out.println("Retrieved " + users.size() + " users");
-            return Response.ok()
-                    .entity(ApiResponse.success("Users retrieved successfully", users))
-                    .build();
+            return JsonStreams.ok("Users retrieved successfully", userService::streamAllUsers);
             
         } catch (Exception e) {
             System.err.println("Error fetching all users: " + e.getMessage());
@@ -10,7 +10,6 @@ import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
-import java.util.List;
 
 @Path("/customer")
 @Produces(MediaType.APPLICATION_JSON)
@@ -310,14 +309,12 @@ public Response deleteCustomerByAadhar(@PathParam("aadharNumber") String aadharN
     @Path("/all")
     public Response getAllCustomers() {
         try {
-            List<Customer> customers = customerService.getAllCustomers();
-            
-            for (Customer customer : customers) {
-                customer.setCustomerPin(null);
-                customer.setCustomerId(null);
-            }
-            
-            return Response.ok(ApiResponse.success("Customers retrieved successfully", customers)).build();
+            return JsonStreams.<Customer>ok("Customers retrieved successfully",
+                consumer -> customerService.streamAllCustomers(customer -> {
+                    customer.setCustomerPin(null);
+                    customer.setCustomerId(null);
+                    consumer.accept(customer);
+                }));
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity(ApiResponse.error("Internal server error: " + e.getMessage()))
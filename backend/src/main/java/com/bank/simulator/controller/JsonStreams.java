@@ -0,0 +1,87 @@
+package com.bank.simulator.controller;
+
+import com.bank.simulator.repository.RowConsumer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Writes an ApiResponse-shaped body whose data array is filled row by row while the rows are
+// still being read, so a list endpoint holds one row at a time instead of the whole table.
+final class JsonStreams {
+
+    interface RowSource<T> {
+        // Returns false when the rows stopped coming before the end of the result.
+        boolean forEach(RowConsumer<T> consumer) throws IOException;
+    }
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
+    // The models format their LocalDateTime fields as DATE_TIME; @JsonIgnore and WRITE_ONLY
+    // still apply, so PINs and passwords stay out of the output.
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new SimpleModule()
+                    .addSerializer(LocalDateTime.class, new StdSerializer<LocalDateTime>(LocalDateTime.class) {
+                        @Override
+                        public void serialize(LocalDateTime value, JsonGenerator json, SerializerProvider provider)
+                                throws IOException {
+                            json.writeString(value.format(DATE_TIME));
+                        }
+                    })
+                    .addSerializer(LocalDate.class, new StdSerializer<LocalDate>(LocalDate.class) {
+                        @Override
+                        public void serialize(LocalDate value, JsonGenerator json, SerializerProvider provider)
+                                throws IOException {
+                            json.writeString(value.toString());
+                        }
+                    }));
+
+    private JsonStreams() {}
+
+    static <T> Response ok(String message, RowSource<T> rows) {
+        LocalDateTime timestamp = LocalDateTime.now();
+        StreamingOutput body = output -> {
+            // A failed read must not end in valid JSON, so nothing is closed for us on error.
+            JsonGenerator json = MAPPER.getFactory().createGenerator(output)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            json.writeStartObject();
+            json.writeBooleanField("success", true);
+            json.writeStringField("message", message);
+            json.writeArrayFieldStart("data");
+
+            int[] written = {0};
+            boolean complete = rows.forEach(row -> {
+                json.writeObject(row);
+                // Push the first row out at once; after that the buffers flush as they fill.
+                if (++written[0] == 1) {
+                    json.flush();
+                }
+            });
+            // Before the first flush the container can still answer 500; after it, the
+            // connection is cut and the client sees a truncated body.
+            if (!complete) {
+                throw new IOException("Row stream failed after " + written[0] + " rows; response aborted");
+            }
+
+            json.writeEndArray();
+            json.writeStringField("timestamp", timestamp.format(TIMESTAMP));
+            json.writeEndObject();
+            json.close();
+            System.out.println("Streamed " + written[0] + " rows");
+        };
+        return Response.ok(body, MediaType.APPLICATION_JSON).build();
+    }
+}
@@ -0,0 +1,177 @@
+package com.bank.simulator.controller;
+
+import com.bank.simulator.model.ApiResponse;
+import com.bank.simulator.model.Customer;
+import com.bank.simulator.model.StandingInstruction;
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.model.TransferContext;
+import com.bank.simulator.service.StandingInstructionService;
+import com.bank.simulator.service.TransactionService;
+import com.bank.simulator.service.impl.StandingInstructionScheduler;
+import com.bank.simulator.service.impl.StandingInstructionServiceImpl;
+import com.bank.simulator.service.impl.TransactionServiceImpl;
+import com.bank.simulator.validation.TransactionValidator;
+import com.bank.simulator.validation.ValidationResult;
+
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+@Path("/standing-instruction")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class StandingInstructionController {
+
+    private final StandingInstructionService instructionService = new StandingInstructionServiceImpl();
+    private final TransactionService transactionService = new TransactionServiceImpl();
+    private final TransactionValidator transactionValidator = new TransactionValidator();
+
+    // The sender's PIN is checked once, here; the scheduled runs do not ask for it again.
+    @POST
+    @Path("/create")
+    public Response createInstruction(StandingInstruction instruction) {
+        try {
+            System.out.println("\n=== STANDING INSTRUCTION REQUEST ===");
+
+            if (instruction == null) {
+                return badRequest("Standing instruction data is required");
+            }
+
+            if (instruction.getPin() == null || !instruction.getPin().matches("^[0-9]{6}$")) {
+                return badRequest("PIN must be exactly 6 digits");
+            }
+
+            Transaction transfer = new Transaction(null, null, instruction.getSenderAccountNumber(),
+                instruction.getReceiverAccountNumber(), instruction.getAmount(), "ONLINE",
+                instruction.getDescription(), null, null);
+            ValidationResult validation = transactionValidator.validateTransactionFormat(transfer);
+            if (!validation.isValid()) {
+                return badRequest(validation.getFirstErrorMessage());
+            }
+
+            String frequency = instruction.getFrequency() != null
+                ? instruction.getFrequency().trim().toUpperCase(Locale.ROOT) : null;
+            if (frequency == null || !StandingInstructionScheduler.FREQUENCIES.contains(frequency)) {
+                return badRequest("Frequency must be one of ONCE, DAILY, WEEKLY or MONTHLY");
+            }
+            instruction.setFrequency(frequency);
+
+            if (instruction.getStartAt() == null) {
+                instruction.setStartAt(LocalDateTime.now().withNano(0));
+            }
+            if (instruction.getEndAt() != null && instruction.getEndAt().isBefore(instruction.getStartAt())) {
+                return badRequest("End date must not be before the start date");
+            }
+
+            TransferContext context = transactionService.loadTransferContext(
+                instruction.getSenderAccountNumber(), instruction.getReceiverAccountNumber());
+
+            if (context == null) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Failed to load account details"))
+                    .build();
+            }
+
+            if (context.getSenderAccount() == null) {
+                return Response.status(Response.Status.NOT_FOUND)
+                    .entity(ApiResponse.error("Sender account not found"))
+                    .build();
+            }
+
+            if (!"ACTIVE".equalsIgnoreCase(context.getSenderAccount().getStatus())) {
+                return Response.status(Response.Status.FORBIDDEN)
+                    .entity(ApiResponse.error("Your account is deactivated. Please contact admin or report an issue."))
+                    .build();
+            }
+
+            if (context.getReceiverAccount() == null) {
+                return Response.status(Response.Status.NOT_FOUND)
+                    .entity(ApiResponse.error("Receiver account not found"))
+                    .build();
+            }
+
+            Customer customer = context.getSenderCustomer();
+            if (customer == null) {
+                return Response.status(Response.Status.NOT_FOUND)
+                    .entity(ApiResponse.error("Customer not found"))
+                    .build();
+            }
+
+            if (context.getSenderUser() != null && !context.getSenderUser().isActive()) {
+                return Response.status(Response.Status.FORBIDDEN)
+                    .entity(ApiResponse.error("Your account is deactivated. Please contact admin or report an issue."))
+                    .build();
+            }
+
+            if (!instruction.getPin().equals(customer.getCustomerPin())) {
+                System.err.println("INVALID PIN for standing instruction on " + instruction.getSenderAccountNumber());
+                return badRequest("Invalid PIN");
+            }
+
+            String instructionId = instructionService.createInstruction(instruction);
+            if (instructionId == null) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Failed to create standing instruction"))
+                    .build();
+            }
+
+            return Response.status(Response.Status.CREATED)
+                .entity(ApiResponse.success("Standing instruction created successfully", instructionId))
+                .build();
+
+        } catch (Exception e) {
+            System.err.println("Exception in standing instruction creation: " + e.getMessage());
+            e.printStackTrace();
+
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Internal server error: " + e.getMessage()))
+                .build();
+        }
+    }
+
+    @GET
+    @Path("/{instructionId}")
+    public Response getInstruction(@PathParam("instructionId") String instructionId) {
+        StandingInstruction instruction = instructionService.getInstruction(instructionId);
+
+        if (instruction == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(ApiResponse.error("Standing instruction not found"))
+                .build();
+        }
+        return Response.ok(ApiResponse.success("Standing instruction retrieved successfully", instruction)).build();
+    }
+
+    @GET
+    @Path("/account/{accountNumber}")
+    public Response getInstructionsByAccountNumber(@PathParam("accountNumber") String accountNumber) {
+        List<StandingInstruction> instructions = instructionService.getInstructionsByAccountNumber(accountNumber);
+        return Response.ok(ApiResponse.success("Standing instructions retrieved successfully", instructions)).build();
+    }
+
+    @DELETE
+    @Path("/{instructionId}")
+    public Response cancelInstruction(@PathParam("instructionId") String instructionId) {
+        if (instructionService.getInstruction(instructionId) == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(ApiResponse.error("Standing instruction not found"))
+                .build();
+        }
+
+        if (!instructionService.cancelInstruction(instructionId)) {
+            return badRequest("Only an active standing instruction can be cancelled");
+        }
+        return Response.ok(ApiResponse.success("Standing instruction cancelled successfully", instructionId)).build();
+    }
+
+    private static Response badRequest(String message) {
+        System.err.println("VALIDATION FAILED: " + message);
+        return Response.status(Response.Status.BAD_REQUEST)
+            .entity(ApiResponse.error(message))
+            .build();
+    }
+}
@@ -1,18 +1,20 @@
 package com.bank.simulator.controller;
 
+import com.bank.simulator.config.DBConfig;
 import com.bank.simulator.model.Account;
 import com.bank.simulator.model.ApiResponse;
+import com.bank.simulator.model.BatchTransferResult;
 import com.bank.simulator.model.Customer;
 import com.bank.simulator.model.Transaction;
+import com.bank.simulator.model.TransactionCursor;
+import com.bank.simulator.model.TransactionPage;
+import com.bank.simulator.model.TransferContext;
+import com.bank.simulator.model.TransferSubmission;
 import com.bank.simulator.model.User;
-import com.bank.simulator.service.AccountService;
-import com.bank.simulator.service.CustomerService;
 import com.bank.simulator.service.TransactionService;
-import com.bank.simulator.service.UserService;
-import com.bank.simulator.service.impl.AccountServiceImpl;
-import com.bank.simulator.service.impl.CustomerServiceImpl;
+import com.bank.simulator.service.impl.IdempotencyCache;
 import com.bank.simulator.service.impl.TransactionServiceImpl;
-import com.bank.simulator.service.impl.UserServiceImpl;
+import com.bank.simulator.service.impl.TransferSubmissionQueue;
 import com.bank.simulator.validation.TransactionValidator;
 import com.bank.simulator.validation.ValidationResult;
 
@@ -20,11 +22,19 @@ import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import com.bank.simulator.service.ExcelGeneratorService;
 import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 @Path("/transaction")
 @Produces(MediaType.APPLICATION_JSON)
@@ -33,13 +43,89 @@ public class TransactionController {
 
     private final TransactionService transactionService = new TransactionServiceImpl();
     private final TransactionValidator transactionValidator = new TransactionValidator();
-    private final AccountService accountService = new AccountServiceImpl();
-    private final CustomerService customerService = new CustomerServiceImpl();
-    private final UserService userService = new UserServiceImpl(); 
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int IDEMPOTENCY_KEY_MAX_LENGTH = 100;
+    private static final long IDEMPOTENCY_WAIT_TIMEOUT_MS =
+            Long.parseLong(DBConfig.getProperty("idempotency.wait.timeout.ms", "30000").trim());
+    private static final IdempotencyCache<Response> IDEMPOTENCY_CACHE = new IdempotencyCache<>(
+            Integer.parseInt(DBConfig.getProperty("idempotency.cache.max.entries", "100000").trim()),
+            Long.parseLong(DBConfig.getProperty("idempotency.cache.ttl.ms", "86400000").trim()));
+
+    private static final int BATCH_MAX_ITEMS =
+            Integer.parseInt(DBConfig.getProperty("transaction.batch.max.items", "10000").trim());
+
+    private static final int HISTORY_PAGE_DEFAULT_SIZE =
+            Integer.parseInt(DBConfig.getProperty("transaction.history.page.default.size", "50").trim());
+    private static final int HISTORY_PAGE_MAX_SIZE =
+            Integer.parseInt(DBConfig.getProperty("transaction.history.page.max.size", "500").trim());
+
+    private static final String INVALID_DATE_RANGE = "Invalid date range. Use yyyy-MM-dd for 'from' and 'to', with 'from' not after 'to'";
 
     @POST
     @Path("/createTransaction")
-    public Response createTransaction(Transaction transaction) {
+    public Response createTransaction(Transaction transaction, @HeaderParam(IDEMPOTENCY_KEY_HEADER) String idempotencyKey) {
+        if (idempotencyKey == null || transaction == null) {
+            return executeTransaction(transaction);
+        }
+
+        String key = idempotencyKey.trim();
+        if (key.isEmpty() || key.length() > IDEMPOTENCY_KEY_MAX_LENGTH) {
+            System.err.println("VALIDATION FAILED: Invalid Idempotency-Key");
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Idempotency-Key must be between 1 and " + IDEMPOTENCY_KEY_MAX_LENGTH + " characters"))
+                .build();
+        }
+
+        String requestHash = requestHash(transaction);
+        IdempotencyCache.Claim<Response> claim = IDEMPOTENCY_CACHE.claim(key, requestHash);
+
+        if (claim.isConflict()) {
+            System.err.println("IDEMPOTENCY KEY REUSED FOR A DIFFERENT REQUEST: " + key);
+            return idempotencyKeyMismatch();
+        }
+
+        if (!claim.isOwner()) {
+            System.out.println("Idempotency-Key " + key + " seen before, replaying the original response");
+            try {
+                Response original = claim.await(IDEMPOTENCY_WAIT_TIMEOUT_MS);
+                if (original == null) {
+                    return Response.status(Response.Status.CONFLICT)
+                        .entity(ApiResponse.error("A request with this Idempotency-Key is still being processed"))
+                        .build();
+                }
+                return Response.fromResponse(original).build();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity(ApiResponse.error("Interrupted while waiting for the original request"))
+                    .build();
+            }
+        }
+
+        Response response = null;
+        try {
+            // The cache forgets keys after a restart or once they expire; the table does not.
+            Transaction original = transactionService.getTransactionByIdempotencyKey(key);
+            if (original != null) {
+                System.out.println("Idempotency-Key " + key + " already used by " + original.getTransactionId());
+                response = requestHash.equals(original.getRequestHash())
+                    ? transactionCreated(original.getTransactionId())
+                    : idempotencyKeyMismatch();
+            } else {
+                transaction.setIdempotencyKey(key);
+                transaction.setRequestHash(requestHash);
+                response = executeTransaction(transaction);
+            }
+            return Response.fromResponse(response).build();
+        } finally {
+            IDEMPOTENCY_CACHE.complete(claim, response, response != null
+                && (response.getStatus() == Response.Status.CREATED.getStatusCode()
+                    || response.getStatus() == Response.Status.ACCEPTED.getStatusCode()));
+        }
+    }
+
+    private Response executeTransaction(Transaction transaction) {
         try {
             System.out.println("\n=== TRANSACTION CREATION REQUEST ===");
 
@@ -92,7 +178,19 @@ public class TransactionController {
                     .build();
             }
 
-            Account senderAccount = accountService.getAccountByAccountNumber(transaction.getSenderAccountNumber());
+            // Both accounts, the sender's customer and user in one query; validation, the
+            // transfer and the emails below all reuse it.
+            TransferContext context = transactionService.loadTransferContext(
+                transaction.getSenderAccountNumber(), transaction.getReceiverAccountNumber());
+
+            if (context == null) {
+                System.err.println("TRANSFER CONTEXT LOOKUP FAILED");
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Failed to load account details"))
+                    .build();
+            }
+
+            Account senderAccount = context.getSenderAccount();
             
             if (senderAccount == null) {
                 System.err.println("SENDER ACCOUNT NOT FOUND");
@@ -111,7 +209,7 @@ public class TransactionController {
                         .build();
             }
 
-            Account receiverAccount = accountService.getAccountByAccountNumber(transaction.getReceiverAccountNumber());
+            Account receiverAccount = context.getReceiverAccount();
             
             if (receiverAccount == null) {
                 System.err.println("RECEIVER ACCOUNT NOT FOUND");
@@ -130,7 +228,7 @@ public class TransactionController {
                         .build();
             }
 
-            Customer customer = customerService.getCustomerById(senderAccount.getCustomerId());
+            Customer customer = context.getSenderCustomer();
             
             if (customer == null) {
                 System.err.println("CUSTOMER NOT FOUND");
@@ -142,7 +240,7 @@ public class TransactionController {
 
             try {
                 System.out.println("=== CHECKING USER ACCOUNT STATUS ===");
-                User senderUser = userService.getUserByEmail(customer.getEmail());
+                User senderUser = context.getSenderUser();
                 
                 if (senderUser != null) {
                     if (!senderUser.isActive()) {
@@ -180,7 +278,7 @@ public class TransactionController {
 
             System.out.println("PIN validation successful");
 
-            ValidationResult validationResult = transactionValidator.validateTransactionForCreation(transaction);
+            ValidationResult validationResult = transactionValidator.validateTransactionForCreation(transaction, context);
 
             if (!validationResult.isValid()) {
                 System.err.println("TRANSACTION VALIDATION FAILED");
@@ -191,14 +289,12 @@ public class TransactionController {
                     .build();
             }
 
-            String transactionId = transactionService.createTransaction(transaction);
+            String transactionId = transactionService.createTransaction(transaction, context);
 
             if (transactionId != null && transactionId.startsWith("TXN_")) {
                 System.out.println("TRANSACTION SUCCESSFUL");
                 System.out.println("Transaction ID: " + transactionId);
-                return Response.status(Response.Status.CREATED)
-                    .entity(ApiResponse.success("Transaction created successfully", transactionId))
-                    .build();
+                return transactionCreated(transactionId);
             } 
             else if ("INSUFFICIENT_BALANCE".equals(transactionId)) {
                 System.err.println("INSUFFICIENT BALANCE");
@@ -206,6 +302,16 @@ public class TransactionController {
                     .entity(ApiResponse.error("Insufficient balance for this transaction"))
                     .build();
             } 
+            else if ("IDEMPOTENCY_KEY_MISMATCH".equals(transactionId)) {
+                return idempotencyKeyMismatch();
+            } 
+            else if ("TRANSFER_PENDING".equals(transactionId)) {
+                // The transfer may still go through, so it must not be reported as failed and retried.
+                System.err.println("TRANSACTION PENDING: " + transaction.getTransactionId());
+                return Response.status(Response.Status.ACCEPTED)
+                    .entity(ApiResponse.success("Transfer accepted but not settled yet", transaction.getTransactionId()))
+                    .build();
+            } 
             else {
                 System.err.println("TRANSACTION CREATION FAILED");
                 return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -224,9 +330,150 @@ public class TransactionController {
         }
     }
 
+    // Same checks and transfer as createTransaction, run on the async workers. The response is
+    // 202 as soon as the transfer is queued; GET /transaction/status/{submissionId} follows it.
+    @POST
+    @Path("/submit")
+    public Response submitTransaction(Transaction transaction, @HeaderParam(IDEMPOTENCY_KEY_HEADER) String idempotencyKey) {
+        if (transaction == null) {
+            System.err.println("VALIDATION FAILED: Transaction object is null");
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Transaction data is required"))
+                .build();
+        }
+
+        TransferSubmission submission = TransferSubmissionQueue.getInstance()
+            .submit(() -> toOutcome(createTransaction(transaction, idempotencyKey)));
+
+        if (submission == null) {
+            System.err.println("ASYNC TRANSFER QUEUE FULL");
+            return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                .header("Retry-After", "1")
+                .entity(ApiResponse.error("Too many pending transfers. Please retry shortly."))
+                .build();
+        }
+
+        System.out.println("Transfer submitted: " + submission.getSubmissionId());
+        return Response.status(Response.Status.ACCEPTED)
+            .entity(ApiResponse.success("Transfer accepted for processing", submission))
+            .build();
+    }
+
+    @GET
+    @Path("/status/{submissionId}")
+    public Response getSubmissionStatus(@PathParam("submissionId") String submissionId) {
+        TransferSubmission submission = TransferSubmissionQueue.getInstance().getSubmission(submissionId);
+
+        if (submission == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(ApiResponse.error("Transfer submission not found or expired"))
+                .build();
+        }
+        return Response.ok(ApiResponse.success("Transfer status retrieved successfully", submission)).build();
+    }
+
+    private static TransferSubmissionQueue.Outcome toOutcome(Response response) {
+        ApiResponse<?> body = (ApiResponse<?>) response.getEntity();
+        if (response.getStatus() == Response.Status.CREATED.getStatusCode()) {
+            return TransferSubmissionQueue.Outcome.completed(String.valueOf(body.getData()), body.getMessage());
+        }
+        if (response.getStatus() == Response.Status.ACCEPTED.getStatusCode()) {
+            return TransferSubmissionQueue.Outcome.pending(String.valueOf(body.getData()), body.getMessage());
+        }
+        return TransferSubmissionQueue.Outcome.failed(body != null ? body.getMessage() : "Transaction failed");
+    }
+
+    private static Response transactionCreated(String transactionId) {
+        return Response.status(Response.Status.CREATED)
+            .entity(ApiResponse.success("Transaction created successfully", transactionId))
+            .build();
+    }
+
+    private static Response idempotencyKeyMismatch() {
+        return Response.status(422)
+            .entity(ApiResponse.error("Idempotency-Key was already used for a different request"))
+            .build();
+    }
+
+    // Everything that decides what a transfer does, so a retry with the same key but other
+    // details is rejected rather than answered with someone else's result. The PIN is left out:
+    // it does not change the transfer, and the hash is stored in idempotency_key.request_hash.
+    static String requestHash(Transaction transaction) {
+        String transactionType = transaction.getTransactionType() == null || transaction.getTransactionType().trim().isEmpty()
+            ? "ONLINE" : transaction.getTransactionType();
+        String amount = transaction.getAmount() != null ? transaction.getAmount().stripTrailingZeros().toPlainString() : null;
+        String canonical = String.join("\u0000",
+            String.valueOf(transaction.getSenderAccountNumber()),
+            String.valueOf(transaction.getReceiverAccountNumber()),
+            String.valueOf(amount),
+            transactionType,
+            String.valueOf(transaction.getDescription()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @POST
+    @Path("/batch")
+    public Response createTransactionBatch(List<Transaction> transactions) {
+        try {
+            System.out.println("\n=== BATCH TRANSACTION REQUEST ===");
+
+            if (transactions == null || transactions.isEmpty()) {
+                System.err.println("VALIDATION FAILED: Batch is empty");
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("At least one transaction is required"))
+                    .build();
+            }
+
+            if (transactions.size() > BATCH_MAX_ITEMS) {
+                System.err.println("VALIDATION FAILED: Batch of " + transactions.size() + " exceeds " + BATCH_MAX_ITEMS);
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("A batch may contain at most " + BATCH_MAX_ITEMS + " transactions"))
+                    .build();
+            }
+
+            List<BatchTransferResult> results = transactionService.createTransactionBatch(transactions);
+
+            int completed = 0;
+            for (BatchTransferResult result : results) {
+                if ("COMPLETED".equals(result.getStatus())) {
+                    completed++;
+                }
+            }
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("total", results.size());
+            summary.put("completed", completed);
+            summary.put("failed", results.size() - completed);
+            summary.put("results", results);
+
+            System.out.println("BATCH PROCESSED: " + completed + " of " + results.size() + " completed");
+            return Response.ok(ApiResponse.success(
+                    "Batch processed: " + completed + " of " + results.size() + " transactions completed", summary))
+                .build();
+
+        } catch (Exception e) {
+            System.err.println("EXCEPTION IN BATCH TRANSACTION");
+            System.err.println("Exception: " + e.getMessage());
+            e.printStackTrace();
+
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Internal server error: " + e.getMessage()))
+                .build();
+        }
+    }
+
     @GET
     @Path("/getTransactionsByAccountNumber/{accountNumber}")
-    public Response getTransactionsByAccountNumber(@PathParam("accountNumber") String accountNumber) {
+    public Response getTransactionsByAccountNumber(@PathParam("accountNumber") String accountNumber,
+                                                   @QueryParam("from") String from,
+                                                   @QueryParam("to") String to,
+                                                   @QueryParam("limit") Integer limit,
+                                                   @QueryParam("after") String after) {
         try {
             System.out.println("\n=== GET TRANSACTIONS REQUEST ===");
             System.out.println("Account Number: " + accountNumber);
@@ -238,7 +485,21 @@ public class TransactionController {
                     .build();
             }
 
-            List<Transaction> transactions = transactionService.getTransactionsByAccountNumber(accountNumber);
+            if (!isValidDateRange(from, to)) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error(INVALID_DATE_RANGE))
+                    .build();
+            }
+
+            // Asking for a limit or a cursor switches to keyset pages; without either the
+            // whole history comes back as a plain list, as before.
+            if (limit != null || after != null) {
+                return getTransactionPage(accountNumber, from, to, limit, after);
+            }
+
+            List<Transaction> transactions = hasDateRange(from, to)
+                ? transactionService.getTransactionsByAccountNumber(accountNumber, startOfDay(from), endOfDay(to))
+                : transactionService.getTransactionsByAccountNumber(accountNumber);
 
             if (transactions.isEmpty()) {
                 System.out.println("NO TRANSACTIONS FOUND");
@@ -264,19 +525,63 @@ public class TransactionController {
         }
     }
 
+    private Response getTransactionPage(String accountNumber, String from, String to, Integer limit, String after) {
+        int pageSize = limit != null ? limit : HISTORY_PAGE_DEFAULT_SIZE;
+        if (pageSize < 1 || pageSize > HISTORY_PAGE_MAX_SIZE) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Limit must be between 1 and " + HISTORY_PAGE_MAX_SIZE))
+                .build();
+        }
+
+        TransactionCursor cursor = null;
+        if (after != null) {
+            cursor = TransactionCursor.decode(after);
+            if (cursor == null) {
+                System.err.println("VALIDATION FAILED: Invalid cursor");
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("Invalid cursor"))
+                    .build();
+            }
+        }
+
+        TransactionPage page = transactionService.getTransactionPage(accountNumber, startOfDay(from), endOfDay(to),
+            cursor, pageSize);
+
+        if (page == null) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Failed to retrieve transactions"))
+                .build();
+        }
+
+        if (cursor == null && page.getTransactions().isEmpty()) {
+            System.out.println("NO TRANSACTIONS FOUND");
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(ApiResponse.error("No transactions found for account number: " + accountNumber))
+                .build();
+        }
+
+        System.out.println("TRANSACTION PAGE RETRIEVED SUCCESSFULLY");
+        System.out.println("Page Transactions: " + page.getTransactions().size());
+
+        return Response.ok(ApiResponse.success("Transactions retrieved successfully", page)).build();
+    }
+
     @GET
     @Path("/all")
-    public Response getAllTransactions() {
+    public Response getAllTransactions(@QueryParam("from") String from, @QueryParam("to") String to) {
         try {
             System.out.println("\n=== GET ALL TRANSACTIONS REQUEST ===");
             
-            List<Transaction> transactions = transactionService.getAllTransactions();
-            
-            System.out.println("TRANSACTIONS RETRIEVED SUCCESSFULLY");
-            System.out.println("Total Transactions: " + transactions.size());
-            
-            return Response.ok(ApiResponse.success("Transactions retrieved successfully", transactions))
-                .build();
+            if (!isValidDateRange(from, to)) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error(INVALID_DATE_RANGE))
+                    .build();
+            }
+
+            LocalDateTime start = startOfDay(from);
+            LocalDateTime end = endOfDay(to);
+            return JsonStreams.<Transaction>ok("Transactions retrieved successfully",
+                consumer -> transactionService.streamTransactionsBetween(start, end, consumer));
                 
         } catch (Exception e) {
             System.err.println("EXCEPTION IN FETCHING ALL TRANSACTIONS");
@@ -292,11 +597,20 @@ public class TransactionController {
     @GET
     @Path("/download/all")
     @Produces("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-    public Response downloadAllTransactionsExcel() {
+    public Response downloadAllTransactionsExcel(@QueryParam("from") String from, @QueryParam("to") String to) {
         try {
             System.out.println("\n=== DOWNLOAD ALL TRANSACTIONS REQUEST ===");
             
-            List<Transaction> transactions = transactionService.getAllTransactions();
+            if (!isValidDateRange(from, to)) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error(INVALID_DATE_RANGE))
+                        .type(MediaType.APPLICATION_JSON)
+                        .build();
+            }
+
+            List<Transaction> transactions = hasDateRange(from, to)
+                    ? transactionService.getTransactionsBetween(startOfDay(from), endOfDay(to))
+                    : transactionService.getAllTransactions();
             
             if (transactions.isEmpty()) {
                 System.out.println("No transactions found");
@@ -335,7 +649,9 @@ public class TransactionController {
     @GET
     @Path("/download/{accountNumber}")
     @Produces("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-    public Response downloadTransactionsByAccount(@PathParam("accountNumber") String accountNumber) {
+    public Response downloadTransactionsByAccount(@PathParam("accountNumber") String accountNumber,
+                                                  @QueryParam("from") String from,
+                                                  @QueryParam("to") String to) {
         System.out.println("\n=== DOWNLOAD TRANSACTIONS BY ACCOUNT REQUEST ===");
         System.out.println("Account Number: " + accountNumber);
         
@@ -348,7 +664,16 @@ public class TransactionController {
                         .build();
             }
             
-            List<Transaction> transactions = transactionService.getTransactionsByAccountNumber(accountNumber);
+            if (!isValidDateRange(from, to)) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error(INVALID_DATE_RANGE))
+                        .type(MediaType.APPLICATION_JSON)
+                        .build();
+            }
+
+            List<Transaction> transactions = hasDateRange(from, to)
+                    ? transactionService.getTransactionsByAccountNumber(accountNumber, startOfDay(from), endOfDay(to))
+                    : transactionService.getTransactionsByAccountNumber(accountNumber);
             
             if (transactions == null || transactions.isEmpty()) {
                 System.err.println("No transactions found for account: " + accountNumber);
@@ -399,38 +724,22 @@ public class TransactionController {
                         .build();
             }
            
-            String checkQuery = "SELECT COUNT(*) FROM Transaction WHERE transaction_id = ?";
-            try (java.sql.Connection conn = com.bank.simulator.config.DBConfig.getConnection();
-                 java.sql.PreparedStatement checkStmt = conn.prepareStatement(checkQuery)) {
-                
-                checkStmt.setString(1, transactionId);
-                java.sql.ResultSet rs = checkStmt.executeQuery();
-                
-                if (rs.next() && rs.getInt(1) == 0) {
-                    System.err.println("Transaction not found");
-                    return Response.status(Response.Status.NOT_FOUND)
-                            .entity(ApiResponse.error("Transaction not found"))
-                            .build();
-                }
+            if (!transactionService.transactionExists(transactionId)) {
+                System.err.println("Transaction not found");
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity(ApiResponse.error("Transaction not found"))
+                        .build();
             }
             
-            String deleteQuery = "DELETE FROM Transaction WHERE transaction_id = ?";
-            try (java.sql.Connection conn = com.bank.simulator.config.DBConfig.getConnection();
-                 java.sql.PreparedStatement deleteStmt = conn.prepareStatement(deleteQuery)) {
-                
-                deleteStmt.setString(1, transactionId);
-                int result = deleteStmt.executeUpdate();
-                
-                if (result > 0) {
-                    System.out.println("Transaction deleted successfully");
-                    return Response.ok()
-                            .entity(ApiResponse.success("Transaction deleted successfully"))
-                            .build();
-                } else {
-                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                            .entity(ApiResponse.error("Failed to delete transaction"))
-                            .build();
-                }
+            if (transactionService.deleteTransaction(transactionId)) {
+                System.out.println("Transaction deleted successfully");
+                return Response.ok()
+                        .entity(ApiResponse.success("Transaction deleted successfully"))
+                        .build();
+            } else {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(ApiResponse.error("Failed to delete transaction"))
+                        .build();
             }
             
         } catch (Exception e) {
@@ -441,4 +750,29 @@ public class TransactionController {
                     .build();
         }
     }
+
+    // 'from' and 'to' are inclusive calendar dates, turned into the half-open
+    // [from 00:00, day after 'to' 00:00) range on created_date.
+    private boolean hasDateRange(String from, String to) {
+        return (from != null && !from.trim().isEmpty()) || (to != null && !to.trim().isEmpty());
+    }
+
+    private boolean isValidDateRange(String from, String to) {
+        try {
+            LocalDateTime start = startOfDay(from);
+            LocalDateTime end = endOfDay(to);
+            return start == null || end == null || start.isBefore(end);
+        } catch (DateTimeParseException e) {
+            System.err.println("Invalid date parameter: " + e.getParsedString());
+            return false;
+        }
+    }
+
+    private LocalDateTime startOfDay(String date) {
+        return date != null && !date.trim().isEmpty() ? LocalDate.parse(date.trim()).atStartOfDay() : null;
+    }
+
+    private LocalDateTime endOfDay(String date) {
+        return date != null && !date.trim().isEmpty() ? LocalDate.parse(date.trim()).plusDays(1).atStartOfDay() : null;
+    }
 }
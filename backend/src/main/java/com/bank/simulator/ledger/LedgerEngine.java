@@ -0,0 +1,379 @@
+package com.bank.simulator.ledger;
+
+import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.repository.AccountRepository;
+import com.bank.simulator.repository.RepositoryFactory;
+import com.bank.simulator.repository.TransactionRepository;
+import com.bank.simulator.repository.TransferStatus;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Optional transfer engine (ledger.enabled=true). Balances live in the shards and are the
+// source of truth while it runs; Account.amount and Transaction catch up through the
+// write-behind writers. It must therefore be the only writer of balances: on MySQL it holds
+// a named lock for as long as it runs and refuses to start while another process holds it,
+// and writes that change accounts in other ways go through runExclusive.
+public final class LedgerEngine {
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(DBConfig.getProperty("ledger.enabled", "false").trim());
+    private static final long QUIESCE_POLL_MS = 5;
+    private static final String WRITER_LOCK = "bank_simulation_ledger_engine";
+
+    private static volatile LedgerEngine instance;
+    private static Connection writerLock;
+
+    public interface Write<T> {
+        T run() throws SQLException;
+    }
+
+    // What a submitter waits on. The sender's shard takes it before debiting; a caller that
+    // gives up can withdraw it only until then.
+    static final class Ticket extends CompletableFuture<TransferStatus> {
+        private static final int QUEUED = 0;
+        private static final int TAKEN = 1;
+        private static final int WITHDRAWN = 2;
+
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        boolean take() {
+            return state.compareAndSet(QUEUED, TAKEN);
+        }
+
+        boolean withdraw() {
+            return state.compareAndSet(QUEUED, WITHDRAWN);
+        }
+    }
+
+    private final LedgerShard[] shards;
+    private final LedgerWriter[] writers;
+    private final long settleTimeoutMs;
+    // Submissions hold the read side; runExclusive holds the write side to keep new ones out.
+    private final ReentrantReadWriteLock gate = new ReentrantReadWriteLock(true);
+    private final AtomicLong pendingCommands = new AtomicLong();
+    private final AtomicLong pendingWrites = new AtomicLong();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile boolean accepting = true;
+
+    LedgerEngine(int shardCount, int queueCapacity, int writeBatchSize, long settleTimeoutMs, int maxAccountsPerShard,
+                 AccountRepository accountRepository, TransactionRepository transactionRepository) {
+        this.settleTimeoutMs = settleTimeoutMs;
+        this.shards = new LedgerShard[shardCount];
+        this.writers = new LedgerWriter[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            writers[i] = new LedgerWriter(i, transactionRepository, this, writeBatchSize);
+            shards[i] = new LedgerShard(i, this, accountRepository, writers[i], queueCapacity, writeBatchSize,
+                    maxAccountsPerShard);
+        }
+        for (int i = 0; i < shardCount; i++) {
+            writers[i].start();
+            shards[i].start();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static LedgerEngine getInstance() {
+        LedgerEngine engine = instance;
+        if (engine == null) {
+            synchronized (LedgerEngine.class) {
+                if (instance == null) {
+                    int shards = Integer.parseInt(DBConfig.getProperty("ledger.shards", "4").trim());
+                    int queueCapacity = Integer.parseInt(DBConfig.getProperty("ledger.queue.capacity", "65536").trim());
+                    int writeBatchSize = Integer.parseInt(DBConfig.getProperty("ledger.write.batch.size", "500").trim());
+                    long settleTimeoutMs = Long.parseLong(DBConfig.getProperty("ledger.settle.timeout.ms", "30000").trim());
+                    int maxAccounts = Integer.parseInt(DBConfig.getProperty("ledger.shard.max.accounts", "250000").trim());
+
+                    if (!DBConfig.isInMemoryStorage()) {
+                        writerLock = acquireWriterLock();
+                    }
+                    instance = new LedgerEngine(shards, queueCapacity, writeBatchSize, settleTimeoutMs, maxAccounts,
+                            RepositoryFactory.getAccountRepository(), RepositoryFactory.getTransactionRepository());
+                    System.out.println("=== LEDGER ENGINE STARTED ===");
+                    System.out.println("Shards: " + shards + ", queue capacity: " + queueCapacity
+                            + ", write batch size: " + writeBatchSize);
+                }
+                engine = instance;
+            }
+        }
+        return engine;
+    }
+
+    public static synchronized void shutdownIfStarted() {
+        if (instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+        releaseWriterLock();
+    }
+
+    // For account writes other than transfers, such as edits and deletes: with the engine
+    // enabled they run while it is idle and it reloads balances afterwards.
+    public static <T> T runExclusiveIfEnabled(Write<T> write) throws SQLException {
+        return ENABLED ? getInstance().runExclusive(write) : write.run();
+    }
+
+    // The lock belongs to the session, so it is held on a connection kept for that alone.
+    private static Connection acquireWriterLock() {
+        Connection conn = null;
+        try {
+            conn = DBConfig.getConnection();
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+                stmt.setString(1, WRITER_LOCK);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next() && rs.getInt(1) == 1) {
+                        return conn;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            closeQuietly(conn);
+            throw new IllegalStateException("Could not take the ledger writer lock: " + e.getMessage(), e);
+        }
+        closeQuietly(conn);
+        throw new IllegalStateException("Another process is running the ledger engine on this database;"
+                + " a second one would settle against stale balances");
+    }
+
+    private static void releaseWriterLock() {
+        if (writerLock == null) {
+            return;
+        }
+        try (PreparedStatement stmt = writerLock.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, WRITER_LOCK);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            System.err.println("Warning: Could not release the ledger writer lock: " + e.getMessage());
+        }
+        closeQuietly(writerLock);
+        writerLock = null;
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("Warning: Could not close the ledger writer lock connection: " + e.getMessage());
+        }
+    }
+
+    public CompletableFuture<TransferStatus> submit(Transaction transaction) {
+        gate.readLock().lock();
+        try {
+            return enqueue(transaction);
+        } finally {
+            gate.readLock().unlock();
+        }
+    }
+
+    private CompletableFuture<TransferStatus> enqueue(Transaction transaction) {
+        if (!accepting) {
+            return CompletableFuture.failedFuture(new SQLTransientException("Ledger engine is shutting down"));
+        }
+
+        if (transaction.getSenderAccountNumber() == null) {
+            return CompletableFuture.completedFuture(TransferStatus.SENDER_NOT_FOUND);
+        }
+        if (transaction.getReceiverAccountNumber() == null) {
+            return CompletableFuture.completedFuture(TransferStatus.RECEIVER_NOT_FOUND);
+        }
+
+        Ticket result = new Ticket();
+        LedgerShard shard = shardFor(transaction.getSenderAccountNumber());
+        pendingCommands.incrementAndGet();
+        if (!shard.submit(new LedgerShard.Command(LedgerShard.Kind.DEBIT, transaction, result, null, null))) {
+            pendingCommands.decrementAndGet();
+            failed.increment();
+            return CompletableFuture.failedFuture(new SQLTransientException("Ledger queue is full"));
+        }
+
+        submitted.increment();
+        result.whenComplete((status, error) -> {
+            if (error != null) {
+                failed.increment();
+            } else if (status == TransferStatus.COMPLETED) {
+                completed.increment();
+            } else {
+                rejected.increment();
+            }
+        });
+        return result;
+    }
+
+    public TransferStatus transfer(Transaction transaction) throws SQLException {
+        return await(transaction, submit(transaction));
+    }
+
+    // PENDING means the caller stopped waiting after the sender's shard took the transfer, so
+    // it may still settle.
+    public TransferStatus await(Transaction transaction, CompletableFuture<TransferStatus> result) throws SQLException {
+        try {
+            return result.get(settleTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return giveUp(transaction, result, "did not settle within " + settleTimeoutMs + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return giveUp(transaction, result, "was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException("Ledger failed to apply " + transaction.getTransactionId(), e.getCause());
+        }
+    }
+
+    private static TransferStatus giveUp(Transaction transaction, CompletableFuture<TransferStatus> result,
+                                         String reason, Exception cause) throws SQLException {
+        String transactionId = transaction.getTransactionId();
+        if (result instanceof Ticket ticket && ticket.withdraw()) {
+            ticket.completeExceptionally(new SQLTransientException("Withdrawn by its caller"));
+            throw new SQLTransientException("Ledger transfer " + transactionId + " " + reason
+                    + "; the transfer was withdrawn and not applied", cause);
+        }
+        System.err.println("Ledger transfer " + transactionId + " " + reason + " after being taken; it may still settle");
+        return TransferStatus.PENDING;
+    }
+
+    // Holds new transfers back, waits for the ones in flight to settle and be written, runs the
+    // write, and then drops every loaded balance so the next transfers read what it left.
+    public <T> T runExclusive(Write<T> write) throws SQLException {
+        gate.writeLock().lock();
+        try {
+            if (!flush(settleTimeoutMs)) {
+                throw new SQLTransientException("Ledger did not drain within " + settleTimeoutMs + " ms");
+            }
+            try {
+                return write.run();
+            } finally {
+                evictAll();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientException("Interrupted while waiting for the ledger to drain", e);
+        } finally {
+            gate.writeLock().unlock();
+        }
+    }
+
+    private void evictAll() throws SQLException {
+        List<Ticket> evictions = new ArrayList<>(shards.length);
+        for (LedgerShard shard : shards) {
+            Ticket eviction = new Ticket();
+            pendingCommands.incrementAndGet();
+            shard.handoff(new LedgerShard.Command(LedgerShard.Kind.EVICT, null, eviction, null, null));
+            evictions.add(eviction);
+        }
+        for (Ticket eviction : evictions) {
+            try {
+                eviction.get(settleTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                throw new SQLException("Ledger could not drop its loaded balances", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientException("Interrupted while the ledger dropped its loaded balances", e);
+            }
+        }
+    }
+
+    // Waits until every queued command has been applied and every settled transfer written.
+    public boolean flush(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (pendingCommands.get() > 0 || pendingWrites.get() > 0) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(QUIESCE_POLL_MS);
+        }
+        return true;
+    }
+
+    public void shutdown() {
+        accepting = false;
+        try {
+            if (!flush(settleTimeoutMs)) {
+                System.err.println("Ledger did not drain within " + settleTimeoutMs + " ms. Stopping anyway.");
+            }
+            for (LedgerShard shard : shards) {
+                shard.stop();
+            }
+            for (LedgerWriter writer : writers) {
+                writer.stop();
+            }
+            System.out.println("Ledger engine stopped. Pending writes: " + pendingWrites.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public LedgerStats getStats() {
+        LedgerStats stats = new LedgerStats();
+        int[] queueDepths = new int[shards.length];
+        int cachedAccounts = 0;
+        long persisted = 0;
+        long failedWriteBatches = 0;
+        for (int i = 0; i < shards.length; i++) {
+            queueDepths[i] = shards[i].queueDepth();
+            cachedAccounts += shards[i].cachedAccounts();
+            persisted += writers[i].persisted();
+            failedWriteBatches += writers[i].failedBatches();
+        }
+
+        stats.setShards(shards.length);
+        stats.setSubmitted(submitted.sum());
+        stats.setCompleted(completed.sum());
+        stats.setRejected(rejected.sum());
+        stats.setFailed(failed.sum());
+        stats.setPendingCommands(pendingCommands.get());
+        stats.setPendingWrites(pendingWrites.get());
+        stats.setPersisted(persisted);
+        stats.setFailedWriteBatches(failedWriteBatches);
+        stats.setQueueDepths(queueDepths);
+        stats.setCachedAccounts(cachedAccounts);
+        return stats;
+    }
+
+    void route(LedgerShard.Command command, String accountNumber) {
+        LedgerShard shard = shardFor(accountNumber);
+        pendingCommands.incrementAndGet();
+        shard.handoff(command);
+    }
+
+    void commandProcessed() {
+        pendingCommands.decrementAndGet();
+    }
+
+    void writeQueued() {
+        pendingWrites.incrementAndGet();
+    }
+
+    void writesCompleted(int count) {
+        pendingWrites.addAndGet(-count);
+    }
+
+    private LedgerShard shardFor(String accountNumber) {
+        return shards[Math.floorMod(accountNumber.hashCode(), shards.length)];
+    }
+}
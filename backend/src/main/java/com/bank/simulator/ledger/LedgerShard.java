@@ -0,0 +1,259 @@
+package com.bank.simulator.ledger;
+
+import com.bank.simulator.model.Account;
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.repository.AccountRepository;
+import com.bank.simulator.repository.TransferStatus;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// One writer thread owns the balances of every account that hashes to this shard, so they
+// are read and changed without locks. A transfer is debited on the sender's shard and
+// handed to the receiver's shard to be credited; if the receiver turns out not to exist
+// the amount is handed back and refunded. Money is therefore always either in exactly one
+// balance or in exactly one queued command. A loaded balance may only be dropped once every
+// change to it has been written, since reloading it before then would lose those changes.
+final class LedgerShard implements Runnable {
+
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+    private static final int TRIM_SCAN_LIMIT = 64;
+
+    // EVICT drops every loaded balance; it carries no transaction.
+    enum Kind { DEBIT, CREDIT, REFUND, EVICT }
+
+    static final class Command {
+        final Kind kind;
+        final Transaction transaction;
+        final LedgerEngine.Ticket result;
+        final Balance sender;
+        final Throwable failure;
+
+        Command(Kind kind, Transaction transaction, LedgerEngine.Ticket result, Balance sender, Throwable failure) {
+            this.kind = kind;
+            this.transaction = transaction;
+            this.result = result;
+            this.sender = sender;
+            this.failure = failure;
+        }
+    }
+
+    static final class Balance {
+        final String accountId;
+        BigDecimal amount;
+        // Changes applied here that the writers have not stored yet.
+        final AtomicInteger unwritten = new AtomicInteger();
+
+        Balance(String accountId, BigDecimal amount) {
+            this.accountId = accountId;
+            this.amount = amount;
+        }
+    }
+
+    private final int index;
+    private final LedgerEngine engine;
+    private final AccountRepository accountRepository;
+    private final LedgerWriter writer;
+    private final int drainLimit;
+    private final int maxAccounts;
+    private final ArrayBlockingQueue<Command> submissions;
+    // Hand-offs from other shards are unbounded so two shards feeding each other can never
+    // block on each other's full queue.
+    private final ConcurrentLinkedQueue<Command> handoffs = new ConcurrentLinkedQueue<>();
+    private final LinkedHashMap<String, Balance> balances = new LinkedHashMap<>(16, 0.75f, true);
+    private final List<Command> drained = new ArrayList<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile int cachedAccounts;
+
+    LedgerShard(int index, LedgerEngine engine, AccountRepository accountRepository, LedgerWriter writer,
+                int queueCapacity, int drainLimit, int maxAccounts) {
+        this.index = index;
+        this.engine = engine;
+        this.accountRepository = accountRepository;
+        this.writer = writer;
+        this.drainLimit = drainLimit;
+        this.maxAccounts = maxAccounts;
+        this.submissions = new ArrayBlockingQueue<>(queueCapacity);
+        this.thread = new Thread(this, "ledger-shard-" + index);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    boolean submit(Command command) {
+        if (!submissions.offer(command)) {
+            return false;
+        }
+        LockSupport.unpark(thread);
+        return true;
+    }
+
+    void handoff(Command command) {
+        handoffs.add(command);
+        LockSupport.unpark(thread);
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join();
+    }
+
+    int queueDepth() {
+        return submissions.size() + handoffs.size();
+    }
+
+    int cachedAccounts() {
+        return cachedAccounts;
+    }
+
+    @Override
+    public void run() {
+        while (running || !handoffs.isEmpty() || !submissions.isEmpty()) {
+            int processed = 0;
+
+            Command command;
+            while ((command = handoffs.poll()) != null) {
+                process(command);
+                processed++;
+            }
+
+            submissions.drainTo(drained, drainLimit);
+            for (Command submitted : drained) {
+                process(submitted);
+            }
+            processed += drained.size();
+            drained.clear();
+
+            if (processed == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    void process(Command command) {
+        try {
+            apply(command);
+        } catch (RuntimeException e) {
+            System.err.println("Ledger shard " + index + " failed on "
+                    + (command.transaction != null ? command.transaction.getTransactionId() : command.kind)
+                    + ": " + e.getMessage());
+            e.printStackTrace();
+            command.result.completeExceptionally(e);
+        } finally {
+            engine.commandProcessed();
+        }
+    }
+
+    private void apply(Command command) {
+        Transaction transaction = command.transaction;
+
+        switch (command.kind) {
+            case DEBIT: {
+                if (!command.result.take()) {
+                    return;
+                }
+                Balance sender;
+                try {
+                    sender = balance(transaction.getSenderAccountNumber());
+                } catch (SQLException e) {
+                    command.result.completeExceptionally(e);
+                    return;
+                }
+                if (sender == null) {
+                    command.result.complete(TransferStatus.SENDER_NOT_FOUND);
+                    return;
+                }
+                if (sender.amount.compareTo(transaction.getAmount()) < 0) {
+                    command.result.complete(TransferStatus.INSUFFICIENT_BALANCE);
+                    return;
+                }
+                sender.amount = sender.amount.subtract(transaction.getAmount());
+                sender.unwritten.incrementAndGet();
+                transaction.setAccountId(sender.accountId);
+                engine.route(new Command(Kind.CREDIT, transaction, command.result, sender, null),
+                        transaction.getReceiverAccountNumber());
+                return;
+            }
+            case CREDIT: {
+                Balance receiver;
+                try {
+                    receiver = balance(transaction.getReceiverAccountNumber());
+                } catch (SQLException e) {
+                    engine.route(new Command(Kind.REFUND, transaction, command.result, command.sender, e),
+                            transaction.getSenderAccountNumber());
+                    return;
+                }
+                if (receiver == null) {
+                    engine.route(new Command(Kind.REFUND, transaction, command.result, command.sender, null),
+                            transaction.getSenderAccountNumber());
+                    return;
+                }
+                receiver.amount = receiver.amount.add(transaction.getAmount());
+                receiver.unwritten.incrementAndGet();
+                writer.append(transaction, command.sender, receiver);
+                command.result.complete(TransferStatus.COMPLETED);
+                return;
+            }
+            case REFUND: {
+                Balance sender = command.sender;
+                sender.amount = sender.amount.add(transaction.getAmount());
+                sender.unwritten.decrementAndGet();
+                if (command.failure != null) {
+                    command.result.completeExceptionally(command.failure);
+                } else {
+                    command.result.complete(TransferStatus.RECEIVER_NOT_FOUND);
+                }
+                return;
+            }
+            case EVICT: {
+                balances.clear();
+                cachedAccounts = 0;
+                command.result.complete(TransferStatus.COMPLETED);
+                return;
+            }
+            default:
+                throw new IllegalStateException("Unknown ledger command " + command.kind);
+        }
+    }
+
+    // Loaded on first use; after that this shard's copy is the balance until it is dropped.
+    // Misses are not cached so an account opened later is picked up.
+    private Balance balance(String accountNumber) throws SQLException {
+        Balance balance = balances.get(accountNumber);
+        if (balance == null) {
+            Account account = accountRepository.findByAccountNumber(accountNumber);
+            if (account == null) {
+                return null;
+            }
+            trim(maxAccounts - 1);
+            balance = new Balance(account.getAccountId(), account.getAmount());
+            balances.put(accountNumber, balance);
+            cachedAccounts = balances.size();
+        }
+        return balance;
+    }
+
+    // Drops least recently used balances that are fully written until at most limit are left.
+    // Balances with changes still on their way to the database stay, so the map can exceed
+    // the limit while the writers are behind.
+    private void trim(int limit) {
+        Iterator<Balance> iterator = balances.values().iterator();
+        for (int scanned = 0; balances.size() > limit && scanned < TRIM_SCAN_LIMIT && iterator.hasNext(); scanned++) {
+            if (iterator.next().unwritten.get() == 0) {
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.bank.simulator.ledger;
+
+public class LedgerStats {
+    private int shards;
+    private long submitted;
+    private long completed;
+    private long rejected;
+    private long failed;
+    private long pendingCommands;
+    private long pendingWrites;
+    private long persisted;
+    private long failedWriteBatches;
+    private int[] queueDepths;
+    private int cachedAccounts;
+
+    public LedgerStats() {}
+
+    public int getShards() { return shards; }
+    public void setShards(int shards) { this.shards = shards; }
+
+    public long getSubmitted() { return submitted; }
+    public void setSubmitted(long submitted) { this.submitted = submitted; }
+
+    public long getCompleted() { return completed; }
+    public void setCompleted(long completed) { this.completed = completed; }
+
+    public long getRejected() { return rejected; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public long getPendingCommands() { return pendingCommands; }
+    public void setPendingCommands(long pendingCommands) { this.pendingCommands = pendingCommands; }
+
+    public long getPendingWrites() { return pendingWrites; }
+    public void setPendingWrites(long pendingWrites) { this.pendingWrites = pendingWrites; }
+
+    public long getPersisted() { return persisted; }
+    public void setPersisted(long persisted) { this.persisted = persisted; }
+
+    public long getFailedWriteBatches() { return failedWriteBatches; }
+    public void setFailedWriteBatches(long failedWriteBatches) { this.failedWriteBatches = failedWriteBatches; }
+
+    public int[] getQueueDepths() { return queueDepths; }
+    public void setQueueDepths(int[] queueDepths) { this.queueDepths = queueDepths; }
+
+    public int getCachedAccounts() { return cachedAccounts; }
+    public void setCachedAccounts(int cachedAccounts) { this.cachedAccounts = cachedAccounts; }
+}
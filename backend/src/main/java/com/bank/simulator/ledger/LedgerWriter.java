@@ -0,0 +1,137 @@
+package com.bank.simulator.ledger;
+
+import com.bank.simulator.config.AccountCache;
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.repository.TransactionRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Write-behind for one shard. Settled transfers are written in batches, each batch in one
+// database transaction holding both sides of every transfer in it, so the stored balances
+// only ever move by whole transfers. A failed batch is retried until it is written.
+final class LedgerWriter implements Runnable {
+
+    private static final class Settled {
+        final Transaction transaction;
+        final LedgerShard.Balance sender;
+        final LedgerShard.Balance receiver;
+
+        Settled(Transaction transaction, LedgerShard.Balance sender, LedgerShard.Balance receiver) {
+            this.transaction = transaction;
+            this.sender = sender;
+            this.receiver = receiver;
+        }
+    }
+
+    private static final long POLL_MS = 50;
+    private static final long MAX_BACKOFF_MS = 5000;
+    private static final int ATTEMPTS_AFTER_STOP = 5;
+
+    private final TransactionRepository transactionRepository;
+    private final LedgerEngine engine;
+    private final int batchSize;
+    private final LinkedBlockingQueue<Settled> settled = new LinkedBlockingQueue<>();
+    private final LongAdder persisted = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    LedgerWriter(int index, TransactionRepository transactionRepository, LedgerEngine engine, int batchSize) {
+        this.transactionRepository = transactionRepository;
+        this.engine = engine;
+        this.batchSize = batchSize;
+        this.thread = new Thread(this, "ledger-writer-" + index);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void append(Transaction transaction, LedgerShard.Balance sender, LedgerShard.Balance receiver) {
+        engine.writeQueued();
+        settled.add(new Settled(transaction, sender, receiver));
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        thread.join();
+    }
+
+    int backlog() {
+        return settled.size();
+    }
+
+    long persisted() {
+        return persisted.sum();
+    }
+
+    long failedBatches() {
+        return failedBatches.sum();
+    }
+
+    @Override
+    public void run() {
+        List<Settled> batch = new ArrayList<>(batchSize);
+        while (running || !settled.isEmpty()) {
+            try {
+                Settled first = settled.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                settled.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                engine.writesCompleted(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Settled> batch) throws InterruptedException {
+        long backoffMs = 50;
+        int attemptsAfterStop = 0;
+        List<Transaction> transactions = new ArrayList<>(batch.size());
+        for (Settled entry : batch) {
+            transactions.add(entry.transaction);
+        }
+
+        while (true) {
+            try {
+                transactionRepository.appendSettled(transactions);
+                persisted.add(batch.size());
+                for (Settled entry : batch) {
+                    entry.sender.unwritten.decrementAndGet();
+                    entry.receiver.unwritten.decrementAndGet();
+                    AccountCache.getInstance().invalidate(entry.transaction.getSenderAccountNumber(),
+                            entry.transaction.getReceiverAccountNumber());
+                }
+                return;
+            } catch (SQLException e) {
+                failedBatches.increment();
+                System.err.println("Ledger write-behind of " + batch.size() + " transfers failed: " + e.getMessage()
+                        + ". Retrying in " + backoffMs + " ms");
+
+                if (!running && ++attemptsAfterStop >= ATTEMPTS_AFTER_STOP) {
+                    System.err.println("!!! Ledger shutting down with unwritten transfers !!!");
+                    for (Transaction transaction : transactions) {
+                        System.err.println("  " + transaction.getTransactionId() + " " + transaction.getSenderAccountNumber()
+                                + " -> " + transaction.getReceiverAccountNumber() + " " + transaction.getAmount());
+                    }
+                    return;
+                }
+                Thread.sleep(backoffMs);
+                backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.bank.simulator.model;
+
+public class AccountHolder {
+    private String name;
+    private String email;
+    private String bankName;
+    private String accountNumber;
+
+    public AccountHolder() {}
+
+    public AccountHolder(String name, String email, String bankName, String accountNumber) {
+        this.name = name;
+        this.email = email;
+        this.bankName = bankName;
+        this.accountNumber = accountNumber;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public String getBankName() { return bankName; }
+    public void setBankName(String bankName) { this.bankName = bankName; }
+
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+}
@@ -0,0 +1,29 @@
+package com.bank.simulator.model;
+
+public class BatchTransferResult {
+    private int index;
+    private String status;
+    private String transactionId;
+    private String message;
+
+    public BatchTransferResult() {}
+
+    public BatchTransferResult(int index, String status, String transactionId, String message) {
+        this.index = index;
+        this.status = status;
+        this.transactionId = transactionId;
+        this.message = message;
+    }
+
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getTransactionId() { return transactionId; }
+    public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,112 @@
+package com.bank.simulator.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// A recurring or future-dated transfer. occurrence counts the runs already settled, so the
+// next one is due at startAt plus occurrence periods; nextRunAt is later than that while a
+// failed run waits for its retry. pendingTransactionId is set while a run is in flight, and
+// claimedAt says when that run was claimed.
+public class StandingInstruction {
+
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String pin;
+
+    private String instructionId;
+    private String senderAccountNumber;
+    private String receiverAccountNumber;
+    private BigDecimal amount;
+    private String description;
+    private String frequency;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime startAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime endAt;
+
+    private int occurrence;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime nextRunAt;
+
+    private String status;
+    private int failureCount;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime lastRunAt;
+
+    private String lastTransactionId;
+    private String lastError;
+
+    @JsonIgnore
+    private String pendingTransactionId;
+
+    @JsonIgnore
+    private LocalDateTime claimedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    public StandingInstruction() {}
+
+    public String getPin() { return pin; }
+    public void setPin(String pin) { this.pin = pin; }
+
+    public String getInstructionId() { return instructionId; }
+    public void setInstructionId(String instructionId) { this.instructionId = instructionId; }
+
+    public String getSenderAccountNumber() { return senderAccountNumber; }
+    public void setSenderAccountNumber(String senderAccountNumber) { this.senderAccountNumber = senderAccountNumber; }
+
+    public String getReceiverAccountNumber() { return receiverAccountNumber; }
+    public void setReceiverAccountNumber(String receiverAccountNumber) { this.receiverAccountNumber = receiverAccountNumber; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getFrequency() { return frequency; }
+    public void setFrequency(String frequency) { this.frequency = frequency; }
+
+    public LocalDateTime getStartAt() { return startAt; }
+    public void setStartAt(LocalDateTime startAt) { this.startAt = startAt; }
+
+    public LocalDateTime getEndAt() { return endAt; }
+    public void setEndAt(LocalDateTime endAt) { this.endAt = endAt; }
+
+    public int getOccurrence() { return occurrence; }
+    public void setOccurrence(int occurrence) { this.occurrence = occurrence; }
+
+    public LocalDateTime getNextRunAt() { return nextRunAt; }
+    public void setNextRunAt(LocalDateTime nextRunAt) { this.nextRunAt = nextRunAt; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getFailureCount() { return failureCount; }
+    public void setFailureCount(int failureCount) { this.failureCount = failureCount; }
+
+    public LocalDateTime getLastRunAt() { return lastRunAt; }
+    public void setLastRunAt(LocalDateTime lastRunAt) { this.lastRunAt = lastRunAt; }
+
+    public String getLastTransactionId() { return lastTransactionId; }
+    public void setLastTransactionId(String lastTransactionId) { this.lastTransactionId = lastTransactionId; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public String getPendingTransactionId() { return pendingTransactionId; }
+    public void setPendingTransactionId(String pendingTransactionId) { this.pendingTransactionId = pendingTransactionId; }
+
+    public LocalDateTime getClaimedAt() { return claimedAt; }
+    public void setClaimedAt(LocalDateTime claimedAt) { this.claimedAt = claimedAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
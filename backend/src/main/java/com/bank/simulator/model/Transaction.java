@@ -15,6 +15,12 @@ public class Transaction {
     
     @JsonIgnore
     private String accountId;
+
+    @JsonIgnore
+    private String idempotencyKey;
+
+    @JsonIgnore
+    private String requestHash;
     
     private String senderAccountNumber;
     private String receiverAccountNumber;
@@ -68,6 +74,22 @@ public class Transaction {
         this.accountId = accountId;
     }
 
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
     public String getSenderAccountNumber() {
         return senderAccountNumber;
     }
@@ -0,0 +1,48 @@
+package com.bank.simulator.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Keyset position in an account's history: the (createdDate, transactionId) of the last row
+// a page returned. The next page starts strictly after it in newest-first order. Clients
+// get it as an opaque URL-safe token.
+public class TransactionCursor {
+    private final LocalDateTime createdDate;
+    private final String transactionId;
+
+    public TransactionCursor(LocalDateTime createdDate, String transactionId) {
+        this.createdDate = createdDate;
+        this.transactionId = transactionId;
+    }
+
+    public LocalDateTime getCreatedDate() { return createdDate; }
+    public String getTransactionId() { return transactionId; }
+
+    public static TransactionCursor after(Transaction transaction) {
+        return new TransactionCursor(transaction.getCreatedDate(), transaction.getTransactionId());
+    }
+
+    public String encode() {
+        String raw = createdDate + "|" + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null for anything that is not a token produced by encode().
+    public static TransactionCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator <= 0 || separator == raw.length() - 1) {
+                return null;
+            }
+            return new TransactionCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.bank.simulator.model;
+
+import java.util.List;
+
+// One page of an account's history, newest first. nextCursor is null on the last page.
+public class TransactionPage {
+    private List<Transaction> transactions;
+    private String nextCursor;
+    private int limit;
+
+    public TransactionPage() {}
+
+    public TransactionPage(List<Transaction> transactions, String nextCursor, int limit) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    public List<Transaction> getTransactions() { return transactions; }
+    public void setTransactions(List<Transaction> transactions) { this.transactions = transactions; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
@@ -0,0 +1,28 @@
+package com.bank.simulator.model;
+
+// Everything the single-transfer path needs about both parties, loaded in one query.
+// A side that does not exist is null; senderUser is null when no login uses the sender's email.
+public class TransferContext {
+    private Account senderAccount;
+    private Account receiverAccount;
+    private Customer senderCustomer;
+    private Customer receiverCustomer;
+    private User senderUser;
+
+    public TransferContext() {}
+
+    public Account getSenderAccount() { return senderAccount; }
+    public void setSenderAccount(Account senderAccount) { this.senderAccount = senderAccount; }
+
+    public Account getReceiverAccount() { return receiverAccount; }
+    public void setReceiverAccount(Account receiverAccount) { this.receiverAccount = receiverAccount; }
+
+    public Customer getSenderCustomer() { return senderCustomer; }
+    public void setSenderCustomer(Customer senderCustomer) { this.senderCustomer = senderCustomer; }
+
+    public Customer getReceiverCustomer() { return receiverCustomer; }
+    public void setReceiverCustomer(Customer receiverCustomer) { this.receiverCustomer = receiverCustomer; }
+
+    public User getSenderUser() { return senderUser; }
+    public void setSenderUser(User senderUser) { this.senderUser = senderUser; }
+}
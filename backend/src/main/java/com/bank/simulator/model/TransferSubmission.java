@@ -0,0 +1,47 @@
+package com.bank.simulator.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+public class TransferSubmission {
+    private String submissionId;
+    private String status;
+    private String transactionId;
+    private String message;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime submittedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime completedAt;
+
+    public TransferSubmission() {}
+
+    public TransferSubmission(String submissionId, String status, String transactionId, String message,
+                              LocalDateTime submittedAt, LocalDateTime completedAt) {
+        this.submissionId = submissionId;
+        this.status = status;
+        this.transactionId = transactionId;
+        this.message = message;
+        this.submittedAt = submittedAt;
+        this.completedAt = completedAt;
+    }
+
+    public String getSubmissionId() { return submissionId; }
+    public void setSubmissionId(String submissionId) { this.submissionId = submissionId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getTransactionId() { return transactionId; }
+    public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -0,0 +1,35 @@
+package com.bank.simulator.repository;
+
+import com.bank.simulator.model.Account;
+import com.bank.simulator.model.AccountHolder;
+import com.bank.simulator.model.TransferContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface AccountRepository {
+    boolean insert(Account account) throws SQLException;
+    Account findById(String accountId) throws SQLException;
+    Account findByCustomerId(String customerId) throws SQLException;
+    Account findByAccountNumber(String accountNumber) throws SQLException;
+    // Keyed by account number; numbers with no account are left out.
+    Map<String, Account> findByAccountNumbers(Collection<String> accountNumbers) throws SQLException;
+    List<Account> findAll() throws SQLException;
+    // Same rows and order as findAll, handed over one at a time without building the list.
+    void streamAll(RowConsumer<Account> consumer) throws SQLException, IOException;
+    boolean update(String accountId, Account account) throws SQLException;
+    boolean deleteWithTransactions(String accountId) throws SQLException;
+    boolean existsById(String accountId) throws SQLException;
+    boolean existsByAccountNumber(String accountNumber) throws SQLException;
+    boolean existsByAccountNumberForOtherAccount(String accountNumber, String accountId) throws SQLException;
+    BigDecimal findBalanceByAccountNumber(String accountNumber) throws SQLException;
+    AccountHolder findHolderByAccountNumber(String accountNumber) throws SQLException;
+    // Both accounts with their customers, plus the login of the sender's customer, in one
+    // round trip. Only the sender's customer carries the PIN.
+    TransferContext findTransferContext(String senderAccountNumber, String receiverAccountNumber) throws SQLException;
+    int findMaxAccountSequence() throws SQLException;
+}
@@ -0,0 +1,31 @@
+package com.bank.simulator.repository;
+
+import com.bank.simulator.model.Customer;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface CustomerRepository {
+    boolean insert(Customer customer) throws SQLException;
+    Customer findById(String customerId) throws SQLException;
+    Map<String, Customer> findByIds(Collection<String> customerIds) throws SQLException;
+    Customer findByAadharNumber(String aadharNumber) throws SQLException;
+    Customer findByPhoneNumber(String phoneNumber) throws SQLException;
+    List<Customer> findAll() throws SQLException;
+    void streamAll(RowConsumer<Customer> consumer) throws SQLException, IOException;
+    boolean update(String customerId, Customer customer) throws SQLException;
+    boolean deleteById(String customerId) throws SQLException;
+    boolean deleteByAadharNumber(String aadharNumber) throws SQLException;
+    boolean existsByPhoneNumber(String phoneNumber) throws SQLException;
+    boolean existsByEmail(String email) throws SQLException;
+    boolean existsByAadharNumber(String aadharNumber) throws SQLException;
+    boolean existsByPhoneNumberForOtherCustomer(String phoneNumber, String customerId) throws SQLException;
+    boolean existsByEmailForOtherCustomer(String email, String customerId) throws SQLException;
+    boolean existsByAadharNumberForOtherCustomer(String aadharNumber, String customerId) throws SQLException;
+    String findCustomerIdByAadharNumber(String aadharNumber) throws SQLException;
+    String findPhoneNumberById(String customerId) throws SQLException;
+    int findMaxCustomerSequence() throws SQLException;
+}
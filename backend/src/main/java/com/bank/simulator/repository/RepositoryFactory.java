@@ -0,0 +1,74 @@
+package com.bank.simulator.repository;
+
+import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.repository.jdbc.JdbcAccountRepository;
+import com.bank.simulator.repository.jdbc.JdbcCustomerRepository;
+import com.bank.simulator.repository.jdbc.JdbcSequenceRepository;
+import com.bank.simulator.repository.jdbc.JdbcStandingInstructionRepository;
+import com.bank.simulator.repository.jdbc.JdbcTransactionRepository;
+import com.bank.simulator.repository.jdbc.JdbcUserRepository;
+import com.bank.simulator.repository.memory.InMemoryAccountRepository;
+import com.bank.simulator.repository.memory.InMemoryCustomerRepository;
+import com.bank.simulator.repository.memory.InMemorySequenceRepository;
+import com.bank.simulator.repository.memory.InMemoryStandingInstructionRepository;
+import com.bank.simulator.repository.memory.InMemoryStore;
+import com.bank.simulator.repository.memory.InMemoryTransactionRepository;
+import com.bank.simulator.repository.memory.InMemoryUserRepository;
+
+public class RepositoryFactory {
+    private static final AccountRepository ACCOUNT_REPOSITORY;
+    private static final CustomerRepository CUSTOMER_REPOSITORY;
+    private static final TransactionRepository TRANSACTION_REPOSITORY;
+    private static final UserRepository USER_REPOSITORY;
+    private static final SequenceRepository SEQUENCE_REPOSITORY;
+    private static final StandingInstructionRepository STANDING_INSTRUCTION_REPOSITORY;
+
+    static {
+        if (DBConfig.isInMemoryStorage()) {
+            int lockStripes = Integer.parseInt(DBConfig.getProperty("storage.memory.lock.stripes", "64").trim());
+            InMemoryStore store = new InMemoryStore(lockStripes);
+            ACCOUNT_REPOSITORY = new InMemoryAccountRepository(store);
+            CUSTOMER_REPOSITORY = new InMemoryCustomerRepository(store);
+            TRANSACTION_REPOSITORY = new InMemoryTransactionRepository(store);
+            USER_REPOSITORY = new InMemoryUserRepository(store);
+            SEQUENCE_REPOSITORY = new InMemorySequenceRepository(store);
+            STANDING_INSTRUCTION_REPOSITORY = new InMemoryStandingInstructionRepository(store);
+            System.out.println("=== STORAGE ENGINE: IN-MEMORY (" + lockStripes + " lock stripes) ===");
+            System.out.println("Data is kept in process memory and is lost on restart.");
+        } else {
+            ACCOUNT_REPOSITORY = new JdbcAccountRepository();
+            CUSTOMER_REPOSITORY = new JdbcCustomerRepository();
+            TRANSACTION_REPOSITORY = new JdbcTransactionRepository();
+            USER_REPOSITORY = new JdbcUserRepository();
+            SEQUENCE_REPOSITORY = new JdbcSequenceRepository();
+            STANDING_INSTRUCTION_REPOSITORY = new JdbcStandingInstructionRepository();
+            System.out.println("=== STORAGE ENGINE: MYSQL ===");
+        }
+    }
+
+    private RepositoryFactory() {}
+
+    public static AccountRepository getAccountRepository() {
+        return ACCOUNT_REPOSITORY;
+    }
+
+    public static CustomerRepository getCustomerRepository() {
+        return CUSTOMER_REPOSITORY;
+    }
+
+    public static TransactionRepository getTransactionRepository() {
+        return TRANSACTION_REPOSITORY;
+    }
+
+    public static UserRepository getUserRepository() {
+        return USER_REPOSITORY;
+    }
+
+    public static SequenceRepository getSequenceRepository() {
+        return SEQUENCE_REPOSITORY;
+    }
+
+    public static StandingInstructionRepository getStandingInstructionRepository() {
+        return STANDING_INSTRUCTION_REPOSITORY;
+    }
+}
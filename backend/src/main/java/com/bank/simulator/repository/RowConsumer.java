@@ -0,0 +1,10 @@
+package com.bank.simulator.repository;
+
+import java.io.IOException;
+
+// Receives rows one at a time from the streaming finders. An IOException (usually the client
+// going away) stops the read and is rethrown to the caller.
+@FunctionalInterface
+public interface RowConsumer<T> {
+    void accept(T row) throws IOException;
+}
@@ -0,0 +1,10 @@
+package com.bank.simulator.repository;
+
+import java.sql.SQLException;
+
+public interface SequenceRepository {
+    // Reserves [first, first + blockSize) and returns first, or -1 if the sequence does not exist yet.
+    long allocateBlock(String sequenceName, int blockSize) throws SQLException;
+    // Creates the sequence starting at firstValue; returns false if another caller created it first.
+    boolean createSequence(String sequenceName, long firstValue) throws SQLException;
+}
@@ -0,0 +1,30 @@
+package com.bank.simulator.repository;
+
+import com.bank.simulator.model.StandingInstruction;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface StandingInstructionRepository {
+    boolean insert(StandingInstruction instruction) throws SQLException;
+    StandingInstruction findById(String instructionId) throws SQLException;
+    List<StandingInstruction> findBySenderAccountNumber(String accountNumber) throws SQLException;
+    // ACTIVE instructions with nextRunAt at or before the given time, earliest first by
+    // (nextRunAt, instructionId), strictly after that pair when afterRunAt is given.
+    List<StandingInstruction> findDue(LocalDateTime through, LocalDateTime afterRunAt, String afterInstructionId,
+                                      int limit) throws SQLException;
+    // Sets pendingTransactionId, and claimedAt to now, on each instruction that is ACTIVE, due
+    // by now and not already claimed, and returns those instructions as claimed. Keys are
+    // instruction ids.
+    List<StandingInstruction> claimDue(Map<String, String> transactionIds, LocalDateTime now) throws SQLException;
+    // Moves an existing claim to this caller: claimedAt becomes now on each row that still has
+    // the instruction's pendingTransactionId and claimedAt, and those instructions are returned
+    // with the new claimedAt. A row claimed again by someone else in the meantime is left alone.
+    List<StandingInstruction> takeOverClaims(List<StandingInstruction> instructions, LocalDateTime now) throws SQLException;
+    // Saves the outcome of a run and releases the claim. Only rows still claimed with the
+    // instruction's pendingTransactionId are updated; a cancelled row stays CANCELLED.
+    void recordRuns(List<StandingInstruction> instructions) throws SQLException;
+    boolean cancel(String instructionId) throws SQLException;
+}
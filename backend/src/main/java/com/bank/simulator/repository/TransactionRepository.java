@@ -0,0 +1,43 @@
+package com.bank.simulator.repository;
+
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.model.TransactionCursor;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TransactionRepository {
+    // When the transaction carries an idempotency key, the key is recorded in the same commit
+    // as the transfer. A key that is already recorded yields DUPLICATE_REQUEST and moves nothing.
+    TransferStatus transfer(Transaction transaction) throws SQLException;
+    // Applies the transfers in order. One that cannot be applied gets its status and is
+    // skipped; the others still go through. Statuses line up with the input list.
+    List<TransferStatus> transferBatch(List<Transaction> transactions) throws SQLException;
+    // Records transfers that were already settled elsewhere: inserts the rows and moves the
+    // amounts without balance checks. Used by the write-behind ledger. Idempotency keys are
+    // recorded when not already reserved.
+    void appendSettled(List<Transaction> transactions) throws SQLException;
+    // Records the transaction's idempotency key ahead of a transfer settled outside this
+    // repository, so a retry sees it before the transfer is written. False when already recorded.
+    boolean reserveIdempotencyKey(Transaction transaction) throws SQLException;
+    // Drops the key again if it still points at this transaction, for a transfer that was not applied.
+    void releaseIdempotencyKey(Transaction transaction) throws SQLException;
+    // Only transactionId, idempotencyKey, requestHash and createdDate are set on the result.
+    Transaction findByIdempotencyKey(String idempotencyKey) throws SQLException;
+    List<Transaction> findByAccountNumber(String accountNumber) throws SQLException;
+    List<Transaction> findAll() throws SQLException;
+    // Half-open range [from, to) on created_date; a null bound leaves that side open.
+    List<Transaction> findByAccountNumberBetween(String accountNumber, LocalDateTime from, LocalDateTime to) throws SQLException;
+    // At most limit rows, newest first by (createdDate, transactionId), strictly after the cursor
+    // when one is given. from and to bound created_date as in findByAccountNumberBetween.
+    List<Transaction> findPageByAccountNumber(String accountNumber, LocalDateTime from, LocalDateTime to,
+                                              TransactionCursor after, int limit) throws SQLException;
+    List<Transaction> findAllBetween(LocalDateTime from, LocalDateTime to) throws SQLException;
+    // Same rows and order as findAllBetween, handed over one at a time without building the list.
+    void streamAllBetween(LocalDateTime from, LocalDateTime to, RowConsumer<Transaction> consumer)
+            throws SQLException, IOException;
+    boolean existsById(String transactionId) throws SQLException;
+    boolean deleteById(String transactionId) throws SQLException;
+}
@@ -0,0 +1,12 @@
+package com.bank.simulator.repository;
+
+public enum TransferStatus {
+    COMPLETED,
+    SENDER_NOT_FOUND,
+    RECEIVER_NOT_FOUND,
+    INSUFFICIENT_BALANCE,
+    // The transaction's idempotency key was already used by a committed transfer.
+    DUPLICATE_REQUEST,
+    // The ledger took the transfer but had not settled it when the caller stopped waiting.
+    PENDING
+}
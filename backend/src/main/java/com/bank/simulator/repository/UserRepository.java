@@ -0,0 +1,23 @@
+package com.bank.simulator.repository;
+
+import com.bank.simulator.model.User;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface UserRepository {
+    boolean insert(User user) throws SQLException;
+    User findById(String userId) throws SQLException;
+    User findByEmail(String email) throws SQLException;
+    Map<String, User> findByEmails(Collection<String> emails) throws SQLException;
+    List<User> findAll() throws SQLException;
+    void streamAll(RowConsumer<User> consumer) throws SQLException, IOException;
+    boolean existsByEmail(String email) throws SQLException;
+    boolean updateStatus(String email, boolean active, LocalDateTime updatedAt) throws SQLException;
+    boolean deleteById(String userId) throws SQLException;
+    int findMaxUserSequence() throws SQLException;
+}
@@ -0,0 +1,330 @@
+package com.bank.simulator.repository.jdbc;
+
+import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.model.Account;
+import com.bank.simulator.model.AccountHolder;
+import com.bank.simulator.model.Customer;
+import com.bank.simulator.model.TransferContext;
+import com.bank.simulator.model.User;
+import com.bank.simulator.repository.AccountRepository;
+import com.bank.simulator.repository.RowConsumer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class JdbcAccountRepository implements AccountRepository {
+
+    // amount is the balance snapshot as of ledger entry snapshot_entry_id; the live balance
+    // adds the ledger entries after it and the credit slots of a hot account, both of which
+    // LedgerCompactor keeps folding back into amount.
+    private static final String PENDING =
+        "COALESCE((SELECT SUM(e.amount) FROM ledger_entry e " +
+        "WHERE e.account_id = a.account_id AND e.entry_id > a.snapshot_entry_id), 0) + " +
+        "COALESCE((SELECT SUM(s.amount) FROM account_balance_slot s WHERE s.account_id = a.account_id), 0)";
+
+    private static final String SELECT_ACCOUNT =
+        "SELECT a.*, a.amount + " + PENDING + " AS balance, c.phone_number as customer_phone " +
+        "FROM Account a " +
+        "JOIN Customer c ON a.customer_id = c.customer_id ";
+
+    private static final String SELECT_ALL_ACCOUNTS = SELECT_ACCOUNT + "ORDER BY a.created DESC";
+
+    @Override
+    public boolean insert(Account account) throws SQLException {
+        String query = """
+            INSERT INTO Account (account_id, customer_id, account_number, aadhar_number, 
+                               ifsc_code, phone_number_linked, amount, bank_name, 
+                               name_on_account, status) 
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, account.getAccountId());
+            stmt.setString(2, account.getCustomerId());
+            stmt.setString(3, account.getAccountNumber());
+            stmt.setString(4, account.getAadharNumber());
+            stmt.setString(5, account.getIfscCode());
+            stmt.setString(6, account.getPhoneNumberLinked());
+            stmt.setBigDecimal(7, account.getAmount());
+            stmt.setString(8, account.getBankName());
+            stmt.setString(9, account.getNameOnAccount());
+            stmt.setString(10, account.getStatus());
+
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public Account findById(String accountId) throws SQLException {
+        return findOne(SELECT_ACCOUNT + "WHERE a.account_id = ?", accountId);
+    }
+
+    @Override
+    public Account findByCustomerId(String customerId) throws SQLException {
+        return findOne(SELECT_ACCOUNT + "WHERE a.customer_id = ?", customerId);
+    }
+
+    @Override
+    public Account findByAccountNumber(String accountNumber) throws SQLException {
+        return findOne(SELECT_ACCOUNT + "WHERE a.account_number = ?", accountNumber);
+    }
+
+    @Override
+    public Map<String, Account> findByAccountNumbers(Collection<String> accountNumbers) throws SQLException {
+        Map<String, Account> accounts = new HashMap<>();
+        for (Account account : JdbcQueries.findIn(SELECT_ACCOUNT + "WHERE a.account_number", accountNumbers,
+                JdbcAccountRepository::mapAccount)) {
+            accounts.put(account.getAccountNumber(), account);
+        }
+        return accounts;
+    }
+
+    @Override
+    public List<Account> findAll() throws SQLException {
+        List<Account> accounts = new ArrayList<>();
+
+        try (Connection conn = DBConfig.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_ACCOUNTS);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                accounts.add(mapAccount(rs));
+            }
+        }
+
+        return accounts;
+    }
+
+    @Override
+    public void streamAll(RowConsumer<Account> consumer) throws SQLException, IOException {
+        JdbcQueries.stream(SELECT_ALL_ACCOUNTS, stmt -> {}, JdbcAccountRepository::mapAccount, consumer);
+    }
+
+    @Override
+    public boolean update(String accountId, Account account) throws SQLException {
+        String query = """
+            UPDATE Account a SET a.account_number = ?, a.aadhar_number = ?, a.ifsc_code = ?, a.phone_number_linked = ?, 
+                             a.amount = ? - (%s), a.bank_name = ?, a.name_on_account = ?, a.status = ? 
+            WHERE a.account_id = ?
+        """.formatted(PENDING);
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, account.getAccountNumber());
+            stmt.setString(2, account.getAadharNumber());
+            stmt.setString(3, account.getIfscCode());
+            stmt.setString(4, account.getPhoneNumberLinked());
+            stmt.setBigDecimal(5, account.getAmount());
+            stmt.setString(6, account.getBankName());
+            stmt.setString(7, account.getNameOnAccount());
+            stmt.setString(8, account.getStatus());
+            stmt.setString(9, accountId);
+
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public boolean deleteWithTransactions(String accountId) throws SQLException {
+        String deleteTransactionsQuery = "DELETE FROM Transaction WHERE account_id = ?";
+        String deleteLedgerQuery = "DELETE FROM ledger_entry WHERE account_id = ?";
+        String deleteSlotsQuery = "DELETE FROM account_balance_slot WHERE account_id = ?";
+        String deleteAccountQuery = "DELETE FROM Account WHERE account_id = ?";
+
+        try (Connection conn = DBConfig.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                try (PreparedStatement transactionStmt = conn.prepareStatement(deleteTransactionsQuery)) {
+                    transactionStmt.setString(1, accountId);
+                    int transactionsDeleted = transactionStmt.executeUpdate();
+                    System.out.println("Deleted " + transactionsDeleted + " transactions for account: " + accountId);
+                }
+
+                try (PreparedStatement ledgerStmt = conn.prepareStatement(deleteLedgerQuery)) {
+                    ledgerStmt.setString(1, accountId);
+                    ledgerStmt.executeUpdate();
+                }
+
+                try (PreparedStatement slotsStmt = conn.prepareStatement(deleteSlotsQuery)) {
+                    slotsStmt.setString(1, accountId);
+                    slotsStmt.executeUpdate();
+                }
+
+                try (PreparedStatement accountStmt = conn.prepareStatement(deleteAccountQuery)) {
+                    accountStmt.setString(1, accountId);
+                    if (accountStmt.executeUpdate() > 0) {
+                        conn.commit();
+                        return true;
+                    }
+                }
+
+                conn.rollback();
+                return false;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public boolean existsById(String accountId) throws SQLException {
+        return JdbcQueries.count("SELECT COUNT(*) FROM Account WHERE account_id = ?", accountId) > 0;
+    }
+
+    @Override
+    public boolean existsByAccountNumber(String accountNumber) throws SQLException {
+        return JdbcQueries.count("SELECT COUNT(*) FROM Account WHERE account_number = ?", accountNumber) > 0;
+    }
+
+    @Override
+    public boolean existsByAccountNumberForOtherAccount(String accountNumber, String accountId) throws SQLException {
+        return JdbcQueries.count("SELECT COUNT(*) FROM Account WHERE account_number = ? AND account_id != ?",
+                accountNumber, accountId) > 0;
+    }
+
+    @Override
+    public BigDecimal findBalanceByAccountNumber(String accountNumber) throws SQLException {
+        String query = "SELECT a.amount + " + PENDING + " AS balance FROM Account a WHERE a.account_number = ?";
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, accountNumber);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getBigDecimal("balance") : null;
+            }
+        }
+    }
+
+    @Override
+    public AccountHolder findHolderByAccountNumber(String accountNumber) throws SQLException {
+        String query = "SELECT c.name, c.email, a.bank_name, a.account_number FROM Customer c " +
+                      "JOIN Account a ON c.customer_id = a.customer_id " +
+                      "WHERE a.account_number = ?";
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, accountNumber);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new AccountHolder(
+                        rs.getString("name"),
+                        rs.getString("email"),
+                        rs.getString("bank_name"),
+                        rs.getString("account_number")
+                    );
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public TransferContext findTransferContext(String senderAccountNumber, String receiverAccountNumber) throws SQLException {
+        String query = "SELECT a.*, a.amount + " + PENDING + " AS balance, c.name AS customer_name, c.email AS customer_email, c.customer_pin, " +
+                      "u.id AS user_id, u.active AS user_active " +
+                      "FROM Account a " +
+                      "JOIN Customer c ON a.customer_id = c.customer_id " +
+                      "LEFT JOIN User u ON u.email = c.email " +
+                      "WHERE a.account_number IN (?, ?)";
+
+        TransferContext context = new TransferContext();
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, senderAccountNumber);
+            stmt.setString(2, receiverAccountNumber);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String accountNumber = rs.getString("account_number");
+                    if (accountNumber.equals(senderAccountNumber)) {
+                        context.setSenderAccount(mapAccount(rs));
+                        context.setSenderCustomer(mapContextCustomer(rs, true));
+                        if (rs.getString("user_id") != null) {
+                            User user = new User();
+                            user.setId(rs.getString("user_id"));
+                            user.setEmail(rs.getString("customer_email"));
+                            user.setActive(rs.getBoolean("user_active"));
+                            context.setSenderUser(user);
+                        }
+                    }
+                    if (accountNumber.equals(receiverAccountNumber)) {
+                        context.setReceiverAccount(mapAccount(rs));
+                        context.setReceiverCustomer(mapContextCustomer(rs, false));
+                    }
+                }
+            }
+        }
+
+        return context;
+    }
+
+    @Override
+    public int findMaxAccountSequence() throws SQLException {
+        String query = "SELECT MAX(CAST(SUBSTRING(account_id, 5) AS UNSIGNED)) as max_id FROM Account";
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getInt("max_id") : 0;
+        }
+    }
+
+    private Account findOne(String query, String value) throws SQLException {
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, value);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapAccount(rs) : null;
+            }
+        }
+    }
+
+    private static Customer mapContextCustomer(ResultSet rs, boolean withPin) throws SQLException {
+        Customer customer = new Customer();
+        customer.setCustomerId(rs.getString("customer_id"));
+        customer.setName(rs.getString("customer_name"));
+        customer.setEmail(rs.getString("customer_email"));
+        if (withPin) {
+            customer.setCustomerPin(rs.getString("customer_pin"));
+        }
+        return customer;
+    }
+
+    private static Account mapAccount(ResultSet rs) throws SQLException {
+        Account account = new Account();
+        account.setAccountId(rs.getString("account_id"));
+        account.setCustomerId(rs.getString("customer_id"));
+        account.setAccountNumber(rs.getString("account_number"));
+        account.setAadharNumber(rs.getString("aadhar_number"));
+        account.setIfscCode(rs.getString("ifsc_code"));
+        account.setPhoneNumberLinked(rs.getString("phone_number_linked"));
+        account.setAmount(rs.getBigDecimal("balance"));
+        account.setBankName(rs.getString("bank_name"));
+        account.setNameOnAccount(rs.getString("name_on_account"));
+        account.setStatus(rs.getString("status"));
+        account.setCreated(rs.getTimestamp("created").toLocalDateTime());
+        account.setModified(rs.getTimestamp("modified").toLocalDateTime());
+        return account;
+    }
+}
@@ -0,0 +1,249 @@
+package com.bank.simulator.repository.jdbc;
+
+import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.model.Customer;
+import com.bank.simulator.repository.CustomerRepository;
+import com.bank.simulator.repository.RowConsumer;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class JdbcCustomerRepository implements CustomerRepository {
+
+    private static final String SELECT_ALL_CUSTOMERS = "SELECT * FROM Customer ORDER BY customer_id";
+
+    @Override
+    public boolean insert(Customer customer) throws SQLException {
+        String query = "INSERT INTO Customer (customer_id, name, phone_number, email, address, " +
+                      "customer_pin, aadhar_number, dob, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, customer.getCustomerId());
+            stmt.setString(2, customer.getName());
+            stmt.setString(3, customer.getPhoneNumber());
+            stmt.setString(4, customer.getEmail());
+            stmt.setString(5, customer.getAddress());
+            stmt.setString(6, customer.getCustomerPin());
+            stmt.setString(7, customer.getAadharNumber());
+            stmt.setDate(8, Date.valueOf(customer.getDob()));
+            stmt.setString(9, customer.getStatus());
+
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public Customer findById(String customerId) throws SQLException {
+        return findOne("SELECT * FROM Customer WHERE customer_id = ?", customerId);
+    }
+
+    @Override
+    public Map<String, Customer> findByIds(Collection<String> customerIds) throws SQLException {
+        Map<String, Customer> customers = new HashMap<>();
+        for (Customer customer : JdbcQueries.findIn("SELECT * FROM Customer WHERE customer_id", customerIds,
+                JdbcCustomerRepository::mapCustomer)) {
+            customers.put(customer.getCustomerId(), customer);
+        }
+        return customers;
+    }
+
+    @Override
+    public Customer findByAadharNumber(String aadharNumber) throws SQLException {
+        return findOne("SELECT * FROM Customer WHERE aadhar_number = ? LIMIT 1", aadharNumber);
+    }
+
+    @Override
+    public Customer findByPhoneNumber(String phoneNumber) throws SQLException {
+        return findOne("SELECT * FROM Customer WHERE phone_number = ? LIMIT 1", phoneNumber);
+    }
+
+    @Override
+    public List<Customer> findAll() throws SQLException {
+        List<Customer> customers = new ArrayList<>();
+
+        try (Connection conn = DBConfig.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_ALL_CUSTOMERS)) {
+
+            while (rs.next()) {
+                customers.add(mapCustomer(rs));
+            }
+        }
+
+        return customers;
+    }
+
+    @Override
+    public void streamAll(RowConsumer<Customer> consumer) throws SQLException, IOException {
+        JdbcQueries.stream(SELECT_ALL_CUSTOMERS, stmt -> {}, JdbcCustomerRepository::mapCustomer, consumer);
+    }
+
+    @Override
+    public boolean update(String customerId, Customer customer) throws SQLException {
+        String query = "UPDATE Customer SET name = ?, phone_number = ?, email = ?, " +
+                      "address = ?, customer_pin = ?, aadhar_number = ?, dob = ?, status = ? " +
+                      "WHERE customer_id = ?";
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, customer.getName());
+            stmt.setString(2, customer.getPhoneNumber());
+            stmt.setString(3, customer.getEmail());
+            stmt.setString(4, customer.getAddress());
+            stmt.setString(5, customer.getCustomerPin());
+            stmt.setString(6, customer.getAadharNumber());
+            stmt.setDate(7, Date.valueOf(customer.getDob()));
+            stmt.setString(8, customer.getStatus());
+            stmt.setString(9, customerId);
+
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public boolean deleteById(String customerId) throws SQLException {
+        return deleteWithTransactions(
+            "DELETE FROM Customer WHERE customer_id = ?",
+            customerId,
+            "DELETE t FROM Transaction t JOIN Account a ON t.account_id = a.account_id WHERE a.customer_id = ?",
+            "DELETE e FROM ledger_entry e JOIN Account a ON e.account_id = a.account_id WHERE a.customer_id = ?",
+            "DELETE s FROM account_balance_slot s JOIN Account a ON s.account_id = a.account_id WHERE a.customer_id = ?");
+    }
+
+    @Override
+    public boolean deleteByAadharNumber(String aadharNumber) throws SQLException {
+        return deleteWithTransactions(
+            "DELETE FROM Customer WHERE aadhar_number = ?",
+            aadharNumber,
+            "DELETE t FROM Transaction t JOIN Account a ON t.account_id = a.account_id " +
+            "JOIN Customer c ON a.customer_id = c.customer_id WHERE c.aadhar_number = ?",
+            "DELETE e FROM ledger_entry e JOIN Account a ON e.account_id = a.account_id " +
+            "JOIN Customer c ON a.customer_id = c.customer_id WHERE c.aadhar_number = ?",
+            "DELETE s FROM account_balance_slot s JOIN Account a ON s.account_id = a.account_id " +
+            "JOIN Customer c ON a.customer_id = c.customer_id WHERE c.aadhar_number = ?");
+    }
+
+    // Account rows still cascade from Customer through their foreign key, but the
+    // partitioned Transaction table, the ledger and the balance slots have none, so their
+    // rows are removed explicitly.
+    private boolean deleteWithTransactions(String deleteCustomerQuery, String key, String... deleteDependentsQueries)
+            throws SQLException {
+        try (Connection conn = DBConfig.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                for (String deleteDependentsQuery : deleteDependentsQueries) {
+                    try (PreparedStatement dependentsStmt = conn.prepareStatement(deleteDependentsQuery)) {
+                        dependentsStmt.setString(1, key);
+                        dependentsStmt.executeUpdate();
+                    }
+                }
+
+                try (PreparedStatement customerStmt = conn.prepareStatement(deleteCustomerQuery)) {
+                    customerStmt.setString(1, key);
+                    if (customerStmt.executeUpdate() > 0) {
+                        conn.commit();
+                        return true;
+                    }
+                }
+
+                conn.rollback();
+                return false;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public boolean existsByPhoneNumber(String phoneNumber) throws SQLException {
+        return JdbcQueries.count("SELECT COUNT(*) FROM Customer WHERE phone_number = ?", phoneNumber) > 0;
+    }
+
+    @Override
+    public boolean existsByEmail(String email) throws SQLException {
+        return JdbcQueries.count("SELECT COUNT(*) FROM Customer WHERE email = ?", email) > 0;
+    }
+
+    @Override
+    public boolean existsByAadharNumber(String aadharNumber) throws SQLException {
+        return JdbcQueries.count("SELECT COUNT(*) FROM Customer WHERE aadhar_number = ?", aadharNumber) > 0;
+    }
+
+    @Override
+    public boolean existsByPhoneNumberForOtherCustomer(String phoneNumber, String customerId) throws SQLException {
+        return JdbcQueries.count("SELECT COUNT(*) FROM Customer WHERE phone_number = ? AND customer_id != ?", phoneNumber, customerId) > 0;
+    }
+
+    @Override
+    public boolean existsByEmailForOtherCustomer(String email, String customerId) throws SQLException {
+        return JdbcQueries.count("SELECT COUNT(*) FROM Customer WHERE email = ? AND customer_id != ?", email, customerId) > 0;
+    }
+
+    @Override
+    public boolean existsByAadharNumberForOtherCustomer(String aadharNumber, String customerId) throws SQLException {
+        return JdbcQueries.count("SELECT COUNT(*) FROM Customer WHERE aadhar_number = ? AND customer_id != ?", aadharNumber, customerId) > 0;
+    }
+
+    @Override
+    public String findCustomerIdByAadharNumber(String aadharNumber) throws SQLException {
+        return JdbcQueries.findString("SELECT customer_id FROM Customer WHERE aadhar_number = ?", aadharNumber);
+    }
+
+    @Override
+    public String findPhoneNumberById(String customerId) throws SQLException {
+        return JdbcQueries.findString("SELECT phone_number FROM Customer WHERE customer_id = ?", customerId);
+    }
+
+    @Override
+    public int findMaxCustomerSequence() throws SQLException {
+        String query = "SELECT MAX(CAST(SUBSTRING(customer_id, 6) AS UNSIGNED)) FROM Customer WHERE customer_id LIKE 'CUST_%'";
+
+        try (Connection conn = DBConfig.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private Customer findOne(String query, String value) throws SQLException {
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, value);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapCustomer(rs) : null;
+            }
+        }
+    }
+
+    private static Customer mapCustomer(ResultSet rs) throws SQLException {
+        Customer customer = new Customer();
+        customer.setCustomerId(rs.getString("customer_id"));
+        customer.setName(rs.getString("name"));
+        customer.setPhoneNumber(rs.getString("phone_number"));
+        customer.setEmail(rs.getString("email"));
+        customer.setAddress(rs.getString("address"));
+        customer.setCustomerPin(rs.getString("customer_pin"));
+        customer.setAadharNumber(rs.getString("aadhar_number"));
+        customer.setDob(rs.getDate("dob").toLocalDate());
+        customer.setStatus(rs.getString("status"));
+        return customer;
+    }
+}
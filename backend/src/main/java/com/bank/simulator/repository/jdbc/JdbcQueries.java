@@ -0,0 +1,119 @@
+package com.bank.simulator.repository.jdbc;
+
+import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.repository.RowConsumer;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+final class JdbcQueries {
+
+    // Upper bound on placeholders per IN (...) so a large batch never builds one huge statement.
+    private static final int IN_LIST_SLICE = 500;
+
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    interface Binder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    private JdbcQueries() {}
+
+    static int count(String query, String... values) throws SQLException {
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            bind(stmt, values);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    static String findString(String query, String... values) throws SQLException {
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            bind(stmt, values);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    static int executeUpdate(String query, String... values) throws SQLException {
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            bind(stmt, values);
+            return stmt.executeUpdate();
+        }
+    }
+
+    // Runs "<query> IN (?, ...)" for every distinct key, one statement per slice of keys.
+    static <T> List<T> findIn(String query, Collection<String> keys, RowMapper<T> mapper) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        List<String> values = new ArrayList<>(new LinkedHashSet<>(keys));
+        if (values.isEmpty()) {
+            return rows;
+        }
+
+        try (Connection conn = DBConfig.getConnection()) {
+            for (int from = 0; from < values.size(); from += IN_LIST_SLICE) {
+                List<String> slice = values.subList(from, Math.min(values.size(), from + IN_LIST_SLICE));
+                try (PreparedStatement stmt = conn.prepareStatement(query + " IN (" + placeholders(slice.size()) + ")")) {
+                    bind(stmt, slice.toArray(new String[0]));
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            rows.add(mapper.map(rs));
+                        }
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    // Forward-only and read-only with a fetch size of Integer.MIN_VALUE, Connector/J hands
+    // rows over as they arrive instead of buffering the whole result, so memory stays flat
+    // however big the table is. The connection is busy until the last row has been read.
+    // The three-argument prepareStatement also keeps this statement out of the pool's
+    // statement cache.
+    static <T> void stream(String query, Binder binder, RowMapper<T> mapper, RowConsumer<T> consumer)
+            throws SQLException, IOException {
+        try (Connection conn = DBConfig.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            binder.bind(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapper.map(rs));
+                }
+            }
+        }
+    }
+
+    static String placeholders(int count) {
+        StringBuilder sql = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.toString();
+    }
+
+    private static void bind(PreparedStatement stmt, String... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            stmt.setString(i + 1, values[i]);
+        }
+    }
+}
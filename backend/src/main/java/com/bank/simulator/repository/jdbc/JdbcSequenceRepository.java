@@ -0,0 +1,52 @@
+package com.bank.simulator.repository.jdbc;
+
+import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.repository.SequenceRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class JdbcSequenceRepository implements SequenceRepository {
+
+    // A single auto-committed UPDATE holds the row lock only for the statement itself.
+    // LAST_INSERT_ID(expr) hands the new value back on this connection without a second
+    // read of the row, so concurrent nodes can never be given overlapping blocks.
+    @Override
+    public long allocateBlock(String sequenceName, int blockSize) throws SQLException {
+        String query = "UPDATE id_sequence SET next_value = LAST_INSERT_ID(next_value + ?) WHERE sequence_name = ?";
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setLong(1, blockSize);
+            stmt.setString(2, sequenceName);
+            if (stmt.executeUpdate() == 0) {
+                return -1;
+            }
+
+            try (Statement lastIdStmt = conn.createStatement();
+                 ResultSet rs = lastIdStmt.executeQuery("SELECT LAST_INSERT_ID()")) {
+                if (!rs.next()) {
+                    throw new SQLException("LAST_INSERT_ID() returned no row for sequence " + sequenceName);
+                }
+                return rs.getLong(1) - blockSize;
+            }
+        }
+    }
+
+    @Override
+    public boolean createSequence(String sequenceName, long firstValue) throws SQLException {
+        String query = "INSERT IGNORE INTO id_sequence (sequence_name, next_value) VALUES (?, ?)";
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, sequenceName);
+            stmt.setLong(2, firstValue);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+}
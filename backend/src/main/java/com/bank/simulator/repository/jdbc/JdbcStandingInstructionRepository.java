@@ -0,0 +1,266 @@
+package com.bank.simulator.repository.jdbc;
+
+import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.model.StandingInstruction;
+import com.bank.simulator.repository.StandingInstructionRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class JdbcStandingInstructionRepository implements StandingInstructionRepository {
+
+    @Override
+    public boolean insert(StandingInstruction instruction) throws SQLException {
+        String query = """
+            INSERT INTO standing_instruction (instruction_id, sender_account_number, receiver_account_number, amount,
+                description, frequency, start_at, end_at, occurrence, next_run_at, status, failure_count, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, instruction.getInstructionId());
+            stmt.setString(2, instruction.getSenderAccountNumber());
+            stmt.setString(3, instruction.getReceiverAccountNumber());
+            stmt.setBigDecimal(4, instruction.getAmount());
+            stmt.setString(5, instruction.getDescription());
+            stmt.setString(6, instruction.getFrequency());
+            stmt.setTimestamp(7, Timestamp.valueOf(instruction.getStartAt()));
+            stmt.setTimestamp(8, timestamp(instruction.getEndAt()));
+            stmt.setInt(9, instruction.getOccurrence());
+            stmt.setTimestamp(10, Timestamp.valueOf(instruction.getNextRunAt()));
+            stmt.setString(11, instruction.getStatus());
+            stmt.setInt(12, instruction.getFailureCount());
+            stmt.setTimestamp(13, Timestamp.valueOf(instruction.getCreatedAt()));
+
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public StandingInstruction findById(String instructionId) throws SQLException {
+        List<StandingInstruction> found = findList("SELECT * FROM standing_instruction WHERE instruction_id = ?", instructionId);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    @Override
+    public List<StandingInstruction> findBySenderAccountNumber(String accountNumber) throws SQLException {
+        return findList("SELECT * FROM standing_instruction WHERE sender_account_number = ? ORDER BY created_at DESC",
+                accountNumber);
+    }
+
+    @Override
+    public List<StandingInstruction> findDue(LocalDateTime through, LocalDateTime afterRunAt, String afterInstructionId,
+                                             int limit) throws SQLException {
+        // idx_standing_instruction_due ends in the primary key, so it serves this order too.
+        String query = "SELECT * FROM standing_instruction WHERE status = 'ACTIVE' AND next_run_at <= ? " +
+                      (afterRunAt != null ? "AND (next_run_at > ? OR (next_run_at = ? AND instruction_id > ?)) " : "") +
+                      "ORDER BY next_run_at, instruction_id LIMIT ?";
+
+        List<StandingInstruction> instructions = new ArrayList<>();
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            int index = 1;
+            stmt.setTimestamp(index++, Timestamp.valueOf(through));
+            if (afterRunAt != null) {
+                stmt.setTimestamp(index++, Timestamp.valueOf(afterRunAt));
+                stmt.setTimestamp(index++, Timestamp.valueOf(afterRunAt));
+                stmt.setString(index++, afterInstructionId);
+            }
+            stmt.setInt(index, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    instructions.add(mapInstruction(rs));
+                }
+            }
+        }
+        return instructions;
+    }
+
+    // One UPDATE claims the whole batch; reading the rows back shows which claims won, since
+    // a row claimed by someone else keeps its own pending_transaction_id.
+    @Override
+    public List<StandingInstruction> claimDue(Map<String, String> transactionIds, LocalDateTime now) throws SQLException {
+        List<StandingInstruction> claimed = new ArrayList<>();
+        if (transactionIds.isEmpty()) {
+            return claimed;
+        }
+
+        StringBuilder cases = new StringBuilder("CASE instruction_id");
+        for (int i = 0; i < transactionIds.size(); i++) {
+            cases.append(" WHEN ? THEN ?");
+        }
+        cases.append(" END");
+        String placeholders = JdbcQueries.placeholders(transactionIds.size());
+
+        String claimQuery = "UPDATE standing_instruction SET pending_transaction_id = " + cases +
+                           ", claimed_at = ? WHERE instruction_id IN (" + placeholders + ") AND status = 'ACTIVE'" +
+                           " AND next_run_at <= ? AND pending_transaction_id IS NULL";
+        String readQuery = "SELECT * FROM standing_instruction WHERE instruction_id IN (" + placeholders + ")";
+
+        try (Connection conn = DBConfig.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(claimQuery)) {
+                int index = 1;
+                for (Map.Entry<String, String> entry : transactionIds.entrySet()) {
+                    stmt.setString(index++, entry.getKey());
+                    stmt.setString(index++, entry.getValue());
+                }
+                stmt.setTimestamp(index++, Timestamp.valueOf(claimStamp(now)));
+                for (String instructionId : transactionIds.keySet()) {
+                    stmt.setString(index++, instructionId);
+                }
+                stmt.setTimestamp(index, Timestamp.valueOf(now));
+                if (stmt.executeUpdate() == 0) {
+                    return claimed;
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(readQuery)) {
+                int index = 1;
+                for (String instructionId : transactionIds.keySet()) {
+                    stmt.setString(index++, instructionId);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        StandingInstruction instruction = mapInstruction(rs);
+                        if (transactionIds.get(instruction.getInstructionId()).equals(instruction.getPendingTransactionId())) {
+                            claimed.add(instruction);
+                        }
+                    }
+                }
+            }
+        }
+        return claimed;
+    }
+
+    // <=> is MySQL's null-safe equals: a claim made before claimed_at existed has it NULL.
+    @Override
+    public List<StandingInstruction> takeOverClaims(List<StandingInstruction> instructions, LocalDateTime now)
+            throws SQLException {
+        List<StandingInstruction> taken = new ArrayList<>();
+        if (instructions.isEmpty()) {
+            return taken;
+        }
+
+        String query = "UPDATE standing_instruction SET claimed_at = ? " +
+                      "WHERE instruction_id = ? AND pending_transaction_id = ? AND claimed_at <=> ?";
+        LocalDateTime claimedAt = claimStamp(now);
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            // One statement per row: these are the few runs left behind by a crash, and each
+            // needs its own update count.
+            for (StandingInstruction instruction : instructions) {
+                stmt.setTimestamp(1, Timestamp.valueOf(claimedAt));
+                stmt.setString(2, instruction.getInstructionId());
+                stmt.setString(3, instruction.getPendingTransactionId());
+                stmt.setTimestamp(4, timestamp(instruction.getClaimedAt()));
+                if (stmt.executeUpdate() > 0) {
+                    instruction.setClaimedAt(claimedAt);
+                    taken.add(instruction);
+                }
+            }
+        }
+        return taken;
+    }
+
+    @Override
+    public void recordRuns(List<StandingInstruction> instructions) throws SQLException {
+        if (instructions.isEmpty()) {
+            return;
+        }
+
+        String query = "UPDATE standing_instruction SET occurrence = ?, next_run_at = ?, " +
+                      "status = IF(status = 'CANCELLED', status, ?), failure_count = ?, last_run_at = ?, " +
+                      "last_transaction_id = ?, last_error = ?, pending_transaction_id = NULL, claimed_at = NULL " +
+                      "WHERE instruction_id = ? AND pending_transaction_id = ?";
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            for (StandingInstruction instruction : instructions) {
+                stmt.setInt(1, instruction.getOccurrence());
+                stmt.setTimestamp(2, Timestamp.valueOf(instruction.getNextRunAt()));
+                stmt.setString(3, instruction.getStatus());
+                stmt.setInt(4, instruction.getFailureCount());
+                stmt.setTimestamp(5, timestamp(instruction.getLastRunAt()));
+                stmt.setString(6, instruction.getLastTransactionId());
+                stmt.setString(7, instruction.getLastError());
+                stmt.setString(8, instruction.getInstructionId());
+                stmt.setString(9, instruction.getPendingTransactionId());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    @Override
+    public boolean cancel(String instructionId) throws SQLException {
+        return JdbcQueries.executeUpdate(
+                "UPDATE standing_instruction SET status = 'CANCELLED' WHERE instruction_id = ? AND status = 'ACTIVE'",
+                instructionId) > 0;
+    }
+
+    private List<StandingInstruction> findList(String query, String value) throws SQLException {
+        List<StandingInstruction> instructions = new ArrayList<>();
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, value);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    instructions.add(mapInstruction(rs));
+                }
+            }
+        }
+        return instructions;
+    }
+
+    // claimed_at is a DATETIME, which keeps whole seconds; the value handed back to the caller
+    // has to be the one stored, or the next take-over would not match it.
+    private static LocalDateTime claimStamp(LocalDateTime now) {
+        return now.truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private static LocalDateTime localDateTime(Timestamp value) {
+        return value != null ? value.toLocalDateTime() : null;
+    }
+
+    private static StandingInstruction mapInstruction(ResultSet rs) throws SQLException {
+        StandingInstruction instruction = new StandingInstruction();
+        instruction.setInstructionId(rs.getString("instruction_id"));
+        instruction.setSenderAccountNumber(rs.getString("sender_account_number"));
+        instruction.setReceiverAccountNumber(rs.getString("receiver_account_number"));
+        instruction.setAmount(rs.getBigDecimal("amount"));
+        instruction.setDescription(rs.getString("description"));
+        instruction.setFrequency(rs.getString("frequency"));
+        instruction.setStartAt(localDateTime(rs.getTimestamp("start_at")));
+        instruction.setEndAt(localDateTime(rs.getTimestamp("end_at")));
+        instruction.setOccurrence(rs.getInt("occurrence"));
+        instruction.setNextRunAt(localDateTime(rs.getTimestamp("next_run_at")));
+        instruction.setStatus(rs.getString("status"));
+        instruction.setFailureCount(rs.getInt("failure_count"));
+        instruction.setLastRunAt(localDateTime(rs.getTimestamp("last_run_at")));
+        instruction.setLastTransactionId(rs.getString("last_transaction_id"));
+        instruction.setLastError(rs.getString("last_error"));
+        instruction.setPendingTransactionId(rs.getString("pending_transaction_id"));
+        instruction.setClaimedAt(localDateTime(rs.getTimestamp("claimed_at")));
+        instruction.setCreatedAt(localDateTime(rs.getTimestamp("created_at")));
+        return instruction;
+    }
+}
@@ -0,0 +1,887 @@
+package com.bank.simulator.repository.jdbc;
+
+import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.config.HotAccountDetector;
+import com.bank.simulator.config.TransferMetrics;
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.model.TransactionCursor;
+import com.bank.simulator.repository.RowConsumer;
+import com.bank.simulator.repository.TransactionRepository;
+import com.bank.simulator.repository.TransferStatus;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class JdbcTransactionRepository implements TransactionRepository {
+
+    private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+    private static final int ER_LOCK_DEADLOCK = 1213;
+    private static final int ER_DUP_ENTRY = 1062;
+    private static final int MAX_TRANSFER_RETRIES =
+            Integer.parseInt(DBConfig.getProperty("db.transfer.max.retries", "3").trim());
+    private static final long RETRY_BASE_DELAY_MS =
+            Long.parseLong(DBConfig.getProperty("db.transfer.retry.base.delay.ms", "10").trim());
+    private static final long RETRY_MAX_DELAY_MS =
+            Long.parseLong(DBConfig.getProperty("db.transfer.retry.max.delay.ms", "200").trim());
+    private static final int LOCK_SLICE = 500;
+    private static final boolean DOUBLE_ENTRY =
+            Boolean.parseBoolean(DBConfig.getProperty("ledger.double.entry.enabled", "false").trim());
+    private static final String INSERT_LEDGER_ENTRY =
+            "INSERT INTO ledger_entry (transaction_id, account_id, amount, created_date) VALUES (?, ?, ?, ?)";
+
+    private interface TransferAttempt<T> {
+        T run() throws SQLException;
+    }
+
+    private static final class LockedAccount {
+        final String accountId;
+        BigDecimal originalBalance;
+        BigDecimal balance;
+
+        LockedAccount(String accountId, BigDecimal balance) {
+            this.accountId = accountId;
+            this.originalBalance = balance;
+            this.balance = balance;
+        }
+    }
+
+    @Override
+    public TransferStatus transfer(Transaction transaction) throws SQLException {
+        if (DOUBLE_ENTRY) {
+            return withLockRetry("Transfer " + transaction.getTransactionId(), () -> attemptSenderLockedTransfer(transaction, true));
+        }
+        HotAccountDetector hotAccounts = HotAccountDetector.getInstance();
+        if (hotAccounts.isHot(transaction.getReceiverAccountNumber()) || hotAccounts.isHot(transaction.getSenderAccountNumber())) {
+            return withLockRetry("Transfer " + transaction.getTransactionId(), () -> attemptSenderLockedTransfer(transaction, false));
+        }
+        return withLockRetry("Transfer " + transaction.getTransactionId(), () -> attemptTransfer(transaction));
+    }
+
+    @Override
+    public List<TransferStatus> transferBatch(List<Transaction> transactions) throws SQLException {
+        if (transactions.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return withLockRetry("Transfer batch of " + transactions.size(), () -> attemptTransferBatch(transactions));
+    }
+
+    private <T> T withLockRetry(String label, TransferAttempt<T> attempt) throws SQLException {
+        int retries = 0;
+        while (true) {
+            try {
+                return attempt.run();
+            } catch (SQLException e) {
+                if (!isLockConflict(e) || retries >= MAX_TRANSFER_RETRIES) {
+                    throw e;
+                }
+                retries++;
+                long delayMs = retryDelayMs(retries);
+                TransferMetrics.recordRetry();
+                System.err.println(label + " hit lock conflict (" + e.getErrorCode() + "), retry "
+                        + retries + "/" + MAX_TRANSFER_RETRIES + " in " + delayMs + " ms");
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // Four round trips on the happy path: lock, move funds, insert, commit.
+    private TransferStatus attemptTransfer(Transaction transaction) throws SQLException {
+        try (Connection conn = DBConfig.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                // The key row goes in first. A second request with the same key blocks on it
+                // until the first one commits or rolls back, on this node or any other.
+                if (transaction.getIdempotencyKey() != null && !insertIdempotencyKey(conn, transaction)) {
+                    conn.rollback();
+                    return TransferStatus.DUPLICATE_REQUEST;
+                }
+
+                String senderAccountId = null;
+                String receiverAccountId = null;
+
+                // Both rows are locked by one range read on the unique account_number index,
+                // which InnoDB walks in key order. Every transfer touching the same pair
+                // therefore queues on the same row first instead of deadlocking.
+                String lockQuery = "SELECT account_id, account_number FROM Account " +
+                                  "WHERE account_number IN (?, ?) ORDER BY account_number FOR UPDATE";
+
+                try (PreparedStatement stmt = conn.prepareStatement(lockQuery)) {
+                    stmt.setString(1, transaction.getSenderAccountNumber());
+                    stmt.setString(2, transaction.getReceiverAccountNumber());
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            String accountNumber = rs.getString("account_number");
+                            if (accountNumber.equals(transaction.getSenderAccountNumber())) {
+                                senderAccountId = rs.getString("account_id");
+                            }
+                            if (accountNumber.equals(transaction.getReceiverAccountNumber())) {
+                                receiverAccountId = rs.getString("account_id");
+                            }
+                        }
+                    }
+                }
+
+                if (senderAccountId == null) {
+                    conn.rollback();
+                    return TransferStatus.SENDER_NOT_FOUND;
+                }
+                if (receiverAccountId == null) {
+                    conn.rollback();
+                    return TransferStatus.RECEIVER_NOT_FOUND;
+                }
+
+                transaction.setAccountId(senderAccountId);
+
+                // Debit and credit in one statement. The balance guard sits in the WHERE clause,
+                // so either both rows change or neither does.
+                String moveQuery = "UPDATE Account s JOIN Account r ON r.account_id = ? " +
+                                  "SET s.amount = s.amount - ?, r.amount = r.amount + ? " +
+                                  "WHERE s.account_id = ? AND s.amount + " + pendingBalance("s") + " >= ?";
+
+                try (PreparedStatement stmt = conn.prepareStatement(moveQuery)) {
+                    stmt.setString(1, receiverAccountId);
+                    stmt.setBigDecimal(2, transaction.getAmount());
+                    stmt.setBigDecimal(3, transaction.getAmount());
+                    stmt.setString(4, senderAccountId);
+                    stmt.setBigDecimal(5, transaction.getAmount());
+                    if (stmt.executeUpdate() == 0) {
+                        conn.rollback();
+                        return TransferStatus.INSUFFICIENT_BALANCE;
+                    }
+                }
+
+                String insertQuery = "INSERT INTO Transaction (transaction_id, account_id, sender_account_number, " +
+                                   "receiver_account_number, amount, transaction_type, description, created_date) " +
+                                   "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+                try (PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
+                    stmt.setString(1, transaction.getTransactionId());
+                    stmt.setString(2, transaction.getAccountId());
+                    stmt.setString(3, transaction.getSenderAccountNumber());
+                    stmt.setString(4, transaction.getReceiverAccountNumber());
+                    stmt.setBigDecimal(5, transaction.getAmount());
+                    stmt.setString(6, transaction.getTransactionType());
+                    stmt.setString(7, transaction.getDescription());
+                    stmt.setTimestamp(8, Timestamp.valueOf(transaction.getCreatedDate()));
+                    stmt.executeUpdate();
+                }
+
+                conn.commit();
+                return TransferStatus.COMPLETED;
+
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                    System.out.println("Transaction rolled back successfully");
+                } catch (SQLException rollbackEx) {
+                    System.err.println("Rollback failed: " + rollbackEx.getMessage());
+                }
+                throw e;
+            }
+        }
+    }
+
+    // Only the sender's row is locked, to serialise its debits; the receiver's row is never
+    // touched. With doubleEntry (ledger.double.entry.enabled=true) the transfer is appended as
+    // two ledger entries. Otherwise it is the path for hot accounts: the debit stays in place
+    // and the credit goes to one of the receiver's balance slots. Five or six round trips.
+    private TransferStatus attemptSenderLockedTransfer(Transaction transaction, boolean doubleEntry) throws SQLException {
+        try (Connection conn = DBConfig.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                if (transaction.getIdempotencyKey() != null && !insertIdempotencyKey(conn, transaction)) {
+                    conn.rollback();
+                    return TransferStatus.DUPLICATE_REQUEST;
+                }
+
+                String senderAccountId = null;
+                BigDecimal snapshotBalance = null;
+                long snapshotEntryId = 0;
+
+                String lockQuery = "SELECT account_id, amount, snapshot_entry_id FROM Account WHERE account_number = ? FOR UPDATE";
+                try (PreparedStatement stmt = conn.prepareStatement(lockQuery)) {
+                    stmt.setString(1, transaction.getSenderAccountNumber());
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            senderAccountId = rs.getString("account_id");
+                            snapshotBalance = rs.getBigDecimal("amount");
+                            snapshotEntryId = rs.getLong("snapshot_entry_id");
+                        }
+                    }
+                }
+
+                if (senderAccountId == null) {
+                    conn.rollback();
+                    return TransferStatus.SENDER_NOT_FOUND;
+                }
+
+                // A statement of its own, so its read view starts once the lock is held and sees
+                // every debit the previous holder committed. Credits still in flight are missed,
+                // which can only understate the balance.
+                String balanceQuery = "SELECT (SELECT COALESCE(SUM(amount), 0) FROM ledger_entry " +
+                                     "WHERE account_id = ? AND entry_id > ?) + " +
+                                     "(SELECT COALESCE(SUM(amount), 0) FROM account_balance_slot WHERE account_id = ?) AS pending, " +
+                                     "(SELECT account_id FROM Account WHERE account_number = ?) AS receiver_id";
+
+                BigDecimal balance;
+                String receiverAccountId;
+                try (PreparedStatement stmt = conn.prepareStatement(balanceQuery)) {
+                    stmt.setString(1, senderAccountId);
+                    stmt.setLong(2, snapshotEntryId);
+                    stmt.setString(3, senderAccountId);
+                    stmt.setString(4, transaction.getReceiverAccountNumber());
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        rs.next();
+                        balance = snapshotBalance.add(rs.getBigDecimal("pending"));
+                        receiverAccountId = rs.getString("receiver_id");
+                    }
+                }
+
+                if (receiverAccountId == null) {
+                    conn.rollback();
+                    return TransferStatus.RECEIVER_NOT_FOUND;
+                }
+                if (balance.compareTo(transaction.getAmount()) < 0) {
+                    conn.rollback();
+                    return TransferStatus.INSUFFICIENT_BALANCE;
+                }
+
+                transaction.setAccountId(senderAccountId);
+
+                if (doubleEntry) {
+                    try (PreparedStatement stmt = conn.prepareStatement(INSERT_LEDGER_ENTRY)) {
+                        addLedgerEntries(stmt, transaction, senderAccountId, receiverAccountId);
+                        stmt.executeBatch();
+                    }
+                } else {
+                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE Account SET amount = amount - ? WHERE account_id = ?")) {
+                        stmt.setBigDecimal(1, transaction.getAmount());
+                        stmt.setString(2, senderAccountId);
+                        stmt.executeUpdate();
+                    }
+
+                    // A receiver that is not hot still takes the credit in a slot, slot 0: locking
+                    // its Account row here, after the sender's, could deadlock with the ordered path.
+                    HotAccountDetector hotAccounts = HotAccountDetector.getInstance();
+                    int slot = hotAccounts.isHot(transaction.getReceiverAccountNumber()) ? hotAccounts.nextSlot() : 0;
+                    String creditQuery = "INSERT INTO account_balance_slot (account_id, slot, amount) VALUES (?, ?, ?) " +
+                                        "ON DUPLICATE KEY UPDATE amount = amount + VALUES(amount)";
+                    try (PreparedStatement stmt = conn.prepareStatement(creditQuery)) {
+                        stmt.setString(1, receiverAccountId);
+                        stmt.setInt(2, slot);
+                        stmt.setBigDecimal(3, transaction.getAmount());
+                        stmt.executeUpdate();
+                    }
+                }
+
+                String insertQuery = "INSERT INTO Transaction (transaction_id, account_id, sender_account_number, " +
+                                   "receiver_account_number, amount, transaction_type, description, created_date) " +
+                                   "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+                try (PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
+                    stmt.setString(1, transaction.getTransactionId());
+                    stmt.setString(2, transaction.getAccountId());
+                    stmt.setString(3, transaction.getSenderAccountNumber());
+                    stmt.setString(4, transaction.getReceiverAccountNumber());
+                    stmt.setBigDecimal(5, transaction.getAmount());
+                    stmt.setString(6, transaction.getTransactionType());
+                    stmt.setString(7, transaction.getDescription());
+                    stmt.setTimestamp(8, Timestamp.valueOf(transaction.getCreatedDate()));
+                    stmt.executeUpdate();
+                }
+
+                conn.commit();
+                return TransferStatus.COMPLETED;
+
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                    System.out.println("Transaction rolled back successfully");
+                } catch (SQLException rollbackEx) {
+                    System.err.println("Rollback failed: " + rollbackEx.getMessage());
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static void addLedgerEntries(PreparedStatement stmt, Transaction transaction,
+                                         String senderAccountId, String receiverAccountId) throws SQLException {
+        Timestamp createdDate = Timestamp.valueOf(transaction.getCreatedDate());
+
+        stmt.setString(1, transaction.getTransactionId());
+        stmt.setString(2, senderAccountId);
+        stmt.setBigDecimal(3, transaction.getAmount().negate());
+        stmt.setTimestamp(4, createdDate);
+        stmt.addBatch();
+
+        stmt.setString(1, transaction.getTransactionId());
+        stmt.setString(2, receiverAccountId);
+        stmt.setBigDecimal(3, transaction.getAmount());
+        stmt.setTimestamp(4, createdDate);
+        stmt.addBatch();
+    }
+
+    private static boolean insertIdempotencyKey(Connection conn, Transaction transaction) throws SQLException {
+        String query = "INSERT INTO idempotency_key (idempotency_key, request_hash, transaction_id, created_date) " +
+                      "VALUES (?, ?, ?, ?)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, transaction.getIdempotencyKey());
+            stmt.setString(2, transaction.getRequestHash());
+            stmt.setString(3, transaction.getTransactionId());
+            stmt.setTimestamp(4, Timestamp.valueOf(transaction.getCreatedDate()));
+            stmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            if (e.getErrorCode() == ER_DUP_ENTRY) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean reserveIdempotencyKey(Transaction transaction) throws SQLException {
+        try (Connection conn = DBConfig.getConnection()) {
+            return insertIdempotencyKey(conn, transaction);
+        }
+    }
+
+    @Override
+    public void releaseIdempotencyKey(Transaction transaction) throws SQLException {
+        String query = "DELETE FROM idempotency_key WHERE idempotency_key = ? AND transaction_id = ?";
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, transaction.getIdempotencyKey());
+            stmt.setString(2, transaction.getTransactionId());
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public Transaction findByIdempotencyKey(String idempotencyKey) throws SQLException {
+        String query = "SELECT idempotency_key, request_hash, transaction_id, created_date " +
+                      "FROM idempotency_key WHERE idempotency_key = ?";
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, idempotencyKey);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                Transaction transaction = new Transaction();
+                transaction.setIdempotencyKey(rs.getString("idempotency_key"));
+                transaction.setRequestHash(rs.getString("request_hash"));
+                transaction.setTransactionId(rs.getString("transaction_id"));
+                transaction.setCreatedDate(rs.getTimestamp("created_date").toLocalDateTime());
+                return transaction;
+            }
+        }
+    }
+
+    @Override
+    public void appendSettled(List<Transaction> transactions) throws SQLException {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        withLockRetry("Settled batch of " + transactions.size(), () -> attemptAppendSettled(transactions));
+    }
+
+    private Void attemptAppendSettled(List<Transaction> transactions) throws SQLException {
+        // Net movement per account, applied in account_number order like every other writer.
+        Map<String, BigDecimal> deltas = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            deltas.merge(transaction.getSenderAccountNumber(), transaction.getAmount().negate(), BigDecimal::add);
+            deltas.merge(transaction.getReceiverAccountNumber(), transaction.getAmount(), BigDecimal::add);
+        }
+
+        Map<String, String> accountIds = DOUBLE_ENTRY ? findAccountIds(deltas.keySet()) : null;
+
+        try (Connection conn = DBConfig.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                if (DOUBLE_ENTRY) {
+                    try (PreparedStatement stmt = conn.prepareStatement(INSERT_LEDGER_ENTRY)) {
+                        for (Transaction transaction : transactions) {
+                            String senderAccountId = accountIds.get(transaction.getSenderAccountNumber());
+                            String receiverAccountId = accountIds.get(transaction.getReceiverAccountNumber());
+                            if (senderAccountId == null || receiverAccountId == null) {
+                                System.err.println("Settled transfer " + transaction.getTransactionId()
+                                        + " names an account that no longer exists, no ledger entries written");
+                                continue;
+                            }
+                            addLedgerEntries(stmt, transaction, senderAccountId, receiverAccountId);
+                        }
+                        stmt.executeBatch();
+                    }
+                } else {
+                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE Account SET amount = amount + ? WHERE account_number = ?")) {
+                        for (Map.Entry<String, BigDecimal> delta : deltas.entrySet()) {
+                            if (delta.getValue().signum() != 0) {
+                                stmt.setBigDecimal(1, delta.getValue());
+                                stmt.setString(2, delta.getKey());
+                                stmt.addBatch();
+                            }
+                        }
+                        stmt.executeBatch();
+                    }
+                }
+
+                String insertQuery = "INSERT INTO Transaction (transaction_id, account_id, sender_account_number, " +
+                                   "receiver_account_number, amount, transaction_type, description, created_date) " +
+                                   "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+                try (PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
+                    for (Transaction transaction : transactions) {
+                        stmt.setString(1, transaction.getTransactionId());
+                        stmt.setString(2, transaction.getAccountId());
+                        stmt.setString(3, transaction.getSenderAccountNumber());
+                        stmt.setString(4, transaction.getReceiverAccountNumber());
+                        stmt.setBigDecimal(5, transaction.getAmount());
+                        stmt.setString(6, transaction.getTransactionType());
+                        stmt.setString(7, transaction.getDescription());
+                        stmt.setTimestamp(8, Timestamp.valueOf(transaction.getCreatedDate()));
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+
+                // The ledger reserves keys before deciding these transfers, so they are usually
+                // present already, and must not fail the whole write-behind batch.
+                String keyQuery = "INSERT IGNORE INTO idempotency_key (idempotency_key, request_hash, transaction_id, created_date) " +
+                                 "VALUES (?, ?, ?, ?)";
+
+                try (PreparedStatement stmt = conn.prepareStatement(keyQuery)) {
+                    boolean hasKeys = false;
+                    for (Transaction transaction : transactions) {
+                        if (transaction.getIdempotencyKey() != null) {
+                            stmt.setString(1, transaction.getIdempotencyKey());
+                            stmt.setString(2, transaction.getRequestHash());
+                            stmt.setString(3, transaction.getTransactionId());
+                            stmt.setTimestamp(4, Timestamp.valueOf(transaction.getCreatedDate()));
+                            stmt.addBatch();
+                            hasKeys = true;
+                        }
+                    }
+                    if (hasKeys) {
+                        stmt.executeBatch();
+                    }
+                }
+
+                conn.commit();
+                return null;
+
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                    System.out.println("Settled batch rolled back successfully");
+                } catch (SQLException rollbackEx) {
+                    System.err.println("Rollback failed: " + rollbackEx.getMessage());
+                }
+                throw e;
+            }
+        }
+    }
+
+    // One chunk, one commit. Every account in the chunk is locked up front in account_number
+    // order, the same order single transfers use, and balances are then tracked in memory so
+    // each transfer sees the effect of the ones before it. Rows go out as two JDBC batches.
+    private List<TransferStatus> attemptTransferBatch(List<Transaction> transactions) throws SQLException {
+        try (Connection conn = DBConfig.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                Set<String> accountNumbers = new TreeSet<>();
+                for (Transaction transaction : transactions) {
+                    if (transaction.getSenderAccountNumber() != null) {
+                        accountNumbers.add(transaction.getSenderAccountNumber());
+                    }
+                    if (transaction.getReceiverAccountNumber() != null) {
+                        accountNumbers.add(transaction.getReceiverAccountNumber());
+                    }
+                }
+                Map<String, LockedAccount> accounts = lockAccounts(conn, accountNumbers);
+                addPendingBalances(conn, accounts);
+
+                List<TransferStatus> statuses = new ArrayList<>(transactions.size());
+                List<Transaction> applied = new ArrayList<>();
+                for (Transaction transaction : transactions) {
+                    LockedAccount sender = accounts.get(transaction.getSenderAccountNumber());
+                    LockedAccount receiver = accounts.get(transaction.getReceiverAccountNumber());
+                    if (sender == null) {
+                        statuses.add(TransferStatus.SENDER_NOT_FOUND);
+                    } else if (receiver == null) {
+                        statuses.add(TransferStatus.RECEIVER_NOT_FOUND);
+                    } else if (sender.balance.compareTo(transaction.getAmount()) < 0) {
+                        statuses.add(TransferStatus.INSUFFICIENT_BALANCE);
+                    } else {
+                        sender.balance = sender.balance.subtract(transaction.getAmount());
+                        receiver.balance = receiver.balance.add(transaction.getAmount());
+                        transaction.setAccountId(sender.accountId);
+                        applied.add(transaction);
+                        statuses.add(TransferStatus.COMPLETED);
+                    }
+                }
+
+                if (applied.isEmpty()) {
+                    conn.rollback();
+                    return statuses;
+                }
+
+                String insertQuery = "INSERT INTO Transaction (transaction_id, account_id, sender_account_number, " +
+                                   "receiver_account_number, amount, transaction_type, description, created_date) " +
+                                   "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+                try (PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
+                    for (Transaction transaction : applied) {
+                        stmt.setString(1, transaction.getTransactionId());
+                        stmt.setString(2, transaction.getAccountId());
+                        stmt.setString(3, transaction.getSenderAccountNumber());
+                        stmt.setString(4, transaction.getReceiverAccountNumber());
+                        stmt.setBigDecimal(5, transaction.getAmount());
+                        stmt.setString(6, transaction.getTransactionType());
+                        stmt.setString(7, transaction.getDescription());
+                        stmt.setTimestamp(8, Timestamp.valueOf(transaction.getCreatedDate()));
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+
+                // Group commit can hand keyed transfers to this path. A key that is already taken
+                // fails the whole chunk; the caller then falls back to single transfers.
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO idempotency_key (idempotency_key, request_hash, transaction_id, created_date) VALUES (?, ?, ?, ?)")) {
+                    boolean hasKeys = false;
+                    for (Transaction transaction : applied) {
+                        if (transaction.getIdempotencyKey() != null) {
+                            stmt.setString(1, transaction.getIdempotencyKey());
+                            stmt.setString(2, transaction.getRequestHash());
+                            stmt.setString(3, transaction.getTransactionId());
+                            stmt.setTimestamp(4, Timestamp.valueOf(transaction.getCreatedDate()));
+                            stmt.addBatch();
+                            hasKeys = true;
+                        }
+                    }
+                    if (hasKeys) {
+                        stmt.executeBatch();
+                    }
+                }
+
+                if (DOUBLE_ENTRY) {
+                    try (PreparedStatement stmt = conn.prepareStatement(INSERT_LEDGER_ENTRY)) {
+                        for (Transaction transaction : applied) {
+                            addLedgerEntries(stmt, transaction, transaction.getAccountId(),
+                                    accounts.get(transaction.getReceiverAccountNumber()).accountId);
+                        }
+                        stmt.executeBatch();
+                    }
+                } else {
+                    // The rows are locked, so the net change computed above is exact and each
+                    // touched account needs one write however many transfers it took part in.
+                    // Adding it, rather than setting the total, leaves any ledger tail intact.
+                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE Account SET amount = amount + ? WHERE account_id = ?")) {
+                        for (LockedAccount account : accounts.values()) {
+                            if (account.balance.compareTo(account.originalBalance) != 0) {
+                                stmt.setBigDecimal(1, account.balance.subtract(account.originalBalance));
+                                stmt.setString(2, account.accountId);
+                                stmt.addBatch();
+                            }
+                        }
+                        stmt.executeBatch();
+                    }
+                }
+
+                conn.commit();
+                return statuses;
+
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                    System.out.println("Transaction batch rolled back successfully");
+                } catch (SQLException rollbackEx) {
+                    System.err.println("Rollback failed: " + rollbackEx.getMessage());
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static Map<String, LockedAccount> lockAccounts(Connection conn, Set<String> sortedAccountNumbers)
+            throws SQLException {
+        Map<String, LockedAccount> accounts = new LinkedHashMap<>();
+        List<String> numbers = new ArrayList<>(sortedAccountNumbers);
+
+        for (int from = 0; from < numbers.size(); from += LOCK_SLICE) {
+            List<String> slice = numbers.subList(from, Math.min(numbers.size(), from + LOCK_SLICE));
+            String lockQuery = "SELECT account_id, account_number, amount FROM Account " +
+                              "WHERE account_number IN (" + JdbcQueries.placeholders(slice.size()) + ") " +
+                              "ORDER BY account_number FOR UPDATE";
+
+            try (PreparedStatement stmt = conn.prepareStatement(lockQuery)) {
+                for (int i = 0; i < slice.size(); i++) {
+                    stmt.setString(i + 1, slice.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        accounts.put(rs.getString("account_number"),
+                                new LockedAccount(rs.getString("account_id"), rs.getBigDecimal("amount")));
+                    }
+                }
+            }
+        }
+        return accounts;
+    }
+
+    // Runs after the locking read, like the balance read of a single sender-locked transfer, so
+    // the ledger tails and slots include everything committed before the locks were granted.
+    private static void addPendingBalances(Connection conn, Map<String, LockedAccount> accounts) throws SQLException {
+        Map<String, LockedAccount> byId = new LinkedHashMap<>();
+        for (LockedAccount account : accounts.values()) {
+            byId.put(account.accountId, account);
+        }
+        List<String> accountIds = new ArrayList<>(byId.keySet());
+
+        for (int from = 0; from < accountIds.size(); from += LOCK_SLICE) {
+            List<String> slice = accountIds.subList(from, Math.min(accountIds.size(), from + LOCK_SLICE));
+            String pendingQuery = "SELECT a.account_id, " + pendingBalance("a") + " AS pending FROM Account a " +
+                                 "WHERE a.account_id IN (" + JdbcQueries.placeholders(slice.size()) + ")";
+
+            try (PreparedStatement stmt = conn.prepareStatement(pendingQuery)) {
+                for (int i = 0; i < slice.size(); i++) {
+                    stmt.setString(i + 1, slice.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        LockedAccount account = byId.get(rs.getString("account_id"));
+                        account.balance = account.balance.add(rs.getBigDecimal("pending"));
+                        account.originalBalance = account.balance;
+                    }
+                }
+            }
+        }
+    }
+
+    // Ledger entries after the account's snapshot plus its balance slots; see JdbcAccountRepository.
+    private static String pendingBalance(String alias) {
+        return "(COALESCE((SELECT SUM(e.amount) FROM ledger_entry e " +
+               "WHERE e.account_id = " + alias + ".account_id AND e.entry_id > " + alias + ".snapshot_entry_id), 0) + " +
+               "COALESCE((SELECT SUM(b.amount) FROM account_balance_slot b WHERE b.account_id = " + alias + ".account_id), 0))";
+    }
+
+    private static Map<String, String> findAccountIds(Set<String> accountNumbers) throws SQLException {
+        Map<String, String> accountIds = new HashMap<>();
+        for (String[] row : JdbcQueries.findIn("SELECT account_number, account_id FROM Account WHERE account_number",
+                accountNumbers, rs -> new String[] {rs.getString("account_number"), rs.getString("account_id")})) {
+            accountIds.put(row[0], row[1]);
+        }
+        return accountIds;
+    }
+
+    static boolean isLockConflict(SQLException e) {
+        for (SQLException current = e; current != null; current = current.getNextException()) {
+            if (current.getErrorCode() == ER_LOCK_DEADLOCK || current.getErrorCode() == ER_LOCK_WAIT_TIMEOUT
+                    || "40001".equals(current.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Exponential backoff with jitter over the upper half of the window, so transfers that
+    // collided once do not wake up together and collide again.
+    static long retryDelayMs(int attempt) {
+        long window = Math.min(RETRY_MAX_DELAY_MS, RETRY_BASE_DELAY_MS << Math.min(attempt - 1, 20));
+        return window / 2 + ThreadLocalRandom.current().nextLong(window / 2 + 1);
+    }
+
+    @Override
+    public List<Transaction> findByAccountNumber(String accountNumber) throws SQLException {
+        return findHistory(accountNumber, null, null, null, 0);
+    }
+
+    @Override
+    public List<Transaction> findAll() throws SQLException {
+        List<Transaction> transactions = new ArrayList<>();
+
+        String query = "SELECT * FROM Transaction ORDER BY created_date DESC";
+
+        try (Connection conn = DBConfig.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+
+            while (rs.next()) {
+                transactions.add(mapTransaction(rs));
+            }
+        }
+
+        return transactions;
+    }
+
+    // The created_date bounds are compared on the bare column so MySQL can prune the
+    // monthly partitions of Transaction instead of scanning the whole history.
+    @Override
+    public List<Transaction> findByAccountNumberBetween(String accountNumber, LocalDateTime from, LocalDateTime to)
+            throws SQLException {
+        return findHistory(accountNumber, from, to, null, 0);
+    }
+
+    @Override
+    public List<Transaction> findPageByAccountNumber(String accountNumber, LocalDateTime from, LocalDateTime to,
+                                                     TransactionCursor after, int limit) throws SQLException {
+        return findHistory(accountNumber, from, to, after, limit);
+    }
+
+    // One branch per side, each a range scan of its (account number, created_date) index;
+    // InnoDB appends the primary key to both, so transaction_id breaks ties without a sort.
+    // With a limit each branch stops after that many rows and only 2 * limit rows are
+    // merged, however long the history. A transfer to oneself would be on both sides, so
+    // the receiver branch leaves those rows to the sender branch.
+    private List<Transaction> findHistory(String accountNumber, LocalDateTime from, LocalDateTime to,
+                                          TransactionCursor after, int limit) throws SQLException {
+        String order = " ORDER BY created_date DESC, transaction_id DESC";
+        String branchFilter = dateRangeClause("created_date", from, to) +
+                (after != null ? " AND (created_date < ? OR (created_date = ? AND transaction_id < ?))" : "") +
+                (limit > 0 ? order + " LIMIT ?" : "");
+        String query = "(SELECT * FROM Transaction WHERE sender_account_number = ?" + branchFilter + ")" +
+                      " UNION ALL " +
+                      "(SELECT * FROM Transaction WHERE receiver_account_number = ? AND sender_account_number <> ?" +
+                      branchFilter + ")" +
+                      order + (limit > 0 ? " LIMIT ?" : "");
+
+        List<Transaction> transactions = new ArrayList<>();
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            int index = 1;
+            stmt.setString(index++, accountNumber);
+            index = bindHistoryFilter(stmt, index, from, to, after, limit);
+            stmt.setString(index++, accountNumber);
+            stmt.setString(index++, accountNumber);
+            index = bindHistoryFilter(stmt, index, from, to, after, limit);
+            if (limit > 0) {
+                stmt.setInt(index, limit);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    transactions.add(mapTransaction(rs));
+                }
+            }
+        }
+
+        return transactions;
+    }
+
+    private static int bindHistoryFilter(PreparedStatement stmt, int index, LocalDateTime from, LocalDateTime to,
+                                         TransactionCursor after, int limit) throws SQLException {
+        bindDateRange(stmt, index, from, to);
+        index += (from != null ? 1 : 0) + (to != null ? 1 : 0);
+        if (after != null) {
+            Timestamp createdDate = Timestamp.valueOf(after.getCreatedDate());
+            stmt.setTimestamp(index++, createdDate);
+            stmt.setTimestamp(index++, createdDate);
+            stmt.setString(index++, after.getTransactionId());
+        }
+        if (limit > 0) {
+            stmt.setInt(index++, limit);
+        }
+        return index;
+    }
+
+    @Override
+    public List<Transaction> findAllBetween(LocalDateTime from, LocalDateTime to) throws SQLException {
+        List<Transaction> transactions = new ArrayList<>();
+        try (Connection conn = DBConfig.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(allBetweenQuery(from, to))) {
+
+            bindDateRange(stmt, 1, from, to);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    transactions.add(mapTransaction(rs));
+                }
+            }
+        }
+
+        return transactions;
+    }
+
+    @Override
+    public void streamAllBetween(LocalDateTime from, LocalDateTime to, RowConsumer<Transaction> consumer)
+            throws SQLException, IOException {
+        JdbcQueries.stream(allBetweenQuery(from, to), stmt -> bindDateRange(stmt, 1, from, to),
+                JdbcTransactionRepository::mapTransaction, consumer);
+    }
+
+    private static String allBetweenQuery(LocalDateTime from, LocalDateTime to) {
+        return "SELECT * FROM Transaction WHERE 1 = 1" + dateRangeClause("created_date", from, to) +
+               " ORDER BY created_date DESC";
+    }
+
+    private static String dateRangeClause(String column, LocalDateTime from, LocalDateTime to) {
+        return (from != null ? " AND " + column + " >= ?" : "") + (to != null ? " AND " + column + " < ?" : "");
+    }
+
+    private static void bindDateRange(PreparedStatement stmt, int index, LocalDateTime from, LocalDateTime to)
+            throws SQLException {
+        if (from != null) {
+            stmt.setTimestamp(index++, Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            stmt.setTimestamp(index, Timestamp.valueOf(to));
+        }
+    }
+
+    @Override
+    public boolean existsById(String transactionId) throws SQLException {
+        return JdbcQueries.count("SELECT COUNT(*) FROM Transaction WHERE transaction_id = ?", transactionId) > 0;
+    }
+
+    @Override
+    public boolean deleteById(String transactionId) throws SQLException {
+        return JdbcQueries.executeUpdate("DELETE FROM Transaction WHERE transaction_id = ?", transactionId) > 0;
+    }
+
+    private static Transaction mapTransaction(ResultSet rs) throws SQLException {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(rs.getString("transaction_id"));
+        transaction.setAccountId(rs.getString("account_id"));
+        transaction.setSenderAccountNumber(rs.getString("sender_account_number"));
+        transaction.setReceiverAccountNumber(rs.getString("receiver_account_number"));
+        transaction.setAmount(rs.getBigDecimal("amount"));
+        transaction.setTransactionType(rs.getString("transaction_type"));
+        transaction.setDescription(rs.getString("description"));
+        transaction.setCreatedDate(rs.getTimestamp("created_date").toLocalDateTime());
+        return transaction;
+    }
+}
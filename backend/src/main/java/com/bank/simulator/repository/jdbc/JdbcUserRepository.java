@@ -0,0 +1,170 @@
+package com.bank.simulator.repository.jdbc;
+
+import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.model.User;
+import com.bank.simulator.repository.RowConsumer;
+import com.bank.simulator.repository.UserRepository;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class JdbcUserRepository implements UserRepository {
+
+    private static final String SELECT_ALL_USERS =
+        "SELECT id, full_name, email, active, created_at, updated_at FROM User ORDER BY created_at DESC";
+
+    @Override
+    public boolean insert(User user) throws SQLException {
+        String query = """
+            INSERT INTO User (id, full_name, email, password, active, created_at, updated_at) 
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, user.getId());
+            stmt.setString(2, user.getFullName());
+            stmt.setString(3, user.getEmail());
+            stmt.setString(4, user.getPassword());
+            stmt.setBoolean(5, user.isActive());
+            stmt.setTimestamp(6, Timestamp.valueOf(user.getCreatedAt()));
+            stmt.setTimestamp(7, Timestamp.valueOf(user.getUpdatedAt()));
+
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public User findById(String userId) throws SQLException {
+        return findOne("SELECT * FROM User WHERE id = ?", userId);
+    }
+
+    @Override
+    public User findByEmail(String email) throws SQLException {
+        return findOne("SELECT * FROM User WHERE email = ?", email);
+    }
+
+    @Override
+    public Map<String, User> findByEmails(Collection<String> emails) throws SQLException {
+        // The email column compares case-insensitively, so map the rows back onto the keys as given.
+        Map<String, User> usersByEmail = new HashMap<>();
+        for (User user : JdbcQueries.findIn("SELECT * FROM User WHERE email", emails, JdbcUserRepository::mapUser)) {
+            usersByEmail.put(user.getEmail().toLowerCase(Locale.ROOT), user);
+        }
+
+        Map<String, User> users = new HashMap<>();
+        for (String email : emails) {
+            User user = email != null ? usersByEmail.get(email.toLowerCase(Locale.ROOT)) : null;
+            if (user != null) {
+                users.put(email, user);
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public List<User> findAll() throws SQLException {
+        List<User> users = new ArrayList<>();
+
+        try (Connection conn = DBConfig.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_ALL_USERS)) {
+
+            while (rs.next()) {
+                users.add(mapListedUser(rs));
+            }
+        }
+
+        return users;
+    }
+
+    @Override
+    public void streamAll(RowConsumer<User> consumer) throws SQLException, IOException {
+        JdbcQueries.stream(SELECT_ALL_USERS, stmt -> {}, JdbcUserRepository::mapListedUser, consumer);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) throws SQLException {
+        return JdbcQueries.count("SELECT COUNT(*) FROM User WHERE email = ?", email) > 0;
+    }
+
+    @Override
+    public boolean updateStatus(String email, boolean active, LocalDateTime updatedAt) throws SQLException {
+        String query = "UPDATE User SET active = ?, updated_at = ? WHERE email = ?";
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setBoolean(1, active);
+            stmt.setTimestamp(2, Timestamp.valueOf(updatedAt));
+            stmt.setString(3, email);
+
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public boolean deleteById(String userId) throws SQLException {
+        return JdbcQueries.executeUpdate("DELETE FROM User WHERE id = ?", userId) > 0;
+    }
+
+    @Override
+    public int findMaxUserSequence() throws SQLException {
+        String query = "SELECT MAX(CAST(SUBSTRING(id, 6) AS UNSIGNED)) as max_id FROM User";
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getInt("max_id") : 0;
+        }
+    }
+
+    private User findOne(String query, String value) throws SQLException {
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, value);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapUser(rs) : null;
+            }
+        }
+    }
+
+    // The user list never reads the password column.
+    private static User mapListedUser(ResultSet rs) throws SQLException {
+        User user = new User();
+        user.setId(rs.getString("id"));
+        user.setFullName(rs.getString("full_name"));
+        user.setEmail(rs.getString("email"));
+        user.setActive(rs.getBoolean("active"));
+        user.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        user.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        return user;
+    }
+
+    private static User mapUser(ResultSet rs) throws SQLException {
+        User user = new User();
+        user.setId(rs.getString("id"));
+        user.setFullName(rs.getString("full_name"));
+        user.setEmail(rs.getString("email"));
+        user.setPassword(rs.getString("password"));
+        user.setActive(rs.getBoolean("active"));
+        user.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        user.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        return user;
+    }
+}
@@ -0,0 +1,248 @@
+package com.bank.simulator.repository.memory;
+
+import com.bank.simulator.model.Account;
+import com.bank.simulator.model.AccountHolder;
+import com.bank.simulator.model.Customer;
+import com.bank.simulator.model.TransferContext;
+import com.bank.simulator.model.User;
+import com.bank.simulator.repository.AccountRepository;
+import com.bank.simulator.repository.RowConsumer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class InMemoryAccountRepository implements AccountRepository {
+
+    private final InMemoryStore store;
+
+    public InMemoryAccountRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean insert(Account account) throws SQLException {
+        String accountId = account.getAccountId();
+        String customerId = account.getCustomerId();
+        if (customerId == null) {
+            throw InMemoryStore.foreignKeyViolation("Account", "customer_id");
+        }
+
+        ReentrantLock customerLock = store.customerLocks.lock(customerId);
+        try {
+            if (!store.customers.containsKey(customerId)) {
+                throw InMemoryStore.foreignKeyViolation("Account", "customer_id");
+            }
+
+            ReentrantLock accountLock = store.accountLocks.lock(accountId);
+            try {
+                if (store.accounts.containsKey(accountId)) {
+                    throw InMemoryStore.duplicateEntry(accountId, "Account.PRIMARY");
+                }
+                InMemoryStore.claimUnique(store.accountIdByNumber, account.getAccountNumber(), accountId, "Account.account_number");
+
+                LocalDateTime now = LocalDateTime.now();
+                Account row = InMemoryStore.copy(account);
+                row.setAmount(InMemoryStore.money(account.getAmount()));
+                row.setCreated(now);
+                row.setModified(now);
+                store.accounts.put(accountId, row);
+                InMemoryStore.addToIndex(store.accountIdsByCustomer, customerId, accountId);
+                return true;
+            } finally {
+                accountLock.unlock();
+            }
+        } finally {
+            customerLock.unlock();
+        }
+    }
+
+    @Override
+    public Account findById(String accountId) {
+        Account account = accountId != null ? store.accounts.get(accountId) : null;
+        return account != null ? InMemoryStore.copy(account) : null;
+    }
+
+    @Override
+    public Account findByCustomerId(String customerId) {
+        Account first = null;
+        for (String accountId : InMemoryStore.indexed(store.accountIdsByCustomer, customerId)) {
+            Account account = store.accounts.get(accountId);
+            if (account != null && (first == null || account.getAccountId().compareTo(first.getAccountId()) < 0)) {
+                first = account;
+            }
+        }
+        return first != null ? InMemoryStore.copy(first) : null;
+    }
+
+    @Override
+    public Account findByAccountNumber(String accountNumber) {
+        return accountNumber != null ? findById(store.accountIdByNumber.get(accountNumber)) : null;
+    }
+
+    @Override
+    public Map<String, Account> findByAccountNumbers(Collection<String> accountNumbers) {
+        Map<String, Account> accounts = new HashMap<>();
+        for (String accountNumber : accountNumbers) {
+            Account account = findByAccountNumber(accountNumber);
+            if (account != null) {
+                accounts.put(accountNumber, account);
+            }
+        }
+        return accounts;
+    }
+
+    @Override
+    public List<Account> findAll() {
+        List<Account> accounts = new ArrayList<>();
+        for (Account account : store.accounts.values()) {
+            accounts.add(InMemoryStore.copy(account));
+        }
+        accounts.sort(Comparator.comparing(Account::getCreated).reversed()
+                .thenComparing(Account::getAccountId, Comparator.reverseOrder()));
+        return accounts;
+    }
+
+    // The store already lives on the heap, so the sorted copies cost nothing the list
+    // endpoints did not already pay; only the JDBC engine has a table to stream from.
+    @Override
+    public void streamAll(RowConsumer<Account> consumer) throws IOException {
+        for (Account account : findAll()) {
+            consumer.accept(account);
+        }
+    }
+
+    @Override
+    public boolean update(String accountId, Account account) throws SQLException {
+        ReentrantLock lock = store.accountLocks.lock(accountId);
+        try {
+            Account existing = store.accounts.get(accountId);
+            if (existing == null) {
+                return false;
+            }
+
+            InMemoryStore.claimUnique(store.accountIdByNumber, account.getAccountNumber(), accountId, "Account.account_number");
+
+            Account updated = InMemoryStore.copy(existing);
+            updated.setAccountNumber(account.getAccountNumber());
+            updated.setAadharNumber(account.getAadharNumber());
+            updated.setIfscCode(account.getIfscCode());
+            updated.setPhoneNumberLinked(account.getPhoneNumberLinked());
+            updated.setAmount(InMemoryStore.money(account.getAmount()));
+            updated.setBankName(account.getBankName());
+            updated.setNameOnAccount(account.getNameOnAccount());
+            updated.setStatus(account.getStatus());
+            updated.setModified(LocalDateTime.now());
+            store.accounts.put(accountId, updated);
+
+            if (!Objects.equals(existing.getAccountNumber(), updated.getAccountNumber())) {
+                InMemoryStore.releaseUnique(store.accountIdByNumber, existing.getAccountNumber(), accountId);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean deleteWithTransactions(String accountId) {
+        if (accountId == null) {
+            return false;
+        }
+        ReentrantLock lock = store.accountLocks.lock(accountId);
+        try {
+            return store.removeAccountRow(accountId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean existsById(String accountId) {
+        return accountId != null && store.accounts.containsKey(accountId);
+    }
+
+    @Override
+    public boolean existsByAccountNumber(String accountNumber) {
+        return accountNumber != null && store.accountIdByNumber.containsKey(accountNumber);
+    }
+
+    @Override
+    public boolean existsByAccountNumberForOtherAccount(String accountNumber, String accountId) {
+        String owner = accountNumber != null ? store.accountIdByNumber.get(accountNumber) : null;
+        return owner != null && !owner.equals(accountId);
+    }
+
+    @Override
+    public BigDecimal findBalanceByAccountNumber(String accountNumber) {
+        String accountId = accountNumber != null ? store.accountIdByNumber.get(accountNumber) : null;
+        Account account = accountId != null ? store.accounts.get(accountId) : null;
+        return account != null ? account.getAmount() : null;
+    }
+
+    @Override
+    public AccountHolder findHolderByAccountNumber(String accountNumber) {
+        String accountId = accountNumber != null ? store.accountIdByNumber.get(accountNumber) : null;
+        Account account = accountId != null ? store.accounts.get(accountId) : null;
+        Customer customer = account != null ? store.customers.get(account.getCustomerId()) : null;
+        if (customer == null) {
+            return null;
+        }
+        return new AccountHolder(customer.getName(), customer.getEmail(), account.getBankName(), account.getAccountNumber());
+    }
+
+    @Override
+    public TransferContext findTransferContext(String senderAccountNumber, String receiverAccountNumber) {
+        TransferContext context = new TransferContext();
+        Account sender = findByAccountNumber(senderAccountNumber);
+        Customer senderCustomer = sender != null ? store.customers.get(sender.getCustomerId()) : null;
+        if (senderCustomer != null) {
+            context.setSenderAccount(sender);
+            context.setSenderCustomer(contextCustomer(senderCustomer, true));
+
+            String emailKey = InMemoryStore.emailKey(senderCustomer.getEmail());
+            String userId = emailKey != null ? store.userIdByEmail.get(emailKey) : null;
+            User user = userId != null ? store.users.get(userId) : null;
+            if (user != null) {
+                User senderUser = new User();
+                senderUser.setId(user.getId());
+                senderUser.setEmail(senderCustomer.getEmail());
+                senderUser.setActive(user.isActive());
+                context.setSenderUser(senderUser);
+            }
+        }
+
+        Account receiver = findByAccountNumber(receiverAccountNumber);
+        Customer receiverCustomer = receiver != null ? store.customers.get(receiver.getCustomerId()) : null;
+        if (receiverCustomer != null) {
+            context.setReceiverAccount(receiver);
+            context.setReceiverCustomer(contextCustomer(receiverCustomer, false));
+        }
+        return context;
+    }
+
+    private static Customer contextCustomer(Customer source, boolean withPin) {
+        Customer customer = new Customer();
+        customer.setCustomerId(source.getCustomerId());
+        customer.setName(source.getName());
+        customer.setEmail(source.getEmail());
+        if (withPin) {
+            customer.setCustomerPin(source.getCustomerPin());
+        }
+        return customer;
+    }
+
+    @Override
+    public int findMaxAccountSequence() {
+        return InMemoryStore.maxSequence(store.accounts.keySet(), "ACC_");
+    }
+}
@@ -0,0 +1,208 @@
+package com.bank.simulator.repository.memory;
+
+import com.bank.simulator.model.Customer;
+import com.bank.simulator.repository.CustomerRepository;
+import com.bank.simulator.repository.RowConsumer;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class InMemoryCustomerRepository implements CustomerRepository {
+
+    private final InMemoryStore store;
+
+    public InMemoryCustomerRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean insert(Customer customer) throws SQLException {
+        String customerId = customer.getCustomerId();
+        ReentrantLock lock = store.customerLocks.lock(customerId);
+        try {
+            if (store.customers.containsKey(customerId)) {
+                throw InMemoryStore.duplicateEntry(customerId, "Customer.PRIMARY");
+            }
+
+            InMemoryStore.claimUnique(store.customerIdByPhone, customer.getPhoneNumber(), customerId, "Customer.phone_number");
+            try {
+                InMemoryStore.claimUnique(store.customerIdByAadhar, customer.getAadharNumber(), customerId, "Customer.aadhar_number");
+            } catch (SQLException e) {
+                InMemoryStore.releaseUnique(store.customerIdByPhone, customer.getPhoneNumber(), customerId);
+                throw e;
+            }
+
+            store.customers.put(customerId, InMemoryStore.copy(customer));
+            InMemoryStore.addToIndex(store.customerIdsByEmail, InMemoryStore.emailKey(customer.getEmail()), customerId);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Customer findById(String customerId) {
+        Customer customer = customerId != null ? store.customers.get(customerId) : null;
+        return customer != null ? InMemoryStore.copy(customer) : null;
+    }
+
+    @Override
+    public Map<String, Customer> findByIds(Collection<String> customerIds) {
+        Map<String, Customer> customers = new HashMap<>();
+        for (String customerId : customerIds) {
+            Customer customer = findById(customerId);
+            if (customer != null) {
+                customers.put(customerId, customer);
+            }
+        }
+        return customers;
+    }
+
+    @Override
+    public Customer findByAadharNumber(String aadharNumber) {
+        return aadharNumber != null ? findById(store.customerIdByAadhar.get(aadharNumber)) : null;
+    }
+
+    @Override
+    public Customer findByPhoneNumber(String phoneNumber) {
+        return phoneNumber != null ? findById(store.customerIdByPhone.get(phoneNumber)) : null;
+    }
+
+    @Override
+    public List<Customer> findAll() {
+        List<Customer> customers = new ArrayList<>();
+        for (Customer customer : store.customers.values()) {
+            customers.add(InMemoryStore.copy(customer));
+        }
+        customers.sort(Comparator.comparing(Customer::getCustomerId));
+        return customers;
+    }
+
+    @Override
+    public void streamAll(RowConsumer<Customer> consumer) throws IOException {
+        for (Customer customer : findAll()) {
+            consumer.accept(customer);
+        }
+    }
+
+    @Override
+    public boolean update(String customerId, Customer customer) throws SQLException {
+        ReentrantLock lock = store.customerLocks.lock(customerId);
+        try {
+            Customer existing = store.customers.get(customerId);
+            if (existing == null) {
+                return false;
+            }
+
+            InMemoryStore.claimUnique(store.customerIdByPhone, customer.getPhoneNumber(), customerId, "Customer.phone_number");
+            try {
+                InMemoryStore.claimUnique(store.customerIdByAadhar, customer.getAadharNumber(), customerId, "Customer.aadhar_number");
+            } catch (SQLException e) {
+                if (!Objects.equals(existing.getPhoneNumber(), customer.getPhoneNumber())) {
+                    InMemoryStore.releaseUnique(store.customerIdByPhone, customer.getPhoneNumber(), customerId);
+                }
+                throw e;
+            }
+
+            Customer updated = InMemoryStore.copy(customer);
+            updated.setCustomerId(customerId);
+            store.customers.put(customerId, updated);
+
+            if (!Objects.equals(existing.getPhoneNumber(), updated.getPhoneNumber())) {
+                InMemoryStore.releaseUnique(store.customerIdByPhone, existing.getPhoneNumber(), customerId);
+            }
+            if (!Objects.equals(existing.getAadharNumber(), updated.getAadharNumber())) {
+                InMemoryStore.releaseUnique(store.customerIdByAadhar, existing.getAadharNumber(), customerId);
+            }
+            String oldEmailKey = InMemoryStore.emailKey(existing.getEmail());
+            String newEmailKey = InMemoryStore.emailKey(updated.getEmail());
+            if (!Objects.equals(oldEmailKey, newEmailKey)) {
+                InMemoryStore.removeFromIndex(store.customerIdsByEmail, oldEmailKey, customerId);
+                InMemoryStore.addToIndex(store.customerIdsByEmail, newEmailKey, customerId);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean deleteById(String customerId) {
+        if (customerId == null) {
+            return false;
+        }
+        ReentrantLock lock = store.customerLocks.lock(customerId);
+        try {
+            return store.removeCustomerRow(customerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean deleteByAadharNumber(String aadharNumber) {
+        String customerId = aadharNumber != null ? store.customerIdByAadhar.get(aadharNumber) : null;
+        return deleteById(customerId);
+    }
+
+    @Override
+    public boolean existsByPhoneNumber(String phoneNumber) {
+        return phoneNumber != null && store.customerIdByPhone.containsKey(phoneNumber);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return !InMemoryStore.indexed(store.customerIdsByEmail, InMemoryStore.emailKey(email)).isEmpty();
+    }
+
+    @Override
+    public boolean existsByAadharNumber(String aadharNumber) {
+        return aadharNumber != null && store.customerIdByAadhar.containsKey(aadharNumber);
+    }
+
+    @Override
+    public boolean existsByPhoneNumberForOtherCustomer(String phoneNumber, String customerId) {
+        String owner = phoneNumber != null ? store.customerIdByPhone.get(phoneNumber) : null;
+        return owner != null && !owner.equals(customerId);
+    }
+
+    @Override
+    public boolean existsByEmailForOtherCustomer(String email, String customerId) {
+        for (String owner : InMemoryStore.indexed(store.customerIdsByEmail, InMemoryStore.emailKey(email))) {
+            if (!owner.equals(customerId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean existsByAadharNumberForOtherCustomer(String aadharNumber, String customerId) {
+        String owner = aadharNumber != null ? store.customerIdByAadhar.get(aadharNumber) : null;
+        return owner != null && !owner.equals(customerId);
+    }
+
+    @Override
+    public String findCustomerIdByAadharNumber(String aadharNumber) {
+        return aadharNumber != null ? store.customerIdByAadhar.get(aadharNumber) : null;
+    }
+
+    @Override
+    public String findPhoneNumberById(String customerId) {
+        Customer customer = customerId != null ? store.customers.get(customerId) : null;
+        return customer != null ? customer.getPhoneNumber() : null;
+    }
+
+    @Override
+    public int findMaxCustomerSequence() {
+        return InMemoryStore.maxSequence(store.customers.keySet(), "CUST_");
+    }
+}
@@ -0,0 +1,25 @@
+package com.bank.simulator.repository.memory;
+
+import com.bank.simulator.repository.SequenceRepository;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class InMemorySequenceRepository implements SequenceRepository {
+
+    private final InMemoryStore store;
+
+    public InMemorySequenceRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public long allocateBlock(String sequenceName, int blockSize) {
+        AtomicLong nextValue = store.sequences.get(sequenceName);
+        return nextValue != null ? nextValue.getAndAdd(blockSize) : -1;
+    }
+
+    @Override
+    public boolean createSequence(String sequenceName, long firstValue) {
+        return store.sequences.putIfAbsent(sequenceName, new AtomicLong(firstValue)) == null;
+    }
+}
@@ -0,0 +1,147 @@
+package com.bank.simulator.repository.memory;
+
+import com.bank.simulator.model.StandingInstruction;
+import com.bank.simulator.repository.StandingInstructionRepository;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class InMemoryStandingInstructionRepository implements StandingInstructionRepository {
+
+    private final InMemoryStore store;
+
+    public InMemoryStandingInstructionRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean insert(StandingInstruction instruction) throws SQLException {
+        String instructionId = instruction.getInstructionId();
+        if (store.standingInstructions.putIfAbsent(instructionId, InMemoryStore.copy(instruction)) != null) {
+            throw InMemoryStore.duplicateEntry(instructionId, "standing_instruction.PRIMARY");
+        }
+        return true;
+    }
+
+    @Override
+    public StandingInstruction findById(String instructionId) {
+        StandingInstruction instruction = instructionId != null ? store.standingInstructions.get(instructionId) : null;
+        return instruction != null ? InMemoryStore.copy(instruction) : null;
+    }
+
+    @Override
+    public List<StandingInstruction> findBySenderAccountNumber(String accountNumber) {
+        List<StandingInstruction> instructions = new ArrayList<>();
+        for (StandingInstruction instruction : store.standingInstructions.values()) {
+            if (instruction.getSenderAccountNumber().equals(accountNumber)) {
+                instructions.add(InMemoryStore.copy(instruction));
+            }
+        }
+        instructions.sort(Comparator.comparing(StandingInstruction::getCreatedAt).reversed());
+        return instructions;
+    }
+
+    @Override
+    public List<StandingInstruction> findDue(LocalDateTime through, LocalDateTime afterRunAt, String afterInstructionId,
+                                             int limit) {
+        List<StandingInstruction> instructions = new ArrayList<>();
+        for (StandingInstruction instruction : store.standingInstructions.values()) {
+            if ("ACTIVE".equals(instruction.getStatus()) && !instruction.getNextRunAt().isAfter(through)
+                    && (afterRunAt == null || instruction.getNextRunAt().isAfter(afterRunAt)
+                        || (instruction.getNextRunAt().equals(afterRunAt)
+                            && instruction.getInstructionId().compareTo(afterInstructionId) > 0))) {
+                instructions.add(InMemoryStore.copy(instruction));
+            }
+        }
+        instructions.sort(Comparator.comparing(StandingInstruction::getNextRunAt)
+                .thenComparing(StandingInstruction::getInstructionId));
+        return instructions.size() > limit ? new ArrayList<>(instructions.subList(0, limit)) : instructions;
+    }
+
+    @Override
+    public List<StandingInstruction> claimDue(Map<String, String> transactionIds, LocalDateTime now) {
+        List<StandingInstruction> claimed = new ArrayList<>();
+        for (Map.Entry<String, String> entry : transactionIds.entrySet()) {
+            StandingInstruction updated = store.standingInstructions.computeIfPresent(entry.getKey(), (id, current) -> {
+                if (!"ACTIVE".equals(current.getStatus()) || current.getNextRunAt().isAfter(now)
+                        || current.getPendingTransactionId() != null) {
+                    return current;
+                }
+                StandingInstruction copy = InMemoryStore.copy(current);
+                copy.setPendingTransactionId(entry.getValue());
+                copy.setClaimedAt(now);
+                return copy;
+            });
+            if (updated != null && entry.getValue().equals(updated.getPendingTransactionId())) {
+                claimed.add(InMemoryStore.copy(updated));
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    public List<StandingInstruction> takeOverClaims(List<StandingInstruction> instructions, LocalDateTime now) {
+        List<StandingInstruction> taken = new ArrayList<>();
+        for (StandingInstruction instruction : instructions) {
+            boolean[] won = {false};
+            store.standingInstructions.computeIfPresent(instruction.getInstructionId(), (id, current) -> {
+                if (current.getPendingTransactionId() == null
+                        || !current.getPendingTransactionId().equals(instruction.getPendingTransactionId())
+                        || !Objects.equals(current.getClaimedAt(), instruction.getClaimedAt())) {
+                    return current;
+                }
+                StandingInstruction copy = InMemoryStore.copy(current);
+                copy.setClaimedAt(now);
+                won[0] = true;
+                return copy;
+            });
+            if (won[0]) {
+                instruction.setClaimedAt(now);
+                taken.add(instruction);
+            }
+        }
+        return taken;
+    }
+
+    @Override
+    public void recordRuns(List<StandingInstruction> instructions) {
+        for (StandingInstruction instruction : instructions) {
+            store.standingInstructions.computeIfPresent(instruction.getInstructionId(), (id, current) -> {
+                if (current.getPendingTransactionId() == null
+                        || !current.getPendingTransactionId().equals(instruction.getPendingTransactionId())) {
+                    return current;
+                }
+                StandingInstruction copy = InMemoryStore.copy(instruction);
+                copy.setPendingTransactionId(null);
+                copy.setClaimedAt(null);
+                if ("CANCELLED".equals(current.getStatus())) {
+                    copy.setStatus(current.getStatus());
+                }
+                return copy;
+            });
+        }
+    }
+
+    @Override
+    public boolean cancel(String instructionId) {
+        if (instructionId == null) {
+            return false;
+        }
+        boolean[] cancelled = {false};
+        store.standingInstructions.computeIfPresent(instructionId, (id, current) -> {
+            if (!"ACTIVE".equals(current.getStatus())) {
+                return current;
+            }
+            StandingInstruction copy = InMemoryStore.copy(current);
+            copy.setStatus("CANCELLED");
+            cancelled[0] = true;
+            return copy;
+        });
+        return cancelled[0];
+    }
+}
@@ -0,0 +1,226 @@
+package com.bank.simulator.repository.memory;
+
+import com.bank.simulator.model.Account;
+import com.bank.simulator.model.Customer;
+import com.bank.simulator.model.StandingInstruction;
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.model.User;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class InMemoryStore {
+
+    final Map<String, Customer> customers = new ConcurrentHashMap<>();
+    final Map<String, String> customerIdByPhone = new ConcurrentHashMap<>();
+    final Map<String, String> customerIdByAadhar = new ConcurrentHashMap<>();
+    final Map<String, Set<String>> customerIdsByEmail = new ConcurrentHashMap<>();
+
+    final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    final Map<String, String> accountIdByNumber = new ConcurrentHashMap<>();
+    final Map<String, Set<String>> accountIdsByCustomer = new ConcurrentHashMap<>();
+
+    final Map<String, Transaction> transactions = new ConcurrentHashMap<>();
+    final Map<String, Set<String>> transactionIdsByAccountNumber = new ConcurrentHashMap<>();
+    final Map<String, Set<String>> transactionIdsByAccountId = new ConcurrentHashMap<>();
+    final Map<String, Transaction> transactionsByIdempotencyKey = new ConcurrentHashMap<>();
+
+    final Map<String, User> users = new ConcurrentHashMap<>();
+    final Map<String, String> userIdByEmail = new ConcurrentHashMap<>();
+
+    final Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+
+    final Map<String, StandingInstruction> standingInstructions = new ConcurrentHashMap<>();
+
+    // Lock order is always customer stripe before account stripe. Rows are never
+    // mutated after they are published; writers replace them with fresh copies.
+    final StripedLocks customerLocks;
+    final StripedLocks accountLocks;
+
+    public InMemoryStore(int lockStripes) {
+        this.customerLocks = new StripedLocks(lockStripes);
+        this.accountLocks = new StripedLocks(lockStripes);
+    }
+
+    static void claimUnique(Map<String, String> index, String key, String rowId, String keyName)
+            throws SQLIntegrityConstraintViolationException {
+        if (key == null) {
+            return;
+        }
+        String owner = index.putIfAbsent(key, rowId);
+        if (owner != null && !owner.equals(rowId)) {
+            throw duplicateEntry(key, keyName);
+        }
+    }
+
+    static void releaseUnique(Map<String, String> index, String key, String rowId) {
+        if (key != null) {
+            index.remove(key, rowId);
+        }
+    }
+
+    static void addToIndex(Map<String, Set<String>> index, String key, String rowId) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(rowId);
+        }
+    }
+
+    static void removeFromIndex(Map<String, Set<String>> index, String key, String rowId) {
+        if (key == null) {
+            return;
+        }
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(rowId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    static Set<String> indexed(Map<String, Set<String>> index, String key) {
+        Set<String> ids = key != null ? index.get(key) : null;
+        return ids != null ? ids : Set.of();
+    }
+
+    static SQLIntegrityConstraintViolationException duplicateEntry(String key, String keyName) {
+        return new SQLIntegrityConstraintViolationException(
+                "Duplicate entry '" + key + "' for key '" + keyName + "'", "23000", 1062);
+    }
+
+    static SQLIntegrityConstraintViolationException foreignKeyViolation(String table, String column) {
+        return new SQLIntegrityConstraintViolationException(
+                "Cannot add or update a child row: a foreign key constraint fails (" + table + "." + column + ")",
+                "23000", 1452);
+    }
+
+    // Mirrors MySQL's default case-insensitive collation for email lookups.
+    static String emailKey(String email) {
+        return email != null ? email.toLowerCase(Locale.ROOT) : null;
+    }
+
+    static BigDecimal money(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP) : null;
+    }
+
+    static int maxSequence(Collection<String> ids, String prefix) {
+        int max = 0;
+        for (String id : ids) {
+            if (!id.startsWith(prefix)) {
+                continue;
+            }
+            int end = prefix.length();
+            while (end < id.length() && Character.isDigit(id.charAt(end))) {
+                end++;
+            }
+            if (end > prefix.length()) {
+                try {
+                    max = Math.max(max, Integer.parseInt(id.substring(prefix.length(), end)));
+                } catch (NumberFormatException e) {
+                    max = Integer.MAX_VALUE;
+                }
+            }
+        }
+        return max;
+    }
+
+    void removeTransactionRow(String transactionId) {
+        Transaction removed = transactions.remove(transactionId);
+        if (removed != null) {
+            removeFromIndex(transactionIdsByAccountNumber, removed.getSenderAccountNumber(), transactionId);
+            removeFromIndex(transactionIdsByAccountNumber, removed.getReceiverAccountNumber(), transactionId);
+            removeFromIndex(transactionIdsByAccountId, removed.getAccountId(), transactionId);
+        }
+    }
+
+    // Caller holds the account stripe. Same cascade as the Transaction.account_id foreign key.
+    boolean removeAccountRow(String accountId) {
+        Account removed = accounts.remove(accountId);
+        if (removed == null) {
+            return false;
+        }
+        releaseUnique(accountIdByNumber, removed.getAccountNumber(), accountId);
+        removeFromIndex(accountIdsByCustomer, removed.getCustomerId(), accountId);
+        for (String transactionId : Set.copyOf(indexed(transactionIdsByAccountId, accountId))) {
+            removeTransactionRow(transactionId);
+        }
+        return true;
+    }
+
+    // Caller holds the customer stripe. Same cascade as the Account.customer_id foreign key.
+    boolean removeCustomerRow(String customerId) {
+        Customer removed = customers.remove(customerId);
+        if (removed == null) {
+            return false;
+        }
+        releaseUnique(customerIdByPhone, removed.getPhoneNumber(), customerId);
+        releaseUnique(customerIdByAadhar, removed.getAadharNumber(), customerId);
+        removeFromIndex(customerIdsByEmail, emailKey(removed.getEmail()), customerId);
+
+        for (String accountId : Set.copyOf(indexed(accountIdsByCustomer, customerId))) {
+            ReentrantLock lock = accountLocks.lock(accountId);
+            try {
+                removeAccountRow(accountId);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return true;
+    }
+
+    static Customer copy(Customer customer) {
+        return new Customer(customer.getCustomerId(), customer.getName(), customer.getPhoneNumber(),
+                customer.getEmail(), customer.getAddress(), customer.getCustomerPin(),
+                customer.getAadharNumber(), customer.getDob(), customer.getStatus());
+    }
+
+    static Account copy(Account account) {
+        return new Account(account.getAccountId(), account.getCustomerId(), account.getAccountNumber(),
+                account.getAadharNumber(), account.getIfscCode(), account.getPhoneNumberLinked(),
+                account.getAmount(), account.getBankName(), account.getNameOnAccount(), account.getStatus(),
+                account.getCreated(), account.getModified());
+    }
+
+    static Transaction copy(Transaction transaction) {
+        return new Transaction(transaction.getTransactionId(), transaction.getAccountId(),
+                transaction.getSenderAccountNumber(), transaction.getReceiverAccountNumber(),
+                transaction.getAmount(), transaction.getTransactionType(), transaction.getDescription(),
+                null, transaction.getCreatedDate());
+    }
+
+    static StandingInstruction copy(StandingInstruction instruction) {
+        StandingInstruction copy = new StandingInstruction();
+        copy.setInstructionId(instruction.getInstructionId());
+        copy.setSenderAccountNumber(instruction.getSenderAccountNumber());
+        copy.setReceiverAccountNumber(instruction.getReceiverAccountNumber());
+        copy.setAmount(money(instruction.getAmount()));
+        copy.setDescription(instruction.getDescription());
+        copy.setFrequency(instruction.getFrequency());
+        copy.setStartAt(instruction.getStartAt());
+        copy.setEndAt(instruction.getEndAt());
+        copy.setOccurrence(instruction.getOccurrence());
+        copy.setNextRunAt(instruction.getNextRunAt());
+        copy.setStatus(instruction.getStatus());
+        copy.setFailureCount(instruction.getFailureCount());
+        copy.setLastRunAt(instruction.getLastRunAt());
+        copy.setLastTransactionId(instruction.getLastTransactionId());
+        copy.setLastError(instruction.getLastError());
+        copy.setPendingTransactionId(instruction.getPendingTransactionId());
+        copy.setClaimedAt(instruction.getClaimedAt());
+        copy.setCreatedAt(instruction.getCreatedAt());
+        return copy;
+    }
+
+    static User copy(User user) {
+        User copy = new User(user.getId(), user.getFullName(), user.getEmail(), user.getPassword());
+        copy.setActive(user.isActive());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setUpdatedAt(user.getUpdatedAt());
+        return copy;
+    }
+}
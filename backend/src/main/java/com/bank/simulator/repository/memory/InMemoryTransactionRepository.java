@@ -0,0 +1,258 @@
+package com.bank.simulator.repository.memory;
+
+import com.bank.simulator.model.Account;
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.model.TransactionCursor;
+import com.bank.simulator.repository.RowConsumer;
+import com.bank.simulator.repository.TransactionRepository;
+import com.bank.simulator.repository.TransferStatus;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class InMemoryTransactionRepository implements TransactionRepository {
+
+    private static final Comparator<Transaction> NEWEST_FIRST =
+            Comparator.comparing(Transaction::getCreatedDate).reversed()
+                    .thenComparing(Transaction::getTransactionId, Comparator.reverseOrder());
+
+    private final InMemoryStore store;
+
+    public InMemoryTransactionRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public TransferStatus transfer(Transaction transaction) throws SQLException {
+        String senderAccountNumber = transaction.getSenderAccountNumber();
+        String receiverAccountNumber = transaction.getReceiverAccountNumber();
+        String senderAccountId = senderAccountNumber != null ? store.accountIdByNumber.get(senderAccountNumber) : null;
+        if (senderAccountId == null) {
+            return TransferStatus.SENDER_NOT_FOUND;
+        }
+        String receiverAccountId = receiverAccountNumber != null ? store.accountIdByNumber.get(receiverAccountNumber) : null;
+        if (receiverAccountId == null) {
+            return TransferStatus.RECEIVER_NOT_FOUND;
+        }
+
+        List<ReentrantLock> locks = store.accountLocks.lockAll(senderAccountId, receiverAccountId);
+        try {
+            Account sender = store.accounts.get(senderAccountId);
+            if (sender == null || !senderAccountNumber.equals(sender.getAccountNumber())) {
+                return TransferStatus.SENDER_NOT_FOUND;
+            }
+            Account receiver = store.accounts.get(receiverAccountId);
+            if (receiver == null || !receiverAccountNumber.equals(receiver.getAccountNumber())) {
+                return TransferStatus.RECEIVER_NOT_FOUND;
+            }
+
+            transaction.setAccountId(senderAccountId);
+
+            if (sender.getAmount().compareTo(transaction.getAmount()) < 0) {
+                return TransferStatus.INSUFFICIENT_BALANCE;
+            }
+
+            if (!claimIdempotencyKey(transaction)) {
+                return TransferStatus.DUPLICATE_REQUEST;
+            }
+            try {
+                record(transaction, senderAccountId, receiverAccountId);
+            } catch (SQLException e) {
+                releaseIdempotencyKey(transaction);
+                throw e;
+            }
+            return TransferStatus.COMPLETED;
+        } finally {
+            StripedLocks.unlockAll(locks);
+        }
+    }
+
+    @Override
+    public List<TransferStatus> transferBatch(List<Transaction> transactions) throws SQLException {
+        List<TransferStatus> statuses = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            statuses.add(transfer(transaction));
+        }
+        return statuses;
+    }
+
+    @Override
+    public void appendSettled(List<Transaction> transactions) throws SQLException {
+        for (Transaction transaction : transactions) {
+            String senderAccountId = store.accountIdByNumber.get(transaction.getSenderAccountNumber());
+            String receiverAccountId = store.accountIdByNumber.get(transaction.getReceiverAccountNumber());
+            if (senderAccountId == null || receiverAccountId == null) {
+                throw InMemoryStore.foreignKeyViolation("Transaction", "account_number");
+            }
+
+            List<ReentrantLock> locks = store.accountLocks.lockAll(senderAccountId, receiverAccountId);
+            try {
+                if (!store.accounts.containsKey(senderAccountId) || !store.accounts.containsKey(receiverAccountId)) {
+                    throw InMemoryStore.foreignKeyViolation("Transaction", "account_number");
+                }
+                transaction.setAccountId(senderAccountId);
+                record(transaction, senderAccountId, receiverAccountId);
+                claimIdempotencyKey(transaction);
+            } finally {
+                StripedLocks.unlockAll(locks);
+            }
+        }
+    }
+
+    private boolean claimIdempotencyKey(Transaction transaction) {
+        if (transaction.getIdempotencyKey() == null) {
+            return true;
+        }
+        return store.transactionsByIdempotencyKey.putIfAbsent(transaction.getIdempotencyKey(), keyRow(transaction)) == null;
+    }
+
+    private static Transaction keyRow(Transaction source) {
+        Transaction row = new Transaction();
+        row.setIdempotencyKey(source.getIdempotencyKey());
+        row.setRequestHash(source.getRequestHash());
+        row.setTransactionId(source.getTransactionId());
+        row.setCreatedDate(source.getCreatedDate());
+        return row;
+    }
+
+    @Override
+    public boolean reserveIdempotencyKey(Transaction transaction) {
+        return claimIdempotencyKey(transaction);
+    }
+
+    @Override
+    public void releaseIdempotencyKey(Transaction transaction) {
+        if (transaction.getIdempotencyKey() != null) {
+            store.transactionsByIdempotencyKey.computeIfPresent(transaction.getIdempotencyKey(),
+                    (key, row) -> row.getTransactionId().equals(transaction.getTransactionId()) ? null : row);
+        }
+    }
+
+    // Callers hold the locks of both accounts.
+    private void record(Transaction transaction, String senderAccountId, String receiverAccountId) throws SQLException {
+        Transaction row = InMemoryStore.copy(transaction);
+        row.setAmount(InMemoryStore.money(transaction.getAmount()));
+        if (store.transactions.putIfAbsent(row.getTransactionId(), row) != null) {
+            throw InMemoryStore.duplicateEntry(row.getTransactionId(), "Transaction.PRIMARY");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        adjustBalance(senderAccountId, row, now, true);
+        adjustBalance(receiverAccountId, row, now, false);
+
+        InMemoryStore.addToIndex(store.transactionIdsByAccountNumber, transaction.getSenderAccountNumber(), row.getTransactionId());
+        InMemoryStore.addToIndex(store.transactionIdsByAccountNumber, transaction.getReceiverAccountNumber(), row.getTransactionId());
+        InMemoryStore.addToIndex(store.transactionIdsByAccountId, senderAccountId, row.getTransactionId());
+    }
+
+    private void adjustBalance(String accountId, Transaction row, LocalDateTime now, boolean debit) {
+        Account updated = InMemoryStore.copy(store.accounts.get(accountId));
+        updated.setAmount(debit ? updated.getAmount().subtract(row.getAmount()) : updated.getAmount().add(row.getAmount()));
+        updated.setModified(now);
+        store.accounts.put(accountId, updated);
+    }
+
+    @Override
+    public Transaction findByIdempotencyKey(String idempotencyKey) {
+        Transaction row = idempotencyKey != null ? store.transactionsByIdempotencyKey.get(idempotencyKey) : null;
+        return row != null ? keyRow(row) : null;
+    }
+
+    @Override
+    public List<Transaction> findByAccountNumber(String accountNumber) {
+        return newestFirst(InMemoryStore.indexed(store.transactionIdsByAccountNumber, accountNumber));
+    }
+
+    @Override
+    public List<Transaction> findAll() {
+        return newestFirst(store.transactions.keySet());
+    }
+
+    @Override
+    public List<Transaction> findByAccountNumberBetween(String accountNumber, LocalDateTime from, LocalDateTime to) {
+        return newestFirst(InMemoryStore.indexed(store.transactionIdsByAccountNumber, accountNumber), from, to);
+    }
+
+    @Override
+    public List<Transaction> findPageByAccountNumber(String accountNumber, LocalDateTime from, LocalDateTime to,
+                                                     TransactionCursor after, int limit) {
+        List<Transaction> page = new ArrayList<>(limit);
+        for (Transaction transaction : newestFirst(InMemoryStore.indexed(store.transactionIdsByAccountNumber, accountNumber), from, to)) {
+            if (page.size() >= limit) {
+                break;
+            }
+            if (after == null || isAfter(transaction, after)) {
+                page.add(transaction);
+            }
+        }
+        return page;
+    }
+
+    private static boolean isAfter(Transaction transaction, TransactionCursor cursor) {
+        int byDate = transaction.getCreatedDate().compareTo(cursor.getCreatedDate());
+        return byDate < 0 || (byDate == 0 && transaction.getTransactionId().compareTo(cursor.getTransactionId()) < 0);
+    }
+
+    @Override
+    public List<Transaction> findAllBetween(LocalDateTime from, LocalDateTime to) {
+        return newestFirst(store.transactions.keySet(), from, to);
+    }
+
+    @Override
+    public void streamAllBetween(LocalDateTime from, LocalDateTime to, RowConsumer<Transaction> consumer)
+            throws IOException {
+        for (Transaction transaction : findAllBetween(from, to)) {
+            consumer.accept(transaction);
+        }
+    }
+
+    private List<Transaction> newestFirst(Collection<String> transactionIds) {
+        return newestFirst(transactionIds, null, null);
+    }
+
+    private List<Transaction> newestFirst(Collection<String> transactionIds, LocalDateTime from, LocalDateTime to) {
+        List<Transaction> transactions = new ArrayList<>(transactionIds.size());
+        for (String transactionId : transactionIds) {
+            Transaction transaction = store.transactions.get(transactionId);
+            if (transaction != null && inRange(transaction.getCreatedDate(), from, to)) {
+                transactions.add(InMemoryStore.copy(transaction));
+            }
+        }
+        transactions.sort(NEWEST_FIRST);
+        return transactions;
+    }
+
+    private static boolean inRange(LocalDateTime createdDate, LocalDateTime from, LocalDateTime to) {
+        return (from == null || !createdDate.isBefore(from)) && (to == null || createdDate.isBefore(to));
+    }
+
+    @Override
+    public boolean existsById(String transactionId) {
+        return transactionId != null && store.transactions.containsKey(transactionId);
+    }
+
+    @Override
+    public boolean deleteById(String transactionId) {
+        Transaction transaction = transactionId != null ? store.transactions.get(transactionId) : null;
+        if (transaction == null) {
+            return false;
+        }
+
+        ReentrantLock lock = store.accountLocks.lock(transaction.getAccountId());
+        try {
+            if (!store.transactions.containsKey(transactionId)) {
+                return false;
+            }
+            store.removeTransactionRow(transactionId);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.bank.simulator.repository.memory;
+
+import com.bank.simulator.model.User;
+import com.bank.simulator.repository.UserRepository;
+import com.bank.simulator.repository.RowConsumer;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class InMemoryUserRepository implements UserRepository {
+
+    private final InMemoryStore store;
+
+    public InMemoryUserRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean insert(User user) throws SQLException {
+        String userId = user.getId();
+        String emailKey = InMemoryStore.emailKey(user.getEmail());
+
+        InMemoryStore.claimUnique(store.userIdByEmail, emailKey, userId, "User.email");
+        if (store.users.putIfAbsent(userId, InMemoryStore.copy(user)) != null) {
+            InMemoryStore.releaseUnique(store.userIdByEmail, emailKey, userId);
+            throw InMemoryStore.duplicateEntry(userId, "User.PRIMARY");
+        }
+        return true;
+    }
+
+    @Override
+    public User findById(String userId) {
+        User user = userId != null ? store.users.get(userId) : null;
+        return user != null ? InMemoryStore.copy(user) : null;
+    }
+
+    @Override
+    public User findByEmail(String email) {
+        String emailKey = InMemoryStore.emailKey(email);
+        return emailKey != null ? findById(store.userIdByEmail.get(emailKey)) : null;
+    }
+
+    @Override
+    public Map<String, User> findByEmails(Collection<String> emails) {
+        Map<String, User> users = new HashMap<>();
+        for (String email : emails) {
+            User user = findByEmail(email);
+            if (user != null) {
+                users.put(email, user);
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public List<User> findAll() {
+        List<User> users = new ArrayList<>();
+        for (User user : store.users.values()) {
+            User copy = InMemoryStore.copy(user);
+            copy.setPassword(null);
+            users.add(copy);
+        }
+        users.sort(Comparator.comparing(User::getCreatedAt).reversed()
+                .thenComparing(User::getId, Comparator.reverseOrder()));
+        return users;
+    }
+
+    @Override
+    public void streamAll(RowConsumer<User> consumer) throws IOException {
+        for (User user : findAll()) {
+            consumer.accept(user);
+        }
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        String emailKey = InMemoryStore.emailKey(email);
+        return emailKey != null && store.userIdByEmail.containsKey(emailKey);
+    }
+
+    @Override
+    public boolean updateStatus(String email, boolean active, LocalDateTime updatedAt) {
+        String emailKey = InMemoryStore.emailKey(email);
+        String userId = emailKey != null ? store.userIdByEmail.get(emailKey) : null;
+        if (userId == null) {
+            return false;
+        }
+
+        User updated = store.users.computeIfPresent(userId, (id, existing) -> {
+            User copy = InMemoryStore.copy(existing);
+            copy.setActive(active);
+            copy.setUpdatedAt(updatedAt);
+            return copy;
+        });
+        return updated != null;
+    }
+
+    @Override
+    public boolean deleteById(String userId) {
+        User removed = userId != null ? store.users.remove(userId) : null;
+        if (removed == null) {
+            return false;
+        }
+        InMemoryStore.releaseUnique(store.userIdByEmail, InMemoryStore.emailKey(removed.getEmail()), userId);
+        return true;
+    }
+
+    @Override
+    public int findMaxUserSequence() {
+        return InMemoryStore.maxSequence(store.users.keySet(), "USER_");
+    }
+}
@@ -0,0 +1,60 @@
+package com.bank.simulator.repository.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+final class StripedLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    StripedLocks(int requestedStripes) {
+        int size = Integer.highestOneBit(Math.max(1, requestedStripes - 1)) << 1;
+        this.stripes = new ReentrantLock[Math.max(1, Math.min(size, 1 << 16))];
+        this.mask = stripes.length - 1;
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    int stripeFor(Object key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return hash & mask;
+    }
+
+    ReentrantLock lock(Object key) {
+        ReentrantLock lock = stripes[stripeFor(key)];
+        lock.lock();
+        return lock;
+    }
+
+    // Stripes are always taken in ascending index order so two callers locking the
+    // same pair of keys in opposite order cannot deadlock.
+    List<ReentrantLock> lockAll(Object... keys) {
+        TreeMap<Integer, ReentrantLock> ordered = new TreeMap<>();
+        for (Object key : keys) {
+            int stripe = stripeFor(key);
+            ordered.put(stripe, stripes[stripe]);
+        }
+
+        List<ReentrantLock> acquired = new ArrayList<>(ordered.size());
+        for (ReentrantLock lock : ordered.values()) {
+            lock.lock();
+            acquired.add(lock);
+        }
+        return acquired;
+    }
+
+    static void unlockAll(List<ReentrantLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+}
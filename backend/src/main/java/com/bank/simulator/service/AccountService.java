@@ -1,6 +1,9 @@
 package com.bank.simulator.service;
 
 import com.bank.simulator.model.Account;
+import com.bank.simulator.repository.RowConsumer;
+
+import java.io.IOException;
 import java.util.List;
 
 public interface AccountService {
@@ -15,4 +18,7 @@ public interface AccountService {
     String getCustomerPhoneNumber(String customerId);
     String generateAccountId();
      List<Account> getAllAccounts();
+    // Hands every account to the consumer in getAllAccounts order. Returns false when the
+    // read failed part way, so the caller knows the rows it got are not the whole table.
+    boolean streamAllAccounts(RowConsumer<Account> consumer) throws IOException;
 }
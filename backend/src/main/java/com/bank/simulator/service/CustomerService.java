@@ -1,6 +1,9 @@
 package com.bank.simulator.service;
 
 import com.bank.simulator.model.Customer;
+import com.bank.simulator.repository.RowConsumer;
+
+import java.io.IOException;
 import java.util.List;
 
 public interface CustomerService {
@@ -14,6 +17,7 @@ public interface CustomerService {
     boolean deleteCustomer(String customerId);
     boolean deleteCustomerByAadhar(String aadharNumber);
     List<Customer> getAllCustomers();
+    boolean streamAllCustomers(RowConsumer<Customer> consumer) throws IOException;
     boolean isPhoneNumberExists(String phoneNumber);
     boolean isEmailExists(String email);
     boolean isAadharNumberExists(String aadharNumber);
@@ -0,0 +1,11 @@
+package com.bank.simulator.service;
+
+public interface SequenceService {
+
+    String ACCOUNT_SEQUENCE = "ACC";
+    String CUSTOMER_SEQUENCE = "CUST";
+    String USER_SEQUENCE = "USER";
+    String INSTRUCTION_SEQUENCE = "SI";
+
+    long nextValue(String sequenceName);
+}
@@ -0,0 +1,12 @@
+package com.bank.simulator.service;
+
+import com.bank.simulator.model.StandingInstruction;
+import java.util.List;
+
+public interface StandingInstructionService {
+
+    String createInstruction(StandingInstruction instruction);
+    StandingInstruction getInstruction(String instructionId);
+    List<StandingInstruction> getInstructionsByAccountNumber(String accountNumber);
+    boolean cancelInstruction(String instructionId);
+}
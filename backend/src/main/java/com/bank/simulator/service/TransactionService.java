@@ -1,14 +1,43 @@
 package com.bank.simulator.service;
 
+import com.bank.simulator.model.BatchTransferResult;
 import com.bank.simulator.model.Transaction;
+import com.bank.simulator.model.TransactionCursor;
+import com.bank.simulator.model.TransactionPage;
+import com.bank.simulator.model.TransferContext;
+import com.bank.simulator.repository.RowConsumer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TransactionService {
     
     String createTransaction(Transaction transaction);
+
+    String createTransaction(Transaction transaction, TransferContext context);
+
+    TransferContext loadTransferContext(String senderAccountNumber, String receiverAccountNumber);
+
+    List<BatchTransferResult> createTransactionBatch(List<Transaction> transactions);
+
+    // For transfers authorised when they were scheduled: no PIN check, and the transaction
+    // ids the caller set are kept.
+    List<BatchTransferResult> createScheduledTransactionBatch(List<Transaction> transactions);
     
     List<Transaction> getTransactionsByAccountNumber(String accountNumber);
+
+    List<Transaction> getTransactionsByAccountNumber(String accountNumber, LocalDateTime from, LocalDateTime to);
+
+    // from and to may be null. Returns null when the page could not be read.
+    TransactionPage getTransactionPage(String accountNumber, LocalDateTime from, LocalDateTime to,
+                                       TransactionCursor after, int limit);
     
     String generateTransactionId();
     List<Transaction> getAllTransactions();
+    List<Transaction> getTransactionsBetween(LocalDateTime from, LocalDateTime to);
+    boolean streamTransactionsBetween(LocalDateTime from, LocalDateTime to, RowConsumer<Transaction> consumer) throws IOException;
+    Transaction getTransactionByIdempotencyKey(String idempotencyKey);
+    boolean transactionExists(String transactionId);
+    boolean deleteTransaction(String transactionId);
 }
\ No newline at end of file
@@ -1,6 +1,10 @@
 package com.bank.simulator.service;
 
 import com.bank.simulator.model.User;
+import com.bank.simulator.repository.RowConsumer;
+
+import java.io.IOException;
+import java.util.List;
 
 public interface UserService {
     
@@ -11,4 +15,6 @@ public interface UserService {
     String generateUserId();
     boolean updateUserStatus(String email, boolean active);
     User getUserById(String userId);
+    List<User> getAllUsers();
+    boolean streamAllUsers(RowConsumer<User> consumer) throws IOException;
 }
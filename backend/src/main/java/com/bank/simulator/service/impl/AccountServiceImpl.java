@@ -1,48 +1,26 @@
 package com.bank.simulator.service.impl;
 
-import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.config.AccountCache;
+import com.bank.simulator.ledger.LedgerEngine;
 import com.bank.simulator.model.Account;
+import com.bank.simulator.repository.AccountRepository;
+import com.bank.simulator.repository.CustomerRepository;
+import com.bank.simulator.repository.RepositoryFactory;
+import com.bank.simulator.repository.RowConsumer;
 import com.bank.simulator.service.AccountService;
+import com.bank.simulator.service.SequenceService;
 
-import java.sql.*;
-import java.time.LocalDateTime;
+import java.io.IOException;
+import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.List;
-import java.util.ArrayList;
 
 
 public class AccountServiceImpl implements AccountService {
-    private static final AtomicInteger accountCounter;
-    
-    static {
-        accountCounter = new AtomicInteger(getMaxAccountIdFromDB() + 1);
-        System.out.println("=== ACCOUNT SERVICE INITIALIZED ===");
-        System.out.println("Starting account counter at: " + accountCounter.get());
-    }
     
-   
-    private static int getMaxAccountIdFromDB() {
-        String query = "SELECT MAX(CAST(SUBSTRING(account_id, 5) AS UNSIGNED)) as max_id FROM Account";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                int maxId = rs.getInt("max_id");
-                System.out.println(" Loaded max account ID from database: " + maxId);
-                return maxId;
-            }
-        } catch (SQLException e) {
-            System.err.println("Warning: Could not load max account ID from database");
-            System.err.println("Error: " + e.getMessage());
-            System.err.println("Starting counter from 0 (first ID will be ACC_1)");
-        }
-        
-        return 0;
-    }
+    private final AccountRepository accountRepository = RepositoryFactory.getAccountRepository();
+    private final CustomerRepository customerRepository = RepositoryFactory.getCustomerRepository();
+    private final SequenceService sequenceService = new SequenceServiceImpl();
 
     @Override
     public String createAccount(Account account) {
@@ -80,32 +58,12 @@ public class AccountServiceImpl implements AccountService {
             return "ACCOUNT_NUMBER_EXISTS";
         }
         
-        String query = """
-            INSERT INTO Account (account_id, customer_id, account_number, aadhar_number, 
-                               ifsc_code, phone_number_linked, amount, bank_name, 
-                               name_on_account, status) 
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-        """;
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
+        try {
             System.out.println("=== INSERTING ACCOUNT RECORD ===");
             
-            stmt.setString(1, account.getAccountId());
-            stmt.setString(2, account.getCustomerId());
-            stmt.setString(3, account.getAccountNumber());
-            stmt.setString(4, account.getAadharNumber());
-            stmt.setString(5, account.getIfscCode());
-            stmt.setString(6, account.getPhoneNumberLinked());
-            stmt.setBigDecimal(7, account.getAmount());
-            stmt.setString(8, account.getBankName());
-            stmt.setString(9, account.getNameOnAccount());
-            stmt.setString(10, account.getStatus());
-            
-            int result = stmt.executeUpdate();
+            boolean result = accountRepository.insert(account);
             
-            if (result > 0) {
+            if (result) {
                 System.out.println("\n"); 
                 System.out.println("Account created successfully for Customer ID: " + account.getCustomerId());
                 System.out.println("=== ACCOUNT CREATION SUCCESS DETAILS ===");
@@ -136,16 +94,10 @@ public class AccountServiceImpl implements AccountService {
     }
 
     private String findAndLinkCustomerByAadhar(String aadharNumber) {
-        String query = "SELECT customer_id FROM Customer WHERE aadhar_number = ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, aadharNumber);
-            ResultSet rs = stmt.executeQuery();
+        try {
+            String customerId = customerRepository.findCustomerIdByAadharNumber(aadharNumber);
             
-            if (rs.next()) {
-                String customerId = rs.getString("customer_id");
+            if (customerId != null) {
                 System.out.println(" Found existing customer with Aadhar: " + aadharNumber);
                 System.out.println(" Customer ID: " + customerId);
                 return customerId;
@@ -164,17 +116,8 @@ public class AccountServiceImpl implements AccountService {
     }
 
     private String getCustomerPhoneByCustomerId(String customerId) {
-        String query = "SELECT phone_number FROM Customer WHERE customer_id = ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, customerId);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getString("phone_number");
-            }
+        try {
+            return customerRepository.findPhoneNumberById(customerId);
             
         } catch (SQLException e) {
             System.err.println("Error getting customer phone: " + e.getMessage());
@@ -185,39 +128,14 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     public Account getAccountById(String accountId) {
-        String query = """
-            SELECT a.*, c.phone_number as customer_phone 
-            FROM Account a 
-            JOIN Customer c ON a.customer_id = c.customer_id 
-            WHERE a.account_id = ?
-        """;
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, accountId);
-            ResultSet rs = stmt.executeQuery();
+        try {
+            Account account = AccountCache.getInstance().getById(accountId, () -> accountRepository.findById(accountId));
             
-            if (rs.next()) {
-                Account account = new Account();
-                account.setAccountId(rs.getString("account_id"));
-                account.setCustomerId(rs.getString("customer_id"));
-                account.setAccountNumber(rs.getString("account_number"));
-                account.setAadharNumber(rs.getString("aadhar_number"));
-                account.setIfscCode(rs.getString("ifsc_code"));
-                account.setPhoneNumberLinked(rs.getString("phone_number_linked"));
-                account.setAmount(rs.getBigDecimal("amount"));
-                account.setBankName(rs.getString("bank_name"));
-                account.setNameOnAccount(rs.getString("name_on_account"));
-                account.setStatus(rs.getString("status"));
-                account.setCreated(rs.getTimestamp("created").toLocalDateTime());
-                account.setModified(rs.getTimestamp("modified").toLocalDateTime());
-                
+            if (account != null) {
                 System.out.println("=== ACCOUNT RETRIEVED ===");
                 System.out.println("Account ID: " + accountId);
-                
-                return account;
             }
+            return account;
         } catch (SQLException e) {
             System.err.println("Error retrieving account: " + accountId);
             e.printStackTrace();
@@ -227,36 +145,8 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     public Account getAccountByCustomerId(String customerId) {
-        String query = """
-            SELECT a.*, c.phone_number as customer_phone 
-            FROM Account a 
-            JOIN Customer c ON a.customer_id = c.customer_id 
-            WHERE a.customer_id = ?
-        """;
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, customerId);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                Account account = new Account();
-                account.setAccountId(rs.getString("account_id"));
-                account.setCustomerId(rs.getString("customer_id"));
-                account.setAccountNumber(rs.getString("account_number"));
-                account.setAadharNumber(rs.getString("aadhar_number"));
-                account.setIfscCode(rs.getString("ifsc_code"));
-                account.setPhoneNumberLinked(rs.getString("phone_number_linked"));
-                account.setAmount(rs.getBigDecimal("amount"));
-                account.setBankName(rs.getString("bank_name"));
-                account.setNameOnAccount(rs.getString("name_on_account"));
-                account.setStatus(rs.getString("status"));
-                account.setCreated(rs.getTimestamp("created").toLocalDateTime());
-                account.setModified(rs.getTimestamp("modified").toLocalDateTime());
-                
-                return account;
-            }
+        try {
+            return accountRepository.findByCustomerId(customerId);
         } catch (SQLException e) {
             System.err.println("Error retrieving account by customer ID: " + customerId);
             e.printStackTrace();
@@ -266,36 +156,9 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     public Account getAccountByAccountNumber(String accountNumber) {
-        String query = """
-            SELECT a.*, c.phone_number as customer_phone 
-            FROM Account a 
-            JOIN Customer c ON a.customer_id = c.customer_id 
-            WHERE a.account_number = ?
-        """;
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, accountNumber);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                Account account = new Account();
-                account.setAccountId(rs.getString("account_id"));
-                account.setCustomerId(rs.getString("customer_id"));
-                account.setAccountNumber(rs.getString("account_number"));
-                account.setAadharNumber(rs.getString("aadhar_number"));
-                account.setIfscCode(rs.getString("ifsc_code"));
-                account.setPhoneNumberLinked(rs.getString("phone_number_linked"));
-                account.setAmount(rs.getBigDecimal("amount"));
-                account.setBankName(rs.getString("bank_name"));
-                account.setNameOnAccount(rs.getString("name_on_account"));
-                account.setStatus(rs.getString("status"));
-                account.setCreated(rs.getTimestamp("created").toLocalDateTime());
-                account.setModified(rs.getTimestamp("modified").toLocalDateTime());
-                
-                return account;
-            }
+        try {
+            return AccountCache.getInstance().getByAccountNumber(accountNumber,
+                () -> accountRepository.findByAccountNumber(accountNumber));
         } catch (SQLException e) {
             System.err.println("Error retrieving account by account number: " + accountNumber);
             e.printStackTrace();
@@ -326,31 +189,16 @@ public class AccountServiceImpl implements AccountService {
         System.out.println("Auto-linked Customer ID: " + customerId);
         System.out.println("Auto-linked Phone Number: " + customerPhone);
         
-        String query = """
-            UPDATE Account SET account_number = ?, aadhar_number = ?, ifsc_code = ?, phone_number_linked = ?, 
-                             amount = ?, bank_name = ?, name_on_account = ?, status = ? 
-            WHERE account_id = ?
-        """;
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
+        try {
             System.out.println("=== UPDATING ACCOUNT RECORD ===");
             System.out.println("Setting account_number to: " + account.getAccountNumber());
             
-            stmt.setString(1, account.getAccountNumber());
-            stmt.setString(2, account.getAadharNumber());
-            stmt.setString(3, account.getIfscCode());
-            stmt.setString(4, account.getPhoneNumberLinked());
-            stmt.setBigDecimal(5, account.getAmount());
-            stmt.setString(6, account.getBankName());
-            stmt.setString(7, account.getNameOnAccount());
-            stmt.setString(8, account.getStatus());
-            stmt.setString(9, accountId);
+            // The update can set amount, so the ledger must not be holding this balance.
+            boolean result = LedgerEngine.runExclusiveIfEnabled(() -> accountRepository.update(accountId, account));
             
-            int result = stmt.executeUpdate();
-            
-            if (result > 0) {
+            if (result) {
+                AccountCache.getInstance().invalidateById(accountId);
+                AccountCache.getInstance().invalidate(account.getAccountNumber());
                 System.out.println("\n");
                 System.out.println("=== ACCOUNT UPDATED SUCCESSFULLY ===");
                 System.out.println("Account ID: " + accountId);
@@ -368,7 +216,7 @@ public class AccountServiceImpl implements AccountService {
                 System.err.println("Error: Account update failed - no rows affected");
             }
             
-            return result > 0;
+            return result;
         } catch (SQLException e) {
             System.err.println("Error: Account update failed");
             System.err.println("SQL Error: " + e.getMessage());
@@ -379,22 +227,15 @@ public class AccountServiceImpl implements AccountService {
     }
 
     private String findCustomerIdByAadhar(String aadharNumber) {
-        String query = "SELECT customer_id FROM Customer WHERE aadhar_number = ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, aadharNumber);
-            ResultSet rs = stmt.executeQuery();
+        try {
+            String customerId = customerRepository.findCustomerIdByAadharNumber(aadharNumber);
             
-            if (rs.next()) {
-                String customerId = rs.getString("customer_id");
+            if (customerId != null) {
                 System.out.println(" Found customer for Aadhar " + aadharNumber + ": " + customerId);
-                return customerId;
             } else {
                 System.out.println(" No customer found for Aadhar: " + aadharNumber);
-                return null;
             }
+            return customerId;
             
         } catch (SQLException e) {
             System.err.println("Error finding customer by Aadhar: " + e.getMessage());
@@ -412,44 +253,19 @@ public class AccountServiceImpl implements AccountService {
             return false;
         }
         
-        String deleteTransactionsQuery = "DELETE FROM Transaction WHERE account_id = ?";
-        String deleteAccountQuery = "DELETE FROM Account WHERE account_id = ?";
-        
-        try (Connection conn = DBConfig.getConnection()) {
-            conn.setAutoCommit(false);
-            
-            try {
-                try (PreparedStatement transactionStmt = conn.prepareStatement(deleteTransactionsQuery)) {
-                    transactionStmt.setString(1, accountId);
-                    int transactionsDeleted = transactionStmt.executeUpdate();
-                    System.out.println("Deleted " + transactionsDeleted + " transactions for account: " + accountId);
-                }
-                
-                try (PreparedStatement accountStmt = conn.prepareStatement(deleteAccountQuery)) {
-                    accountStmt.setString(1, accountId);
-                    int result = accountStmt.executeUpdate();
-                    
-                    if (result > 0) {
-                        conn.commit();
-                        System.out.println("\n");
-                        System.out.println("=== ACCOUNT DELETED SUCCESSFULLY ===");
-                        System.out.println("Account ID: " + accountId);
-                        System.out.println("Account permanently removed from database");
-                        System.out.println("All related transactions also deleted");
-                        System.out.println("=== END ACCOUNT DELETION ===");
-                        System.out.println("\n");
-                        return true;
-                    } else {
-                        conn.rollback();
-                        System.err.println("Error: Account deletion failed - no rows affected");
-                        return false;
-                    }
-                }
-                
-            } catch (SQLException e) {
-                conn.rollback();
-                System.err.println("Error during deletion transaction: " + e.getMessage());
-                e.printStackTrace();
+        try {
+            if (LedgerEngine.runExclusiveIfEnabled(() -> accountRepository.deleteWithTransactions(accountId))) {
+                AccountCache.getInstance().invalidateById(accountId);
+                System.out.println("\n");
+                System.out.println("=== ACCOUNT DELETED SUCCESSFULLY ===");
+                System.out.println("Account ID: " + accountId);
+                System.out.println("Account permanently removed from database");
+                System.out.println("All related transactions also deleted");
+                System.out.println("=== END ACCOUNT DELETION ===");
+                System.out.println("\n");
+                return true;
+            } else {
+                System.err.println("Error: Account deletion failed - no rows affected");
                 return false;
             }
             
@@ -462,16 +278,8 @@ public class AccountServiceImpl implements AccountService {
     }
 
     private boolean accountExists(String accountId) {
-        String query = "SELECT COUNT(*) FROM Account WHERE account_id = ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, accountId);
-            ResultSet rs = stmt.executeQuery();
-            
-            return rs.next() && rs.getInt(1) > 0;
-            
+        try {
+            return accountRepository.existsById(accountId);
         } catch (SQLException e) {
             System.err.println("Error checking account existence: " + e.getMessage());
             return false;
@@ -480,23 +288,14 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     public boolean isAccountNumberExists(String accountNumber) {
-        String query = "SELECT COUNT(*) FROM Account WHERE account_number = ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, accountNumber);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                boolean exists = rs.getInt(1) > 0;
-                if (exists) {
-                    System.out.println(" Account number already exists: " + accountNumber);
-                } else {
-                    System.out.println(" Account number is unique: " + accountNumber);
-                }
-                return exists;
+        try {
+            boolean exists = accountRepository.existsByAccountNumber(accountNumber);
+            if (exists) {
+                System.out.println(" Account number already exists: " + accountNumber);
+            } else {
+                System.out.println(" Account number is unique: " + accountNumber);
             }
+            return exists;
         } catch (SQLException e) {
             System.err.println("Error checking account number uniqueness: " + accountNumber);
             e.printStackTrace();
@@ -511,42 +310,13 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     public String generateAccountId() {
-        return "ACC_" + accountCounter.getAndIncrement();
+        return "ACC_" + sequenceService.nextValue(SequenceService.ACCOUNT_SEQUENCE);
     }
 
     @Override
 public List<Account> getAllAccounts() {
-    String query = """
-        SELECT a.*, c.phone_number as customer_phone 
-        FROM Account a 
-        JOIN Customer c ON a.customer_id = c.customer_id 
-        ORDER BY a.created DESC
-    """;
-    
-    List<Account> accounts = new ArrayList<>();
-    
-    try (Connection conn = DBConfig.getConnection();
-         PreparedStatement stmt = conn.prepareStatement(query);
-         ResultSet rs = stmt.executeQuery()) {
-        
-        while (rs.next()) {
-            Account account = new Account();
-            account.setAccountId(rs.getString("account_id"));
-            account.setCustomerId(rs.getString("customer_id"));
-            account.setAccountNumber(rs.getString("account_number"));
-            account.setAadharNumber(rs.getString("aadhar_number"));
-            account.setIfscCode(rs.getString("ifsc_code"));
-            account.setPhoneNumberLinked(rs.getString("phone_number_linked"));
-            account.setAmount(rs.getBigDecimal("amount"));
-            account.setBankName(rs.getString("bank_name"));
-            account.setNameOnAccount(rs.getString("name_on_account"));
-            account.setStatus(rs.getString("status"));
-            account.setCreated(rs.getTimestamp("created").toLocalDateTime());
-            account.setModified(rs.getTimestamp("modified").toLocalDateTime());
-            
-            accounts.add(account);
-        }
-        
+    try {
+        List<Account> accounts = accountRepository.findAll();
         System.out.println("Retrieved " + accounts.size() + " accounts from database");
         return accounts;
         
@@ -557,4 +327,17 @@ public List<Account> getAllAccounts() {
     }
 }
 
+    @Override
+    public boolean streamAllAccounts(RowConsumer<Account> consumer) throws IOException {
+        try {
+            accountRepository.streamAll(consumer);
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error streaming all accounts: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
 }
@@ -1,39 +1,39 @@
 package com.bank.simulator.service.impl;
 
-import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.config.AccountCache;
+import com.bank.simulator.config.CustomerCache;
+import com.bank.simulator.ledger.LedgerEngine;
 import com.bank.simulator.model.Customer;
+import com.bank.simulator.repository.CustomerRepository;
+import com.bank.simulator.repository.RepositoryFactory;
+import com.bank.simulator.repository.RowConsumer;
 import com.bank.simulator.service.CustomerService;
+import com.bank.simulator.service.SequenceService;
 
-import java.sql.*;
+import java.io.IOException;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
 public class CustomerServiceImpl implements CustomerService {
 
+    private final CustomerRepository customerRepository = RepositoryFactory.getCustomerRepository();
+    private final SequenceService sequenceService = new SequenceServiceImpl();
+    private final CustomerCache customerCache = CustomerCache.getInstance();
+
     @Override
     public String createCustomer(Customer customer) {
         String customerId = generateCustomerId();
+        if (customerId == null) {
+            return null;
+        }
         customer.setCustomerId(customerId);
 
-        String query = "INSERT INTO Customer (customer_id, name, phone_number, email, address, " +
-                      "customer_pin, aadhar_number, dob, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+        try {
+            boolean result = customerRepository.insert(customer);
 
-            stmt.setString(1, customer.getCustomerId());
-            stmt.setString(2, customer.getName());
-            stmt.setString(3, customer.getPhoneNumber());
-            stmt.setString(4, customer.getEmail());
-            stmt.setString(5, customer.getAddress());
-            stmt.setString(6, customer.getCustomerPin());
-            stmt.setString(7, customer.getAadharNumber());
-            stmt.setDate(8, Date.valueOf(customer.getDob()));
-            stmt.setString(9, customer.getStatus());
-
-            int result = stmt.executeUpdate();
-
-            if (result > 0) {
+            if (result) {
+                customerCache.put(customer);
                 System.out.println("\n=== CUSTOMER CREATED SUCCESSFULLY ===");
                 System.out.println("Customer ID: " + customerId);
                 System.out.println("Customer Name: " + customer.getName());
@@ -58,66 +58,22 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public String generateCustomerId() {
-        String query = "SELECT customer_id FROM Customer " +
-                      "WHERE customer_id LIKE 'CUST_%' " +
-                      "ORDER BY CAST(SUBSTRING(customer_id, 6) AS UNSIGNED) DESC " +
-                      "LIMIT 1";
-
-        try (Connection conn = DBConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
+        try {
+            String newId = "CUST_" + sequenceService.nextValue(SequenceService.CUSTOMER_SEQUENCE);
+            System.out.println("Generated new customer ID: " + newId);
+            return newId;
 
-            if (rs.next()) {
-                String lastId = rs.getString("customer_id");
-                System.out.println("Last customer ID in database: " + lastId);
-
-                String numberPart = lastId.substring(5);
-                int lastNumber = Integer.parseInt(numberPart);
-                int nextNumber = lastNumber + 1;
-
-                String newId = "CUST_" + nextNumber;
-                System.out.println("Generated new customer ID: " + newId);
-                return newId;
-
-            } else {
-                System.out.println("No existing customers found. Starting with CUST_1");
-                return "CUST_1";
-            }
-
-        } catch (SQLException e) {
+        } catch (IllegalStateException e) {
             System.err.println("Error generating customer ID: " + e.getMessage());
             e.printStackTrace();
-            long timestamp = System.currentTimeMillis();
-            String fallbackId = "CUST_" + timestamp;
-            System.err.println("Using fallback ID: " + fallbackId);
-            return fallbackId;
+            return null;
         }
     }
 
     @Override
     public Customer getCustomerById(String customerId) {
-        String query = "SELECT * FROM Customer WHERE customer_id = ?";
-
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, customerId);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                Customer customer = new Customer();
-                customer.setCustomerId(rs.getString("customer_id"));
-                customer.setName(rs.getString("name"));
-                customer.setPhoneNumber(rs.getString("phone_number"));
-                customer.setEmail(rs.getString("email"));
-                customer.setAddress(rs.getString("address"));
-                customer.setCustomerPin(rs.getString("customer_pin"));
-                customer.setAadharNumber(rs.getString("aadhar_number"));
-                customer.setDob(rs.getDate("dob").toLocalDate());
-                customer.setStatus(rs.getString("status"));
-                return customer;
-            }
-
+        try {
+            return customerCache.getById(customerId, () -> customerRepository.findById(customerId));
         } catch (SQLException e) {
             System.err.println("Error fetching customer by ID: " + e.getMessage());
             e.printStackTrace();
@@ -128,28 +84,9 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public Customer getCustomerByAadharNumber(String aadharNumber) {
-        String query = "SELECT * FROM Customer WHERE aadhar_number = ? LIMIT 1";
-
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, aadharNumber);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                Customer customer = new Customer();
-                customer.setCustomerId(rs.getString("customer_id"));
-                customer.setName(rs.getString("name"));
-                customer.setPhoneNumber(rs.getString("phone_number"));
-                customer.setEmail(rs.getString("email"));
-                customer.setAddress(rs.getString("address"));
-                customer.setCustomerPin(rs.getString("customer_pin"));
-                customer.setAadharNumber(rs.getString("aadhar_number"));
-                customer.setDob(rs.getDate("dob").toLocalDate());
-                customer.setStatus(rs.getString("status"));
-                return customer;
-            }
-
+        try {
+            return customerCache.getByAadharNumber(aadharNumber,
+                    () -> customerRepository.findByAadharNumber(aadharNumber));
         } catch (SQLException e) {
             System.err.println("Error fetching customer by Aadhar: " + e.getMessage());
             e.printStackTrace();
@@ -160,28 +97,9 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public Customer getCustomerByPhoneNumber(String phoneNumber) {
-        String query = "SELECT * FROM Customer WHERE phone_number = ? LIMIT 1";
-
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, phoneNumber);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                Customer customer = new Customer();
-                customer.setCustomerId(rs.getString("customer_id"));
-                customer.setName(rs.getString("name"));
-                customer.setPhoneNumber(rs.getString("phone_number"));
-                customer.setEmail(rs.getString("email"));
-                customer.setAddress(rs.getString("address"));
-                customer.setCustomerPin(rs.getString("customer_pin"));
-                customer.setAadharNumber(rs.getString("aadhar_number"));
-                customer.setDob(rs.getDate("dob").toLocalDate());
-                customer.setStatus(rs.getString("status"));
-                return customer;
-            }
-
+        try {
+            return customerCache.getByPhoneNumber(phoneNumber,
+                    () -> customerRepository.findByPhoneNumber(phoneNumber));
         } catch (SQLException e) {
             System.err.println("Error fetching customer by phone: " + e.getMessage());
             e.printStackTrace();
@@ -192,29 +110,11 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public boolean updateCustomer(String customerId, Customer customer) {
-        String query = "UPDATE Customer SET name = ?, phone_number = ?, email = ?, " +
-                      "address = ?, customer_pin = ?, aadhar_number = ?, dob = ?, status = ? " +
-                      "WHERE customer_id = ?";
-
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, customer.getName());
-            stmt.setString(2, customer.getPhoneNumber());
-            stmt.setString(3, customer.getEmail());
-            stmt.setString(4, customer.getAddress());
-            stmt.setString(5, customer.getCustomerPin());
-            stmt.setString(6, customer.getAadharNumber());
-            stmt.setDate(7, Date.valueOf(customer.getDob()));
-            stmt.setString(8, customer.getStatus());
-            stmt.setString(9, customerId);
-
-            int result = stmt.executeUpdate();
-
-            if (result > 0) {
+        try {
+            if (customerRepository.update(customerId, customer)) {
+                customerCache.replace(customerId, () -> customerRepository.findById(customerId));
                 System.out.println("\n=== CUSTOMER UPDATED ===");
                 System.out.println("Customer ID: " + customerId);
-                System.out.println("Updated rows: " + result);
                 return true;
             } else {
                 System.err.println("No customer found with ID: " + customerId);
@@ -224,6 +124,8 @@ public class CustomerServiceImpl implements CustomerService {
         } catch (SQLException e) {
             System.err.println("Error updating customer: " + e.getMessage());
             e.printStackTrace();
+            // The update may or may not have committed.
+            customerCache.replace(customerId, () -> customerRepository.findById(customerId));
         }
 
         return false;
@@ -231,15 +133,11 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public boolean deleteCustomer(String customerId) {
-        String query = "DELETE FROM Customer WHERE customer_id = ?";
-
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, customerId);
-            int result = stmt.executeUpdate();
-
-            if (result > 0) {
+        try {
+            // Deleting a customer deletes their accounts too.
+            if (LedgerEngine.runExclusiveIfEnabled(() -> customerRepository.deleteById(customerId))) {
+                AccountCache.getInstance().invalidateCustomer(customerId);
+                customerCache.remove(customerId);
                 System.out.println("Customer deleted successfully: " + customerId);
                 return true;
             } else {
@@ -257,15 +155,11 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public boolean deleteCustomerByAadhar(String aadharNumber) {
-        String query = "DELETE FROM Customer WHERE aadhar_number = ?";
-
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, aadharNumber);
-            int result = stmt.executeUpdate();
-
-            if (result > 0) {
+        try {
+            String customerId = customerRepository.findCustomerIdByAadharNumber(aadharNumber);
+            if (LedgerEngine.runExclusiveIfEnabled(() -> customerRepository.deleteByAadharNumber(aadharNumber))) {
+                AccountCache.getInstance().invalidateCustomer(customerId);
+                customerCache.remove(customerId);
                 System.out.println("Customer deleted by Aadhar: " + aadharNumber);
                 return true;
             } else {
@@ -282,51 +176,37 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public List<Customer> getAllCustomers() {
-        List<Customer> customers = new ArrayList<>();
-        String query = "SELECT * FROM Customer ORDER BY customer_id";
-
-        try (Connection conn = DBConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-
-            while (rs.next()) {
-                Customer customer = new Customer();
-                customer.setCustomerId(rs.getString("customer_id"));
-                customer.setName(rs.getString("name"));
-                customer.setPhoneNumber(rs.getString("phone_number"));
-                customer.setEmail(rs.getString("email"));
-                customer.setAddress(rs.getString("address"));
-                customer.setCustomerPin(rs.getString("customer_pin"));
-                customer.setAadharNumber(rs.getString("aadhar_number"));
-                customer.setDob(rs.getDate("dob").toLocalDate());
-                customer.setStatus(rs.getString("status"));
-                customers.add(customer);
-            }
-
+        try {
+            List<Customer> customers = customerRepository.findAll();
             System.out.println("Fetched " + customers.size() + " customers from database");
+            return customers;
 
         } catch (SQLException e) {
             System.err.println("Error fetching all customers: " + e.getMessage());
             e.printStackTrace();
         }
 
-        return customers;
+        return new ArrayList<>();
     }
 
     @Override
-    public boolean isPhoneNumberExists(String phoneNumber) {
-        String query = "SELECT COUNT(*) FROM Customer WHERE phone_number = ?";
-
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, phoneNumber);
-            ResultSet rs = stmt.executeQuery();
+    public boolean streamAllCustomers(RowConsumer<Customer> consumer) throws IOException {
+        try {
+            customerRepository.streamAll(consumer);
+            return true;
 
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
+        } catch (SQLException e) {
+            System.err.println("Error streaming all customers: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
 
+    @Override
+    public boolean isPhoneNumberExists(String phoneNumber) {
+        try {
+            return customerCache.phoneNumberExists(phoneNumber,
+                    () -> customerRepository.existsByPhoneNumber(phoneNumber));
         } catch (SQLException e) {
             System.err.println("Error checking phone number existence: " + e.getMessage());
             e.printStackTrace();
@@ -337,18 +217,8 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public boolean isEmailExists(String email) {
-        String query = "SELECT COUNT(*) FROM Customer WHERE email = ?";
-
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, email);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
-
+        try {
+            return customerCache.emailExists(email, () -> customerRepository.existsByEmail(email));
         } catch (SQLException e) {
             System.err.println("Error checking email existence: " + e.getMessage());
             e.printStackTrace();
@@ -359,18 +229,9 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public boolean isAadharNumberExists(String aadharNumber) {
-        String query = "SELECT COUNT(*) FROM Customer WHERE aadhar_number = ?";
-
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, aadharNumber);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
-
+        try {
+            return customerCache.aadharNumberExists(aadharNumber,
+                    () -> customerRepository.existsByAadharNumber(aadharNumber));
         } catch (SQLException e) {
             System.err.println("Error checking Aadhar number existence: " + e.getMessage());
             e.printStackTrace();
@@ -389,21 +250,10 @@ public class CustomerServiceImpl implements CustomerService {
         System.out.println("\n=== CHECKING CUSTOMER EXISTS BY EMAIL ===");
         System.out.println("Email: " + email);
         
-        String query = "SELECT COUNT(*) FROM Customer WHERE email = ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, email);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                boolean exists = rs.getInt(1) > 0;
-                System.out.println("Customer exists: " + exists);
-                return exists;
-            }
-            
-            return false;
+        try {
+            boolean exists = customerCache.emailExists(email, () -> customerRepository.existsByEmail(email));
+            System.out.println("Customer exists: " + exists);
+            return exists;
             
         } catch (SQLException e) {
             System.err.println("Error checking customer by email: " + e.getMessage());
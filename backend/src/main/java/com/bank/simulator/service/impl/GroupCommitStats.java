@@ -0,0 +1,42 @@
+package com.bank.simulator.service.impl;
+
+public class GroupCommitStats {
+    private double windowSeconds;
+    private long commits;
+    private long transfers;
+    private long fallbackGroups;
+    private double commitsPerSecond;
+    private double transfersPerSecond;
+    private double transfersPerCommit;
+    private int largestGroup;
+    private int queueDepth;
+
+    public GroupCommitStats() {}
+
+    public double getWindowSeconds() { return windowSeconds; }
+    public void setWindowSeconds(double windowSeconds) { this.windowSeconds = windowSeconds; }
+
+    public long getCommits() { return commits; }
+    public void setCommits(long commits) { this.commits = commits; }
+
+    public long getTransfers() { return transfers; }
+    public void setTransfers(long transfers) { this.transfers = transfers; }
+
+    public long getFallbackGroups() { return fallbackGroups; }
+    public void setFallbackGroups(long fallbackGroups) { this.fallbackGroups = fallbackGroups; }
+
+    public double getCommitsPerSecond() { return commitsPerSecond; }
+    public void setCommitsPerSecond(double commitsPerSecond) { this.commitsPerSecond = commitsPerSecond; }
+
+    public double getTransfersPerSecond() { return transfersPerSecond; }
+    public void setTransfersPerSecond(double transfersPerSecond) { this.transfersPerSecond = transfersPerSecond; }
+
+    public double getTransfersPerCommit() { return transfersPerCommit; }
+    public void setTransfersPerCommit(double transfersPerCommit) { this.transfersPerCommit = transfersPerCommit; }
+
+    public int getLargestGroup() { return largestGroup; }
+    public void setLargestGroup(int largestGroup) { this.largestGroup = largestGroup; }
+
+    public int getQueueDepth() { return queueDepth; }
+    public void setQueueDepth(int queueDepth) { this.queueDepth = queueDepth; }
+}
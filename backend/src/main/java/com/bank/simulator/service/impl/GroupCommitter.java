@@ -0,0 +1,278 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.repository.RepositoryFactory;
+import com.bank.simulator.repository.TransactionRepository;
+import com.bank.simulator.repository.TransferStatus;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Optional group commit for single transfers (transaction.group.commit.enabled=true).
+// Request threads queue their transfer and wait; committer threads take whatever has queued
+// up within the window, up to the batch size, and apply it with one transferBatch call, i.e.
+// one commit and one fsync for the whole group. Each caller still gets its own status.
+public final class GroupCommitter {
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(DBConfig.getProperty("transaction.group.commit.enabled", "false").trim());
+    private static final long POLL_MS = 50;
+
+    private static volatile GroupCommitter instance;
+
+    private static final int QUEUED = 0;
+    private static final int TAKEN = 1;
+    private static final int CANCELLED = 2;
+
+    private static final class Pending {
+        final Transaction transaction;
+        final CompletableFuture<TransferStatus> result = new CompletableFuture<>();
+        // QUEUED until a committer takes it or its caller gives up, whichever is first.
+        final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        Pending(Transaction transaction) {
+            this.transaction = transaction;
+        }
+    }
+
+    private static final class Window {
+        final long startedNanos = System.nanoTime();
+        final LongAdder commits = new LongAdder();
+        final LongAdder transfers = new LongAdder();
+        final LongAdder fallbackGroups = new LongAdder();
+        final AtomicInteger largestGroup = new AtomicInteger();
+    }
+
+    private final TransactionRepository transactionRepository;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final long timeoutMs;
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread[] committers;
+    private volatile Window window = new Window();
+    private volatile boolean running = true;
+
+    GroupCommitter(int committerCount, long windowMicros, int maxBatchSize, long timeoutMs,
+                   TransactionRepository transactionRepository) {
+        this.transactionRepository = transactionRepository;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMs = timeoutMs;
+        this.committers = new Thread[committerCount];
+        for (int i = 0; i < committerCount; i++) {
+            committers[i] = new Thread(this::run, "group-committer-" + i);
+            committers[i].setDaemon(true);
+            committers[i].start();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static GroupCommitter getInstance() {
+        GroupCommitter committer = instance;
+        if (committer == null) {
+            synchronized (GroupCommitter.class) {
+                if (instance == null) {
+                    int committers = Integer.parseInt(DBConfig.getProperty("transaction.group.commit.committers", "2").trim());
+                    long windowMicros = Long.parseLong(DBConfig.getProperty("transaction.group.commit.window.micros", "2000").trim());
+                    int maxBatchSize = Integer.parseInt(DBConfig.getProperty("transaction.group.commit.max.batch.size", "64").trim());
+                    long timeoutMs = Long.parseLong(DBConfig.getProperty("transaction.group.commit.timeout.ms", "30000").trim());
+
+                    instance = new GroupCommitter(committers, windowMicros, maxBatchSize, timeoutMs,
+                            RepositoryFactory.getTransactionRepository());
+                    System.out.println("=== GROUP COMMIT STARTED ===");
+                    System.out.println("Committers: " + committers + ", window: " + windowMicros
+                            + " us, max batch size: " + maxBatchSize);
+                }
+                committer = instance;
+            }
+        }
+        return committer;
+    }
+
+    public static synchronized void shutdownIfStarted() {
+        if (instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+    }
+
+    public CompletableFuture<TransferStatus> submit(Transaction transaction) {
+        return enqueue(transaction).result;
+    }
+
+    public TransferStatus transfer(Transaction transaction) throws SQLException {
+        Pending pending = enqueue(transaction);
+        try {
+            return pending.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw giveUp(pending, "did not finish within " + timeoutMs + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw giveUp(pending, "was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException("Group commit failed for " + transaction.getTransactionId(), e.getCause());
+        }
+    }
+
+    private Pending enqueue(Transaction transaction) {
+        Pending pending = new Pending(transaction);
+        if (!running) {
+            pending.result.completeExceptionally(new SQLTransientException("Group commit is shutting down"));
+            return pending;
+        }
+        queue.add(pending);
+        return pending;
+    }
+
+    // A transfer no committer has taken yet is withdrawn and will never run. Once a committer
+    // has it, it may still commit after the caller gives up, so only then is the outcome unknown.
+    private SQLException giveUp(Pending pending, String reason, Exception cause) {
+        String transactionId = pending.transaction.getTransactionId();
+        if (pending.state.compareAndSet(QUEUED, CANCELLED)) {
+            queue.remove(pending);
+            pending.result.completeExceptionally(new SQLTransientException("Cancelled by its caller"));
+            return new SQLTransientException("Group commit of " + transactionId + " " + reason
+                    + "; the transfer was withdrawn and not applied", cause);
+        }
+        return new SQLTransientException("Group commit of " + transactionId + " " + reason
+                + " while being committed; outcome unknown", cause);
+    }
+
+    public void shutdown() {
+        running = false;
+        try {
+            for (Thread committer : committers) {
+                committer.join();
+            }
+            System.out.println("Group commit stopped. Unprocessed transfers: " + queue.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Starts a fresh measurement window, like TransferMetrics.reset().
+    public void resetStats() {
+        window = new Window();
+    }
+
+    public GroupCommitStats getStats() {
+        Window current = window;
+        double windowSeconds = (System.nanoTime() - current.startedNanos) / 1_000_000_000.0;
+        long commits = current.commits.sum();
+        long transfers = current.transfers.sum();
+
+        GroupCommitStats stats = new GroupCommitStats();
+        stats.setWindowSeconds(windowSeconds);
+        stats.setCommits(commits);
+        stats.setTransfers(transfers);
+        stats.setFallbackGroups(current.fallbackGroups.sum());
+        stats.setCommitsPerSecond(windowSeconds > 0 ? commits / windowSeconds : 0.0);
+        stats.setTransfersPerSecond(windowSeconds > 0 ? transfers / windowSeconds : 0.0);
+        stats.setTransfersPerCommit(commits > 0 ? (double) transfers / commits : 0.0);
+        stats.setLargestGroup(current.largestGroup.get());
+        stats.setQueueDepth(queue.size());
+        return stats;
+    }
+
+    private void run() {
+        List<Pending> group = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                collect(group);
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Group commit failed unexpectedly: " + e.getMessage());
+                e.printStackTrace();
+                for (Pending pending : group) {
+                    pending.result.completeExceptionally(e);
+                }
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    // Whatever is already queued joins immediately; after that the group waits for more
+    // only until the window closes.
+    private void collect(List<Pending> group) throws InterruptedException {
+        long deadline = System.nanoTime() + windowNanos;
+        while (group.size() < maxBatchSize) {
+            queue.drainTo(group, maxBatchSize - group.size());
+            if (group.size() >= maxBatchSize) {
+                return;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+        }
+    }
+
+    private void commit(List<Pending> group) {
+        group.removeIf(pending -> !pending.state.compareAndSet(QUEUED, TAKEN));
+        if (group.isEmpty()) {
+            return;
+        }
+        Window current = window;
+        List<Transaction> transactions = new ArrayList<>(group.size());
+        for (Pending pending : group) {
+            transactions.add(pending.transaction);
+        }
+
+        try {
+            List<TransferStatus> statuses = transactionRepository.transferBatch(transactions);
+            current.commits.increment();
+            current.transfers.add(group.size());
+            current.largestGroup.accumulateAndGet(group.size(), Math::max);
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).result.complete(statuses.get(i));
+            }
+            return;
+        } catch (SQLException e) {
+            System.err.println("Group commit of " + group.size() + " transfers failed: " + e.getMessage()
+                    + ". Applying them one by one.");
+            current.fallbackGroups.increment();
+        }
+
+        // One bad transfer, e.g. a reused idempotency key, must not fail the others with it.
+        for (Pending pending : group) {
+            try {
+                TransferStatus status = transactionRepository.transfer(pending.transaction);
+                current.commits.increment();
+                current.transfers.increment();
+                pending.result.complete(status);
+            } catch (SQLException e) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+}
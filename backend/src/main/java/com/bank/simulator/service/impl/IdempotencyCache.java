@@ -0,0 +1,139 @@
+package com.bank.simulator.service.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+// Remembers the outcome of requests by Idempotency-Key for a limited time. The first request
+// with a key owns it and runs; requests arriving while it runs wait for its outcome instead
+// of running in parallel. Only outcomes the owner asks to retain outlive the owner, so a
+// failed attempt can be retried for real.
+public final class IdempotencyCache<V> {
+
+    private static final class Entry<V> {
+        final String fingerprint;
+        final CompletableFuture<V> outcome = new CompletableFuture<>();
+        long expiresAtMillis = Long.MAX_VALUE;
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    public static final class Claim<V> {
+        private final String key;
+        private final Entry<V> entry;
+        private final boolean owner;
+
+        private Claim(String key, Entry<V> entry, boolean owner) {
+            this.key = key;
+            this.entry = entry;
+            this.owner = owner;
+        }
+
+        public boolean isOwner() {
+            return owner;
+        }
+
+        // The key was first used for a different request.
+        public boolean isConflict() {
+            return entry == null;
+        }
+
+        // Returns null if the owner has not finished within the timeout.
+        public V await(long timeoutMs) throws InterruptedException {
+            try {
+                return entry.outcome.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                return null;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Idempotent request failed", e.getCause());
+            }
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlMs;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<>();
+
+    public IdempotencyCache(int maxEntries, long ttlMs) {
+        this(maxEntries, ttlMs, System::currentTimeMillis);
+    }
+
+    IdempotencyCache(int maxEntries, long ttlMs, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+    }
+
+    public synchronized Claim<V> claim(String key, String fingerprint) {
+        long now = clock.getAsLong();
+        evictExpired(now);
+
+        Entry<V> existing = entries.get(key);
+        if (existing != null) {
+            return existing.fingerprint.equals(fingerprint)
+                    ? new Claim<>(key, existing, false)
+                    : new Claim<>(key, null, false);
+        }
+
+        Entry<V> created = new Entry<>(fingerprint);
+        entries.put(key, created);
+        if (entries.size() > maxEntries) {
+            evictEldestCompleted();
+        }
+        return new Claim<>(key, created, true);
+    }
+
+    // Called once by the owner, in a finally block. Waiters always receive the outcome; with
+    // retain=false the key is forgotten so the next request with it runs again.
+    public void complete(Claim<V> claim, V outcome, boolean retain) {
+        if (!claim.owner) {
+            return;
+        }
+        synchronized (this) {
+            if (retain) {
+                claim.entry.expiresAtMillis = clock.getAsLong() + ttlMs;
+            } else {
+                entries.remove(claim.key, claim.entry);
+            }
+        }
+        claim.entry.outcome.complete(outcome);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // Entries are kept in insertion order and share one TTL, so expired ones sit at the head.
+    // In-flight entries never expire and are stepped over.
+    private void evictExpired(long now) {
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry<V> entry = iterator.next();
+            if (!entry.outcome.isDone()) {
+                continue;
+            }
+            if (entry.expiresAtMillis > now) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    private void evictEldestCompleted() {
+        Iterator<Map.Entry<String, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue().outcome.isDone()) {
+                iterator.remove();
+                return;
+            }
+        }
+    }
+}
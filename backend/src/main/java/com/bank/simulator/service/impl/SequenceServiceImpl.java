@@ -0,0 +1,127 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.repository.RepositoryFactory;
+import com.bank.simulator.repository.SequenceRepository;
+import com.bank.simulator.service.SequenceService;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Hi/lo ID allocation. Each node reserves a block of values from the id_sequence row with
+// one UPDATE and then hands them out from memory with a single getAndIncrement, so nodes
+// never collide and nothing is scanned at startup. Values left in a block when the node
+// stops are skipped, which leaves gaps in the numbering but never reuses an ID.
+public class SequenceServiceImpl implements SequenceService {
+
+    interface SeedSource {
+        int currentMax() throws SQLException;
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long first, long end) {
+            this.next = new AtomicLong(first);
+            this.end = end;
+        }
+    }
+
+    private final class Allocator {
+        private final String sequenceName;
+        private final AtomicReference<Block> current = new AtomicReference<>(new Block(0, 0));
+
+        private Allocator(String sequenceName) {
+            this.sequenceName = sequenceName;
+        }
+
+        private long next() {
+            Block block = current.get();
+            while (true) {
+                long value = block.next.getAndIncrement();
+                if (value < block.end) {
+                    return value;
+                }
+                block = refill(block);
+            }
+        }
+
+        private synchronized Block refill(Block exhausted) {
+            Block block = current.get();
+            if (block != exhausted) {
+                return block;
+            }
+            long first = allocateBlock(sequenceName);
+            block = new Block(first, first + blockSize);
+            current.set(block);
+            return block;
+        }
+    }
+
+    private static final Map<String, Allocator> SHARED_ALLOCATORS = new ConcurrentHashMap<>();
+
+    private final SequenceRepository sequenceRepository;
+    private final int blockSize;
+    private final Map<String, SeedSource> seedSources;
+    private final Map<String, Allocator> allocators;
+
+    public SequenceServiceImpl() {
+        this.sequenceRepository = RepositoryFactory.getSequenceRepository();
+        this.blockSize = Integer.parseInt(DBConfig.getProperty("id.sequence.block.size", "50").trim());
+        this.seedSources = Map.of(
+            ACCOUNT_SEQUENCE, () -> RepositoryFactory.getAccountRepository().findMaxAccountSequence(),
+            CUSTOMER_SEQUENCE, () -> RepositoryFactory.getCustomerRepository().findMaxCustomerSequence(),
+            USER_SEQUENCE, () -> RepositoryFactory.getUserRepository().findMaxUserSequence()
+        );
+        // Services are created per controller, so all instances share the node's blocks.
+        this.allocators = SHARED_ALLOCATORS;
+    }
+
+    SequenceServiceImpl(SequenceRepository sequenceRepository, int blockSize, Map<String, SeedSource> seedSources) {
+        this.sequenceRepository = sequenceRepository;
+        this.blockSize = blockSize;
+        this.seedSources = seedSources;
+        this.allocators = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public long nextValue(String sequenceName) {
+        return allocators.computeIfAbsent(sequenceName, Allocator::new).next();
+    }
+
+    private long allocateBlock(String sequenceName) {
+        try {
+            long first = sequenceRepository.allocateBlock(sequenceName, blockSize);
+            if (first < 0) {
+                seedSequence(sequenceName);
+                first = sequenceRepository.allocateBlock(sequenceName, blockSize);
+            }
+            if (first < 0) {
+                throw new IllegalStateException("Sequence " + sequenceName + " could not be created");
+            }
+
+            System.out.println("Allocated " + sequenceName + " ID block [" + first + ", " + (first + blockSize) + ")");
+            return first;
+
+        } catch (SQLException e) {
+            System.err.println("Error allocating " + sequenceName + " ID block: " + e.getMessage());
+            throw new IllegalStateException("Could not allocate IDs for sequence " + sequenceName, e);
+        }
+    }
+
+    // Runs once per sequence for the lifetime of the database: the first node to get here
+    // continues numbering after the highest existing ID, and the row exists from then on.
+    private void seedSequence(String sequenceName) throws SQLException {
+        SeedSource seedSource = seedSources.get(sequenceName);
+        long firstValue = seedSource != null ? seedSource.currentMax() + 1L : 1L;
+
+        if (sequenceRepository.createSequence(sequenceName, firstValue)) {
+            System.out.println("=== SEQUENCE " + sequenceName + " CREATED ===");
+            System.out.println("Starting at: " + firstValue);
+        }
+    }
+}
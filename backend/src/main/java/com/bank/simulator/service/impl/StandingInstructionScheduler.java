@@ -0,0 +1,386 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.model.BatchTransferResult;
+import com.bank.simulator.model.StandingInstruction;
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.repository.RepositoryFactory;
+import com.bank.simulator.repository.StandingInstructionRepository;
+import com.bank.simulator.repository.TransactionRepository;
+import com.bank.simulator.repository.TransferStatus;
+import com.bank.simulator.service.TransactionService;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Fires standing instructions. Every lookahead/2 the instructions due within the next
+// lookahead are read from the database and put on a hashed timing wheel; each tick the wheel
+// hands back the ones now due, and they run in batches through the batch transfer path.
+// Instructions that fell due while the app was down are read on the first load and fire on
+// the first tick; a recurring instruction that missed several periods runs once per missed
+// occurrence, oldest first. A run first claims the row with the id its transaction will get,
+// so if the process dies mid-run a later load finds the claim and settles it from whether
+// that transaction exists, instead of paying twice. A claim only counts as abandoned once it
+// is older than the claim lease, which must comfortably exceed the longest batch run.
+public final class StandingInstructionScheduler {
+
+    public static final String ONCE = "ONCE";
+    public static final String DAILY = "DAILY";
+    public static final String WEEKLY = "WEEKLY";
+    public static final String MONTHLY = "MONTHLY";
+    public static final Set<String> FREQUENCIES = Set.of(ONCE, DAILY, WEEKLY, MONTHLY);
+
+    public static final String ACTIVE = "ACTIVE";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private static final int LAST_ERROR_MAX_LENGTH = 255;
+
+    private static StandingInstructionScheduler instance;
+
+    private static final class Due {
+        final String instructionId;
+        final LocalDateTime runAt;
+
+        Due(String instructionId, LocalDateTime runAt) {
+            this.instructionId = instructionId;
+            this.runAt = runAt;
+        }
+    }
+
+    private final StandingInstructionRepository repository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
+    private final TimingWheel<Due> wheel;
+    private final long tickMs;
+    private final long lookaheadMs;
+    private final int loadLimit;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryDelayMs;
+    private final long claimLeaseMs;
+    private final Map<String, LocalDateTime> scheduled = new ConcurrentHashMap<>();
+    // Claims this node took over but could not settle yet, by instruction id, with the
+    // claimed_at it wrote. Only touched on the scheduler thread.
+    private final Map<String, LocalDateTime> heldClaims = new HashMap<>();
+    private ScheduledExecutorService executor;
+    private long nextLoadMillis;
+    // Where the next load continues while more are due than one load takes.
+    private LocalDateTime loadAfterRunAt;
+    private String loadAfterInstructionId;
+
+    StandingInstructionScheduler(StandingInstructionRepository repository, TransactionRepository transactionRepository,
+                                 TransactionService transactionService, int ticksPerWheel, long tickMs,
+                                 long lookaheadMs, int loadLimit, int batchSize, int maxAttempts, long retryDelayMs,
+                                 long claimLeaseMs) {
+        this.repository = repository;
+        this.transactionRepository = transactionRepository;
+        this.transactionService = transactionService;
+        this.wheel = new TimingWheel<>(ticksPerWheel, tickMs, System.currentTimeMillis());
+        this.tickMs = tickMs;
+        this.lookaheadMs = lookaheadMs;
+        this.loadLimit = loadLimit;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMs = retryDelayMs;
+        this.claimLeaseMs = claimLeaseMs;
+    }
+
+    public static synchronized void start() {
+        boolean enabled = Boolean.parseBoolean(DBConfig.getProperty("standing.instruction.scheduler.enabled", "true").trim());
+        if (!enabled || instance != null) {
+            return;
+        }
+
+        int ticksPerWheel = Integer.parseInt(DBConfig.getProperty("standing.instruction.wheel.ticks", "1024").trim());
+        long tickMs = Long.parseLong(DBConfig.getProperty("standing.instruction.tick.ms", "100").trim());
+        long lookaheadMs = Long.parseLong(DBConfig.getProperty("standing.instruction.lookahead.ms", "60000").trim());
+        int loadLimit = Integer.parseInt(DBConfig.getProperty("standing.instruction.load.limit", "10000").trim());
+        int batchSize = Integer.parseInt(DBConfig.getProperty("standing.instruction.batch.size", "500").trim());
+        int maxAttempts = Integer.parseInt(DBConfig.getProperty("standing.instruction.max.attempts", "3").trim());
+        long retryDelayMs = Long.parseLong(DBConfig.getProperty("standing.instruction.retry.delay.ms", "300000").trim());
+        long claimLeaseMs = Long.parseLong(DBConfig.getProperty("standing.instruction.claim.lease.ms", "600000").trim());
+
+        StandingInstructionScheduler scheduler = new StandingInstructionScheduler(
+                RepositoryFactory.getStandingInstructionRepository(), RepositoryFactory.getTransactionRepository(),
+                new TransactionServiceImpl(), ticksPerWheel, tickMs, lookaheadMs, loadLimit, batchSize, maxAttempts,
+                retryDelayMs, claimLeaseMs);
+        scheduler.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "standing-instructions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.executor.scheduleWithFixedDelay(scheduler::tick, 0, tickMs, TimeUnit.MILLISECONDS);
+        instance = scheduler;
+
+        System.out.println("=== STANDING INSTRUCTION SCHEDULER STARTED ===");
+        System.out.println("Wheel: " + ticksPerWheel + " ticks of " + tickMs + " ms, look-ahead: " + lookaheadMs + " ms");
+    }
+
+    public static synchronized void stop() {
+        if (instance != null) {
+            instance.executor.shutdownNow();
+            instance = null;
+        }
+    }
+
+    // Lets a new instruction that is due before the next load fire on time.
+    public static synchronized void scheduleIfStarted(StandingInstruction instruction) {
+        if (instance != null) {
+            instance.scheduleIfSoon(instruction, System.currentTimeMillis());
+        }
+    }
+
+    private void tick() {
+        try {
+            long nowMillis = System.currentTimeMillis();
+            if (nowMillis >= nextLoadMillis) {
+                load(nowMillis);
+            }
+
+            List<Due> due = wheel.advance(nowMillis);
+            for (int from = 0; from < due.size(); from += batchSize) {
+                execute(due.subList(from, Math.min(due.size(), from + batchSize)));
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Standing instruction scheduler tick failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    void load(long nowMillis) throws SQLException {
+        // Set first, so a failing query is retried at the next load rather than every tick.
+        nextLoadMillis = nowMillis + lookaheadMs / 2;
+        LocalDateTime now = LocalDateTime.now();
+        List<StandingInstruction> due = repository.findDue(now.plus(Duration.ofMillis(lookaheadMs)),
+                loadAfterRunAt, loadAfterInstructionId, loadLimit);
+
+        // Runs happen on this thread, so a claim seen here is either left behind by a run that
+        // did not get to record its outcome or held by another node.
+        List<StandingInstruction> unfinished = new ArrayList<>();
+        for (StandingInstruction instruction : due) {
+            if (instruction.getPendingTransactionId() != null) {
+                unfinished.add(instruction);
+            } else {
+                schedule(instruction);
+            }
+        }
+        if (!unfinished.isEmpty()) {
+            resume(unfinished, now);
+        }
+
+        // A full page means more are due than one load takes: read the page after it next tick.
+        // A short one was the last, so the next load starts from the earliest again.
+        if (due.size() >= loadLimit) {
+            StandingInstruction last = due.get(due.size() - 1);
+            loadAfterRunAt = last.getNextRunAt();
+            loadAfterInstructionId = last.getInstructionId();
+            nextLoadMillis = nowMillis + tickMs;
+        } else {
+            loadAfterRunAt = null;
+            loadAfterInstructionId = null;
+        }
+    }
+
+    private void scheduleIfSoon(StandingInstruction instruction, long nowMillis) {
+        if (ACTIVE.equals(instruction.getStatus()) && toMillis(instruction.getNextRunAt()) <= nowMillis + lookaheadMs) {
+            schedule(instruction);
+        }
+    }
+
+    private void schedule(StandingInstruction instruction) {
+        LocalDateTime runAt = instruction.getNextRunAt();
+        if (!runAt.equals(scheduled.put(instruction.getInstructionId(), runAt))) {
+            wheel.schedule(new Due(instruction.getInstructionId(), runAt), toMillis(runAt));
+        }
+    }
+
+    private void execute(List<Due> due) throws SQLException {
+        Map<String, String> transactionIds = new LinkedHashMap<>();
+        for (Due entry : due) {
+            scheduled.remove(entry.instructionId, entry.runAt);
+            transactionIds.putIfAbsent(entry.instructionId, transactionService.generateTransactionId());
+        }
+
+        // A stale wheel entry, a cancelled instruction or one another node took loses the claim.
+        LocalDateTime now = LocalDateTime.now();
+        run(repository.claimDue(transactionIds, now), now);
+    }
+
+    private void resume(List<StandingInstruction> unfinished, LocalDateTime now) throws SQLException {
+        // A claim is ours to settle if it is older than the lease or if this node already took
+        // it over and still holds it. Anything else may be another node's run in flight.
+        LocalDateTime staleBefore = now.minus(Duration.ofMillis(claimLeaseMs));
+        List<StandingInstruction> abandoned = new ArrayList<>();
+        for (StandingInstruction instruction : unfinished) {
+            LocalDateTime claimedAt = instruction.getClaimedAt();
+            boolean held = claimedAt != null && claimedAt.equals(heldClaims.get(instruction.getInstructionId()));
+            if (!held) {
+                heldClaims.remove(instruction.getInstructionId());
+            }
+            if (held || claimedAt == null || !claimedAt.isAfter(staleBefore)) {
+                abandoned.add(instruction);
+            }
+        }
+        if (abandoned.isEmpty()) {
+            return;
+        }
+
+        // The take-over is a compare-and-set on the claim, so two nodes that both found it
+        // stale cannot both go on to check and pay it.
+        List<StandingInstruction> taken = repository.takeOverClaims(abandoned, now);
+        List<StandingInstruction> settled = new ArrayList<>();
+        List<StandingInstruction> rerun = new ArrayList<>();
+        for (StandingInstruction instruction : taken) {
+            heldClaims.put(instruction.getInstructionId(), instruction.getClaimedAt());
+            boolean paid;
+            try {
+                paid = transactionRepository.existsById(instruction.getPendingTransactionId());
+            } catch (SQLException e) {
+                // Not knowing is not "never paid": keep the claim and look again next load.
+                System.err.println("Could not check interrupted run of standing instruction "
+                        + instruction.getInstructionId() + ", retrying at the next load: " + e.getMessage());
+                continue;
+            }
+            if (paid) {
+                applyOutcome(instruction, TransferStatus.COMPLETED.name(), instruction.getPendingTransactionId(), null, now);
+                settled.add(instruction);
+            } else {
+                rerun.add(instruction);
+            }
+        }
+        System.out.println("Resuming " + taken.size() + " interrupted standing instruction run(s): "
+                + settled.size() + " had completed");
+
+        repository.recordRuns(settled);
+        release(settled);
+        rescheduleSoon(settled);
+        run(rerun, now);
+        release(rerun);
+    }
+
+    private void release(List<StandingInstruction> instructions) {
+        for (StandingInstruction instruction : instructions) {
+            heldClaims.remove(instruction.getInstructionId());
+        }
+    }
+
+    private void run(List<StandingInstruction> instructions, LocalDateTime now) throws SQLException {
+        if (instructions.isEmpty()) {
+            return;
+        }
+
+        List<Transaction> transfers = new ArrayList<>(instructions.size());
+        for (StandingInstruction instruction : instructions) {
+            String description = instruction.getDescription() != null && !instruction.getDescription().trim().isEmpty()
+                    ? instruction.getDescription()
+                    : "Standing instruction " + instruction.getInstructionId();
+            transfers.add(new Transaction(instruction.getPendingTransactionId(), null,
+                    instruction.getSenderAccountNumber(), instruction.getReceiverAccountNumber(),
+                    instruction.getAmount(), "ONLINE", description, null, now));
+        }
+
+        List<BatchTransferResult> results = transactionService.createScheduledTransactionBatch(transfers);
+
+        int completed = 0;
+        List<StandingInstruction> finished = new ArrayList<>(instructions.size());
+        for (int i = 0; i < instructions.size(); i++) {
+            BatchTransferResult result = results.get(i);
+            // A transfer that may still settle keeps its claim; once the claim lease runs out,
+            // resume() settles it from whether the transaction exists.
+            if (TransferStatus.PENDING.name().equals(result.getStatus())) {
+                continue;
+            }
+            applyOutcome(instructions.get(i), result.getStatus(), result.getTransactionId(), result.getMessage(), now);
+            finished.add(instructions.get(i));
+            if (TransferStatus.COMPLETED.name().equals(result.getStatus())) {
+                completed++;
+            }
+        }
+
+        repository.recordRuns(finished);
+        rescheduleSoon(finished);
+        System.out.println("Standing instructions run: " + completed + " of " + instructions.size() + " completed");
+    }
+
+    private void rescheduleSoon(List<StandingInstruction> instructions) {
+        long nowMillis = System.currentTimeMillis();
+        for (StandingInstruction instruction : instructions) {
+            scheduleIfSoon(instruction, nowMillis);
+        }
+    }
+
+    // A failed run is retried after retryDelayMs up to maxAttempts times. After that a
+    // one-off instruction is FAILED, and a recurring one skips to its next occurrence.
+    void applyOutcome(StandingInstruction instruction, String status, String transactionId, String message,
+                      LocalDateTime now) {
+        instruction.setLastRunAt(now);
+
+        if (TransferStatus.COMPLETED.name().equals(status)) {
+            instruction.setLastTransactionId(transactionId);
+            instruction.setLastError(null);
+            instruction.setFailureCount(0);
+            advance(instruction);
+            return;
+        }
+
+        String error = status + (message != null ? ": " + message : "");
+        instruction.setLastError(error.length() > LAST_ERROR_MAX_LENGTH ? error.substring(0, LAST_ERROR_MAX_LENGTH) : error);
+        instruction.setFailureCount(instruction.getFailureCount() + 1);
+
+        if (instruction.getFailureCount() < maxAttempts) {
+            instruction.setNextRunAt(now.plus(Duration.ofMillis(retryDelayMs)));
+        } else if (ONCE.equals(instruction.getFrequency())) {
+            instruction.setStatus(FAILED);
+        } else {
+            instruction.setFailureCount(0);
+            advance(instruction);
+        }
+    }
+
+    private static void advance(StandingInstruction instruction) {
+        instruction.setOccurrence(instruction.getOccurrence() + 1);
+        if (ONCE.equals(instruction.getFrequency())) {
+            instruction.setStatus(COMPLETED);
+            return;
+        }
+
+        LocalDateTime next = occurrenceAt(instruction.getFrequency(), instruction.getStartAt(), instruction.getOccurrence());
+        if (instruction.getEndAt() != null && next.isAfter(instruction.getEndAt())) {
+            instruction.setStatus(COMPLETED);
+        } else {
+            instruction.setNextRunAt(next);
+        }
+    }
+
+    // Counted from startAt rather than from the previous run, so a monthly instruction that
+    // starts on the 31st is clamped to shorter months without drifting to the 28th for good.
+    static LocalDateTime occurrenceAt(String frequency, LocalDateTime startAt, int occurrence) {
+        switch (frequency) {
+            case DAILY:
+                return startAt.plusDays(occurrence);
+            case WEEKLY:
+                return startAt.plusWeeks(occurrence);
+            case MONTHLY:
+                return startAt.plusMonths(occurrence);
+            default:
+                return startAt;
+        }
+    }
+
+    private static long toMillis(LocalDateTime value) {
+        return value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
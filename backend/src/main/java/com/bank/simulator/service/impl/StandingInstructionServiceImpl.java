@@ -0,0 +1,86 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.model.StandingInstruction;
+import com.bank.simulator.repository.RepositoryFactory;
+import com.bank.simulator.repository.StandingInstructionRepository;
+import com.bank.simulator.service.SequenceService;
+import com.bank.simulator.service.StandingInstructionService;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class StandingInstructionServiceImpl implements StandingInstructionService {
+
+    private final StandingInstructionRepository instructionRepository = RepositoryFactory.getStandingInstructionRepository();
+    private final SequenceService sequenceService = new SequenceServiceImpl();
+
+    @Override
+    public String createInstruction(StandingInstruction instruction) {
+        System.out.println("\n=== STANDING INSTRUCTION CREATION STARTED ===");
+        System.out.println("Sender: " + instruction.getSenderAccountNumber());
+        System.out.println("Receiver: " + instruction.getReceiverAccountNumber());
+        System.out.println("Amount: " + instruction.getAmount() + ", frequency: " + instruction.getFrequency());
+
+        String instructionId = "SI_" + sequenceService.nextValue(SequenceService.INSTRUCTION_SEQUENCE);
+        instruction.setInstructionId(instructionId);
+        instruction.setOccurrence(0);
+        instruction.setNextRunAt(instruction.getStartAt());
+        instruction.setStatus(StandingInstructionScheduler.ACTIVE);
+        instruction.setFailureCount(0);
+        instruction.setCreatedAt(LocalDateTime.now());
+
+        try {
+            if (!instructionRepository.insert(instruction)) {
+                System.err.println("Standing instruction creation failed - no rows affected");
+                return null;
+            }
+            System.out.println("Standing instruction created: " + instructionId + ", first run at " + instruction.getNextRunAt());
+            StandingInstructionScheduler.scheduleIfStarted(instruction);
+            return instructionId;
+
+        } catch (SQLException e) {
+            System.err.println("Error creating standing instruction: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    @Override
+    public StandingInstruction getInstruction(String instructionId) {
+        try {
+            return instructionRepository.findById(instructionId);
+        } catch (SQLException e) {
+            System.err.println("Error fetching standing instruction: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    @Override
+    public List<StandingInstruction> getInstructionsByAccountNumber(String accountNumber) {
+        try {
+            return instructionRepository.findBySenderAccountNumber(accountNumber);
+        } catch (SQLException e) {
+            System.err.println("Error fetching standing instructions: " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public boolean cancelInstruction(String instructionId) {
+        try {
+            boolean cancelled = instructionRepository.cancel(instructionId);
+            System.out.println(cancelled
+                    ? "Standing instruction cancelled: " + instructionId
+                    : "Standing instruction not active: " + instructionId);
+            return cancelled;
+        } catch (SQLException e) {
+            System.err.println("Error cancelling standing instruction: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.bank.simulator.service.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// Hashed timing wheel: a ring of buckets, each covering tickMs. Scheduling hashes the deadline
+// to its bucket in O(1); a deadline more than one turn away records how many full turns it
+// still has to wait. Advancing visits one bucket per elapsed tick, so the cost of firing does
+// not depend on how many items are scheduled further out. Items fire at most one tick late,
+// never early.
+final class TimingWheel<T> {
+
+    private static final class Entry<T> {
+        final T item;
+        long remainingRounds;
+
+        Entry(T item, long remainingRounds) {
+            this.item = item;
+            this.remainingRounds = remainingRounds;
+        }
+    }
+
+    private final ArrayDeque<Entry<T>>[] buckets;
+    private final int mask;
+    private final long tickMs;
+    private final long startMs;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(int ticksPerWheel, long tickMs, long startMs) {
+        if (ticksPerWheel <= 0 || Integer.bitCount(ticksPerWheel) != 1) {
+            throw new IllegalArgumentException("ticksPerWheel must be a power of two: " + ticksPerWheel);
+        }
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs must be positive: " + tickMs);
+        }
+        this.buckets = (ArrayDeque<Entry<T>>[]) new ArrayDeque<?>[ticksPerWheel];
+        for (int i = 0; i < ticksPerWheel; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.mask = ticksPerWheel - 1;
+        this.tickMs = tickMs;
+        this.startMs = startMs;
+    }
+
+    // A deadline already passed goes into the current tick and fires on the next advance.
+    synchronized void schedule(T item, long deadlineMs) {
+        long tick = Math.max(currentTick, Math.floorDiv(deadlineMs - startMs, tickMs));
+        long rounds = (tick - currentTick) / buckets.length;
+        buckets[(int) (tick & mask)].addLast(new Entry<>(item, rounds));
+        size++;
+    }
+
+    // Fires every tick that has fully elapsed by nowMs and returns its items in tick order.
+    synchronized List<T> advance(long nowMs) {
+        List<T> expired = new ArrayList<>();
+        while (startMs + (currentTick + 1) * tickMs <= nowMs) {
+            Iterator<Entry<T>> entries = buckets[(int) (currentTick & mask)].iterator();
+            while (entries.hasNext()) {
+                Entry<T> entry = entries.next();
+                if (entry.remainingRounds <= 0) {
+                    entries.remove();
+                    size--;
+                    expired.add(entry.item);
+                } else {
+                    entry.remainingRounds--;
+                }
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,134 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.repository.RepositoryFactory;
+import com.bank.simulator.repository.SequenceRepository;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// IDs look like TXN_20261017_0042_0000000137: the local date, a node number of at least 4
+// digits and a 10-digit per-day counter. The node number is leased from id_sequence once per
+// process start and used in full, never wrapped, so restarts and other nodes never reuse a
+// (node, day, counter) triple and the counter can always start again at 1 without reading the
+// Transaction table. Even a 19-digit node number keeps the ID within VARCHAR(50).
+final class TransactionIdGenerator {
+
+    static final String NODE_SEQUENCE = "TXN_NODE";
+
+    // state packs the epoch day into the high bits and the number of IDs issued that day
+    // into the low bits, so one getAndIncrement yields a consistent (day, counter) pair.
+    private static final int COUNTER_BITS = 40;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final int COUNTER_DIGITS = 10;
+    private static final long MAX_COUNTER = 9_999_999_999L;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final class Day {
+        private final long epochDay;
+        private final long startMillis;
+        private final long endMillis;
+        private final String prefix;
+
+        private Day(long epochDay, long startMillis, long endMillis, String prefix) {
+            this.epochDay = epochDay;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+            this.prefix = prefix;
+        }
+    }
+
+    private final String nodeSegment;
+    private final ZoneId zone;
+    private final LongSupplier clock;
+    private final AtomicLong state;
+    private volatile Day day;
+
+    TransactionIdGenerator(long nodeInstance, ZoneId zone, LongSupplier clock) {
+        if (nodeInstance < 0) {
+            throw new IllegalArgumentException("Node instance must not be negative: " + nodeInstance);
+        }
+        this.nodeSegment = String.format("%04d", nodeInstance);
+        this.zone = zone;
+        this.clock = clock;
+        this.day = dayAt(clock.getAsLong());
+        this.state = new AtomicLong(day.epochDay << COUNTER_BITS);
+    }
+
+    static TransactionIdGenerator create() {
+        SequenceRepository sequenceRepository = RepositoryFactory.getSequenceRepository();
+        try {
+            long nodeInstance = sequenceRepository.allocateBlock(NODE_SEQUENCE, 1);
+            if (nodeInstance < 0) {
+                sequenceRepository.createSequence(NODE_SEQUENCE, 1);
+                nodeInstance = sequenceRepository.allocateBlock(NODE_SEQUENCE, 1);
+            }
+            if (nodeInstance < 0) {
+                throw new IllegalStateException("Sequence " + NODE_SEQUENCE + " could not be created");
+            }
+
+            TransactionIdGenerator generator = new TransactionIdGenerator(nodeInstance, ZoneId.systemDefault(),
+                    System::currentTimeMillis);
+            System.out.println("=== TRANSACTION ID GENERATOR INITIALIZED ===");
+            System.out.println("Node instance: " + nodeInstance + " (segment " + generator.nodeSegment + ")");
+            return generator;
+
+        } catch (SQLException e) {
+            System.err.println("Error leasing transaction node number: " + e.getMessage());
+            throw new IllegalStateException("Could not lease a transaction node number", e);
+        }
+    }
+
+    String next() {
+        Day current = currentDay();
+
+        // The first caller to notice a new day resets the counter. A loser of this race, or a
+        // caller still holding the old day, simply increments whatever state it finds, so an
+        // ID issued right at midnight may carry either date but never repeats.
+        long observed = state.get();
+        if ((observed >>> COUNTER_BITS) < current.epochDay) {
+            state.compareAndSet(observed, current.epochDay << COUNTER_BITS);
+        }
+
+        long issued = state.getAndIncrement();
+        long epochDay = issued >>> COUNTER_BITS;
+        long counter = (issued & COUNTER_MASK) + 1;
+        if (counter > MAX_COUNTER) {
+            throw new IllegalStateException("Transaction ID counter exhausted for node " + nodeSegment);
+        }
+
+        String prefix = epochDay == current.epochDay ? current.prefix : prefixFor(LocalDate.ofEpochDay(epochDay));
+        String digits = Long.toString(counter);
+        StringBuilder id = new StringBuilder(prefix.length() + COUNTER_DIGITS).append(prefix);
+        for (int i = digits.length(); i < COUNTER_DIGITS; i++) {
+            id.append('0');
+        }
+        return id.append(digits).toString();
+    }
+
+    private Day currentDay() {
+        Day current = day;
+        long now = clock.getAsLong();
+        if (now >= current.startMillis && now < current.endMillis) {
+            return current;
+        }
+        current = dayAt(now);
+        day = current;
+        return current;
+    }
+
+    private Day dayAt(long millis) {
+        LocalDate date = Instant.ofEpochMilli(millis).atZone(zone).toLocalDate();
+        long start = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        long end = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return new Day(date.toEpochDay(), start, end, prefixFor(date));
+    }
+
+    private String prefixFor(LocalDate date) {
+        return "TXN_" + date.format(DATE_FORMATTER) + "_" + nodeSegment + "_";
+    }
+}
@@ -1,81 +1,101 @@
 package com.bank.simulator.service.impl;
 
 import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.config.AccountCache;
+import com.bank.simulator.config.AccountLockManager;
+import com.bank.simulator.config.HotAccountDetector;
+import com.bank.simulator.config.TransferMetrics;
+import com.bank.simulator.config.UserStatusCache;
+import com.bank.simulator.ledger.LedgerEngine;
+import com.bank.simulator.model.Account;
+import com.bank.simulator.model.AccountHolder;
+import com.bank.simulator.model.BatchTransferResult;
+import com.bank.simulator.model.Customer;
 import com.bank.simulator.model.Transaction;
+import com.bank.simulator.model.TransactionCursor;
+import com.bank.simulator.model.TransactionPage;
+import com.bank.simulator.model.TransferContext;
+import com.bank.simulator.model.User;
+import com.bank.simulator.repository.AccountRepository;
+import com.bank.simulator.repository.CustomerRepository;
+import com.bank.simulator.repository.RepositoryFactory;
+import com.bank.simulator.repository.RowConsumer;
+import com.bank.simulator.repository.TransactionRepository;
+import com.bank.simulator.repository.TransferStatus;
+import com.bank.simulator.repository.UserRepository;
 import com.bank.simulator.service.TransactionService;
 import com.bank.simulator.service.NotificationService;
-import java.sql.Statement;
+import com.bank.simulator.validation.TransactionValidator;
+import com.bank.simulator.validation.ValidationResult;
+import java.io.IOException;
 import java.math.BigDecimal;
-import java.sql.*;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class TransactionServiceImpl implements TransactionService {
     
     private final NotificationService notificationService = new NotificationServiceImpl();
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
-    private static final AtomicInteger dailyCounter = new AtomicInteger(1);
-    private static volatile String lastDate = "";
+    private final TransactionRepository transactionRepository = RepositoryFactory.getTransactionRepository();
+    private final AccountRepository accountRepository = RepositoryFactory.getAccountRepository();
+    private final CustomerRepository customerRepository = RepositoryFactory.getCustomerRepository();
+    private final UserRepository userRepository = RepositoryFactory.getUserRepository();
+    private final TransactionValidator transactionValidator = new TransactionValidator();
+    private static volatile TransactionIdGenerator idGenerator;
+
+    private static final int BATCH_CHUNK_SIZE =
+            Integer.parseInt(DBConfig.getProperty("transaction.batch.chunk.size", "500").trim());
+    private static final boolean BATCH_NOTIFICATIONS_ENABLED =
+            Boolean.parseBoolean(DBConfig.getProperty("transaction.batch.notifications.enabled", "false").trim());
 
     @Override
     public String generateTransactionId() {
-        String currentDate = LocalDateTime.now().format(DATE_FORMATTER);
-        
-        synchronized (TransactionServiceImpl.class) {
-            if (!currentDate.equals(lastDate)) {
-                lastDate = currentDate;
-                int maxCounter = getMaxDailyCounterFromDB(currentDate);
-                dailyCounter.set(maxCounter + 1);
-                System.out.println("=== NEW DAY DETECTED OR SERVER RESTART ===");
-                System.out.println("Date: " + currentDate);
-                System.out.println("Starting counter at: " + dailyCounter.get());
+        String transactionId = idGenerator().next();
+        System.out.println("Generated Transaction ID: " + transactionId);
+        return transactionId;
+    }
+
+    // Created on first use rather than at class load so that a database outage while
+    // leasing the node number fails one request instead of the class initialiser.
+    private static TransactionIdGenerator idGenerator() {
+        TransactionIdGenerator generator = idGenerator;
+        if (generator == null) {
+            synchronized (TransactionServiceImpl.class) {
+                if (idGenerator == null) {
+                    idGenerator = TransactionIdGenerator.create();
+                }
+                generator = idGenerator;
             }
-            
-            int counter = dailyCounter.getAndIncrement();
-            String transactionId = String.format("TXN_%s%03d", currentDate, counter);
-            
-            System.out.println("Generated Transaction ID: " + transactionId);
-            return transactionId;
         }
+        return generator;
     }
 
-    private int getMaxDailyCounterFromDB(String dateStr) {
-        String query = "SELECT transaction_id FROM Transaction WHERE transaction_id LIKE ? ORDER BY transaction_id DESC LIMIT 1";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, "TXN_" + dateStr + "%");
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                String lastTxnId = rs.getString("transaction_id");
-                String counterPart = lastTxnId.substring(13);
-                int maxCounter = Integer.parseInt(counterPart);
-                
-                System.out.println("Loaded max transaction counter from database:");
-                System.out.println("  Last Transaction ID: " + lastTxnId);
-                System.out.println("  Max Counter: " + maxCounter);
-                
-                return maxCounter;
-            } else {
-                System.out.println("No transactions found for date: " + dateStr);
-                return 0;
-            }
-            
+    @Override
+    public TransferContext loadTransferContext(String senderAccountNumber, String receiverAccountNumber) {
+        try {
+            return accountRepository.findTransferContext(senderAccountNumber, receiverAccountNumber);
         } catch (SQLException e) {
-            System.err.println("Warning: Could not load max transaction counter from database");
-            System.err.println("Error: " + e.getMessage());
-            System.err.println("Starting counter from 0 for date: " + dateStr);
-            return 0;
+            System.err.println("Error loading transfer context: " + e.getMessage());
+            e.printStackTrace();
+            return null;
         }
     }
 
     @Override
     public String createTransaction(Transaction transaction) {
+        return createTransaction(transaction, null);
+    }
+
+    // The context, when the caller already loaded it for validation, also supplies the names
+    // and addresses for the notification emails.
+    @Override
+    public String createTransaction(Transaction transaction, TransferContext context) {
         System.out.println("\n");
         System.out.println("=== TRANSACTION CREATION STARTED ===");
         System.out.println("Sender Account Number: " + transaction.getSenderAccountNumber());
@@ -84,84 +104,52 @@ public class TransactionServiceImpl implements TransactionService {
         System.out.println("Transaction Type: " + transaction.getTransactionType());
         System.out.println("Description: " + (transaction.getDescription() != null ? transaction.getDescription() : "NULL"));
 
-        Connection conn = null;
-        try {
-            conn = DBConfig.getConnection();
-            conn.setAutoCommit(false);
+        String transactionId = generateTransactionId();
+        transaction.setTransactionId(transactionId);
+        transaction.setCreatedDate(LocalDateTime.now());
 
-            String senderAccountId = getAccountIdByAccountNumber(conn, transaction.getSenderAccountNumber());
-            String receiverAccountId = getAccountIdByAccountNumber(conn, transaction.getReceiverAccountNumber());
+        HotAccountDetector.getInstance().recordCredit(transaction.getReceiverAccountNumber());
 
-            if (senderAccountId == null) {
-                System.err.println("ERROR: Sender account not found");
-                return null;
+        long startedNanos = System.nanoTime();
+        try {
+            TransferStatus status;
+            if (LedgerEngine.isEnabled()) {
+                status = transferOnLedger(transaction);
+            } else if (GroupCommitter.isEnabled()) {
+                status = GroupCommitter.getInstance().transfer(transaction);
+            } else {
+                status = transferUnderAccountLock(transaction);
             }
-
-            if (receiverAccountId == null) {
-                System.err.println("ERROR: Receiver account not found");
+            if (status == null) {
+                TransferMetrics.recordFailure(System.nanoTime() - startedNanos);
+                System.err.println("ERROR: Timed out waiting for the account lock");
                 return null;
             }
-
-            transaction.setAccountId(senderAccountId);
-
-            BigDecimal senderBalance = getAccountBalance(conn, senderAccountId);
-            System.out.println("Sender Current Balance: " + senderBalance);
-
-            if (senderBalance.compareTo(transaction.getAmount()) < 0) {
-                System.err.println("ERROR: Insufficient balance");
-                System.err.println("Available: " + senderBalance + ", Required: " + transaction.getAmount());
-                conn.rollback();
-                return "INSUFFICIENT_BALANCE";
+            TransferMetrics.recordTransfer(System.nanoTime() - startedNanos, status == TransferStatus.COMPLETED);
+            if (status == TransferStatus.COMPLETED) {
+                AccountCache.getInstance().invalidate(transaction.getSenderAccountNumber(), transaction.getReceiverAccountNumber());
             }
 
-            String transactionId = generateTransactionId();
-            transaction.setTransactionId(transactionId);
-            transaction.setCreatedDate(LocalDateTime.now());
-
-            String insertQuery = "INSERT INTO Transaction (transaction_id, account_id, sender_account_number, " +
-                               "receiver_account_number, amount, transaction_type, description, created_date) " +
-                               "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-
-            try (PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
-                stmt.setString(1, transaction.getTransactionId());
-                stmt.setString(2, transaction.getAccountId());
-                stmt.setString(3, transaction.getSenderAccountNumber());
-                stmt.setString(4, transaction.getReceiverAccountNumber());
-                stmt.setBigDecimal(5, transaction.getAmount());
-                stmt.setString(6, transaction.getTransactionType());
-                stmt.setString(7, transaction.getDescription());
-                stmt.setTimestamp(8, Timestamp.valueOf(transaction.getCreatedDate()));
-
-                int result = stmt.executeUpdate();
-                System.out.println("Transaction record inserted: " + result + " rows");
+            switch (status) {
+                case SENDER_NOT_FOUND:
+                    System.err.println("ERROR: Sender account not found");
+                    return null;
+                case RECEIVER_NOT_FOUND:
+                    System.err.println("ERROR: Receiver account not found");
+                    return null;
+                case INSUFFICIENT_BALANCE:
+                    System.err.println("ERROR: Insufficient balance");
+                    System.err.println("Required: " + transaction.getAmount());
+                    return "INSUFFICIENT_BALANCE";
+                case DUPLICATE_REQUEST:
+                    return resolveDuplicate(transaction);
+                case PENDING:
+                    System.err.println("Transaction " + transactionId + " taken by the ledger but not settled yet");
+                    return "TRANSFER_PENDING";
+                default:
+                    break;
             }
 
-            String deductQuery = "UPDATE Account SET amount = amount - ? WHERE account_id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(deductQuery)) {
-                stmt.setBigDecimal(1, transaction.getAmount());
-                stmt.setString(2, senderAccountId);
-                int result = stmt.executeUpdate();
-                System.out.println("Sender balance updated: " + result + " rows");
-            }
-
-            String addQuery = "UPDATE Account SET amount = amount + ? WHERE account_id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(addQuery)) {
-                stmt.setBigDecimal(1, transaction.getAmount());
-                stmt.setString(2, receiverAccountId);
-                int result = stmt.executeUpdate();
-                System.out.println("Receiver balance updated: " + result + " rows");
-            }
-
-            BigDecimal senderNewBalance = getAccountBalance(conn, senderAccountId);
-            BigDecimal receiverNewBalance = getAccountBalance(conn, receiverAccountId);
-            
-            System.out.println("\n");
-            System.out.println("=== BALANCE UPDATE SUMMARY ===");
-            System.out.println("Sender Previous Balance: " + senderBalance);
-            System.out.println("Sender New Balance: " + senderNewBalance);
-            System.out.println("Receiver New Balance: " + receiverNewBalance);
-
-            conn.commit();
             System.out.println("\n");
             System.out.println("=== TRANSACTION COMPLETED SUCCESSFULLY ===");
             System.out.println("Transaction ID: " + transactionId);
@@ -169,13 +157,11 @@ public class TransactionServiceImpl implements TransactionService {
             try {
                 System.out.println("\n=== INITIATING EMAIL NOTIFICATIONS ===");
                 sendTransactionEmails(
-                    conn,
-                    senderAccountId,
-                    receiverAccountId,
                     transaction.getSenderAccountNumber(),
                     transaction.getReceiverAccountNumber(),
                     transaction.getAmount(),
-                    transactionId
+                    transactionId,
+                    context
                 );
             } catch (Exception emailEx) {
                 System.err.println("\nEMAIL NOTIFICATION FAILED (Transaction was successful)");
@@ -186,82 +172,362 @@ public class TransactionServiceImpl implements TransactionService {
             return transactionId;
 
         } catch (SQLException e) {
+            TransferMetrics.recordFailure(System.nanoTime() - startedNanos);
             System.out.println("\n");
             System.err.println("=== TRANSACTION FAILED ===");
             System.err.println("Error: " + e.getMessage());
             e.printStackTrace();
-            
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                    System.out.println("Transaction rolled back successfully");
-                } catch (SQLException rollbackEx) {
-                    System.err.println("Rollback failed: " + rollbackEx.getMessage());
+            return null;
+        }
+    }
+
+    // The ledger writes transfers behind, so the Idempotency-Key is reserved before the transfer
+    // is decided, and given back only when the transfer is known not to have been applied.
+    private TransferStatus transferOnLedger(Transaction transaction) throws SQLException {
+        if (transaction.getIdempotencyKey() != null && !transactionRepository.reserveIdempotencyKey(transaction)) {
+            return TransferStatus.DUPLICATE_REQUEST;
+        }
+        TransferStatus status;
+        try {
+            status = LedgerEngine.getInstance().transfer(transaction);
+        } catch (SQLException e) {
+            releaseIdempotencyKey(transaction);
+            throw e;
+        }
+        if (status != TransferStatus.COMPLETED && status != TransferStatus.PENDING) {
+            releaseIdempotencyKey(transaction);
+        }
+        return status;
+    }
+
+    private void releaseIdempotencyKey(Transaction transaction) {
+        if (transaction.getIdempotencyKey() == null) {
+            return;
+        }
+        try {
+            transactionRepository.releaseIdempotencyKey(transaction);
+        } catch (SQLException e) {
+            System.err.println("Could not release idempotency key " + transaction.getIdempotencyKey()
+                    + " of " + transaction.getTransactionId() + ": " + e.getMessage());
+        }
+    }
+
+    // Another request with the same Idempotency-Key committed first, possibly on another node.
+    private String resolveDuplicate(Transaction transaction) throws SQLException {
+        Transaction original = transactionRepository.findByIdempotencyKey(transaction.getIdempotencyKey());
+        if (original == null) {
+            System.err.println("ERROR: Idempotency key " + transaction.getIdempotencyKey() + " reported as used but not found");
+            return null;
+        }
+        if (!original.getRequestHash().equals(transaction.getRequestHash())) {
+            System.err.println("ERROR: Idempotency key " + transaction.getIdempotencyKey() + " was used for a different request");
+            return "IDEMPOTENCY_KEY_MISMATCH";
+        }
+        System.out.println("Duplicate request for idempotency key " + transaction.getIdempotencyKey()
+                + ", original transaction: " + original.getTransactionId());
+        return original.getTransactionId();
+    }
+
+    // Transfers touching the same account queue on an in-process stripe lock first, so only
+    // one of them at a time ends up waiting on the row locks in the database. Returns null
+    // when the stripe could not be taken within transfer.lock.timeout.ms. Credits to a hot
+    // account go to a balance slot rather than its row, so only the sender's stripe is taken.
+    private TransferStatus transferUnderAccountLock(Transaction transaction) throws SQLException {
+        AccountLockManager lockManager = AccountLockManager.getInstance();
+        if (!lockManager.isEnabled()) {
+            return transactionRepository.transfer(transaction);
+        }
+
+        String sender = transaction.getSenderAccountNumber();
+        String receiver = transaction.getReceiverAccountNumber();
+        if (HotAccountDetector.getInstance().isHot(receiver)) {
+            receiver = sender;
+        }
+
+        AccountLockManager.Lease lease;
+        try {
+            lease = lockManager.acquire(sender, receiver);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the account lock", e);
+        }
+        if (lease == null) {
+            return null;
+        }
+        try (lease) {
+            return transactionRepository.transfer(transaction);
+        }
+    }
+
+    @Override
+    public List<BatchTransferResult> createTransactionBatch(List<Transaction> transactions) {
+        return runBatch(transactions, false);
+    }
+
+    @Override
+    public List<BatchTransferResult> createScheduledTransactionBatch(List<Transaction> transactions) {
+        return runBatch(transactions, true);
+    }
+
+    private List<BatchTransferResult> runBatch(List<Transaction> transactions, boolean scheduled) {
+        System.out.println("\n");
+        System.out.println("=== BATCH TRANSACTION STARTED ===");
+        System.out.println("Items: " + transactions.size() + ", chunk size: " + BATCH_CHUNK_SIZE);
+
+        BatchTransferResult[] results = new BatchTransferResult[transactions.size()];
+        List<Integer> accepted = validateBatch(transactions, results, scheduled);
+
+        for (int from = 0; from < accepted.size(); from += BATCH_CHUNK_SIZE) {
+            List<Integer> chunkIndexes = accepted.subList(from, Math.min(accepted.size(), from + BATCH_CHUNK_SIZE));
+            List<Transaction> chunk = new ArrayList<>(chunkIndexes.size());
+            LocalDateTime now = LocalDateTime.now();
+            for (int index : chunkIndexes) {
+                Transaction transaction = transactions.get(index);
+                if (!scheduled || transaction.getTransactionId() == null) {
+                    transaction.setTransactionId(idGenerator().next());
                 }
+                transaction.setCreatedDate(now);
+                chunk.add(transaction);
             }
-            return null;
-            
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                } catch (SQLException e) {
-                    System.err.println("Error closing connection: " + e.getMessage());
+
+            if (LedgerEngine.isEnabled()) {
+                submitToLedger(chunk, chunkIndexes, results);
+                continue;
+            }
+
+            long startedNanos = System.nanoTime();
+            try {
+                List<TransferStatus> statuses = transactionRepository.transferBatch(chunk);
+                long elapsedNanos = System.nanoTime() - startedNanos;
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    Transaction transaction = chunk.get(i);
+                    TransferStatus status = statuses.get(i);
+                    TransferMetrics.recordTransfer(elapsedNanos, status == TransferStatus.COMPLETED);
+                    if (status == TransferStatus.COMPLETED) {
+                        AccountCache.getInstance().invalidate(transaction.getSenderAccountNumber(),
+                            transaction.getReceiverAccountNumber());
+                    }
+                    results[chunkIndexes.get(i)] = status == TransferStatus.COMPLETED
+                        ? new BatchTransferResult(chunkIndexes.get(i), status.name(), transaction.getTransactionId(), null)
+                        : new BatchTransferResult(chunkIndexes.get(i), status.name(), null, batchStatusMessage(status));
+                }
+                System.out.println("Chunk of " + chunk.size() + " committed in " + elapsedNanos / 1_000_000 + " ms");
+
+            } catch (SQLException e) {
+                System.err.println("Batch chunk of " + chunk.size() + " failed: " + e.getMessage());
+                e.printStackTrace();
+                long elapsedNanos = System.nanoTime() - startedNanos;
+                for (int index : chunkIndexes) {
+                    TransferMetrics.recordFailure(elapsedNanos);
+                    results[index] = new BatchTransferResult(index, "FAILED", null, "Failed to create transaction");
+                }
+            }
+        }
+
+        if (BATCH_NOTIFICATIONS_ENABLED) {
+            for (BatchTransferResult result : results) {
+                if (TransferStatus.COMPLETED.name().equals(result.getStatus())) {
+                    Transaction transaction = transactions.get(result.getIndex());
+                    try {
+                        sendTransactionEmails(transaction.getSenderAccountNumber(), transaction.getReceiverAccountNumber(),
+                                transaction.getAmount(), transaction.getTransactionId(), null);
+                    } catch (Exception emailEx) {
+                        System.err.println("Email notification failed for " + transaction.getTransactionId()
+                                + ": " + emailEx.getMessage());
+                    }
+                }
+            }
+        }
+
+        System.out.println("=== BATCH TRANSACTION COMPLETED ===");
+        return Arrays.asList(results);
+    }
+
+    // Every item is queued before any is awaited so the shards can work on the whole chunk at once.
+    private void submitToLedger(List<Transaction> chunk, List<Integer> chunkIndexes, BatchTransferResult[] results) {
+        LedgerEngine ledger = LedgerEngine.getInstance();
+        long startedNanos = System.nanoTime();
+        List<CompletableFuture<TransferStatus>> pending = new ArrayList<>(chunk.size());
+        for (Transaction transaction : chunk) {
+            CompletableFuture<TransferStatus> result;
+            try {
+                result = transaction.getIdempotencyKey() != null && !transactionRepository.reserveIdempotencyKey(transaction)
+                    ? CompletableFuture.completedFuture(TransferStatus.DUPLICATE_REQUEST)
+                    : ledger.submit(transaction);
+            } catch (SQLException e) {
+                result = CompletableFuture.failedFuture(e);
+            }
+            pending.add(result);
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            Transaction transaction = chunk.get(i);
+            int index = chunkIndexes.get(i);
+            try {
+                TransferStatus status = ledger.await(transaction, pending.get(i));
+                if (status != TransferStatus.COMPLETED && status != TransferStatus.PENDING
+                        && status != TransferStatus.DUPLICATE_REQUEST) {
+                    releaseIdempotencyKey(transaction);
                 }
+                TransferMetrics.recordTransfer(System.nanoTime() - startedNanos, status == TransferStatus.COMPLETED);
+                results[index] = status == TransferStatus.COMPLETED || status == TransferStatus.PENDING
+                    ? new BatchTransferResult(index, status.name(), transaction.getTransactionId(), batchStatusMessage(status))
+                    : new BatchTransferResult(index, status.name(), null, batchStatusMessage(status));
+            } catch (SQLException e) {
+                System.err.println("Ledger transfer " + transaction.getTransactionId() + " failed: " + e.getMessage());
+                releaseIdempotencyKey(transaction);
+                TransferMetrics.recordFailure(System.nanoTime() - startedNanos);
+                results[index] = new BatchTransferResult(index, "FAILED", null, "Failed to create transaction");
             }
         }
     }
 
+    // Mirrors the checks of the single-transfer endpoint, but loads every account, customer
+    // and user the batch refers to with one query each instead of several per item.
+    private List<Integer> validateBatch(List<Transaction> transactions, BatchTransferResult[] results, boolean scheduled) {
+        List<Integer> pending = new ArrayList<>();
+        Set<String> accountNumbers = new HashSet<>();
+
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            if (transaction != null && (transaction.getTransactionType() == null
+                    || transaction.getTransactionType().trim().isEmpty())) {
+                transaction.setTransactionType("ONLINE");
+            }
+
+            ValidationResult validation = transactionValidator.validateTransactionFormat(transaction);
+            if (!validation.isValid()) {
+                results[i] = new BatchTransferResult(i, "INVALID", null, validation.getFirstErrorMessage());
+            } else if (!scheduled && (transaction.getPin() == null || !transaction.getPin().matches("^[0-9]{6}$"))) {
+                results[i] = new BatchTransferResult(i, "INVALID", null, "PIN must be exactly 6 digits");
+            } else {
+                pending.add(i);
+                accountNumbers.add(transaction.getSenderAccountNumber());
+                accountNumbers.add(transaction.getReceiverAccountNumber());
+            }
+        }
+
+        List<Integer> accepted = new ArrayList<>();
+        try {
+            Map<String, Account> accounts = accountRepository.findByAccountNumbers(accountNumbers);
+
+            Set<String> customerIds = new HashSet<>();
+            for (int index : pending) {
+                Account sender = accounts.get(transactions.get(index).getSenderAccountNumber());
+                if (sender != null) {
+                    customerIds.add(sender.getCustomerId());
+                }
+            }
+            Map<String, Customer> customers = customerRepository.findByIds(customerIds);
+
+            Set<String> emails = new HashSet<>();
+            for (Customer customer : customers.values()) {
+                if (customer.getEmail() != null) {
+                    emails.add(customer.getEmail());
+                }
+            }
+            Map<String, User> users = UserStatusCache.getInstance().getUsers(emails,
+                    userRepository::findByEmails);
+
+            for (int index : pending) {
+                Transaction transaction = transactions.get(index);
+                Account sender = accounts.get(transaction.getSenderAccountNumber());
+                Account receiver = accounts.get(transaction.getReceiverAccountNumber());
+                Customer customer = sender != null ? customers.get(sender.getCustomerId()) : null;
+                User user = customer != null && customer.getEmail() != null ? users.get(customer.getEmail()) : null;
+
+                String status = null;
+                String message = null;
+                if (sender == null) {
+                    status = TransferStatus.SENDER_NOT_FOUND.name();
+                    message = "Sender account not found";
+                } else if (!"ACTIVE".equalsIgnoreCase(sender.getStatus())) {
+                    status = "ACCOUNT_INACTIVE";
+                    message = "Sender account is deactivated";
+                } else if (receiver == null) {
+                    status = TransferStatus.RECEIVER_NOT_FOUND.name();
+                    message = "Receiver account not found";
+                } else if (!"ACTIVE".equalsIgnoreCase(receiver.getStatus())) {
+                    status = "ACCOUNT_INACTIVE";
+                    message = "Receiver account is deactivated";
+                } else if (customer == null) {
+                    status = "CUSTOMER_NOT_FOUND";
+                    message = "Customer not found";
+                } else if (user != null && !user.isActive()) {
+                    status = "USER_INACTIVE";
+                    message = "Sender user account is deactivated";
+                } else if (!scheduled && !transaction.getPin().equals(customer.getCustomerPin())) {
+                    status = "INVALID_PIN";
+                    message = "Invalid PIN";
+                }
+
+                if (status != null) {
+                    results[index] = new BatchTransferResult(index, status, null, message);
+                } else {
+                    accepted.add(index);
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error validating transaction batch: " + e.getMessage());
+            e.printStackTrace();
+            for (int index : pending) {
+                results[index] = new BatchTransferResult(index, "FAILED", null, "Database error while validating transaction");
+            }
+            return new ArrayList<>();
+        }
+
+        System.out.println("Batch validation: " + accepted.size() + " of " + transactions.size() + " accepted");
+        return accepted;
+    }
+
+    private static String batchStatusMessage(TransferStatus status) {
+        switch (status) {
+            case SENDER_NOT_FOUND:
+                return "Sender account not found";
+            case RECEIVER_NOT_FOUND:
+                return "Receiver account not found";
+            case INSUFFICIENT_BALANCE:
+                return "Insufficient balance for this transaction";
+            case PENDING:
+                return "Transfer accepted but not settled yet";
+            default:
+                return null;
+        }
+    }
+
+    private static AccountHolder holderOf(Account account, Customer customer) {
+        if (account == null || customer == null) {
+            return null;
+        }
+        return new AccountHolder(customer.getName(), customer.getEmail(), account.getBankName(), account.getAccountNumber());
+    }
+
     private void sendTransactionEmails(
-            Connection conn,
-            String senderAccountId,
-            String receiverAccountId,
             String senderAccountNumber,
             String receiverAccountNumber,
             BigDecimal amount,
-            String transactionId
+            String transactionId,
+            TransferContext context
     ) throws SQLException {
 
-        String senderQuery = "SELECT c.name, c.email, a.bank_name, a.account_number FROM Customer c " +
-                            "JOIN Account a ON c.customer_id = a.customer_id " +
-                            "WHERE a.account_id = ?";
-        
-        String senderName = null;
-        String senderEmail = null;
-        String senderBankName = null;
-        String senderAccNum = null;
-        
-        try (PreparedStatement stmt = conn.prepareStatement(senderQuery)) {
-            stmt.setString(1, senderAccountId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                senderName = rs.getString("name");
-                senderEmail = rs.getString("email");
-                senderBankName = rs.getString("bank_name");
-                senderAccNum = rs.getString("account_number");
-            }
-        }
+        AccountHolder sender = context != null
+                ? holderOf(context.getSenderAccount(), context.getSenderCustomer())
+                : accountRepository.findHolderByAccountNumber(senderAccountNumber);
+        AccountHolder receiver = context != null
+                ? holderOf(context.getReceiverAccount(), context.getReceiverCustomer())
+                : accountRepository.findHolderByAccountNumber(receiverAccountNumber);
 
-        String receiverQuery = "SELECT c.name, c.email, a.bank_name, a.account_number FROM Customer c " +
-                              "JOIN Account a ON c.customer_id = a.customer_id " +
-                              "WHERE a.account_id = ?";
-        
-        String receiverName = null;
-        String receiverEmail = null;
-        String receiverBankName = null;
-        String receiverAccNum = null;
-        
-        try (PreparedStatement stmt = conn.prepareStatement(receiverQuery)) {
-            stmt.setString(1, receiverAccountId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                receiverName = rs.getString("name");
-                receiverEmail = rs.getString("email");
-                receiverBankName = rs.getString("bank_name");
-                receiverAccNum = rs.getString("account_number");
-            }
-        }
+        String senderName = sender != null ? sender.getName() : null;
+        String senderEmail = sender != null ? sender.getEmail() : null;
+        String senderBankName = sender != null ? sender.getBankName() : null;
+        String senderAccNum = sender != null ? sender.getAccountNumber() : null;
+
+        String receiverName = receiver != null ? receiver.getName() : null;
+        String receiverEmail = receiver != null ? receiver.getEmail() : null;
+        String receiverBankName = receiver != null ? receiver.getBankName() : null;
+        String receiverAccNum = receiver != null ? receiver.getAccountNumber() : null;
 
         System.out.println("--- Email Details ---");
         System.out.println("Sender: " + senderName + " <" + senderEmail + ">");
@@ -319,108 +585,143 @@ public class TransactionServiceImpl implements TransactionService {
         System.out.println("\n");
         System.out.println("=== FETCHING TRANSACTIONS FOR ACCOUNT NUMBER: " + accountNumber + " ===");
         
-        List<Transaction> transactions = new ArrayList<>();
-        
-        String query = "SELECT t.* FROM Account a " +
-                      "JOIN Transaction t ON a.account_id = t.account_id " +
-                      "WHERE t.sender_account_number = ? OR t.receiver_account_number = ? " +
-                      "ORDER BY t.created_date DESC";
-
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, accountNumber);
-            stmt.setString(2, accountNumber);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                Transaction transaction = new Transaction();
-                
-                transaction.setTransactionId(rs.getString("transaction_id"));
-                transaction.setSenderAccountNumber(rs.getString("sender_account_number"));
-                transaction.setReceiverAccountNumber(rs.getString("receiver_account_number"));
-                transaction.setAmount(rs.getBigDecimal("amount"));
-                transaction.setTransactionType(rs.getString("transaction_type"));
-                transaction.setDescription(rs.getString("description"));
-                transaction.setCreatedDate(rs.getTimestamp("created_date").toLocalDateTime());
-                
-                transactions.add(transaction);
-            }
-            
+        try {
+            List<Transaction> transactions = transactionRepository.findByAccountNumber(accountNumber);
             System.out.println("Found " + transactions.size() + " transactions");
+            return transactions;
             
         } catch (SQLException e) {
             System.err.println("Error fetching transactions: " + e.getMessage());
             e.printStackTrace();
         }
         
-        return transactions;
+        return new ArrayList<>();
     }
 
-    private String getAccountIdByAccountNumber(Connection conn, String accountNumber) throws SQLException {
-        String query = "SELECT account_id FROM Account WHERE account_number = ?";
-        
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, accountNumber);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getString("account_id");
-            }
+    @Override
+    public List<Transaction> getTransactionsByAccountNumber(String accountNumber, LocalDateTime from, LocalDateTime to) {
+        System.out.println("\n");
+        System.out.println("=== FETCHING TRANSACTIONS FOR ACCOUNT NUMBER: " + accountNumber + " ===");
+        System.out.println("Date range: " + (from != null ? from : "*") + " to " + (to != null ? to : "*"));
+
+        try {
+            List<Transaction> transactions = transactionRepository.findByAccountNumberBetween(accountNumber, from, to);
+            System.out.println("Found " + transactions.size() + " transactions");
+            return transactions;
+
+        } catch (SQLException e) {
+            System.err.println("Error fetching transactions: " + e.getMessage());
+            e.printStackTrace();
         }
-        
-        return null;
+
+        return new ArrayList<>();
     }
 
-    private BigDecimal getAccountBalance(Connection conn, String accountId) throws SQLException {
-        String query = "SELECT amount FROM Account WHERE account_id = ?";
-        
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, accountId);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getBigDecimal("amount");
+    // Reads one row past the page to tell whether another page follows.
+    @Override
+    public TransactionPage getTransactionPage(String accountNumber, LocalDateTime from, LocalDateTime to,
+                                              TransactionCursor after, int limit) {
+        System.out.println("\n");
+        System.out.println("=== FETCHING TRANSACTION PAGE FOR ACCOUNT NUMBER: " + accountNumber + " ===");
+        System.out.println("Limit: " + limit + ", after: " + (after != null ? after.getCreatedDate() + " " + after.getTransactionId() : "start"));
+
+        try {
+            List<Transaction> transactions = transactionRepository.findPageByAccountNumber(accountNumber, from, to, after, limit + 1);
+            String nextCursor = null;
+            if (transactions.size() > limit) {
+                transactions = new ArrayList<>(transactions.subList(0, limit));
+                nextCursor = TransactionCursor.after(transactions.get(limit - 1)).encode();
             }
+            System.out.println("Found " + transactions.size() + " transactions" + (nextCursor != null ? ", more follow" : ""));
+            return new TransactionPage(transactions, nextCursor, limit);
+
+        } catch (SQLException e) {
+            System.err.println("Error fetching transaction page: " + e.getMessage());
+            e.printStackTrace();
+            return null;
         }
-        
-        return BigDecimal.ZERO;
     }
 
     @Override
     public List<Transaction> getAllTransactions() {
         System.out.println("\n=== FETCHING ALL TRANSACTIONS ===");
         
-        List<Transaction> transactions = new ArrayList<>();
-        
-        String query = "SELECT * FROM Transaction ORDER BY created_date DESC";
-
-        try (Connection conn = DBConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-            
-            while (rs.next()) {
-                Transaction transaction = new Transaction();
-                
-                transaction.setTransactionId(rs.getString("transaction_id"));
-                transaction.setSenderAccountNumber(rs.getString("sender_account_number"));
-                transaction.setReceiverAccountNumber(rs.getString("receiver_account_number"));
-                transaction.setAmount(rs.getBigDecimal("amount"));
-                transaction.setTransactionType(rs.getString("transaction_type"));
-                transaction.setDescription(rs.getString("description"));
-                transaction.setCreatedDate(rs.getTimestamp("created_date").toLocalDateTime());
-                
-                transactions.add(transaction);
-            }
-            
+        try {
+            List<Transaction> transactions = transactionRepository.findAll();
             System.out.println("Total transactions fetched: " + transactions.size());
+            return transactions;
             
         } catch (SQLException e) {
             System.err.println("Error fetching all transactions: " + e.getMessage());
             e.printStackTrace();
         }
         
-        return transactions;
+        return new ArrayList<>();
+    }
+
+    @Override
+    public List<Transaction> getTransactionsBetween(LocalDateTime from, LocalDateTime to) {
+        System.out.println("\n=== FETCHING TRANSACTIONS FROM " + (from != null ? from : "*") + " TO " + (to != null ? to : "*") + " ===");
+
+        try {
+            List<Transaction> transactions = transactionRepository.findAllBetween(from, to);
+            System.out.println("Transactions fetched: " + transactions.size());
+            return transactions;
+
+        } catch (SQLException e) {
+            System.err.println("Error fetching transactions by date range: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return new ArrayList<>();
+    }
+
+    @Override
+    public boolean streamTransactionsBetween(LocalDateTime from, LocalDateTime to, RowConsumer<Transaction> consumer)
+            throws IOException {
+        System.out.println("\n=== STREAMING TRANSACTIONS FROM " + (from != null ? from : "*") + " TO " + (to != null ? to : "*") + " ===");
+
+        try {
+            transactionRepository.streamAllBetween(from, to, consumer);
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error streaming transactions: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public Transaction getTransactionByIdempotencyKey(String idempotencyKey) {
+        try {
+            return transactionRepository.findByIdempotencyKey(idempotencyKey);
+        } catch (SQLException e) {
+            System.err.println("Error looking up idempotency key: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    @Override
+    public boolean transactionExists(String transactionId) {
+        try {
+            return transactionRepository.existsById(transactionId);
+        } catch (SQLException e) {
+            System.err.println("Error checking transaction existence: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public boolean deleteTransaction(String transactionId) {
+        try {
+            return transactionRepository.deleteById(transactionId);
+        } catch (SQLException e) {
+            System.err.println("Error deleting transaction: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
     }
 }
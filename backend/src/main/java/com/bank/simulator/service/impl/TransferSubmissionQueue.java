@@ -0,0 +1,199 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.model.TransferSubmission;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// Backs POST /transaction/submit. Transfers run on a fixed pool of workers behind a bounded
+// queue; when the queue is full submit() refuses instead of letting bursts pile up on servlet
+// threads. Finished submissions stay queryable until they expire or the table is full.
+public final class TransferSubmissionQueue {
+
+    public static final String PENDING = "PENDING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private static volatile TransferSubmissionQueue instance;
+
+    public interface Task {
+        Outcome run();
+    }
+
+    public static final class Outcome {
+        private final String status;
+        private final String transactionId;
+        private final String message;
+
+        private Outcome(String status, String transactionId, String message) {
+            this.status = status;
+            this.transactionId = transactionId;
+            this.message = message;
+        }
+
+        public static Outcome completed(String transactionId, String message) {
+            return new Outcome(COMPLETED, transactionId, message);
+        }
+
+        // Ran, but its result is not known yet; the transaction id tells whether it settled.
+        public static Outcome pending(String transactionId, String message) {
+            return new Outcome(PENDING, transactionId, message);
+        }
+
+        public static Outcome failed(String message) {
+            return new Outcome(FAILED, null, message);
+        }
+    }
+
+    private static final class Finished {
+        final String submissionId;
+        final long finishedAtMillis;
+
+        Finished(String submissionId, long finishedAtMillis) {
+            this.submissionId = submissionId;
+            this.finishedAtMillis = finishedAtMillis;
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final long ttlMs;
+    private final int maxFinished;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, TransferSubmission> submissions = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Finished> finished = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger finishedCount = new AtomicInteger();
+
+    TransferSubmissionQueue(int workers, int queueCapacity, long ttlMs, int maxFinished, LongSupplier clock) {
+        this.ttlMs = ttlMs;
+        this.maxFinished = maxFinished;
+        this.clock = clock;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "transfer-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public static TransferSubmissionQueue getInstance() {
+        TransferSubmissionQueue queue = instance;
+        if (queue == null) {
+            synchronized (TransferSubmissionQueue.class) {
+                if (instance == null) {
+                    int workers = Integer.parseInt(DBConfig.getProperty("transaction.async.workers", "8").trim());
+                    int capacity = Integer.parseInt(DBConfig.getProperty("transaction.async.queue.capacity", "1000").trim());
+                    long ttlMs = Long.parseLong(DBConfig.getProperty("transaction.async.status.ttl.ms", "3600000").trim());
+                    int maxFinished = Integer.parseInt(DBConfig.getProperty("transaction.async.status.max.entries", "100000").trim());
+
+                    instance = new TransferSubmissionQueue(workers, capacity, ttlMs, maxFinished, System::currentTimeMillis);
+                    System.out.println("=== ASYNC TRANSFER QUEUE STARTED ===");
+                    System.out.println("Workers: " + workers + ", queue capacity: " + capacity);
+                }
+                queue = instance;
+            }
+        }
+        return queue;
+    }
+
+    public static synchronized void shutdownIfStarted() {
+        if (instance != null) {
+            instance.shutdown(30_000);
+            instance = null;
+        }
+    }
+
+    // Returns null when the queue is full.
+    public TransferSubmission submit(Task task) {
+        expireFinished();
+
+        String submissionId = "TRF_" + UUID.randomUUID().toString().replace("-", "").toUpperCase();
+        TransferSubmission submission = new TransferSubmission(submissionId, PENDING, null,
+                "Transfer accepted for processing", LocalDateTime.now(), null);
+        submissions.put(submissionId, submission);
+
+        try {
+            executor.execute(() -> process(submission, task));
+        } catch (RejectedExecutionException e) {
+            submissions.remove(submissionId);
+            return null;
+        }
+        return snapshot(submission);
+    }
+
+    public TransferSubmission getSubmission(String submissionId) {
+        TransferSubmission submission = submissionId != null ? submissions.get(submissionId) : null;
+        return submission != null ? snapshot(submission) : null;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public void shutdown(long timeoutMs) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                System.err.println("Async transfers still running after " + timeoutMs + " ms: "
+                        + executor.getActiveCount() + " active, " + executor.getQueue().size() + " queued");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void process(TransferSubmission submission, Task task) {
+        Outcome outcome;
+        try {
+            outcome = task.run();
+        } catch (RuntimeException e) {
+            System.err.println("Async transfer " + submission.getSubmissionId() + " failed: " + e.getMessage());
+            e.printStackTrace();
+            outcome = Outcome.failed("Internal server error: " + e.getMessage());
+        }
+
+        synchronized (submission) {
+            submission.setStatus(outcome.status);
+            submission.setTransactionId(outcome.transactionId);
+            submission.setMessage(outcome.message);
+            submission.setCompletedAt(LocalDateTime.now());
+        }
+        finished.add(new Finished(submission.getSubmissionId(), clock.getAsLong()));
+        finishedCount.incrementAndGet();
+    }
+
+    // Submissions finish roughly in order, so expired ones sit at the head of the queue.
+    private void expireFinished() {
+        long now = clock.getAsLong();
+        while (true) {
+            Finished head = finished.peek();
+            if (head == null || (head.finishedAtMillis + ttlMs > now && finishedCount.get() <= maxFinished)) {
+                return;
+            }
+            if (finished.remove(head)) {
+                finishedCount.decrementAndGet();
+                submissions.remove(head.submissionId);
+            }
+        }
+    }
+
+    private static TransferSubmission snapshot(TransferSubmission submission) {
+        synchronized (submission) {
+            return new TransferSubmission(submission.getSubmissionId(), submission.getStatus(),
+                    submission.getTransactionId(), submission.getMessage(),
+                    submission.getSubmittedAt(), submission.getCompletedAt());
+        }
+    }
+}
@@ -1,44 +1,24 @@
 package com.bank.simulator.service.impl;
 
-import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.config.UserStatusCache;
 import com.bank.simulator.model.User;
+import com.bank.simulator.repository.RepositoryFactory;
+import com.bank.simulator.repository.RowConsumer;
+import com.bank.simulator.repository.UserRepository;
+import com.bank.simulator.service.SequenceService;
 import com.bank.simulator.service.UserService;
 
-import java.sql.*;
+import java.io.IOException;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.List;
 
 public class UserServiceImpl implements UserService {
     
-    private static final AtomicInteger userCounter;
-    
-    static {
-        userCounter = new AtomicInteger(getMaxUserIdFromDB() + 1);
-        System.out.println("=== USER SERVICE INITIALIZED ===");
-        System.out.println("Starting user counter at: " + userCounter.get());
-    }
-    
-    private static int getMaxUserIdFromDB() {
-        String query = "SELECT MAX(CAST(SUBSTRING(id, 6) AS UNSIGNED)) as max_id FROM User";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                int maxId = rs.getInt("max_id");
-                System.out.println("Loaded max user ID from database: " + maxId);
-                return maxId;
-            }
-        } catch (SQLException e) {
-            System.err.println("Warning: Could not load max user ID from database");
-            System.err.println("Error: " + e.getMessage());
-            System.err.println("Starting counter from 0 (first ID will be USER_1)");
-        }
-        
-        return 0;
-    }
+    private final UserRepository userRepository = RepositoryFactory.getUserRepository();
+    private final SequenceService sequenceService = new SequenceServiceImpl();
+    private final UserStatusCache userStatusCache = UserStatusCache.getInstance();
 
     @Override
     public String createUser(User user) {
@@ -52,25 +32,10 @@ public class UserServiceImpl implements UserService {
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
         
-        String query = """
-            INSERT INTO User (id, full_name, email, password, active, created_at, updated_at) 
-            VALUES (?, ?, ?, ?, ?, ?, ?)
-        """;
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, user.getId());
-            stmt.setString(2, user.getFullName());
-            stmt.setString(3, user.getEmail());
-            stmt.setString(4, user.getPassword());
-            stmt.setBoolean(5, user.isActive());
-            stmt.setTimestamp(6, Timestamp.valueOf(user.getCreatedAt()));
-            stmt.setTimestamp(7, Timestamp.valueOf(user.getUpdatedAt()));
-            
-            int result = stmt.executeUpdate();
-            
-            if (result > 0) {
+        try {
+            if (userRepository.insert(user)) {
+                // The transfer checks may have remembered this email as having no user.
+                userStatusCache.invalidate(user.getEmail());
                 System.out.println("User created successfully");
                 System.out.println("User ID: " + userId);
                 return userId;
@@ -91,30 +56,15 @@ public class UserServiceImpl implements UserService {
         System.out.println("\n=== FETCHING USER BY EMAIL ===");
         System.out.println("Email: " + email);
         
-        String query = "SELECT * FROM User WHERE email = ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, email);
-            ResultSet rs = stmt.executeQuery();
+        try {
+            User user = userRepository.findByEmail(email);
             
-            if (rs.next()) {
-                User user = new User();
-                user.setId(rs.getString("id"));
-                user.setFullName(rs.getString("full_name"));
-                user.setEmail(rs.getString("email"));
-                user.setPassword(rs.getString("password"));
-                user.setActive(rs.getBoolean("active"));
-                user.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-                user.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-                
+            if (user != null) {
                 System.out.println("User found: " + user.getFullName());
-                return user;
             } else {
                 System.out.println("User not found");
-                return null;
             }
+            return user;
             
         } catch (SQLException e) {
             System.err.println("Error fetching user by email: " + e.getMessage());
@@ -125,23 +75,14 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public boolean isEmailExists(String email) {
-        String query = "SELECT COUNT(*) FROM User WHERE email = ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, email);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                boolean exists = rs.getInt(1) > 0;
-                if (exists) {
-                    System.out.println("Email already exists: " + email);
-                } else {
-                    System.out.println("Email is unique: " + email);
-                }
-                return exists;
+        try {
+            boolean exists = userRepository.existsByEmail(email);
+            if (exists) {
+                System.out.println("Email already exists: " + email);
+            } else {
+                System.out.println("Email is unique: " + email);
             }
+            return exists;
         } catch (SQLException e) {
             System.err.println("Error checking email existence: " + e.getMessage());
         }
@@ -154,22 +95,15 @@ public User validateLogin(String email, String password) {
     System.out.println("\n=== VALIDATING LOGIN ===");
     System.out.println("Email: " + email);
     
-    String checkEmailQuery = "SELECT * FROM User WHERE email = ?";
-    
-    try (Connection conn = DBConfig.getConnection();
-         PreparedStatement emailStmt = conn.prepareStatement(checkEmailQuery)) {
+    try {
+        User user = userRepository.findByEmail(email);
         
-        emailStmt.setString(1, email);
-        ResultSet emailRs = emailStmt.executeQuery();
-        
-        if (!emailRs.next()) {
+        if (user == null) {
             System.out.println("EMAIL NOT FOUND - User does not exist");
             return null;
         }
         
-        String storedPassword = emailRs.getString("password");
-        
-        if (!password.equals(storedPassword)) {
+        if (!password.equals(user.getPassword())) {
             System.out.println("WRONG PASSWORD - Email exists but password is incorrect");
             User wrongPasswordUser = new User();
             wrongPasswordUser.setEmail(email);
@@ -177,14 +111,7 @@ public User validateLogin(String email, String password) {
             return wrongPasswordUser;
         }
         
-        User user = new User();
-        user.setId(emailRs.getString("id"));
-        user.setFullName(emailRs.getString("full_name"));
-        user.setEmail(emailRs.getString("email"));
         user.setPassword(null);
-        user.setActive(emailRs.getBoolean("active"));
-        user.setCreatedAt(emailRs.getTimestamp("created_at").toLocalDateTime());
-        user.setUpdatedAt(emailRs.getTimestamp("updated_at").toLocalDateTime());
         
         System.out.println("User found: " + user.getFullName());
         System.out.println("User account status: " + (user.isActive() ? "Active" : "Inactive"));
@@ -204,18 +131,9 @@ public User validateLogin(String email, String password) {
         System.out.println("Email: " + email);
         System.out.println("New Status: " + (active ? "Active" : "Inactive"));
         
-        String query = "UPDATE User SET active = ?, updated_at = ? WHERE email = ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setBoolean(1, active);
-            stmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
-            stmt.setString(3, email);
-            
-            int result = stmt.executeUpdate();
-            
-            if (result > 0) {
+        try {
+            if (userRepository.updateStatus(email, active, LocalDateTime.now())) {
+                userStatusCache.invalidate(email);
                 System.out.println("User status updated successfully");
                 return true;
             } else {
@@ -226,6 +144,8 @@ public User validateLogin(String email, String password) {
         } catch (SQLException e) {
             System.err.println("Error updating user status: " + e.getMessage());
             e.printStackTrace();
+            // The update may have committed before the error surfaced.
+            userStatusCache.invalidate(email);
             return false;
         }
     }
@@ -235,30 +155,15 @@ public User validateLogin(String email, String password) {
         System.out.println("\n=== FETCHING USER BY ID ===");
         System.out.println("User ID: " + userId);
         
-        String query = "SELECT * FROM User WHERE id = ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, userId);
-            ResultSet rs = stmt.executeQuery();
+        try {
+            User user = userRepository.findById(userId);
             
-            if (rs.next()) {
-                User user = new User();
-                user.setId(rs.getString("id"));
-                user.setFullName(rs.getString("full_name"));
-                user.setEmail(rs.getString("email"));
-                user.setPassword(rs.getString("password"));
-                user.setActive(rs.getBoolean("active"));
-                user.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-                user.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-                
+            if (user != null) {
                 System.out.println("User found: " + user.getFullName());
-                return user;
             } else {
                 System.out.println("User not found");
-                return null;
             }
+            return user;
             
         } catch (SQLException e) {
             System.err.println("Error fetching user by ID: " + e.getMessage());
@@ -266,9 +171,34 @@ public User validateLogin(String email, String password) {
             return null;
         }
     }
+
+    @Override
+    public List<User> getAllUsers() {
+        try {
+            List<User> users = userRepository.findAll();
+            System.out.println("Retrieved " + users.size() + " users");
+            return users;
+        } catch (SQLException e) {
+            System.err.println("Error fetching all users: " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public boolean streamAllUsers(RowConsumer<User> consumer) throws IOException {
+        try {
+            userRepository.streamAll(consumer);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error streaming all users: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
     
     @Override
     public String generateUserId() {
-        return "USER_" + userCounter.getAndIncrement();
+        return "USER_" + sequenceService.nextValue(SequenceService.USER_SEQUENCE);
     }
 }
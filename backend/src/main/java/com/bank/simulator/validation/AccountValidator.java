@@ -1,12 +1,12 @@
 package com.bank.simulator.validation;
 
-import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.config.CustomerCache;
 import com.bank.simulator.model.Account;
+import com.bank.simulator.repository.AccountRepository;
+import com.bank.simulator.repository.CustomerRepository;
+import com.bank.simulator.repository.RepositoryFactory;
 
 import java.math.BigDecimal;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.regex.Pattern;
 
@@ -17,6 +17,9 @@ public class AccountValidator {
     private static final Pattern AADHAR_PATTERN = Pattern.compile("^[0-9]{12}$");
     private static final Pattern ACCOUNT_NUMBER_PATTERN = Pattern.compile("^[0-9]{10,25}$");
 
+    private final AccountRepository accountRepository = RepositoryFactory.getAccountRepository();
+    private final CustomerRepository customerRepository = RepositoryFactory.getCustomerRepository();
+
     
     public ValidationResult validateAccountForCreation(Account account) {
         System.out.println("=== ACCOUNT CREATION VALIDATION STARTED ===");
@@ -215,15 +218,9 @@ public class AccountValidator {
     }
 
     public ValidationResult validateAadharExistsInCustomer(String aadharNumber) {
-        String query = "SELECT COUNT(*) FROM Customer WHERE aadhar_number = ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, aadharNumber);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next() && rs.getInt(1) > 0) {
+        try {
+            if (CustomerCache.getInstance().aadharNumberExists(aadharNumber,
+                    () -> customerRepository.existsByAadharNumber(aadharNumber))) {
                 System.out.println(" Aadhar number found in Customer Module: " + aadharNumber);
                 return ValidationResult.success();
             } else {
@@ -396,15 +393,8 @@ public ValidationResult validateAccountNumberFormat(String accountNumber) {
 
  
     public ValidationResult validateAccountNumberUniqueness(String accountNumber) {
-        String query = "SELECT COUNT(*) FROM Account WHERE account_number = ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, accountNumber);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next() && rs.getInt(1) > 0) {
+        try {
+            if (accountRepository.existsByAccountNumber(accountNumber)) {
                 System.out.println("=== DUPLICATE ACCOUNT NUMBER ===");
                 System.out.println("Account Number: " + accountNumber);
                 return ValidationResult.failure("Account number already exists. Please use a unique account number.");
@@ -421,16 +411,8 @@ public ValidationResult validateAccountNumberFormat(String accountNumber) {
 
     
     public ValidationResult validateAccountNumberUniquenessForUpdate(String currentAccountId, String accountNumber) {
-        String query = "SELECT COUNT(*) FROM Account WHERE account_number = ? AND account_id != ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, accountNumber);
-            stmt.setString(2, currentAccountId);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next() && rs.getInt(1) > 0) {
+        try {
+            if (accountRepository.existsByAccountNumberForOtherAccount(accountNumber, currentAccountId)) {
                 System.out.println("=== DUPLICATE ACCOUNT NUMBER (OTHER ACCOUNT) ===");
                 System.out.println("Account Number: " + accountNumber);
                 return ValidationResult.failure("Account number already exists with another account");
@@ -446,15 +428,8 @@ public ValidationResult validateAccountNumberFormat(String accountNumber) {
     }
 
     private boolean accountExists(String accountId) {
-        String query = "SELECT COUNT(*) FROM Account WHERE account_id = ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, accountId);
-            ResultSet rs = stmt.executeQuery();
-            
-            return rs.next() && rs.getInt(1) > 0;
+        try {
+            return accountRepository.existsById(accountId);
             
         } catch (SQLException e) {
             System.err.println("Error checking account existence: " + e.getMessage());
@@ -1,11 +1,10 @@
 package com.bank.simulator.validation;
 
-import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.config.CustomerCache;
 import com.bank.simulator.model.Customer;
+import com.bank.simulator.repository.CustomerRepository;
+import com.bank.simulator.repository.RepositoryFactory;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.Period;
@@ -22,6 +21,9 @@ public class CustomerValidator {
     private static final Pattern AADHAR_PATTERN = 
         Pattern.compile("^[0-9]{12}$");
 
+    private final CustomerRepository customerRepository = RepositoryFactory.getCustomerRepository();
+    private final CustomerCache customerCache = CustomerCache.getInstance();
+
     public ValidationResult validateCustomerForCreation(Customer customer) {
         System.out.println("=== CUSTOMER CREATION VALIDATION STARTED ===");
         System.out.println("Customer Name: " + customer.getName());
@@ -170,16 +172,8 @@ public class CustomerValidator {
     }
 
     public ValidationResult validatePhoneNumberUniqueForUpdate(String customerId, String phoneNumber) {
-        String query = "SELECT COUNT(*) FROM Customer WHERE phone_number = ? AND customer_id != ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, phoneNumber);
-            stmt.setString(2, customerId);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next() && rs.getInt(1) > 0) {
+        try {
+            if (customerRepository.existsByPhoneNumberForOtherCustomer(phoneNumber, customerId)) {
                 System.out.println("=== PHONE NUMBER ALREADY EXISTS (OTHER CUSTOMER) ===");
                 System.out.println("Phone: " + phoneNumber);
                 return ValidationResult.failure("Phone number already exists");
@@ -194,16 +188,8 @@ public class CustomerValidator {
     }
 
     public ValidationResult validateEmailUniqueForUpdate(String customerId, String email) {
-        String query = "SELECT COUNT(*) FROM Customer WHERE email = ? AND customer_id != ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, email);
-            stmt.setString(2, customerId);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next() && rs.getInt(1) > 0) {
+        try {
+            if (customerRepository.existsByEmailForOtherCustomer(email, customerId)) {
                 System.out.println("=== EMAIL ALREADY EXISTS (OTHER CUSTOMER) ===");
                 System.out.println("Email: " + email);
                 return ValidationResult.failure("Email already exists");
@@ -218,16 +204,8 @@ public class CustomerValidator {
     }
 
     public ValidationResult validateAadharNumberUniqueForUpdate(String customerId, String aadharNumber) {
-        String query = "SELECT COUNT(*) FROM Customer WHERE aadhar_number = ? AND customer_id != ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, aadharNumber);
-            stmt.setString(2, customerId);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next() && rs.getInt(1) > 0) {
+        try {
+            if (customerRepository.existsByAadharNumberForOtherCustomer(aadharNumber, customerId)) {
                 System.out.println("=== AADHAR NUMBER ALREADY EXISTS (OTHER CUSTOMER) ===");
                 System.out.println("Aadhar: " + aadharNumber);
                 return ValidationResult.failure("Aadhar number already exists");
@@ -370,15 +348,9 @@ public class CustomerValidator {
     }
 
     public ValidationResult validatePhoneNumberUniqueness(String phoneNumber) {
-        String query = "SELECT COUNT(*) FROM Customer WHERE phone_number = ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, phoneNumber);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next() && rs.getInt(1) > 0) {
+        try {
+            if (customerCache.phoneNumberExists(phoneNumber,
+                    () -> customerRepository.existsByPhoneNumber(phoneNumber))) {
                 System.out.println("=== PHONE NUMBER ALREADY EXISTS ===");
                 System.out.println("Phone: " + phoneNumber);
                 return ValidationResult.failure("Phone number already exists");
@@ -392,15 +364,8 @@ public class CustomerValidator {
     }
 
     public ValidationResult validateEmailUniqueness(String email) {
-        String query = "SELECT COUNT(*) FROM Customer WHERE email = ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, email);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next() && rs.getInt(1) > 0) {
+        try {
+            if (customerCache.emailExists(email, () -> customerRepository.existsByEmail(email))) {
                 System.out.println("=== EMAIL ALREADY EXISTS ===");
                 System.out.println("Email: " + email);
                 return ValidationResult.failure("Email already exists");
@@ -416,15 +381,9 @@ public class CustomerValidator {
     
 
     public ValidationResult validateAadharNumberUniqueness(String aadharNumber) {
-        String query = "SELECT COUNT(*) FROM Customer WHERE aadhar_number = ?";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, aadharNumber);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next() && rs.getInt(1) > 0) {
+        try {
+            if (customerCache.aadharNumberExists(aadharNumber,
+                    () -> customerRepository.existsByAadharNumber(aadharNumber))) {
                 System.out.println("=== AADHAR NUMBER ALREADY EXISTS ===");
                 System.out.println("Aadhar: " + aadharNumber);
                 return ValidationResult.failure("Aadhar number already exists");
@@ -1,17 +1,25 @@
 package com.bank.simulator.validation;
 
-import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.model.Account;
 import com.bank.simulator.model.Transaction;
+import com.bank.simulator.model.TransferContext;
+import com.bank.simulator.repository.AccountRepository;
+import com.bank.simulator.repository.RepositoryFactory;
 
 import java.math.BigDecimal;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 
 public class TransactionValidator {
 
+    private final AccountRepository accountRepository = RepositoryFactory.getAccountRepository();
+
     public ValidationResult validateTransactionForCreation(Transaction transaction) {
+        return validateTransactionForCreation(transaction, null);
+    }
+
+    // With a context, the existence and balance checks read the rows already loaded for the
+    // request instead of querying the accounts again.
+    public ValidationResult validateTransactionForCreation(Transaction transaction, TransferContext context) {
         System.out.println("=== TRANSACTION VALIDATION STARTED ===");
         
         ValidationResult result = new ValidationResult();
@@ -50,22 +58,25 @@ public class TransactionValidator {
                 return result;
             }
 
-            ValidationResult senderExistsValidation = validateAccountExists(transaction.getSenderAccountNumber());
+            ValidationResult senderExistsValidation = context != null
+                ? validateAccountLoaded(context.getSenderAccount(), transaction.getSenderAccountNumber())
+                : validateAccountExists(transaction.getSenderAccountNumber());
             if (!senderExistsValidation.isValid()) {
                 result.addError("Sender account does not exist", "SENDER_NOT_FOUND");
                 return result;
             }
 
-            ValidationResult receiverExistsValidation = validateAccountExists(transaction.getReceiverAccountNumber());
+            ValidationResult receiverExistsValidation = context != null
+                ? validateAccountLoaded(context.getReceiverAccount(), transaction.getReceiverAccountNumber())
+                : validateAccountExists(transaction.getReceiverAccountNumber());
             if (!receiverExistsValidation.isValid()) {
                 result.addError("Receiver account does not exist", "RECEIVER_NOT_FOUND");
                 return result;
             }
 
-            ValidationResult balanceValidation = validateSufficientBalance(
-                transaction.getSenderAccountNumber(), 
-                transaction.getAmount()
-            );
+            ValidationResult balanceValidation = context != null
+                ? validateBalance(context.getSenderAccount().getAmount(), transaction.getAmount())
+                : validateSufficientBalance(transaction.getSenderAccountNumber(), transaction.getAmount());
             if (!balanceValidation.isValid()) {
                 result.addError(balanceValidation.getFirstErrorMessage(), "INSUFFICIENT_BALANCE");
             }
@@ -80,6 +91,27 @@ public class TransactionValidator {
         return result;
     }
 
+    // The checks that need no database access, for callers that look accounts up in bulk.
+    public ValidationResult validateTransactionFormat(Transaction transaction) {
+        if (transaction == null) {
+            return ValidationResult.failure("Transaction data is required");
+        }
+
+        ValidationResult[] checks = {
+            validateSenderAccountNumber(transaction.getSenderAccountNumber()),
+            validateReceiverAccountNumber(transaction.getReceiverAccountNumber()),
+            validateTransactionAmount(transaction.getAmount()),
+            validateTransactionType(transaction.getTransactionType()),
+            validateDifferentAccounts(transaction.getSenderAccountNumber(), transaction.getReceiverAccountNumber())
+        };
+        for (ValidationResult check : checks) {
+            if (!check.isValid()) {
+                return check;
+            }
+        }
+        return ValidationResult.success();
+    }
+
     private ValidationResult validateSenderAccountNumber(String accountNumber) {
         if (accountNumber == null || accountNumber.trim().isEmpty()) {
             return ValidationResult.failure("Sender account number is required");
@@ -140,15 +172,8 @@ public class TransactionValidator {
     }
 
     private ValidationResult validateAccountExists(String accountNumber) {
-        String query = "SELECT COUNT(*) FROM Account WHERE account_number = ?";
-
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, accountNumber);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next() && rs.getInt(1) > 0) {
+        try {
+            if (accountRepository.existsByAccountNumber(accountNumber)) {
                 return ValidationResult.success();
             } else {
                 return ValidationResult.failure("Account number does not exist: " + accountNumber);
@@ -160,33 +185,36 @@ public class TransactionValidator {
         }
     }
 
-    private ValidationResult validateSufficientBalance(String accountNumber, BigDecimal requiredAmount) {
-        String query = "SELECT amount FROM Account WHERE account_number = ?";
-
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, accountNumber);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                BigDecimal currentBalance = rs.getBigDecimal("amount");
-                System.out.println("Current Balance: " + currentBalance + ", Required: " + requiredAmount);
-
-                if (currentBalance.compareTo(requiredAmount) < 0) {
-                    return ValidationResult.failure(
-                        "Insufficient balance. Available: " + currentBalance + ", Required: " + requiredAmount
-                    );
-                }
+    private ValidationResult validateAccountLoaded(Account account, String accountNumber) {
+        if (account != null) {
+            return ValidationResult.success();
+        }
+        return ValidationResult.failure("Account number does not exist: " + accountNumber);
+    }
 
-                return ValidationResult.success();
-            } else {
-                return ValidationResult.failure("Account not found");
-            }
+    private ValidationResult validateSufficientBalance(String accountNumber, BigDecimal requiredAmount) {
+        try {
+            return validateBalance(accountRepository.findBalanceByAccountNumber(accountNumber), requiredAmount);
 
         } catch (SQLException e) {
             System.err.println("Error checking balance: " + e.getMessage());
             return ValidationResult.failure("Database error while checking balance");
         }
     }
+
+    private ValidationResult validateBalance(BigDecimal currentBalance, BigDecimal requiredAmount) {
+        if (currentBalance == null) {
+            return ValidationResult.failure("Account not found");
+        }
+
+        System.out.println("Current Balance: " + currentBalance + ", Required: " + requiredAmount);
+
+        if (currentBalance.compareTo(requiredAmount) < 0) {
+            return ValidationResult.failure(
+                "Insufficient balance. Available: " + currentBalance + ", Required: " + requiredAmount
+            );
+        }
+
+        return ValidationResult.success();
+    }
 }
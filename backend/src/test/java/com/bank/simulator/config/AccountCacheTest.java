@@ -0,0 +1,162 @@
+package com.bank.simulator.config;
+
+import com.bank.simulator.model.Account;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountCacheTest {
+
+    @Test
+    void testGetByAccountNumber_LoadsOnceAndReturnsCopies() throws Exception {
+        AccountCache cache = new AccountCache(true, 100, 1000, new AtomicLong()::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        Account first = cache.getByAccountNumber("1000000001", () -> {
+            loads.incrementAndGet();
+            return account("ACC_1", "CUST_1", "1000000001", "700.00");
+        });
+        first.setAccountId(null);
+        Account second = cache.getByAccountNumber("1000000001", () -> {
+            loads.incrementAndGet();
+            return null;
+        });
+
+        assertEquals(1, loads.get());
+        assertEquals("ACC_1", second.getAccountId());
+        assertNotSame(first, second);
+        assertEquals(1, cache.getStats().getHits());
+        assertEquals(1, cache.getStats().getMisses());
+    }
+
+    @Test
+    void testGetById_UsesTheAccountNumberEntry() throws Exception {
+        AccountCache cache = new AccountCache(true, 100, 1000, new AtomicLong()::get);
+        cache.getByAccountNumber("1000000001", () -> account("ACC_1", "CUST_1", "1000000001", "700.00"));
+
+        Account byId = cache.getById("ACC_1", () -> fail("should be cached"));
+
+        assertEquals("1000000001", byId.getAccountNumber());
+    }
+
+    @Test
+    void testInvalidate_NextReadSeesTheNewBalance() throws Exception {
+        AccountCache cache = new AccountCache(true, 100, 1000, new AtomicLong()::get);
+        cache.getByAccountNumber("1000000001", () -> account("ACC_1", "CUST_1", "1000000001", "700.00"));
+
+        cache.invalidate("1000000001", "1000000002");
+        Account reloaded = cache.getByAccountNumber("1000000001",
+                () -> account("ACC_1", "CUST_1", "1000000001", "650.00"));
+
+        assertEquals(new BigDecimal("650.00"), reloaded.getAmount());
+        assertEquals(2, cache.getStats().getInvalidations());
+    }
+
+    @Test
+    void testInvalidateById_DropsTheEntry() throws Exception {
+        AccountCache cache = new AccountCache(true, 100, 1000, new AtomicLong()::get);
+        cache.getById("ACC_1", () -> account("ACC_1", "CUST_1", "1000000001", "700.00"));
+
+        cache.invalidateById("ACC_1");
+
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void testInvalidateDuringLoad_StaleRowIsNotInstalled() throws Exception {
+        AccountCache cache = new AccountCache(true, 100, 1000, new AtomicLong()::get);
+
+        Account stale = cache.getByAccountNumber("1000000001", () -> {
+            // A transfer commits and invalidates while the old row is on its way back.
+            cache.invalidate("1000000001");
+            return account("ACC_1", "CUST_1", "1000000001", "700.00");
+        });
+        Account fresh = cache.getByAccountNumber("1000000001",
+                () -> account("ACC_1", "CUST_1", "1000000001", "600.00"));
+
+        assertEquals(new BigDecimal("700.00"), stale.getAmount());
+        assertEquals(new BigDecimal("600.00"), fresh.getAmount());
+    }
+
+    @Test
+    void testInvalidateCustomer_DropsItsAccountsOnly() throws Exception {
+        AccountCache cache = new AccountCache(true, 100, 1000, new AtomicLong()::get);
+        cache.getByAccountNumber("1000000001", () -> account("ACC_1", "CUST_1", "1000000001", "700.00"));
+        cache.getByAccountNumber("1000000002", () -> account("ACC_2", "CUST_2", "1000000002", "700.00"));
+
+        cache.invalidateCustomer("CUST_1");
+
+        assertEquals(1, cache.getStats().getSize());
+        assertNotNull(cache.getById("ACC_2", () -> fail("should be cached")));
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() throws Exception {
+        AtomicLong clock = new AtomicLong(0);
+        AccountCache cache = new AccountCache(true, 100, 1000, clock::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (long now : new long[] {0, 999, 1000}) {
+            clock.set(now);
+            cache.getByAccountNumber("1000000001", () -> {
+                loads.incrementAndGet();
+                return account("ACC_1", "CUST_1", "1000000001", "700.00");
+            });
+        }
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getStats().getExpirations());
+    }
+
+    @Test
+    void testSegmentFull_EvictsLeastRecentlyUsed() throws Exception {
+        // 16 entries over 16 segments leaves room for one account per segment.
+        AccountCache cache = new AccountCache(true, 16, 1000, new AtomicLong()::get);
+        String first = "1000000001";
+        String second = sameSegmentAs(first);
+
+        cache.getByAccountNumber(first, () -> account("ACC_1", "CUST_1", first, "700.00"));
+        cache.getByAccountNumber(second, () -> account("ACC_2", "CUST_1", second, "700.00"));
+
+        assertEquals(1, cache.getStats().getSize());
+        assertEquals(1, cache.getStats().getEvictions());
+        assertNotNull(cache.getById("ACC_2", () -> fail("should be cached")));
+    }
+
+    @Test
+    void testDisabled_AlwaysLoads() throws Exception {
+        AccountCache cache = new AccountCache(false, 100, 1000, new AtomicLong()::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            cache.getByAccountNumber("1000000001", () -> {
+                loads.incrementAndGet();
+                return account("ACC_1", "CUST_1", "1000000001", "700.00");
+            });
+        }
+
+        assertEquals(3, loads.get());
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    private static String sameSegmentAs(String accountNumber) {
+        int segment = Math.floorMod(accountNumber.hashCode(), 16);
+        for (long candidate = Long.parseLong(accountNumber) + 1; ; candidate++) {
+            String number = Long.toString(candidate);
+            if (Math.floorMod(number.hashCode(), 16) == segment) {
+                return number;
+            }
+        }
+    }
+
+    private static Account account(String accountId, String customerId, String accountNumber, String amount) {
+        return new Account(accountId, customerId, accountNumber, "123456789012", "SBIN0001234", "9876543210",
+                new BigDecimal(amount), "Cache Bank", "Cache Holder", "ACTIVE",
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 1, 0, 0));
+    }
+}
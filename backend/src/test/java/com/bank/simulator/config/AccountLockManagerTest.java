@@ -0,0 +1,118 @@
+package com.bank.simulator.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountLockManagerTest {
+
+    @Test
+    void testAcquire_OppositeDirectionsNeverDeadlock() throws Exception {
+        AccountLockManager lockManager = new AccountLockManager(true, 64, 5000, 100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        long[] balance = new long[1];
+        List<Future<?>> results = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < 8; t++) {
+                final boolean forward = t % 2 == 0;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        AccountLockManager.Lease lease = forward
+                            ? lockManager.acquire("ACC_A", "ACC_B")
+                            : lockManager.acquire("ACC_B", "ACC_A");
+                        assertNotNull(lease);
+                        try (lease) {
+                            balance[0]++;
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(16_000, balance[0]);
+        assertEquals(16_000, lockManager.getAcquisitions());
+        assertEquals(0, lockManager.getTimeouts());
+    }
+
+    @Test
+    void testAcquire_TimesOutAndReleasesPartialLocks() throws Exception {
+        AccountLockManager lockManager = new AccountLockManager(true, 1024, 50, 100);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            executor.submit(() -> {
+                AccountLockManager.Lease lease = lockManager.acquire("ACC_HOT", "ACC_HOT");
+                try (lease) {
+                    held.countDown();
+                    release.await();
+                }
+                return null;
+            });
+            assertTrue(held.await(5, TimeUnit.SECONDS));
+
+            assertNull(lockManager.acquire("ACC_OTHER", "ACC_HOT"));
+            assertEquals(1, lockManager.getTimeouts());
+
+            List<HotAccountStats> hot = lockManager.getHotAccounts(10);
+            assertEquals(1, hot.size());
+            assertEquals("ACC_HOT", hot.get(0).getAccountNumber());
+            assertEquals(1, hot.get(0).getContendedAcquisitions());
+            assertEquals(0, hot.get(0).getWaiting());
+            assertTrue(hot.get(0).getMeanWaitMillis() >= 40, "mean wait was " + hot.get(0).getMeanWaitMillis());
+
+            release.countDown();
+            try (AccountLockManager.Lease lease = lockManager.acquire("ACC_OTHER", "ACC_SOMEWHERE")) {
+                assertNotNull(lease);
+            }
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testHotAccounts_TrackingIsBounded() throws Exception {
+        AccountLockManager lockManager = new AccountLockManager(true, 1, 1, 3);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            executor.submit(() -> {
+                AccountLockManager.Lease lease = lockManager.acquire("ACC_HOLDER", "ACC_HOLDER");
+                try (lease) {
+                    held.countDown();
+                    release.await();
+                }
+                return null;
+            });
+            assertTrue(held.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 10; i++) {
+                assertNull(lockManager.acquire("ACC_" + i, "ACC_" + i));
+            }
+            assertTrue(lockManager.getHotAccounts(100).size() <= 3);
+            assertEquals(2, lockManager.getHotAccounts(2).size());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.bank.simulator.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolTest {
+
+    private static final String URL_PREFIX = "jdbc:pool-test:";
+    private static final Map<String, List<Physical>> OPENED = new ConcurrentHashMap<>();
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private String url;
+    private ConnectionPool pool;
+
+    @BeforeAll
+    static void registerDriver() throws SQLException {
+        DriverManager.registerDriver(new FakeDriver());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        OPENED.remove(url);
+    }
+
+    @Test
+    void testGetConnection_WaitsAtMaxSizeThenTimesOut() throws Exception {
+        pool = pool(1, 100);
+
+        Connection held = pool.getConnection();
+        assertThrows(SQLTimeoutException.class, pool::getConnection);
+        assertEquals(1, pool.getStats().getAcquireTimeouts());
+
+        held.close();
+        try (Connection again = pool.getConnection()) {
+            assertFalse(again.isClosed());
+        }
+        assertEquals(1, pool.getStats().getConnectionsCreated());
+        assertEquals(1, pool.getStats().getIdleConnections());
+    }
+
+    @Test
+    void testRelease_RollsBackAndResetsTheConnection() throws Exception {
+        pool = pool(2, 1000);
+
+        Connection conn = pool.getConnection();
+        conn.setAutoCommit(false);
+        conn.setReadOnly(true);
+        conn.close();
+
+        Physical physical = opened().get(0);
+        assertEquals(1, physical.rollbacks);
+        assertTrue(physical.autoCommit);
+        assertFalse(physical.readOnly);
+        assertFalse(physical.closed);
+    }
+
+    @Test
+    void testRelease_ConnectionThatCannotBeResetIsDiscarded() throws Exception {
+        pool = pool(2, 1000);
+
+        Connection conn = pool.getConnection();
+        conn.setAutoCommit(false);
+        opened().get(0).failure = new SQLException("rollback failed", "HY000");
+        conn.close();
+
+        assertTrue(opened().get(0).closed);
+        assertEquals(0, pool.getStats().getTotalConnections());
+    }
+
+    @Test
+    void testConnectionError_SqlState08IsDiscardedOnRelease() throws Exception {
+        pool = pool(2, 1000);
+
+        Connection conn = pool.getConnection();
+        opened().get(0).failure = new SQLException("Communications link failure", "08S01");
+        SQLException e = assertThrows(SQLException.class, conn::createStatement);
+        assertEquals("08S01", e.getSQLState());
+        conn.close();
+
+        assertTrue(opened().get(0).closed);
+        try (Connection fresh = pool.getConnection()) {
+            assertFalse(fresh.isClosed());
+        }
+        assertEquals(2, pool.getStats().getConnectionsCreated());
+        assertEquals(1, pool.getStats().getConnectionsClosed());
+    }
+
+    @Test
+    void testConnectionError_OtherSqlStatesKeepTheConnection() throws Exception {
+        pool = pool(2, 1000);
+
+        Connection conn = pool.getConnection();
+        opened().get(0).failure = new SQLException("You have an error in your SQL syntax", "42000");
+        assertThrows(SQLException.class, conn::createStatement);
+        opened().get(0).failure = null;
+        conn.close();
+
+        try (Connection again = pool.getConnection()) {
+            assertFalse(again.isClosed());
+        }
+        assertFalse(opened().get(0).closed);
+        assertEquals(1, pool.getStats().getConnectionsCreated());
+    }
+
+    @Test
+    void testReturnedConnection_CannotBeUsedOrReturnedTwice() throws Exception {
+        pool = pool(1, 100);
+
+        Connection conn = pool.getConnection();
+        conn.close();
+        conn.close();
+
+        assertTrue(conn.isClosed());
+        assertThrows(SQLException.class, conn::createStatement);
+        // A second close must not free a second permit.
+        Connection first = pool.getConnection();
+        assertThrows(SQLTimeoutException.class, pool::getConnection);
+        first.close();
+    }
+
+    @Test
+    void testCommittedWrite_ReportedOnlyForWritesThatCommit() throws Exception {
+        pool = pool(2, 1000);
+        AtomicInteger committed = new AtomicInteger();
+        pool.onCommittedWrite(committed::incrementAndGet);
+
+        try (Connection read = pool.getConnection()) {
+            read.prepareStatement("SELECT amount FROM Account WHERE account_number = ?");
+        }
+        assertEquals(0, committed.get());
+
+        try (Connection write = pool.getConnection()) {
+            write.prepareStatement("  update Account SET amount = ? WHERE account_id = ?");
+        }
+        assertEquals(1, committed.get());
+
+        try (Connection transaction = pool.getConnection()) {
+            transaction.setAutoCommit(false);
+            transaction.prepareStatement("INSERT INTO Transaction VALUES (?)");
+            transaction.rollback();
+            transaction.prepareStatement("DELETE FROM Transaction WHERE transaction_id = ?");
+            transaction.commit();
+            transaction.setAutoCommit(true);
+        }
+        assertEquals(2, committed.get());
+
+        // Left uncommitted, the write is rolled back when the connection is returned.
+        try (Connection abandoned = pool.getConnection()) {
+            abandoned.setAutoCommit(false);
+            abandoned.prepareStatement("INSERT INTO Transaction VALUES (?)");
+        }
+        assertEquals(2, committed.get());
+
+        assertTrue(ConnectionPool.isWrite("INSERT IGNORE INTO t VALUES (1)"));
+        assertTrue(ConnectionPool.isWrite("\n  replace into t VALUES (1)"));
+        assertFalse(ConnectionPool.isWrite("SELECT * FROM t FOR UPDATE"));
+        assertFalse(ConnectionPool.isWrite("UPDATED"));
+        assertFalse(ConnectionPool.isWrite(""));
+    }
+
+    private ConnectionPool pool(int maxSize, long acquireTimeoutMs) {
+        url = URL_PREFIX + SEQUENCE.incrementAndGet();
+        OPENED.put(url, new CopyOnWriteArrayList<>());
+
+        Properties props = new Properties();
+        props.setProperty("db.pool.max.size", String.valueOf(maxSize));
+        props.setProperty("db.pool.min.size", "0");
+        props.setProperty("db.pool.acquire.timeout.ms", String.valueOf(acquireTimeoutMs));
+        props.setProperty("db.pool.housekeeping.interval.ms", "60000");
+        return new ConnectionPool("test", url, "user", "secret", props, "db.pool.", new LeakDetector(new Properties()));
+    }
+
+    private List<Physical> opened() {
+        return OPENED.get(url);
+    }
+
+    // Records what the pool does to the physical connection. While failure is set, every
+    // call that can fail on a real connection throws it.
+    private static final class Physical implements InvocationHandler {
+        boolean autoCommit = true;
+        boolean readOnly;
+        boolean closed;
+        int rollbacks;
+        SQLException failure;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "isValid":
+                    return !closed;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Physical";
+                default:
+                    break;
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            switch (method.getName()) {
+                case "getAutoCommit":
+                    return autoCommit;
+                case "setAutoCommit":
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                case "isReadOnly":
+                    return readOnly;
+                case "setReadOnly":
+                    readOnly = (Boolean) args[0];
+                    return null;
+                case "rollback":
+                    rollbacks++;
+                    return null;
+                case "commit":
+                    return null;
+                case "prepareStatement":
+                    return Proxy.newProxyInstance(ConnectionPoolTest.class.getClassLoader(),
+                            new Class<?>[] { PreparedStatement.class }, (statement, call, callArgs) -> null);
+                case "clearWarnings":
+                case "createStatement":
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }
+    }
+
+    private static final class FakeDriver implements Driver {
+        @Override
+        public Connection connect(String url, Properties info) {
+            List<Physical> opened = OPENED.get(url);
+            if (opened == null) {
+                return null;
+            }
+            Physical physical = new Physical();
+            opened.add(physical);
+            return (Connection) Proxy.newProxyInstance(ConnectionPoolTest.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, physical);
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url.startsWith(URL_PREFIX);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getGlobal();
+        }
+    }
+}
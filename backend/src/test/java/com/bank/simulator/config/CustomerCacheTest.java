@@ -0,0 +1,173 @@
+package com.bank.simulator.config;
+
+import com.bank.simulator.model.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerCacheTest {
+
+    private final List<Customer> table = new ArrayList<>();
+    private final AtomicInteger scans = new AtomicInteger();
+
+    private CustomerCache cache(int maxEntries, AtomicLong clock) {
+        return new CustomerCache(true, maxEntries, 1000, consumer -> {
+            scans.incrementAndGet();
+            for (Customer customer : table) {
+                consumer.accept(customer);
+            }
+        }, clock::get);
+    }
+
+    @Test
+    void testGetByAadhar_ThenByPhoneAndId_HitTheSameEntry() throws Exception {
+        CustomerCache cache = cache(100, new AtomicLong());
+        AtomicInteger loads = new AtomicInteger();
+
+        Customer first = cache.getByAadharNumber("123456789012", () -> {
+            loads.incrementAndGet();
+            return customer("CUST_1", "9876543210", "one@example.com", "123456789012");
+        });
+        first.setName(null);
+
+        assertEquals("One", cache.getByPhoneNumber("9876543210", () -> fail("should be cached")).getName());
+        assertEquals("One", cache.getById("CUST_1", () -> fail("should be cached")).getName());
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.getStats().getHits());
+    }
+
+    @Test
+    void testExistsChecks_AnsweredFromMemoryOnceWarm() throws Exception {
+        table.add(customer("CUST_1", "9876543210", "One@Example.com", "123456789012"));
+        CustomerCache cache = cache(100, new AtomicLong());
+
+        assertTrue(cache.phoneNumberExists("9876543210", () -> fail("should be warm")));
+        assertTrue(cache.emailExists("one@example.COM", () -> fail("should be warm")));
+        assertFalse(cache.aadharNumberExists("999999999999", () -> fail("should be warm")));
+        assertNull(cache.getByPhoneNumber("9000000000", () -> fail("should be warm")));
+        assertTrue(cache.isWarm());
+        assertEquals(1, scans.get());
+    }
+
+    @Test
+    void testPut_NewCustomerIsSeenByTheWarmCache() throws Exception {
+        CustomerCache cache = cache(100, new AtomicLong());
+        assertFalse(cache.phoneNumberExists("9876543210", () -> fail("should be warm")));
+
+        cache.put(customer("CUST_1", "9876543210", "one@example.com", "123456789012"));
+
+        assertTrue(cache.phoneNumberExists("9876543210", () -> fail("should be warm")));
+        assertTrue(cache.emailExists("one@example.com", () -> fail("should be warm")));
+    }
+
+    @Test
+    void testReplace_MovesTheIndexesToTheNewValues() throws Exception {
+        table.add(customer("CUST_1", "9876543210", "one@example.com", "123456789012"));
+        CustomerCache cache = cache(100, new AtomicLong());
+        cache.phoneNumberExists("9876543210", () -> fail("should be warm"));
+
+        cache.replace("CUST_1", () -> customer("CUST_1", "9123456789", "new@example.com", "123456789012"));
+
+        assertFalse(cache.phoneNumberExists("9876543210", () -> fail("should be warm")));
+        assertFalse(cache.emailExists("one@example.com", () -> fail("should be warm")));
+        assertTrue(cache.phoneNumberExists("9123456789", () -> fail("should be warm")));
+        assertEquals("new@example.com", cache.getByAadharNumber("123456789012", () -> fail("should be cached")).getEmail());
+    }
+
+    @Test
+    void testReplace_FailedReloadStopsTrustingMisses() throws Exception {
+        CustomerCache cache = cache(100, new AtomicLong());
+        cache.phoneNumberExists("9876543210", () -> fail("should be warm"));
+
+        cache.replace("CUST_1", () -> {
+            throw new SQLException("connection lost");
+        });
+
+        assertFalse(cache.isWarm());
+    }
+
+    @Test
+    void testRemove_DropsEveryIndexAndStaysWarm() throws Exception {
+        table.add(customer("CUST_1", "9876543210", "shared@example.com", "123456789012"));
+        table.add(customer("CUST_2", "9123456789", "shared@example.com", "210987654321"));
+        CustomerCache cache = cache(100, new AtomicLong());
+        cache.aadharNumberExists("123456789012", () -> fail("should be warm"));
+
+        cache.remove("CUST_1");
+
+        assertFalse(cache.aadharNumberExists("123456789012", () -> fail("should be warm")));
+        assertFalse(cache.phoneNumberExists("9876543210", () -> fail("should be warm")));
+        assertTrue(cache.emailExists("shared@example.com", () -> fail("should be warm")));
+        assertNull(cache.getById("CUST_1", () -> fail("should be warm")));
+        assertTrue(cache.isWarm());
+    }
+
+    @Test
+    void testWriteDuringLoad_StaleRowIsNotInstalled() throws Exception {
+        CustomerCache cache = cache(100, new AtomicLong());
+
+        cache.getById("CUST_1", () -> {
+            cache.remove("CUST_1");
+            return customer("CUST_1", "9876543210", "one@example.com", "123456789012");
+        });
+
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void testTooManyCustomers_NeverWarmsAndFallsBackToTheRepository() throws Exception {
+        table.add(customer("CUST_1", "9876543210", "one@example.com", "123456789012"));
+        table.add(customer("CUST_2", "9123456789", "two@example.com", "210987654321"));
+        CustomerCache cache = cache(1, new AtomicLong());
+        AtomicInteger checks = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            cache.phoneNumberExists("9000000000", () -> checks.incrementAndGet() < 0);
+        }
+
+        assertFalse(cache.isWarm());
+        assertEquals(1, scans.get());
+        assertEquals(3, checks.get());
+    }
+
+    @Test
+    void testWarmStateExpiresAfterTtl() throws Exception {
+        AtomicLong clock = new AtomicLong(0);
+        CustomerCache cache = cache(100, clock);
+        cache.phoneNumberExists("9876543210", () -> fail("should be warm"));
+
+        // Another node onboards the customer; this one sees it once the TTL runs out.
+        table.add(customer("CUST_1", "9876543210", "one@example.com", "123456789012"));
+        clock.set(999);
+        assertFalse(cache.phoneNumberExists("9876543210", () -> fail("should be warm")));
+        clock.set(1000);
+        assertTrue(cache.phoneNumberExists("9876543210", () -> fail("should be warm")));
+        assertEquals(2, scans.get());
+    }
+
+    @Test
+    void testDisabled_AlwaysAsksTheRepository() throws Exception {
+        CustomerCache cache = new CustomerCache(false, 100, 1000, consumer -> fail("should not scan"),
+                new AtomicLong()::get);
+        AtomicInteger checks = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            cache.emailExists("one@example.com", () -> checks.incrementAndGet() > 0);
+        }
+
+        assertEquals(3, checks.get());
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    private static Customer customer(String customerId, String phoneNumber, String email, String aadharNumber) {
+        return new Customer(customerId, "One", phoneNumber, email, "1 Cache Street", "1234",
+                aadharNumber, LocalDate.of(1990, 1, 1), "Active");
+    }
+}
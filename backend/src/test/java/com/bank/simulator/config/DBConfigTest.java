@@ -0,0 +1,36 @@
+package com.bank.simulator.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DBConfigTest {
+
+    @Test
+    void testReadsFromReplica_OnlyWhileHealthy() {
+        assertTrue(DBConfig.readsFromReplica(true, null, 10_000, 2000));
+        assertFalse(DBConfig.readsFromReplica(false, null, 10_000, 2000));
+    }
+
+    @Test
+    void testReadsFromReplica_RecentWriteStaysOnPrimaryForTheWindow() {
+        assertFalse(DBConfig.readsFromReplica(true, 9_000L, 10_000, 2000));
+        assertFalse(DBConfig.readsFromReplica(true, 8_001L, 10_000, 2000));
+        assertTrue(DBConfig.readsFromReplica(true, 8_000L, 10_000, 2000));
+    }
+
+    @Test
+    void testNonBlankProperty_BlankOrMissingMeansDefault() {
+        Properties props = new Properties();
+        props.setProperty("db.replica.username", "");
+        props.setProperty("db.replica.password", "   ");
+        props.setProperty("db.replica.url", " jdbc:mysql://replica:3306/bank ");
+
+        assertEquals("root", DBConfig.nonBlankProperty(props, "db.replica.username", "root"));
+        assertEquals("secret", DBConfig.nonBlankProperty(props, "db.replica.password", "secret"));
+        assertEquals("fallback", DBConfig.nonBlankProperty(props, "db.replica.missing", "fallback"));
+        assertEquals("jdbc:mysql://replica:3306/bank", DBConfig.nonBlankProperty(props, "db.replica.url", ""));
+    }
+}
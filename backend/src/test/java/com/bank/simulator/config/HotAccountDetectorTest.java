@@ -0,0 +1,72 @@
+package com.bank.simulator.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotAccountDetectorTest {
+
+    @Test
+    void testRecordCredit_AccountTurnsHotAtThreshold() {
+        AtomicLong clock = new AtomicLong(0);
+        HotAccountDetector detector = new HotAccountDetector(true, 4, 3, 1000, 100, clock::get);
+
+        assertFalse(detector.recordCredit("ACC1"));
+        assertFalse(detector.recordCredit("ACC1"));
+        assertTrue(detector.recordCredit("ACC1"));
+
+        assertTrue(detector.isHot("ACC1"));
+        assertFalse(detector.isHot("ACC2"));
+        assertEquals(List.of("ACC1"), detector.getHotAccounts());
+    }
+
+    @Test
+    void testRecordCredit_CreditsInOldWindowDoNotCount() {
+        AtomicLong clock = new AtomicLong(0);
+        HotAccountDetector detector = new HotAccountDetector(true, 4, 3, 1000, 100, clock::get);
+
+        detector.recordCredit("ACC1");
+        detector.recordCredit("ACC1");
+        clock.set(1000);
+
+        assertFalse(detector.recordCredit("ACC1"));
+        assertFalse(detector.isHot("ACC1"));
+    }
+
+    @Test
+    void testIsHot_ExpiresAfterHold() {
+        AtomicLong clock = new AtomicLong(0);
+        HotAccountDetector detector = new HotAccountDetector(true, 4, 2, 5000, 100, clock::get);
+
+        detector.recordCredit("ACC1");
+        detector.recordCredit("ACC1");
+
+        clock.set(4999);
+        assertTrue(detector.isHot("ACC1"));
+
+        clock.set(5000);
+        assertFalse(detector.isHot("ACC1"));
+        assertTrue(detector.getHotAccounts().isEmpty());
+    }
+
+    @Test
+    void testRecordCredit_DisabledNeverHot() {
+        HotAccountDetector detector = new HotAccountDetector(false, 4, 1, 1000, 100, () -> 0L);
+
+        assertFalse(detector.recordCredit("ACC1"));
+        assertFalse(detector.isHot("ACC1"));
+    }
+
+    @Test
+    void testNextSlot_RoundRobin() {
+        HotAccountDetector detector = new HotAccountDetector(true, 3, 1, 1000, 100, () -> 0L);
+
+        assertEquals(0, detector.nextSlot());
+        assertEquals(1, detector.nextSlot());
+        assertEquals(2, detector.nextSlot());
+        assertEquals(0, detector.nextSlot());
+    }
+}
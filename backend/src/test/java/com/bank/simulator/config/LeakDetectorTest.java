@@ -0,0 +1,125 @@
+package com.bank.simulator.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeakDetectorTest {
+
+    private LeakDetector detector;
+    private boolean physicalClosed;
+
+    @AfterEach
+    void tearDown() {
+        if (detector != null) {
+            detector.shutdown();
+        }
+    }
+
+    @Test
+    void testAcquisitions_CountedAgainstTheCallerOutsideThePool() {
+        detector = detector(10_000);
+
+        for (int i = 0; i < 3; i++) {
+            detector.onRelease(detector.onAcquire("test"));
+        }
+
+        List<LeakSiteStats> sites = detector.getTopOffenders(10);
+        assertEquals(1, sites.size());
+        assertEquals(3, sites.get(0).getAcquisitions());
+        assertEquals(0, sites.get(0).getLongHolds());
+        // Frames in the config package belong to the pool itself and are skipped.
+        assertFalse(sites.get(0).getCallSite().startsWith("com.bank.simulator.config."), sites.get(0).getCallSite());
+        assertNotEquals("unknown", sites.get(0).getCallSite());
+    }
+
+    @Test
+    void testRelease_CountsAndClosesStatementsLeftOpen() throws Exception {
+        detector = detector(10_000);
+
+        LeakDetector.Lease lease = detector.onAcquire("test");
+        Statement statement = (Statement) detector.wrapStatement(lease, physicalStatement(), Statement.class);
+        statement.executeQuery("SELECT 1");
+        detector.onRelease(lease);
+
+        LeakSiteStats site = detector.getTopOffenders(10).get(0);
+        assertEquals(1, site.getUnclosedStatements());
+        assertEquals(1, site.getUnclosedResultSets());
+        assertTrue(physicalClosed);
+    }
+
+    @Test
+    void testStatementClose_CountsTheResultSetsItClosed() throws Exception {
+        detector = detector(10_000);
+
+        LeakDetector.Lease lease = detector.onAcquire("test");
+        Statement statement = (Statement) detector.wrapStatement(lease, physicalStatement(), Statement.class);
+        ResultSet resultSet = statement.executeQuery("SELECT 1");
+        statement.close();
+        detector.onRelease(lease);
+
+        LeakSiteStats site = detector.getTopOffenders(10).get(0);
+        assertSame(statement, resultSet.getStatement());
+        assertEquals(1, site.getResultSetsClosedByStatement());
+        assertEquals(0, site.getUnclosedStatements());
+        assertEquals(0, site.getUnclosedResultSets());
+    }
+
+    @Test
+    void testLongHold_ListedWhileHeldAndCountedOnRelease() throws Exception {
+        detector = detector(0);
+
+        LeakDetector.Lease lease = detector.onAcquire("test");
+        Thread.sleep(5);
+        List<Map<String, Object>> held = detector.getLongHeldConnections();
+        detector.onRelease(lease);
+
+        assertEquals(1, held.size());
+        assertEquals("test", held.get(0).get("pool"));
+        assertEquals(1, detector.getTopOffenders(10).get(0).getLongHolds());
+        assertTrue(detector.getLongHeldConnections().isEmpty());
+    }
+
+    @Test
+    void testDisabled_TracksNothing() {
+        detector = new LeakDetector(new Properties());
+
+        LeakDetector.Lease lease = detector.onAcquire("test");
+        detector.onRelease(lease);
+
+        assertNull(lease);
+        assertTrue(detector.getTopOffenders(10).isEmpty());
+    }
+
+    private static LeakDetector detector(long thresholdMs) {
+        Properties props = new Properties();
+        props.setProperty("db.leak.detection.enabled", "true");
+        props.setProperty("db.leak.detection.threshold.ms", String.valueOf(thresholdMs));
+        props.setProperty("db.leak.detection.sweep.interval.ms", "60000");
+        return new LeakDetector(props);
+    }
+
+    private Statement physicalStatement() {
+        return (Statement) Proxy.newProxyInstance(LeakDetectorTest.class.getClassLoader(),
+                new Class<?>[] { Statement.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            physicalClosed = true;
+                            return null;
+                        case "executeQuery":
+                            return Proxy.newProxyInstance(LeakDetectorTest.class.getClassLoader(),
+                                    new Class<?>[] { ResultSet.class }, (resultSet, call, callArgs) -> null);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,61 @@
+package com.bank.simulator.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerCompactorTest {
+
+    @Test
+    void testSafeCutoff_NothingFoldsBeforeMinAge() {
+        LedgerCompactor.Cutoffs cutoffs = new LedgerCompactor.Cutoffs(1000);
+
+        cutoffs.observe(0, 50);
+
+        assertEquals(0, cutoffs.safeCutoff(999, 0));
+        assertEquals(50, cutoffs.safeCutoff(1000, 0));
+    }
+
+    @Test
+    void testSafeCutoff_UsesNewestMaturedSample() {
+        LedgerCompactor.Cutoffs cutoffs = new LedgerCompactor.Cutoffs(1000);
+
+        cutoffs.observe(0, 10);
+        cutoffs.observe(400, 20);
+        cutoffs.observe(800, 30);
+
+        assertEquals(20, cutoffs.safeCutoff(1500, 0));
+        assertEquals(30, cutoffs.safeCutoff(1800, 0));
+    }
+
+    @Test
+    void testSafeCutoff_NeverMovesBackwards() {
+        LedgerCompactor.Cutoffs cutoffs = new LedgerCompactor.Cutoffs(1000);
+
+        cutoffs.observe(0, 40);
+        assertEquals(40, cutoffs.safeCutoff(2000, 0));
+
+        // Rows deleted with their account can lower MAX(entry_id); that must not lower the cutoff.
+        cutoffs.observe(2000, 35);
+        cutoffs.observe(2100, 40);
+        assertEquals(40, cutoffs.safeCutoff(5000, 0));
+
+        cutoffs.observe(5000, 60);
+        assertEquals(40, cutoffs.safeCutoff(5500, 0));
+        assertEquals(60, cutoffs.safeCutoff(6000, 0));
+    }
+
+    @Test
+    void testSafeCutoff_WaitsForTransactionsOpenSinceBeforeTheSample() {
+        LedgerCompactor.Cutoffs cutoffs = new LedgerCompactor.Cutoffs(1000);
+
+        cutoffs.observe(0, 10);
+        cutoffs.observe(3000, 20);
+
+        // A transfer open for 5 s may hold an id below either sample.
+        assertEquals(0, cutoffs.safeCutoff(5000, 5000));
+        // Open for 4.5 s, so it started after the first sample but before the second.
+        assertEquals(10, cutoffs.safeCutoff(5000, 4500));
+        assertEquals(20, cutoffs.safeCutoff(5000, 0));
+    }
+}
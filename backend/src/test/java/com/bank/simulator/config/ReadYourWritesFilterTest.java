@@ -0,0 +1,23 @@
+package com.bank.simulator.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesFilterTest {
+
+    @Test
+    void testLastWriteMillis_LaterOfHeaderAndCookie() {
+        assertEquals(2000L, ReadYourWritesFilter.lastWriteMillis("2000", "1000"));
+        assertEquals(3000L, ReadYourWritesFilter.lastWriteMillis("2000", "3000"));
+        assertEquals(1000L, ReadYourWritesFilter.lastWriteMillis(null, "1000"));
+        assertEquals(2000L, ReadYourWritesFilter.lastWriteMillis(" 2000 ", null));
+    }
+
+    @Test
+    void testLastWriteMillis_IgnoresWhatIsNotATimestamp() {
+        assertNull(ReadYourWritesFilter.lastWriteMillis(null, null));
+        assertNull(ReadYourWritesFilter.lastWriteMillis("", "yesterday"));
+        assertEquals(1000L, ReadYourWritesFilter.lastWriteMillis("soon", "1000"));
+    }
+}
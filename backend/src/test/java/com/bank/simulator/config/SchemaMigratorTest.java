@@ -0,0 +1,68 @@
+package com.bank.simulator.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaMigratorTest {
+
+    // Checksums of the migrations that have shipped. A database that applied one of them
+    // refuses to start against a build where it reads differently, so a change here means a
+    // shipped migration was edited: add a new migration instead.
+    private static final List<String> SHIPPED_CHECKSUMS = List.of(
+            "e8e3199d56a226e8d8dff7389dab12b70dd159fe6b662740cf811ac52a942307",
+            "0104d9f6e78eb64d957629b109b93bdb0527b456823719ffd6533481c6c44e71",
+            "ddf52db1bcd88d8df073247df8bd3d81f3199ba2e1e08277c6eb2e81e0952b9d",
+            "157d63579b4ed674b7179b8b2d7e66faf26a1a79ba5086a0bb7ef85ac46cd578",
+            "0678f0fa2bda6f83c71fe9b32a882f39e7ba1813357c873e5a6616312167ed89",
+            "72a432e26d9d180b2a7116a16e2872d48804dcea888d8ebbdda2802970bea482",
+            "8011fdbfd4d4bcbaf5ad19bfca7b004765ebefcf6e8310e25916b63658519979",
+            "7a0e96c2a8c588d1b7c5a0bb97f8f0708d22db0b0117fcd57ba619fe2e2b6486",
+            "41ea4ff0f8bec5128ea7ed9177166fdd4b18756640c7a4d76b74b45e80f53128");
+
+    @Test
+    void testMigrations_VersionsRunFromOneWithoutGaps() {
+        for (int i = 0; i < SchemaMigrator.MIGRATIONS.size(); i++) {
+            assertEquals(i + 1, SchemaMigrator.MIGRATIONS.get(i).getVersion());
+        }
+    }
+
+    @Test
+    void testMigrations_ShippedMigrationsAreUnchanged() {
+        assertTrue(SchemaMigrator.MIGRATIONS.size() >= SHIPPED_CHECKSUMS.size(), "a shipped migration was removed");
+        for (int i = 0; i < SHIPPED_CHECKSUMS.size(); i++) {
+            SchemaMigration migration = SchemaMigrator.MIGRATIONS.get(i);
+            assertEquals(SHIPPED_CHECKSUMS.get(i), migration.checksum(),
+                    "V" + migration.getVersion() + " (" + migration.getDescription() + ") was edited");
+        }
+    }
+
+    @Test
+    void testMigrations_DescriptionsFitTheMigrationsTable() {
+        for (SchemaMigration migration : SchemaMigrator.MIGRATIONS) {
+            assertFalse(migration.getDescription().isBlank());
+            assertTrue(migration.getDescription().length() <= 200, migration.getDescription());
+            assertFalse(migration.getSteps().isEmpty(), "V" + migration.getVersion() + " has no steps");
+        }
+    }
+
+    @Test
+    void testChecksum_IgnoresWhitespaceButNotSql() {
+        String reformatted = new SchemaMigration(1, "t").sql("CREATE TABLE t (\n    id INT\n)").checksum();
+
+        assertEquals(reformatted, new SchemaMigration(1, "t").sql("CREATE TABLE t ( id INT )").checksum());
+        assertNotEquals(reformatted, new SchemaMigration(1, "t").sql("CREATE TABLE t ( id BIGINT )").checksum());
+    }
+
+    @Test
+    void testChecksum_CoversIndexesAndActionDescriptions() {
+        String index = new SchemaMigration(1, "t").index("t", "idx_t_a", "a").checksum();
+        String action = new SchemaMigration(1, "t").action("add t.a INT", conn -> { }).checksum();
+
+        assertNotEquals(index, new SchemaMigration(1, "t").index("t", "idx_t_a", "a", "b").checksum());
+        assertNotEquals(action, new SchemaMigration(1, "t").action("add t.a BIGINT", conn -> { }).checksum());
+        assertEquals(action, new SchemaMigration(1, "t").action("add t.a INT", conn -> { }).checksum());
+    }
+}
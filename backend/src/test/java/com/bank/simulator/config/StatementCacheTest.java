@@ -0,0 +1,146 @@
+package com.bank.simulator.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCacheTest {
+
+    private final StatementCache.Counters counters = new StatementCache.Counters();
+    private final List<Prepared> prepared = new ArrayList<>();
+    private final Connection connection = (Connection) Proxy.newProxyInstance(
+            StatementCacheTest.class.getClassLoader(), new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                if (!"prepareStatement".equals(method.getName()) || args.length != 1) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                Prepared statement = new Prepared();
+                prepared.add(statement);
+                return statement.proxy;
+            });
+
+    @Test
+    void testPrepare_ClosedStatementIsReusedForTheSameSql() throws Exception {
+        StatementCache cache = new StatementCache(4, counters);
+
+        cache.prepare(connection, "SELECT 1").close();
+        PreparedStatement again = cache.prepare(connection, "SELECT 1");
+
+        assertEquals(1, prepared.size());
+        assertFalse(again.isClosed());
+        assertEquals(1, counters.hits.sum());
+        assertEquals(1, counters.misses.sum());
+    }
+
+    @Test
+    void testPrepare_CheckedOutStatementIsNeverHandedOutTwice() throws Exception {
+        StatementCache cache = new StatementCache(4, counters);
+
+        PreparedStatement first = cache.prepare(connection, "SELECT 1");
+        PreparedStatement second = cache.prepare(connection, "SELECT 1");
+        first.close();
+        second.close();
+
+        assertEquals(2, prepared.size());
+        assertEquals(2, counters.misses.sum());
+        // Only one copy per SQL string is kept; the other is closed on check-in.
+        assertEquals(1, prepared.stream().filter(statement -> statement.closed).count());
+    }
+
+    @Test
+    void testCheckIn_EvictsTheLeastRecentlyUsedStatement() throws Exception {
+        StatementCache cache = new StatementCache(2, counters);
+
+        cache.prepare(connection, "SELECT 'a'").close();
+        cache.prepare(connection, "SELECT 'b'").close();
+        cache.prepare(connection, "SELECT 'a'").close();
+        cache.prepare(connection, "SELECT 'c'").close();
+
+        assertTrue(prepared.get(1).closed, "b was least recently used");
+        assertFalse(prepared.get(0).closed);
+        assertFalse(prepared.get(2).closed);
+        assertEquals(1, counters.evictions.sum());
+
+        cache.prepare(connection, "SELECT 'b'");
+        assertEquals(4, prepared.size());
+    }
+
+    @Test
+    void testCheckIn_ClearsParametersAndClosesOpenResultSets() throws Exception {
+        StatementCache cache = new StatementCache(4, counters);
+
+        PreparedStatement statement = cache.prepare(connection, "SELECT ?");
+        statement.setInt(1, 42);
+        ResultSet resultSet = statement.executeQuery();
+        statement.close();
+
+        assertEquals(1, prepared.get(0).parameterClears);
+        assertTrue(prepared.get(0).resultSetClosed);
+        assertNotNull(resultSet);
+        assertThrows(SQLException.class, () -> statement.setInt(1, 7));
+    }
+
+    @Test
+    void testCloseAll_ClosesCachedAndLaterCheckIns() throws Exception {
+        StatementCache cache = new StatementCache(4, counters);
+
+        cache.prepare(connection, "SELECT 'a'").close();
+        PreparedStatement stillOut = cache.prepare(connection, "SELECT 'b'");
+        cache.closeAll();
+        stillOut.close();
+
+        assertTrue(prepared.get(0).closed);
+        assertTrue(prepared.get(1).closed);
+    }
+
+    private static final class Prepared {
+        final PreparedStatement proxy;
+        boolean closed;
+        boolean resultSetClosed;
+        int parameterClears;
+
+        Prepared() {
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    StatementCacheTest.class.getClassLoader(), new Class<?>[] { PreparedStatement.class },
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                closed = true;
+                                return null;
+                            case "isClosed":
+                                return closed;
+                            case "clearParameters":
+                                parameterClears++;
+                                return null;
+                            case "clearWarnings":
+                            case "setInt":
+                                return null;
+                            case "executeQuery":
+                                return resultSet();
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+        private ResultSet resultSet() {
+            return (ResultSet) Proxy.newProxyInstance(
+                    StatementCacheTest.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                    (proxy, method, args) -> {
+                        if (!"close".equals(method.getName())) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        resultSetClosed = true;
+                        return null;
+                    });
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.bank.simulator.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferMetricsTest {
+
+    @Test
+    void testBucketIndex_SmallValuesAreExact() {
+        for (long micros = 0; micros < 16; micros++) {
+            assertEquals(micros, TransferMetrics.bucketUpperBound(TransferMetrics.bucketIndex(micros)));
+        }
+    }
+
+    @Test
+    void testBucketIndex_UpperBoundWithinOneEighth() {
+        for (long micros = 1; micros < 10_000_000; micros = micros * 3 + 1) {
+            long upper = TransferMetrics.bucketUpperBound(TransferMetrics.bucketIndex(micros));
+            assertTrue(upper >= micros, upper + " < " + micros);
+            assertTrue(upper <= micros + micros / 8, upper + " too far above " + micros);
+        }
+        assertTrue(TransferMetrics.bucketIndex(Long.MAX_VALUE) < (Long.SIZE - 3) * 8);
+    }
+
+    @Test
+    void testPercentile_PicksBucketHoldingRank() {
+        long[] counts = new long[(Long.SIZE - 3) * 8];
+        for (long micros = 1; micros <= 100; micros++) {
+            counts[TransferMetrics.bucketIndex(micros * 1000)]++;
+        }
+
+        long p50 = TransferMetrics.percentileMicros(counts, 100, 0.50, 100_000);
+        long p99 = TransferMetrics.percentileMicros(counts, 100, 0.99, 100_000);
+
+        assertTrue(p50 >= 50_000 && p50 <= 50_000 * 9 / 8, "p50 was " + p50);
+        assertTrue(p99 >= 99_000 && p99 <= 100_000, "p99 was " + p99);
+        assertEquals(0, TransferMetrics.percentileMicros(new long[counts.length], 0, 0.99, 0));
+    }
+
+    @Test
+    void testSnapshot_CountsOutcomesSinceReset() {
+        TransferMetrics.reset();
+        TransferMetrics.recordTransfer(2_000_000, true);
+        TransferMetrics.recordTransfer(1_000_000, false);
+        TransferMetrics.recordFailure(4_000_000);
+        TransferMetrics.recordRetry();
+
+        TransferStats stats = TransferMetrics.snapshot();
+        assertEquals(1, stats.getCompleted());
+        assertEquals(1, stats.getRejected());
+        assertEquals(1, stats.getFailed());
+        assertEquals(1, stats.getRetries());
+        assertEquals(4.0, stats.getMaxMillis(), 0.001);
+
+        TransferMetrics.reset();
+        assertEquals(0, TransferMetrics.snapshot().getCompleted());
+    }
+}
@@ -0,0 +1,123 @@
+package com.bank.simulator.config;
+
+import com.bank.simulator.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserStatusCacheTest {
+
+    private final Map<String, User> table = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private UserStatusCache.Loader loader() {
+        return emails -> {
+            loads.incrementAndGet();
+            Map<String, User> users = new HashMap<>();
+            for (String email : emails) {
+                User user = table.get(email.toLowerCase());
+                if (user != null) {
+                    users.put(email, user(user.getId(), user.getEmail(), user.isActive()));
+                }
+            }
+            return users;
+        };
+    }
+
+    @Test
+    void testGetUsers_LoadsOnceAndRemembersMissingUsers() throws Exception {
+        table.put("one@example.com", user("USER_1", "one@example.com", true));
+        UserStatusCache cache = new UserStatusCache(true, 100, 1000, new AtomicLong()::get);
+
+        cache.getUsers(List.of("one@example.com", "nobody@example.com"), loader());
+        Map<String, User> users = cache.getUsers(List.of("One@Example.com", "nobody@example.com"), loader());
+
+        assertEquals(1, loads.get());
+        assertEquals("USER_1", users.get("One@Example.com").getId());
+        assertTrue(users.get("One@Example.com").isActive());
+        assertFalse(users.containsKey("nobody@example.com"));
+        assertNull(users.get("One@Example.com").getPassword());
+    }
+
+    @Test
+    void testInvalidate_NextCheckSeesTheDeactivation() throws Exception {
+        table.put("one@example.com", user("USER_1", "one@example.com", true));
+        UserStatusCache cache = new UserStatusCache(true, 100, 1000, new AtomicLong()::get);
+        cache.getUsers(List.of("one@example.com"), loader());
+
+        table.get("one@example.com").setActive(false);
+        cache.invalidate("ONE@example.com");
+
+        assertFalse(cache.getUsers(List.of("one@example.com"), loader()).get("one@example.com").isActive());
+        assertEquals(1, cache.getStats().getInvalidations());
+    }
+
+    @Test
+    void testInvalidate_NewUserReplacesTheRememberedAbsence() throws Exception {
+        UserStatusCache cache = new UserStatusCache(true, 100, 1000, new AtomicLong()::get);
+        assertTrue(cache.getUsers(List.of("new@example.com"), loader()).isEmpty());
+
+        table.put("new@example.com", user("USER_2", "new@example.com", true));
+        cache.invalidate("new@example.com");
+
+        assertEquals("USER_2", cache.getUsers(List.of("new@example.com"), loader()).get("new@example.com").getId());
+    }
+
+    @Test
+    void testInvalidateDuringLoad_StaleStatusIsNotInstalled() throws Exception {
+        table.put("one@example.com", user("USER_1", "one@example.com", true));
+        UserStatusCache cache = new UserStatusCache(true, 100, 1000, new AtomicLong()::get);
+
+        Map<String, User> stale = cache.getUsers(List.of("one@example.com"), emails -> {
+            // An admin deactivates the user while the old row is on its way back.
+            Map<String, User> users = loader().load(emails);
+            table.get("one@example.com").setActive(false);
+            cache.invalidate("one@example.com");
+            return users;
+        });
+        Map<String, User> fresh = cache.getUsers(List.of("one@example.com"), loader());
+
+        assertTrue(stale.get("one@example.com").isActive());
+        assertFalse(fresh.get("one@example.com").isActive());
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() throws Exception {
+        AtomicLong clock = new AtomicLong(0);
+        table.put("one@example.com", user("USER_1", "one@example.com", true));
+        UserStatusCache cache = new UserStatusCache(true, 100, 1000, clock::get);
+
+        for (long now : new long[] {0, 999, 1000}) {
+            clock.set(now);
+            cache.getUsers(List.of("one@example.com"), loader());
+        }
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getStats().getExpirations());
+    }
+
+    @Test
+    void testDisabled_AlwaysLoads() throws Exception {
+        table.put("one@example.com", user("USER_1", "one@example.com", true));
+        UserStatusCache cache = new UserStatusCache(false, 100, 1000, new AtomicLong()::get);
+
+        for (int i = 0; i < 3; i++) {
+            cache.getUsers(List.of("one@example.com"), loader());
+        }
+
+        assertEquals(3, loads.get());
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    private static User user(String userId, String email, boolean active) {
+        User user = new User(userId, "Cache User", email, "secret123");
+        user.setActive(active);
+        return user;
+    }
+}
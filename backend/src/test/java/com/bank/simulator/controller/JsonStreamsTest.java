@@ -0,0 +1,76 @@
+package com.bank.simulator.controller;
+
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.model.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonStreamsTest {
+
+    @Test
+    void testOk_WritesApiResponseShapeRowByRow() throws IOException {
+        Transaction first = new Transaction("TXN_1", null, "100000000001", "100000000002",
+                new BigDecimal("10.50"), "ONLINE", "rent", "123456", LocalDateTime.of(2024, 3, 1, 9, 30));
+        Transaction second = new Transaction("TXN_2", null, "100000000002", "100000000001",
+                new BigDecimal("1.00"), "ONLINE", "refund", "654321", LocalDateTime.of(2024, 3, 2, 0, 0));
+
+        JsonNode body = new ObjectMapper().readTree(write(JsonStreams.<Transaction>ok("Transactions retrieved successfully",
+                consumer -> {
+                    consumer.accept(first);
+                    consumer.accept(second);
+                    return true;
+                })));
+
+        assertTrue(body.get("success").asBoolean());
+        assertEquals("Transactions retrieved successfully", body.get("message").asText());
+        assertTrue(body.hasNonNull("timestamp"));
+        assertEquals(2, body.get("data").size());
+        assertEquals("rent", body.get("data").get(0).get("description").asText());
+        assertEquals("2024-03-01T09:30:00", body.get("data").get(0).get("createdDate").asText());
+        assertEquals("2024-03-02T00:00:00", body.get("data").get(1).get("createdDate").asText());
+        assertFalse(body.get("data").get(0).has("pin"));
+        assertFalse(body.get("data").get(0).has("transactionId"));
+    }
+
+    @Test
+    void testOk_EmptySourceWritesEmptyArray() throws IOException {
+        JsonNode body = new ObjectMapper().readTree(write(JsonStreams.<User>ok("Users retrieved successfully",
+                consumer -> true)));
+
+        assertTrue(body.get("data").isArray());
+        assertEquals(0, body.get("data").size());
+    }
+
+    @Test
+    void testOk_FailedReadAbortsInsteadOfClosingTheJson() {
+        Response response = JsonStreams.<User>ok("Users retrieved successfully", consumer -> {
+            consumer.accept(new User("USER_1", "Streamed User", "streamed@example.com", "secret123"));
+            return false;
+        });
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThrows(IOException.class, () -> ((StreamingOutput) response.getEntity()).write(output));
+        String partial = output.toString(StandardCharsets.UTF_8);
+        assertTrue(partial.contains("streamed@example.com"));
+        assertThrows(IOException.class, () -> new ObjectMapper().readTree(partial));
+        assertFalse(partial.contains("secret123"));
+    }
+
+    private static String write(Response response) throws IOException {
+        assertEquals(200, response.getStatus());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -94,6 +94,23 @@ class TransactionControllerTest {
         assertEquals(500, statusCode);
     }
 
+    @Test
+    void testRequestHash_LeavesThePinOut() {
+        testTransaction.setPin("123456");
+        Transaction retry = createValidTransaction();
+        retry.setPin("654321");
+
+        assertEquals(TransactionController.requestHash(testTransaction), TransactionController.requestHash(retry));
+    }
+
+    @Test
+    void testRequestHash_ChangesWithTheTransferDetails() {
+        Transaction larger = createValidTransaction();
+        larger.setAmount(larger.getAmount().add(BigDecimal.ONE));
+
+        assertNotEquals(TransactionController.requestHash(testTransaction), TransactionController.requestHash(larger));
+    }
+
     private int simulateCreateTransactionAPI(Transaction transaction) {
         if (transaction == null) return 400;
         
@@ -0,0 +1,286 @@
+package com.bank.simulator.ledger;
+
+import com.bank.simulator.model.Account;
+import com.bank.simulator.model.Customer;
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.repository.AccountRepository;
+import com.bank.simulator.repository.TransactionRepository;
+import com.bank.simulator.repository.TransferStatus;
+import com.bank.simulator.repository.memory.InMemoryAccountRepository;
+import com.bank.simulator.repository.memory.InMemoryCustomerRepository;
+import com.bank.simulator.repository.memory.InMemoryStore;
+import com.bank.simulator.repository.memory.InMemoryTransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerEngineTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private InMemoryStore store;
+    private AccountRepository accountRepository;
+    private TransactionRepository transactionRepository;
+    private LedgerEngine ledger;
+    private String customerId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        store = new InMemoryStore(16);
+        accountRepository = new InMemoryAccountRepository(store);
+        transactionRepository = new InMemoryTransactionRepository(store);
+        ledger = new LedgerEngine(4, 1024, 64, 10_000, 1000, accountRepository, transactionRepository);
+
+        customerId = "CUST_L" + SEQUENCE.incrementAndGet();
+        assertTrue(new InMemoryCustomerRepository(store).insert(new Customer(customerId, "Ledger Test",
+                "9" + digits(9), customerId.toLowerCase() + "@example.com", "1 Test Street", "123456",
+                digits(12), LocalDate.of(1990, 1, 15), "Active")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledger.shutdown();
+    }
+
+    @Test
+    void testTransfer_SettlesAndWritesBehind() throws Exception {
+        Account sender = insertAccount(new BigDecimal("100.00"));
+        Account receiver = insertAccount(new BigDecimal("5.00"));
+        Transaction transfer = newTransfer(sender, receiver, new BigDecimal("40.00"));
+
+        assertEquals(TransferStatus.COMPLETED, ledger.transfer(transfer));
+        assertEquals(sender.getAccountId(), transfer.getAccountId());
+        assertTrue(ledger.flush(5000));
+
+        assertEquals(0, new BigDecimal("60.00").compareTo(accountRepository.findBalanceByAccountNumber(sender.getAccountNumber())));
+        assertEquals(0, new BigDecimal("45.00").compareTo(accountRepository.findBalanceByAccountNumber(receiver.getAccountNumber())));
+        assertTrue(transactionRepository.existsById(transfer.getTransactionId()));
+    }
+
+    @Test
+    void testTransfer_RejectionsLeaveBalancesUnchanged() throws Exception {
+        Account sender = insertAccount(new BigDecimal("10.00"));
+        Account receiver = insertAccount(BigDecimal.ZERO);
+        Account missing = new Account();
+        missing.setAccountNumber(digits(16));
+
+        assertEquals(TransferStatus.INSUFFICIENT_BALANCE, ledger.transfer(newTransfer(sender, receiver, new BigDecimal("10.01"))));
+        assertEquals(TransferStatus.SENDER_NOT_FOUND, ledger.transfer(newTransfer(missing, receiver, BigDecimal.ONE)));
+        assertEquals(TransferStatus.RECEIVER_NOT_FOUND, ledger.transfer(newTransfer(sender, missing, BigDecimal.ONE)));
+
+        // The refunded amount is spendable again.
+        assertEquals(TransferStatus.COMPLETED, ledger.transfer(newTransfer(sender, receiver, new BigDecimal("10.00"))));
+        assertTrue(ledger.flush(5000));
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(accountRepository.findBalanceByAccountNumber(sender.getAccountNumber())));
+        assertEquals(1, transactionRepository.findAll().size());
+
+        LedgerStats stats = ledger.getStats();
+        assertEquals(1, stats.getCompleted());
+        assertEquals(3, stats.getRejected());
+        assertEquals(1, stats.getPersisted());
+    }
+
+    @Test
+    void testTransfer_ConcurrentCrossShardTransfersConserveMoney() throws Exception {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            accounts.add(insertAccount(new BigDecimal("100.00")));
+        }
+
+        Random random = new Random(42);
+        List<CompletableFuture<TransferStatus>> results = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Account from = accounts.get(random.nextInt(accounts.size()));
+            Account to = accounts.get(random.nextInt(accounts.size()));
+            if (from == to) {
+                continue;
+            }
+            results.add(ledger.submit(newTransfer(from, to, new BigDecimal(1 + random.nextInt(30)))));
+        }
+
+        int completed = 0;
+        for (CompletableFuture<TransferStatus> result : results) {
+            TransferStatus status = result.get();
+            assertTrue(status == TransferStatus.COMPLETED || status == TransferStatus.INSUFFICIENT_BALANCE);
+            if (status == TransferStatus.COMPLETED) {
+                completed++;
+            }
+        }
+        assertTrue(ledger.flush(10_000));
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (Account account : accounts) {
+            BigDecimal balance = accountRepository.findBalanceByAccountNumber(account.getAccountNumber());
+            assertTrue(balance.signum() >= 0, "negative balance " + balance);
+            total = total.add(balance);
+        }
+        assertEquals(0, new BigDecimal("1200.00").compareTo(total));
+        assertEquals(completed, transactionRepository.findAll().size());
+    }
+
+    @Test
+    void testSubmit_RefusedAfterShutdown() {
+        ledger.shutdown();
+        Account account = new Account();
+        account.setAccountNumber(digits(16));
+
+        CompletableFuture<TransferStatus> result = ledger.submit(newTransfer(account, account, BigDecimal.ONE));
+        assertTrue(result.isCompletedExceptionally());
+    }
+
+    @Test
+    void testRunExclusive_TransfersSeeTheBalanceTheWriteLeft() throws Exception {
+        Account sender = insertAccount(new BigDecimal("10.00"));
+        Account receiver = insertAccount(BigDecimal.ZERO);
+        assertEquals(TransferStatus.COMPLETED, ledger.transfer(newTransfer(sender, receiver, new BigDecimal("4.00"))));
+
+        assertTrue(ledger.runExclusive(() -> {
+            Account edited = accountRepository.findByAccountNumber(sender.getAccountNumber());
+            // Every settled transfer is written before the write runs.
+            assertEquals(0, new BigDecimal("6.00").compareTo(edited.getAmount()));
+            edited.setAmount(new BigDecimal("500.00"));
+            return accountRepository.update(edited.getAccountId(), edited);
+        }));
+
+        assertEquals(TransferStatus.COMPLETED, ledger.transfer(newTransfer(sender, receiver, new BigDecimal("300.00"))));
+        assertTrue(ledger.flush(5000));
+        assertEquals(0, new BigDecimal("200.00").compareTo(accountRepository.findBalanceByAccountNumber(sender.getAccountNumber())));
+        assertEquals(0, new BigDecimal("304.00").compareTo(accountRepository.findBalanceByAccountNumber(receiver.getAccountNumber())));
+    }
+
+    @Test
+    void testBalances_WrittenOnesAreDroppedBeyondTheLimit() throws Exception {
+        LedgerEngine small = new LedgerEngine(1, 64, 8, 10_000, 2, accountRepository, transactionRepository);
+        try {
+            List<Account> accounts = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                accounts.add(insertAccount(new BigDecimal("10.00")));
+            }
+            for (int round = 0; round < 3; round++) {
+                for (int i = 0; i < accounts.size(); i++) {
+                    Account to = accounts.get((i + 1) % accounts.size());
+                    assertEquals(TransferStatus.COMPLETED, small.transfer(newTransfer(accounts.get(i), to, BigDecimal.ONE)));
+                    assertTrue(small.flush(5000));
+                }
+            }
+
+            assertTrue(small.getStats().getCachedAccounts() <= 2, "cached " + small.getStats().getCachedAccounts());
+            for (Account account : accounts) {
+                assertEquals(0, new BigDecimal("10.00").compareTo(accountRepository.findBalanceByAccountNumber(account.getAccountNumber())));
+            }
+        } finally {
+            small.shutdown();
+        }
+    }
+
+    @Test
+    void testAwait_TimedOutTransferStillQueuedIsWithdrawn() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        LedgerEngine gated = gatedEngine(gate);
+        try {
+            Account sender = insertAccount(new BigDecimal("50.00"));
+            Account receiver = insertAccount(BigDecimal.ZERO);
+
+            // The first transfer holds the only shard, so the second is still queued when it times out.
+            CompletableFuture<TransferStatus> first = gated.submit(newTransfer(sender, receiver, new BigDecimal("10.00")));
+            Transaction second = newTransfer(sender, receiver, new BigDecimal("20.00"));
+            SQLException e = assertThrows(SQLException.class, () -> gated.transfer(second));
+            assertTrue(e.getMessage().contains("withdrawn"), e.getMessage());
+
+            gate.countDown();
+            assertEquals(TransferStatus.COMPLETED, first.get());
+            assertTrue(gated.flush(5000));
+            assertEquals(0, new BigDecimal("40.00").compareTo(accountRepository.findBalanceByAccountNumber(sender.getAccountNumber())));
+            assertFalse(transactionRepository.existsById(second.getTransactionId()));
+        } finally {
+            gate.countDown();
+            gated.shutdown();
+        }
+    }
+
+    @Test
+    void testAwait_TimedOutTransferAlreadyTakenIsPendingAndSettles() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        LedgerEngine gated = gatedEngine(gate);
+        try {
+            Account sender = insertAccount(new BigDecimal("50.00"));
+            Account receiver = insertAccount(BigDecimal.ZERO);
+            Transaction transfer = newTransfer(sender, receiver, new BigDecimal("10.00"));
+
+            assertEquals(TransferStatus.PENDING, gated.transfer(transfer));
+
+            gate.countDown();
+            assertTrue(gated.flush(5000));
+            assertTrue(transactionRepository.existsById(transfer.getTransactionId()));
+            assertEquals(0, new BigDecimal("10.00").compareTo(accountRepository.findBalanceByAccountNumber(receiver.getAccountNumber())));
+        } finally {
+            gate.countDown();
+            gated.shutdown();
+        }
+    }
+
+    // One shard whose balance loads wait for the gate, with a short settle timeout.
+    private LedgerEngine gatedEngine(CountDownLatch gate) {
+        AccountRepository gatedAccounts = new InMemoryAccountRepository(store) {
+            @Override
+            public Account findByAccountNumber(String accountNumber) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.findByAccountNumber(accountNumber);
+            }
+        };
+        return new LedgerEngine(1, 16, 8, 100, 1000, gatedAccounts, transactionRepository);
+    }
+
+    private Account insertAccount(BigDecimal amount) throws SQLException {
+        Account account = new Account();
+        account.setAccountId("ACC_L" + SEQUENCE.incrementAndGet());
+        account.setCustomerId(customerId);
+        account.setAccountNumber(digits(16));
+        account.setAadharNumber(digits(12));
+        account.setIfscCode("SBIN0001234");
+        account.setPhoneNumberLinked(digits(10));
+        account.setAmount(amount);
+        account.setBankName("Ledger Bank");
+        account.setNameOnAccount("Ledger Holder");
+        account.setStatus("ACTIVE");
+        assertTrue(accountRepository.insert(account));
+        return account;
+    }
+
+    private static Transaction newTransfer(Account sender, Account receiver, BigDecimal amount) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId("TXN_L" + SEQUENCE.incrementAndGet());
+        transaction.setSenderAccountNumber(sender.getAccountNumber());
+        transaction.setReceiverAccountNumber(receiver.getAccountNumber());
+        transaction.setAmount(amount);
+        transaction.setCreatedDate(LocalDateTime.now().withNano(0));
+        return transaction;
+    }
+
+    private static String digits(int length) {
+        StringBuilder digits = new StringBuilder();
+        Random random = new Random();
+        while (digits.length() < length) {
+            digits.append(random.nextInt(10));
+        }
+        return digits.toString();
+    }
+}
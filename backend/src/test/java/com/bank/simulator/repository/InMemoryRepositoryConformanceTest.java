@@ -0,0 +1,45 @@
+package com.bank.simulator.repository;
+
+import com.bank.simulator.repository.memory.InMemoryAccountRepository;
+import com.bank.simulator.repository.memory.InMemoryCustomerRepository;
+import com.bank.simulator.repository.memory.InMemorySequenceRepository;
+import com.bank.simulator.repository.memory.InMemoryStandingInstructionRepository;
+import com.bank.simulator.repository.memory.InMemoryStore;
+import com.bank.simulator.repository.memory.InMemoryTransactionRepository;
+import com.bank.simulator.repository.memory.InMemoryUserRepository;
+
+class InMemoryRepositoryConformanceTest extends RepositoryConformanceTest {
+
+    // JUnit creates a new instance per test, so every test starts with an empty store.
+    private final InMemoryStore store = new InMemoryStore(16);
+
+    @Override
+    protected AccountRepository createAccountRepository() {
+        return new InMemoryAccountRepository(store);
+    }
+
+    @Override
+    protected CustomerRepository createCustomerRepository() {
+        return new InMemoryCustomerRepository(store);
+    }
+
+    @Override
+    protected TransactionRepository createTransactionRepository() {
+        return new InMemoryTransactionRepository(store);
+    }
+
+    @Override
+    protected UserRepository createUserRepository() {
+        return new InMemoryUserRepository(store);
+    }
+
+    @Override
+    protected SequenceRepository createSequenceRepository() {
+        return new InMemorySequenceRepository(store);
+    }
+
+    @Override
+    protected StandingInstructionRepository createStandingInstructionRepository() {
+        return new InMemoryStandingInstructionRepository(store);
+    }
+}
@@ -0,0 +1,44 @@
+package com.bank.simulator.repository;
+
+import com.bank.simulator.repository.jdbc.JdbcAccountRepository;
+import com.bank.simulator.repository.jdbc.JdbcCustomerRepository;
+import com.bank.simulator.repository.jdbc.JdbcSequenceRepository;
+import com.bank.simulator.repository.jdbc.JdbcStandingInstructionRepository;
+import com.bank.simulator.repository.jdbc.JdbcTransactionRepository;
+import com.bank.simulator.repository.jdbc.JdbcUserRepository;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+// Needs the MySQL database from application.properties; run with -Drepository.conformance.jdbc=true
+@EnabledIfSystemProperty(named = "repository.conformance.jdbc", matches = "true")
+class JdbcRepositoryConformanceTest extends RepositoryConformanceTest {
+
+    @Override
+    protected AccountRepository createAccountRepository() {
+        return new JdbcAccountRepository();
+    }
+
+    @Override
+    protected CustomerRepository createCustomerRepository() {
+        return new JdbcCustomerRepository();
+    }
+
+    @Override
+    protected TransactionRepository createTransactionRepository() {
+        return new JdbcTransactionRepository();
+    }
+
+    @Override
+    protected UserRepository createUserRepository() {
+        return new JdbcUserRepository();
+    }
+
+    @Override
+    protected SequenceRepository createSequenceRepository() {
+        return new JdbcSequenceRepository();
+    }
+
+    @Override
+    protected StandingInstructionRepository createStandingInstructionRepository() {
+        return new JdbcStandingInstructionRepository();
+    }
+}
@@ -0,0 +1,918 @@
+package com.bank.simulator.repository;
+
+import com.bank.simulator.model.Account;
+import com.bank.simulator.model.AccountHolder;
+import com.bank.simulator.model.Customer;
+import com.bank.simulator.model.StandingInstruction;
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.model.TransactionCursor;
+import com.bank.simulator.model.TransferContext;
+import com.bank.simulator.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+abstract class RepositoryConformanceTest {
+
+    // Every row created here uses a CONF_X prefix so the suite can run against a shared
+    // database without moving the ACC_/CUST_/USER_ sequences used by the application.
+    private static final String PREFIX = "CONF_X";
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    protected AccountRepository accountRepository;
+    protected CustomerRepository customerRepository;
+    protected TransactionRepository transactionRepository;
+    protected UserRepository userRepository;
+    protected SequenceRepository sequenceRepository;
+    protected StandingInstructionRepository standingInstructionRepository;
+
+    private final List<String> createdCustomerIds = new ArrayList<>();
+    private final List<String> createdUserIds = new ArrayList<>();
+    private final List<String> createdInstructionIds = new ArrayList<>();
+
+    protected abstract AccountRepository createAccountRepository();
+    protected abstract CustomerRepository createCustomerRepository();
+    protected abstract TransactionRepository createTransactionRepository();
+    protected abstract UserRepository createUserRepository();
+    protected abstract SequenceRepository createSequenceRepository();
+    protected abstract StandingInstructionRepository createStandingInstructionRepository();
+
+    @BeforeEach
+    void setUp() {
+        accountRepository = createAccountRepository();
+        customerRepository = createCustomerRepository();
+        transactionRepository = createTransactionRepository();
+        userRepository = createUserRepository();
+        sequenceRepository = createSequenceRepository();
+        standingInstructionRepository = createStandingInstructionRepository();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        // There is no delete; a cancelled instruction is never picked up by a scheduler.
+        for (String instructionId : createdInstructionIds) {
+            standingInstructionRepository.cancel(instructionId);
+        }
+        for (String customerId : createdCustomerIds) {
+            customerRepository.deleteById(customerId);
+        }
+        for (String userId : createdUserIds) {
+            userRepository.deleteById(userId);
+        }
+    }
+
+    @Test
+    void testCustomer_InsertAndFindByEveryKey() throws SQLException {
+        Customer customer = insertCustomer();
+
+        Customer byId = customerRepository.findById(customer.getCustomerId());
+        assertNotNull(byId);
+        assertEquals(customer.getName(), byId.getName());
+        assertEquals(customer.getDob(), byId.getDob());
+        assertEquals(customer.getCustomerId(), customerRepository.findByAadharNumber(customer.getAadharNumber()).getCustomerId());
+        assertEquals(customer.getCustomerId(), customerRepository.findByPhoneNumber(customer.getPhoneNumber()).getCustomerId());
+        assertEquals(customer.getCustomerId(), customerRepository.findCustomerIdByAadharNumber(customer.getAadharNumber()));
+        assertEquals(customer.getPhoneNumber(), customerRepository.findPhoneNumberById(customer.getCustomerId()));
+        assertTrue(customerRepository.existsByPhoneNumber(customer.getPhoneNumber()));
+        assertTrue(customerRepository.existsByEmail(customer.getEmail()));
+        assertTrue(customerRepository.existsByAadharNumber(customer.getAadharNumber()));
+        assertTrue(customerRepository.findAll().stream().anyMatch(c -> c.getCustomerId().equals(customer.getCustomerId())));
+        assertNull(customerRepository.findById(nextId()));
+    }
+
+    @Test
+    void testCustomer_ReturnedObjectsAreDetached() throws SQLException {
+        Customer customer = insertCustomer();
+
+        Customer found = customerRepository.findById(customer.getCustomerId());
+        found.setName("Changed Without Update");
+
+        assertEquals(customer.getName(), customerRepository.findById(customer.getCustomerId()).getName());
+    }
+
+    @Test
+    void testCustomer_DuplicatePhoneRejected() throws SQLException {
+        Customer existing = insertCustomer();
+        Customer duplicate = newCustomer();
+        duplicate.setPhoneNumber(existing.getPhoneNumber());
+
+        assertThrows(SQLIntegrityConstraintViolationException.class, () -> customerRepository.insert(duplicate));
+        assertNull(customerRepository.findById(duplicate.getCustomerId()));
+        assertFalse(customerRepository.existsByAadharNumber(duplicate.getAadharNumber()));
+    }
+
+    @Test
+    void testCustomer_DuplicateAadharRejected() throws SQLException {
+        Customer existing = insertCustomer();
+        Customer duplicate = newCustomer();
+        duplicate.setAadharNumber(existing.getAadharNumber());
+
+        assertThrows(SQLIntegrityConstraintViolationException.class, () -> customerRepository.insert(duplicate));
+        assertFalse(customerRepository.existsByPhoneNumber(duplicate.getPhoneNumber()));
+    }
+
+    @Test
+    void testCustomer_UpdateAndUniquenessForOtherCustomer() throws SQLException {
+        Customer first = insertCustomer();
+        Customer second = insertCustomer();
+        String oldPhone = first.getPhoneNumber();
+
+        first.setPhoneNumber(randomDigits(10));
+        first.setName("Updated Name");
+        assertTrue(customerRepository.update(first.getCustomerId(), first));
+
+        assertEquals("Updated Name", customerRepository.findById(first.getCustomerId()).getName());
+        assertFalse(customerRepository.existsByPhoneNumber(oldPhone));
+        assertFalse(customerRepository.existsByPhoneNumberForOtherCustomer(first.getPhoneNumber(), first.getCustomerId()));
+        assertTrue(customerRepository.existsByPhoneNumberForOtherCustomer(first.getPhoneNumber(), second.getCustomerId()));
+        assertTrue(customerRepository.existsByAadharNumberForOtherCustomer(second.getAadharNumber(), first.getCustomerId()));
+        assertTrue(customerRepository.existsByEmailForOtherCustomer(second.getEmail(), first.getCustomerId()));
+        assertFalse(customerRepository.update(nextId(), first));
+    }
+
+    @Test
+    void testAccount_InsertRequiresExistingCustomer() {
+        Account orphan = newAccount(nextId(), randomDigits(16), new BigDecimal("100.00"));
+
+        assertThrows(SQLIntegrityConstraintViolationException.class, () -> accountRepository.insert(orphan));
+    }
+
+    @Test
+    void testAccount_InsertAndFind() throws SQLException {
+        Customer customer = insertCustomer();
+        Account account = insertAccount(customer, new BigDecimal("750.00"));
+
+        Account byId = accountRepository.findById(account.getAccountId());
+        assertNotNull(byId);
+        assertEquals(0, new BigDecimal("750.00").compareTo(byId.getAmount()));
+        assertNotNull(byId.getCreated());
+        assertEquals(account.getAccountId(), accountRepository.findByAccountNumber(account.getAccountNumber()).getAccountId());
+        assertEquals(account.getAccountId(), accountRepository.findByCustomerId(customer.getCustomerId()).getAccountId());
+        assertTrue(accountRepository.existsById(account.getAccountId()));
+        assertTrue(accountRepository.existsByAccountNumber(account.getAccountNumber()));
+        assertEquals(0, new BigDecimal("750.00").compareTo(accountRepository.findBalanceByAccountNumber(account.getAccountNumber())));
+        assertNull(accountRepository.findBalanceByAccountNumber(randomDigits(16)));
+
+        AccountHolder holder = accountRepository.findHolderByAccountNumber(account.getAccountNumber());
+        assertEquals(customer.getName(), holder.getName());
+        assertEquals(customer.getEmail(), holder.getEmail());
+        assertEquals(account.getBankName(), holder.getBankName());
+    }
+
+    @Test
+    void testAccount_DuplicateAccountNumberRejected() throws SQLException {
+        Customer customer = insertCustomer();
+        Account existing = insertAccount(customer, new BigDecimal("100.00"));
+        Account duplicate = newAccount(customer.getCustomerId(), existing.getAccountNumber(), new BigDecimal("100.00"));
+
+        assertThrows(SQLIntegrityConstraintViolationException.class, () -> accountRepository.insert(duplicate));
+        assertFalse(accountRepository.existsById(duplicate.getAccountId()));
+    }
+
+    @Test
+    void testAccount_UpdateAndNumberUniqueness() throws SQLException {
+        Customer customer = insertCustomer();
+        Account first = insertAccount(customer, new BigDecimal("100.00"));
+        Account second = insertAccount(customer, new BigDecimal("100.00"));
+        String oldNumber = first.getAccountNumber();
+
+        first.setAccountNumber(randomDigits(16));
+        first.setAmount(new BigDecimal("250.50"));
+        assertTrue(accountRepository.update(first.getAccountId(), first));
+
+        assertFalse(accountRepository.existsByAccountNumber(oldNumber));
+        assertEquals(0, new BigDecimal("250.50").compareTo(accountRepository.findById(first.getAccountId()).getAmount()));
+        assertFalse(accountRepository.existsByAccountNumberForOtherAccount(first.getAccountNumber(), first.getAccountId()));
+        assertTrue(accountRepository.existsByAccountNumberForOtherAccount(second.getAccountNumber(), first.getAccountId()));
+
+        first.setAccountNumber(second.getAccountNumber());
+        assertThrows(SQLIntegrityConstraintViolationException.class, () -> accountRepository.update(first.getAccountId(), first));
+    }
+
+    @Test
+    void testTransfer_MovesFundsAndRecordsHistory() throws SQLException {
+        Customer customer = insertCustomer();
+        Account sender = insertAccount(customer, new BigDecimal("1000.00"));
+        Account receiver = insertAccount(customer, new BigDecimal("200.00"));
+
+        Transaction older = newTransfer(sender, receiver, new BigDecimal("100.00"));
+        older.setCreatedDate(older.getCreatedDate().minusMinutes(5));
+        Transaction newer = newTransfer(receiver, sender, new BigDecimal("25.00"));
+
+        assertEquals(TransferStatus.COMPLETED, transactionRepository.transfer(older));
+        assertEquals(TransferStatus.COMPLETED, transactionRepository.transfer(newer));
+        assertEquals(sender.getAccountId(), older.getAccountId());
+
+        assertEquals(0, new BigDecimal("925.00").compareTo(accountRepository.findBalanceByAccountNumber(sender.getAccountNumber())));
+        assertEquals(0, new BigDecimal("275.00").compareTo(accountRepository.findBalanceByAccountNumber(receiver.getAccountNumber())));
+
+        List<Transaction> history = transactionRepository.findByAccountNumber(sender.getAccountNumber());
+        assertEquals(2, history.size());
+        assertEquals(newer.getTransactionId(), history.get(0).getTransactionId());
+        assertEquals(older.getTransactionId(), history.get(1).getTransactionId());
+        assertEquals(0, new BigDecimal("100.00").compareTo(history.get(1).getAmount()));
+        assertTrue(transactionRepository.existsById(older.getTransactionId()));
+    }
+
+    @Test
+    void testTransfer_InsufficientBalanceLeavesBalancesUnchanged() throws SQLException {
+        Customer customer = insertCustomer();
+        Account sender = insertAccount(customer, new BigDecimal("50.00"));
+        Account receiver = insertAccount(customer, new BigDecimal("10.00"));
+
+        Transaction transfer = newTransfer(sender, receiver, new BigDecimal("50.01"));
+
+        assertEquals(TransferStatus.INSUFFICIENT_BALANCE, transactionRepository.transfer(transfer));
+        assertEquals(0, new BigDecimal("50.00").compareTo(accountRepository.findBalanceByAccountNumber(sender.getAccountNumber())));
+        assertEquals(0, new BigDecimal("10.00").compareTo(accountRepository.findBalanceByAccountNumber(receiver.getAccountNumber())));
+        assertFalse(transactionRepository.existsById(transfer.getTransactionId()));
+    }
+
+    @Test
+    void testTransfer_UnknownAccounts() throws SQLException {
+        Customer customer = insertCustomer();
+        Account account = insertAccount(customer, new BigDecimal("50.00"));
+        Account missing = newAccount(customer.getCustomerId(), randomDigits(16), BigDecimal.ZERO);
+
+        assertEquals(TransferStatus.SENDER_NOT_FOUND, transactionRepository.transfer(newTransfer(missing, account, BigDecimal.ONE)));
+        assertEquals(TransferStatus.RECEIVER_NOT_FOUND, transactionRepository.transfer(newTransfer(account, missing, BigDecimal.ONE)));
+        assertEquals(0, new BigDecimal("50.00").compareTo(accountRepository.findBalanceByAccountNumber(account.getAccountNumber())));
+    }
+
+    @Test
+    void testTransfer_ConcurrentTransfersConserveTotal() throws Exception {
+        Customer customer = insertCustomer();
+        Account first = insertAccount(customer, new BigDecimal("500.00"));
+        Account second = insertAccount(customer, new BigDecimal("500.00"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<TransferStatus>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 40; i++) {
+                Account from = i % 2 == 0 ? first : second;
+                Account to = i % 2 == 0 ? second : first;
+                results.add(executor.submit(() -> {
+                    try {
+                        return transactionRepository.transfer(newTransfer(from, to, new BigDecimal("3.00")));
+                    } catch (SQLException e) {
+                        return null;
+                    }
+                }));
+            }
+            for (Future<TransferStatus> result : results) {
+                TransferStatus status = result.get();
+                assertTrue(status == null || status == TransferStatus.COMPLETED);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        BigDecimal total = accountRepository.findBalanceByAccountNumber(first.getAccountNumber())
+                .add(accountRepository.findBalanceByAccountNumber(second.getAccountNumber()));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(total));
+    }
+
+    @Test
+    void testTransfer_ConcurrentDebitsNeverOverdraw() throws Exception {
+        Customer customer = insertCustomer();
+        Account sender = insertAccount(customer, new BigDecimal("10.00"));
+        Account receiver = insertAccount(customer, BigDecimal.ZERO);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<TransferStatus>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 20; i++) {
+                results.add(executor.submit(() ->
+                        transactionRepository.transfer(newTransfer(sender, receiver, new BigDecimal("1.00")))));
+            }
+            int completed = 0;
+            for (Future<TransferStatus> result : results) {
+                TransferStatus status = result.get();
+                assertTrue(status == TransferStatus.COMPLETED || status == TransferStatus.INSUFFICIENT_BALANCE);
+                if (status == TransferStatus.COMPLETED) {
+                    completed++;
+                }
+            }
+            assertEquals(10, completed);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(accountRepository.findBalanceByAccountNumber(sender.getAccountNumber())));
+        assertEquals(0, new BigDecimal("10.00").compareTo(accountRepository.findBalanceByAccountNumber(receiver.getAccountNumber())));
+    }
+
+    @Test
+    void testTransferBatch_AppliesInOrderAndSkipsFailures() throws SQLException {
+        Customer customer = insertCustomer();
+        Account first = insertAccount(customer, new BigDecimal("100.00"));
+        Account second = insertAccount(customer, new BigDecimal("0.00"));
+        Account missing = newAccount(customer.getCustomerId(), randomDigits(16), BigDecimal.ZERO);
+
+        List<Transaction> batch = List.of(
+                newTransfer(first, second, new BigDecimal("60.00")),
+                newTransfer(first, second, new BigDecimal("60.00")),
+                newTransfer(second, first, new BigDecimal("50.00")),
+                newTransfer(missing, first, new BigDecimal("1.00")),
+                newTransfer(first, missing, new BigDecimal("1.00")),
+                newTransfer(first, second, new BigDecimal("90.00")));
+
+        List<TransferStatus> statuses = transactionRepository.transferBatch(batch);
+
+        assertEquals(List.of(TransferStatus.COMPLETED, TransferStatus.INSUFFICIENT_BALANCE, TransferStatus.COMPLETED,
+                TransferStatus.SENDER_NOT_FOUND, TransferStatus.RECEIVER_NOT_FOUND, TransferStatus.COMPLETED), statuses);
+        assertEquals(0, BigDecimal.ZERO.compareTo(accountRepository.findBalanceByAccountNumber(first.getAccountNumber())));
+        assertEquals(0, new BigDecimal("100.00").compareTo(accountRepository.findBalanceByAccountNumber(second.getAccountNumber())));
+        assertEquals(3, transactionRepository.findByAccountNumber(first.getAccountNumber()).size());
+        assertFalse(transactionRepository.existsById(batch.get(1).getTransactionId()));
+        assertTrue(transactionRepository.transferBatch(List.of()).isEmpty());
+    }
+
+    @Test
+    void testTransfer_IdempotencyKeyAppliesOnce() throws SQLException {
+        Customer customer = insertCustomer();
+        Account sender = insertAccount(customer, new BigDecimal("100.00"));
+        Account receiver = insertAccount(customer, BigDecimal.ZERO);
+        String key = "key-" + nextId();
+
+        Transaction first = newTransfer(sender, receiver, new BigDecimal("30.00"));
+        first.setIdempotencyKey(key);
+        first.setRequestHash("a".repeat(64));
+        Transaction retry = newTransfer(sender, receiver, new BigDecimal("30.00"));
+        retry.setIdempotencyKey(key);
+        retry.setRequestHash("a".repeat(64));
+
+        assertNull(transactionRepository.findByIdempotencyKey(key));
+        assertEquals(TransferStatus.COMPLETED, transactionRepository.transfer(first));
+        assertEquals(TransferStatus.DUPLICATE_REQUEST, transactionRepository.transfer(retry));
+
+        assertEquals(0, new BigDecimal("70.00").compareTo(accountRepository.findBalanceByAccountNumber(sender.getAccountNumber())));
+        assertFalse(transactionRepository.existsById(retry.getTransactionId()));
+
+        Transaction recorded = transactionRepository.findByIdempotencyKey(key);
+        assertEquals(first.getTransactionId(), recorded.getTransactionId());
+        assertEquals("a".repeat(64), recorded.getRequestHash());
+    }
+
+    @Test
+    void testTransfer_FailedTransferDoesNotConsumeIdempotencyKey() throws SQLException {
+        Customer customer = insertCustomer();
+        Account sender = insertAccount(customer, new BigDecimal("10.00"));
+        Account receiver = insertAccount(customer, BigDecimal.ZERO);
+        String key = "key-" + nextId();
+
+        Transaction tooLarge = newTransfer(sender, receiver, new BigDecimal("50.00"));
+        tooLarge.setIdempotencyKey(key);
+        tooLarge.setRequestHash("b".repeat(64));
+        assertEquals(TransferStatus.INSUFFICIENT_BALANCE, transactionRepository.transfer(tooLarge));
+        assertNull(transactionRepository.findByIdempotencyKey(key));
+
+        Transaction affordable = newTransfer(sender, receiver, new BigDecimal("5.00"));
+        affordable.setIdempotencyKey(key);
+        affordable.setRequestHash("b".repeat(64));
+        assertEquals(TransferStatus.COMPLETED, transactionRepository.transfer(affordable));
+    }
+
+    @Test
+    void testReserveIdempotencyKey_BlocksOtherTransfersUntilReleased() throws SQLException {
+        Customer customer = insertCustomer();
+        Account sender = insertAccount(customer, new BigDecimal("10.00"));
+        Account receiver = insertAccount(customer, BigDecimal.ZERO);
+        String key = "key-" + nextId();
+
+        Transaction reserved = newTransfer(sender, receiver, new BigDecimal("5.00"));
+        reserved.setIdempotencyKey(key);
+        reserved.setRequestHash("c".repeat(64));
+        Transaction other = newTransfer(sender, receiver, new BigDecimal("5.00"));
+        other.setIdempotencyKey(key);
+        other.setRequestHash("c".repeat(64));
+
+        assertTrue(transactionRepository.reserveIdempotencyKey(reserved));
+        assertFalse(transactionRepository.reserveIdempotencyKey(other));
+        assertEquals(TransferStatus.DUPLICATE_REQUEST, transactionRepository.transfer(other));
+        assertEquals(reserved.getTransactionId(), transactionRepository.findByIdempotencyKey(key).getTransactionId());
+
+        // Only the transaction holding the key can give it back.
+        transactionRepository.releaseIdempotencyKey(other);
+        assertNotNull(transactionRepository.findByIdempotencyKey(key));
+        transactionRepository.releaseIdempotencyKey(reserved);
+        assertNull(transactionRepository.findByIdempotencyKey(key));
+        assertTrue(transactionRepository.reserveIdempotencyKey(other));
+    }
+
+    @Test
+    void testAppendSettled_KeepsAnAlreadyReservedKey() throws SQLException {
+        Customer customer = insertCustomer();
+        Account sender = insertAccount(customer, new BigDecimal("10.00"));
+        Account receiver = insertAccount(customer, BigDecimal.ZERO);
+
+        Transaction transfer = newTransfer(sender, receiver, new BigDecimal("4.00"));
+        transfer.setIdempotencyKey("key-" + nextId());
+        transfer.setRequestHash("d".repeat(64));
+        assertTrue(transactionRepository.reserveIdempotencyKey(transfer));
+        transactionRepository.appendSettled(List.of(transfer));
+
+        assertTrue(transactionRepository.existsById(transfer.getTransactionId()));
+        assertEquals(transfer.getTransactionId(),
+                transactionRepository.findByIdempotencyKey(transfer.getIdempotencyKey()).getTransactionId());
+    }
+
+    @Test
+    void testAppendSettled_RecordsRowsAndMovesFundsWithoutChecks() throws SQLException {
+        Customer customer = insertCustomer();
+        Account first = insertAccount(customer, new BigDecimal("10.00"));
+        Account second = insertAccount(customer, new BigDecimal("10.00"));
+
+        // The second transfer relies on the first having landed, which only the caller knows.
+        Transaction out = newTransfer(first, second, new BigDecimal("10.00"));
+        out.setAccountId(first.getAccountId());
+        Transaction back = newTransfer(second, first, new BigDecimal("20.00"));
+        back.setAccountId(second.getAccountId());
+
+        transactionRepository.appendSettled(List.of(back, out));
+
+        assertEquals(0, new BigDecimal("20.00").compareTo(accountRepository.findBalanceByAccountNumber(first.getAccountNumber())));
+        assertEquals(0, BigDecimal.ZERO.compareTo(accountRepository.findBalanceByAccountNumber(second.getAccountNumber())));
+        assertTrue(transactionRepository.existsById(out.getTransactionId()));
+        assertTrue(transactionRepository.existsById(back.getTransactionId()));
+    }
+
+    @Test
+    void testBulkLookups_ReturnOnlyExistingKeys() throws SQLException {
+        Customer customer = insertCustomer();
+        Account account = insertAccount(customer, BigDecimal.TEN);
+        User user = insertUser();
+
+        Map<String, Account> accounts = accountRepository.findByAccountNumbers(List.of(account.getAccountNumber(), randomDigits(16)));
+        assertEquals(1, accounts.size());
+        assertEquals(account.getAccountId(), accounts.get(account.getAccountNumber()).getAccountId());
+
+        Map<String, Customer> customers = customerRepository.findByIds(List.of(customer.getCustomerId(), nextId()));
+        assertEquals(1, customers.size());
+        assertEquals(customer.getEmail(), customers.get(customer.getCustomerId()).getEmail());
+
+        String upperCaseEmail = user.getEmail().toUpperCase();
+        Map<String, User> users = userRepository.findByEmails(List.of(upperCaseEmail, "nobody-" + nextId() + "@example.com"));
+        assertEquals(1, users.size());
+        assertEquals(user.getId(), users.get(upperCaseEmail).getId());
+
+        assertTrue(accountRepository.findByAccountNumbers(List.of()).isEmpty());
+    }
+
+    @Test
+    void testTransferContext_LoadsBothSidesAndSenderUser() throws SQLException {
+        Customer senderCustomer = insertCustomer();
+        Customer receiverCustomer = insertCustomer();
+        Account sender = insertAccount(senderCustomer, new BigDecimal("250.00"));
+        Account receiver = insertAccount(receiverCustomer, BigDecimal.TEN);
+        User user = newUser();
+        user.setEmail(senderCustomer.getEmail());
+        assertTrue(userRepository.insert(user));
+        createdUserIds.add(user.getId());
+
+        TransferContext context = accountRepository.findTransferContext(sender.getAccountNumber(), receiver.getAccountNumber());
+        assertEquals(0, new BigDecimal("250.00").compareTo(context.getSenderAccount().getAmount()));
+        assertEquals(receiver.getAccountId(), context.getReceiverAccount().getAccountId());
+        assertEquals(senderCustomer.getName(), context.getSenderCustomer().getName());
+        assertEquals("123456", context.getSenderCustomer().getCustomerPin());
+        assertEquals(receiverCustomer.getEmail(), context.getReceiverCustomer().getEmail());
+        assertNull(context.getReceiverCustomer().getCustomerPin());
+        assertEquals(user.getId(), context.getSenderUser().getId());
+        assertTrue(context.getSenderUser().isActive());
+
+        TransferContext unknownReceiver = accountRepository.findTransferContext(sender.getAccountNumber(), randomDigits(16));
+        assertNotNull(unknownReceiver.getSenderAccount());
+        assertNull(unknownReceiver.getReceiverAccount());
+        assertNull(unknownReceiver.getReceiverCustomer());
+    }
+
+    @Test
+    void testDeleteAccount_RemovesItsTransactions() throws SQLException {
+        Customer customer = insertCustomer();
+        Account sender = insertAccount(customer, new BigDecimal("100.00"));
+        Account receiver = insertAccount(customer, new BigDecimal("100.00"));
+        Transaction transfer = newTransfer(sender, receiver, new BigDecimal("10.00"));
+        assertEquals(TransferStatus.COMPLETED, transactionRepository.transfer(transfer));
+
+        assertTrue(accountRepository.deleteWithTransactions(sender.getAccountId()));
+
+        assertFalse(accountRepository.existsById(sender.getAccountId()));
+        assertFalse(transactionRepository.existsById(transfer.getTransactionId()));
+        assertTrue(transactionRepository.findByAccountNumber(receiver.getAccountNumber()).isEmpty());
+        assertFalse(accountRepository.deleteWithTransactions(sender.getAccountId()));
+    }
+
+    @Test
+    void testDeleteCustomer_CascadesToAccounts() throws SQLException {
+        Customer customer = insertCustomer();
+        Account account = insertAccount(customer, new BigDecimal("100.00"));
+        Account other = insertAccount(insertCustomer(), new BigDecimal("100.00"));
+        Transaction transfer = newTransfer(account, other, new BigDecimal("10.00"));
+        assertEquals(TransferStatus.COMPLETED, transactionRepository.transfer(transfer));
+
+        assertTrue(customerRepository.deleteByAadharNumber(customer.getAadharNumber()));
+
+        assertNull(customerRepository.findById(customer.getCustomerId()));
+        assertFalse(accountRepository.existsById(account.getAccountId()));
+        assertFalse(accountRepository.existsByAccountNumber(account.getAccountNumber()));
+        assertFalse(transactionRepository.existsById(transfer.getTransactionId()));
+        assertFalse(customerRepository.deleteById(customer.getCustomerId()));
+    }
+
+    @Test
+    void testTransaction_FindBetweenDatesIsHalfOpen() throws SQLException {
+        Customer customer = insertCustomer();
+        Account sender = insertAccount(customer, new BigDecimal("1000.00"));
+        Account receiver = insertAccount(customer, new BigDecimal("1000.00"));
+        LocalDateTime base = LocalDateTime.now().withNano(0).minusDays(40);
+
+        Transaction lastMonth = newTransfer(sender, receiver, new BigDecimal("1.00"));
+        lastMonth.setCreatedDate(base);
+        Transaction boundary = newTransfer(sender, receiver, new BigDecimal("2.00"));
+        boundary.setCreatedDate(base.plusDays(10));
+        Transaction recent = newTransfer(receiver, sender, new BigDecimal("3.00"));
+        recent.setCreatedDate(base.plusDays(20));
+        for (Transaction transfer : List.of(lastMonth, boundary, recent)) {
+            assertEquals(TransferStatus.COMPLETED, transactionRepository.transfer(transfer));
+        }
+
+        List<Transaction> window = transactionRepository.findByAccountNumberBetween(
+                sender.getAccountNumber(), base.plusDays(1), base.plusDays(21));
+        assertEquals(List.of(recent.getTransactionId(), boundary.getTransactionId()),
+                window.stream().map(Transaction::getTransactionId).toList());
+
+        List<Transaction> excludingEnd = transactionRepository.findByAccountNumberBetween(
+                sender.getAccountNumber(), null, base.plusDays(10));
+        assertEquals(List.of(lastMonth.getTransactionId()),
+                excludingEnd.stream().map(Transaction::getTransactionId).toList());
+
+        List<String> all = transactionRepository.findAllBetween(base, base.plusDays(20)).stream()
+                .map(Transaction::getTransactionId)
+                .toList();
+        assertTrue(all.contains(lastMonth.getTransactionId()));
+        assertTrue(all.contains(boundary.getTransactionId()));
+        assertFalse(all.contains(recent.getTransactionId()));
+    }
+
+    @Test
+    void testTransaction_FindPageWalksHistoryWithoutGapsOrRepeats() throws SQLException {
+        Customer customer = insertCustomer();
+        Account account = insertAccount(customer, new BigDecimal("1000.00"));
+        Account other = insertAccount(customer, new BigDecimal("1000.00"));
+        LocalDateTime base = LocalDateTime.now().withNano(0).minusDays(3);
+
+        // Two transfers share a timestamp so the transaction id has to break the tie.
+        for (int i = 0; i < 5; i++) {
+            Transaction transfer = i % 2 == 0
+                    ? newTransfer(account, other, new BigDecimal("1.00"))
+                    : newTransfer(other, account, new BigDecimal("1.00"));
+            transfer.setCreatedDate(base.plusHours(Math.min(i, 3)));
+            assertEquals(TransferStatus.COMPLETED, transactionRepository.transfer(transfer));
+        }
+
+        List<String> expected = transactionRepository.findByAccountNumber(account.getAccountNumber()).stream()
+                .map(Transaction::getTransactionId)
+                .toList();
+        assertEquals(5, expected.size());
+
+        List<String> walked = new ArrayList<>();
+        TransactionCursor cursor = null;
+        for (int pages = 0; pages < 10; pages++) {
+            List<Transaction> page = transactionRepository.findPageByAccountNumber(
+                    account.getAccountNumber(), null, null, cursor, 2);
+            assertTrue(page.size() <= 2);
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(transaction -> walked.add(transaction.getTransactionId()));
+            cursor = TransactionCursor.decode(TransactionCursor.after(page.get(page.size() - 1)).encode());
+        }
+        assertEquals(expected, walked);
+
+        List<Transaction> windowed = transactionRepository.findPageByAccountNumber(
+                account.getAccountNumber(), base.plusHours(1), base.plusHours(3), null, 10);
+        assertEquals(expected.subList(2, 4), windowed.stream().map(Transaction::getTransactionId).toList());
+    }
+
+    @Test
+    void testStreamAll_MatchesFindAll() throws Exception {
+        Customer customer = insertCustomer();
+        Account sender = insertAccount(customer, new BigDecimal("100.00"));
+        Account receiver = insertAccount(insertCustomer(), new BigDecimal("100.00"));
+        assertEquals(TransferStatus.COMPLETED,
+                transactionRepository.transfer(newTransfer(sender, receiver, new BigDecimal("5.00"))));
+        insertUser();
+
+        List<String> accounts = new ArrayList<>();
+        accountRepository.streamAll(account -> accounts.add(account.getAccountId()));
+        assertEquals(accountRepository.findAll().stream().map(Account::getAccountId).toList(), accounts);
+
+        List<String> customers = new ArrayList<>();
+        customerRepository.streamAll(row -> customers.add(row.getCustomerId()));
+        assertEquals(customerRepository.findAll().stream().map(Customer::getCustomerId).toList(), customers);
+
+        List<User> users = new ArrayList<>();
+        userRepository.streamAll(users::add);
+        assertEquals(userRepository.findAll().stream().map(User::getId).toList(),
+                users.stream().map(User::getId).toList());
+        assertTrue(users.stream().allMatch(user -> user.getPassword() == null));
+
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+        List<String> transactions = new ArrayList<>();
+        transactionRepository.streamAllBetween(from, null, transaction -> transactions.add(transaction.getTransactionId()));
+        assertEquals(transactionRepository.findAllBetween(from, null).stream().map(Transaction::getTransactionId).toList(),
+                transactions);
+        assertFalse(transactions.isEmpty());
+    }
+
+    @Test
+    void testTransaction_DeleteById() throws SQLException {
+        Customer customer = insertCustomer();
+        Account sender = insertAccount(customer, new BigDecimal("100.00"));
+        Account receiver = insertAccount(customer, new BigDecimal("100.00"));
+        Transaction transfer = newTransfer(sender, receiver, new BigDecimal("10.00"));
+        assertEquals(TransferStatus.COMPLETED, transactionRepository.transfer(transfer));
+
+        assertTrue(transactionRepository.deleteById(transfer.getTransactionId()));
+
+        assertFalse(transactionRepository.existsById(transfer.getTransactionId()));
+        assertTrue(transactionRepository.findByAccountNumber(sender.getAccountNumber()).isEmpty());
+        assertFalse(transactionRepository.deleteById(transfer.getTransactionId()));
+    }
+
+    @Test
+    void testUser_InsertFindAndUpdateStatus() throws SQLException {
+        User user = insertUser();
+
+        User byEmail = userRepository.findByEmail(user.getEmail());
+        assertNotNull(byEmail);
+        assertEquals(user.getId(), byEmail.getId());
+        assertEquals("secret123", byEmail.getPassword());
+        assertTrue(byEmail.isActive());
+        assertEquals(user.getFullName(), userRepository.findById(user.getId()).getFullName());
+        assertTrue(userRepository.existsByEmail(user.getEmail()));
+
+        assertTrue(userRepository.updateStatus(user.getEmail(), false, LocalDateTime.now().withNano(0)));
+        assertFalse(userRepository.findById(user.getId()).isActive());
+        assertFalse(userRepository.updateStatus(nextId() + "@example.com", true, LocalDateTime.now().withNano(0)));
+
+        User listed = userRepository.findAll().stream()
+                .filter(u -> u.getId().equals(user.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertNull(listed.getPassword());
+    }
+
+    @Test
+    void testUser_DuplicateEmailRejected() throws SQLException {
+        User existing = insertUser();
+        User duplicate = newUser();
+        duplicate.setEmail(existing.getEmail());
+
+        assertThrows(SQLIntegrityConstraintViolationException.class, () -> userRepository.insert(duplicate));
+        assertNull(userRepository.findById(duplicate.getId()));
+    }
+
+    @Test
+    void testSequence_BlocksAreDisjoint() throws SQLException {
+        String sequence = nextId();
+
+        assertEquals(-1, sequenceRepository.allocateBlock(sequence, 10));
+        assertTrue(sequenceRepository.createSequence(sequence, 100));
+        assertFalse(sequenceRepository.createSequence(sequence, 1));
+
+        assertEquals(100, sequenceRepository.allocateBlock(sequence, 10));
+        assertEquals(110, sequenceRepository.allocateBlock(sequence, 25));
+        assertEquals(135, sequenceRepository.allocateBlock(sequence, 1));
+    }
+
+    @Test
+    void testStandingInstruction_FindDuePagesAfterTheLastRowRead() throws SQLException {
+        LocalDateTime base = LocalDateTime.of(1999, 6, 1, 9, 0);
+        List<String> expected = new ArrayList<>();
+        expected.add(insertInstruction(base.minusHours(1)).getInstructionId());
+        for (int i = 0; i < 3; i++) {
+            expected.add(insertInstruction(base).getInstructionId());
+        }
+
+        // Rows due at the same time are told apart by instruction id, so none is read twice or skipped.
+        List<String> read = new ArrayList<>();
+        List<StandingInstruction> page = standingInstructionRepository.findDue(base, null, null, 2);
+        while (!page.isEmpty()) {
+            for (StandingInstruction instruction : page) {
+                if (expected.contains(instruction.getInstructionId())) {
+                    read.add(instruction.getInstructionId());
+                }
+            }
+            StandingInstruction last = page.get(page.size() - 1);
+            page = standingInstructionRepository.findDue(base, last.getNextRunAt(), last.getInstructionId(), 2);
+        }
+        assertEquals(expected.get(0), read.get(0));
+        assertEquals(Set.copyOf(expected), Set.copyOf(read));
+        assertEquals(expected.size(), read.size());
+    }
+
+    @Test
+    void testStandingInstruction_FindDueSkipsFutureAndCancelled() throws SQLException {
+        LocalDateTime base = LocalDateTime.of(2000, 1, 1, 9, 0);
+        StandingInstruction later = insertInstruction(base.plusHours(2));
+        StandingInstruction earlier = insertInstruction(base.plusHours(1));
+        StandingInstruction cancelled = insertInstruction(base.plusHours(1));
+        StandingInstruction future = insertInstruction(base.plusDays(1));
+
+        assertTrue(standingInstructionRepository.cancel(cancelled.getInstructionId()));
+        assertFalse(standingInstructionRepository.cancel(cancelled.getInstructionId()));
+
+        List<String> due = new ArrayList<>();
+        for (StandingInstruction instruction : standingInstructionRepository.findDue(base.plusHours(3), null, null, 1000)) {
+            due.add(instruction.getInstructionId());
+        }
+        assertTrue(due.indexOf(earlier.getInstructionId()) >= 0);
+        assertTrue(due.indexOf(earlier.getInstructionId()) < due.indexOf(later.getInstructionId()));
+        assertFalse(due.contains(cancelled.getInstructionId()));
+        assertFalse(due.contains(future.getInstructionId()));
+
+        assertEquals("CANCELLED", standingInstructionRepository.findById(cancelled.getInstructionId()).getStatus());
+        assertEquals(1, standingInstructionRepository.findBySenderAccountNumber(earlier.getSenderAccountNumber()).size());
+    }
+
+    @Test
+    void testStandingInstruction_ClaimIsExclusiveUntilRecorded() throws SQLException {
+        LocalDateTime now = LocalDateTime.of(2000, 1, 1, 9, 0);
+        StandingInstruction due = insertInstruction(now.minusMinutes(1));
+        StandingInstruction notDue = insertInstruction(now.plusMinutes(1));
+
+        List<StandingInstruction> claimed = standingInstructionRepository.claimDue(
+                Map.of(due.getInstructionId(), "TXN_A", notDue.getInstructionId(), "TXN_B"), now);
+        assertEquals(1, claimed.size());
+        assertEquals(due.getInstructionId(), claimed.get(0).getInstructionId());
+        assertEquals("TXN_A", claimed.get(0).getPendingTransactionId());
+
+        assertTrue(standingInstructionRepository.claimDue(Map.of(due.getInstructionId(), "TXN_C"), now).isEmpty());
+
+        StandingInstruction run = claimed.get(0);
+        run.setOccurrence(1);
+        run.setNextRunAt(now.plusDays(1));
+        run.setLastRunAt(now);
+        run.setLastTransactionId("TXN_A");
+        standingInstructionRepository.recordRuns(List.of(run));
+
+        StandingInstruction stored = standingInstructionRepository.findById(due.getInstructionId());
+        assertNull(stored.getPendingTransactionId());
+        assertEquals(1, stored.getOccurrence());
+        assertEquals(now.plusDays(1), stored.getNextRunAt());
+        assertEquals("TXN_A", stored.getLastTransactionId());
+        assertEquals("ACTIVE", stored.getStatus());
+    }
+
+    @Test
+    void testStandingInstruction_TakeOverIsACompareAndSetOnTheClaim() throws SQLException {
+        LocalDateTime now = LocalDateTime.of(2000, 1, 1, 9, 0);
+        StandingInstruction instruction = insertInstruction(now.minusMinutes(1));
+        standingInstructionRepository.claimDue(Map.of(instruction.getInstructionId(), "TXN_A"), now);
+
+        StandingInstruction first = standingInstructionRepository.findById(instruction.getInstructionId());
+        StandingInstruction second = standingInstructionRepository.findById(instruction.getInstructionId());
+        assertEquals(now, first.getClaimedAt());
+
+        List<StandingInstruction> taken = standingInstructionRepository.takeOverClaims(List.of(first), now.plusHours(1));
+        assertEquals(1, taken.size());
+        assertEquals(now.plusHours(1), taken.get(0).getClaimedAt());
+        assertTrue(standingInstructionRepository.takeOverClaims(List.of(second), now.plusHours(1)).isEmpty());
+
+        StandingInstruction stored = standingInstructionRepository.findById(instruction.getInstructionId());
+        assertEquals("TXN_A", stored.getPendingTransactionId());
+        assertEquals(now.plusHours(1), stored.getClaimedAt());
+
+        standingInstructionRepository.recordRuns(taken);
+        assertNull(standingInstructionRepository.findById(instruction.getInstructionId()).getClaimedAt());
+    }
+
+    @Test
+    void testStandingInstruction_CancelDuringRunStaysCancelled() throws SQLException {
+        LocalDateTime now = LocalDateTime.of(2000, 1, 1, 9, 0);
+        StandingInstruction instruction = insertInstruction(now);
+
+        StandingInstruction run = standingInstructionRepository.claimDue(
+                Map.of(instruction.getInstructionId(), "TXN_A"), now).get(0);
+        assertTrue(standingInstructionRepository.cancel(instruction.getInstructionId()));
+
+        run.setOccurrence(1);
+        run.setLastTransactionId("TXN_A");
+        standingInstructionRepository.recordRuns(List.of(run));
+
+        StandingInstruction stored = standingInstructionRepository.findById(instruction.getInstructionId());
+        assertEquals("CANCELLED", stored.getStatus());
+        assertEquals("TXN_A", stored.getLastTransactionId());
+        assertNull(stored.getPendingTransactionId());
+    }
+
+    private StandingInstruction insertInstruction(LocalDateTime nextRunAt) throws SQLException {
+        StandingInstruction instruction = new StandingInstruction();
+        instruction.setInstructionId(nextId());
+        instruction.setSenderAccountNumber(randomDigits(12));
+        instruction.setReceiverAccountNumber(randomDigits(12));
+        instruction.setAmount(new BigDecimal("25.00"));
+        instruction.setFrequency("DAILY");
+        instruction.setStartAt(nextRunAt);
+        instruction.setNextRunAt(nextRunAt);
+        instruction.setStatus("ACTIVE");
+        instruction.setCreatedAt(LocalDateTime.now().withNano(0));
+        assertTrue(standingInstructionRepository.insert(instruction));
+        createdInstructionIds.add(instruction.getInstructionId());
+        return instruction;
+    }
+
+    private Customer insertCustomer() throws SQLException {
+        Customer customer = newCustomer();
+        assertTrue(customerRepository.insert(customer));
+        createdCustomerIds.add(customer.getCustomerId());
+        return customer;
+    }
+
+    private Customer newCustomer() {
+        String id = nextId();
+        return new Customer(id, "Conformance " + id, randomDigits(10), id.toLowerCase() + "@example.com",
+                "1 Test Street", "123456", randomDigits(12), LocalDate.of(1990, 1, 15), "Active");
+    }
+
+    private Account insertAccount(Customer customer, BigDecimal amount) throws SQLException {
+        Account account = newAccount(customer.getCustomerId(), randomDigits(16), amount);
+        account.setAadharNumber(customer.getAadharNumber());
+        account.setPhoneNumberLinked(customer.getPhoneNumber());
+        assertTrue(accountRepository.insert(account));
+        return account;
+    }
+
+    private Account newAccount(String customerId, String accountNumber, BigDecimal amount) {
+        Account account = new Account();
+        account.setAccountId(nextId());
+        account.setCustomerId(customerId);
+        account.setAccountNumber(accountNumber);
+        account.setAadharNumber(randomDigits(12));
+        account.setIfscCode("SBIN0001234");
+        account.setPhoneNumberLinked(randomDigits(10));
+        account.setAmount(amount);
+        account.setBankName("Conformance Bank");
+        account.setNameOnAccount("Conformance Holder");
+        account.setStatus("ACTIVE");
+        return account;
+    }
+
+    private Transaction newTransfer(Account sender, Account receiver, BigDecimal amount) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(nextId());
+        transaction.setSenderAccountNumber(sender.getAccountNumber());
+        transaction.setReceiverAccountNumber(receiver.getAccountNumber());
+        transaction.setAmount(amount);
+        transaction.setDescription("conformance");
+        transaction.setCreatedDate(LocalDateTime.now().withNano(0));
+        return transaction;
+    }
+
+    private User insertUser() throws SQLException {
+        User user = newUser();
+        assertTrue(userRepository.insert(user));
+        createdUserIds.add(user.getId());
+        return user;
+    }
+
+    private User newUser() {
+        String id = nextId();
+        User user = new User(id, "Conformance User", id.toLowerCase() + "@example.com", "secret123");
+        user.setCreatedAt(LocalDateTime.now().withNano(0));
+        user.setUpdatedAt(user.getCreatedAt());
+        return user;
+    }
+
+    private static String nextId() {
+        return PREFIX + UUID.randomUUID().toString().substring(0, 8) + SEQUENCE.incrementAndGet();
+    }
+
+    private static String randomDigits(int length) {
+        StringBuilder digits = new StringBuilder();
+        digits.append(ThreadLocalRandom.current().nextInt(1, 10));
+        while (digits.length() < length) {
+            digits.append(ThreadLocalRandom.current().nextInt(10));
+        }
+        return digits.toString();
+    }
+}
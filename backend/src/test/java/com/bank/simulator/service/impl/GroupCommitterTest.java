@@ -0,0 +1,216 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.model.Account;
+import com.bank.simulator.model.Customer;
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.repository.AccountRepository;
+import com.bank.simulator.repository.TransferStatus;
+import com.bank.simulator.repository.memory.InMemoryAccountRepository;
+import com.bank.simulator.repository.memory.InMemoryCustomerRepository;
+import com.bank.simulator.repository.memory.InMemoryStore;
+import com.bank.simulator.repository.memory.InMemoryTransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupCommitterTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private InMemoryStore store;
+    private AccountRepository accountRepository;
+    private String customerId;
+    private GroupCommitter committer;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        store = new InMemoryStore(16);
+        accountRepository = new InMemoryAccountRepository(store);
+
+        customerId = "CUST_G" + SEQUENCE.incrementAndGet();
+        assertTrue(new InMemoryCustomerRepository(store).insert(new Customer(customerId, "Group Test",
+                "9" + digits(9), customerId.toLowerCase() + "@example.com", "1 Test Street", "123456",
+                digits(12), LocalDate.of(1990, 1, 15), "Active")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (committer != null) {
+            committer.shutdown();
+        }
+    }
+
+    @Test
+    void testTransfer_ConcurrentTransfersShareCommits() throws Exception {
+        committer = new GroupCommitter(1, 50_000, 16, 10_000, new InMemoryTransactionRepository(store));
+        Account sender = insertAccount(new BigDecimal("100.00"));
+        Account receiver = insertAccount(BigDecimal.ZERO);
+
+        List<CompletableFuture<TransferStatus>> results = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            results.add(committer.submit(newTransfer(sender, receiver, BigDecimal.ONE)));
+        }
+        for (CompletableFuture<TransferStatus> result : results) {
+            assertEquals(TransferStatus.COMPLETED, result.get(5, TimeUnit.SECONDS));
+        }
+
+        GroupCommitStats stats = committer.getStats();
+        assertEquals(40, stats.getTransfers());
+        assertTrue(stats.getCommits() < 40, "commits were " + stats.getCommits());
+        assertTrue(stats.getLargestGroup() <= 16);
+        assertEquals(0, new BigDecimal("60.00").compareTo(accountRepository.findBalanceByAccountNumber(sender.getAccountNumber())));
+    }
+
+    @Test
+    void testTransfer_EachCallerGetsItsOwnStatus() throws Exception {
+        committer = new GroupCommitter(2, 20_000, 64, 10_000, new InMemoryTransactionRepository(store));
+        Account sender = insertAccount(new BigDecimal("10.00"));
+        Account receiver = insertAccount(BigDecimal.ZERO);
+        Account missing = new Account();
+        missing.setAccountNumber(digits(16));
+
+        CompletableFuture<TransferStatus> tooLarge = committer.submit(newTransfer(sender, receiver, new BigDecimal("10.01")));
+        CompletableFuture<TransferStatus> noReceiver = committer.submit(newTransfer(sender, missing, BigDecimal.ONE));
+        CompletableFuture<TransferStatus> fits = committer.submit(newTransfer(sender, receiver, new BigDecimal("10.00")));
+
+        assertEquals(TransferStatus.INSUFFICIENT_BALANCE, tooLarge.get(5, TimeUnit.SECONDS));
+        assertEquals(TransferStatus.RECEIVER_NOT_FOUND, noReceiver.get(5, TimeUnit.SECONDS));
+        assertEquals(TransferStatus.COMPLETED, fits.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testTransfer_FailedGroupFallsBackToSingleTransfers() throws Exception {
+        InMemoryTransactionRepository failingBatches = new InMemoryTransactionRepository(store) {
+            @Override
+            public List<TransferStatus> transferBatch(List<Transaction> transactions) throws SQLException {
+                throw new SQLTransientException("simulated batch failure");
+            }
+        };
+        committer = new GroupCommitter(1, 10_000, 8, 10_000, failingBatches);
+        Account sender = insertAccount(new BigDecimal("5.00"));
+        Account receiver = insertAccount(BigDecimal.ZERO);
+
+        List<CompletableFuture<TransferStatus>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(committer.submit(newTransfer(sender, receiver, BigDecimal.ONE)));
+        }
+        for (CompletableFuture<TransferStatus> result : results) {
+            assertEquals(TransferStatus.COMPLETED, result.get(5, TimeUnit.SECONDS));
+        }
+
+        GroupCommitStats stats = committer.getStats();
+        assertTrue(stats.getFallbackGroups() >= 1);
+        assertEquals(5, stats.getCommits());
+        assertEquals(0, BigDecimal.ZERO.compareTo(accountRepository.findBalanceByAccountNumber(sender.getAccountNumber())));
+    }
+
+    @Test
+    void testTransfer_TimedOutBeforeBeingTakenIsNeverApplied() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        committer = new GroupCommitter(1, 0, 1, 200, blockingBatches(release));
+        Account sender = insertAccount(new BigDecimal("5.00"));
+        Account receiver = insertAccount(BigDecimal.ZERO);
+
+        // The only committer is stuck on the first transfer, so the second is still queued.
+        CompletableFuture<TransferStatus> first = committer.submit(newTransfer(sender, receiver, BigDecimal.ONE));
+        SQLException e = assertThrows(SQLTransientException.class,
+                () -> committer.transfer(newTransfer(sender, receiver, new BigDecimal("2.00"))));
+        release.countDown();
+
+        assertTrue(e.getMessage().contains("not applied"), e.getMessage());
+        assertEquals(TransferStatus.COMPLETED, first.get(5, TimeUnit.SECONDS));
+        committer.shutdown();
+        assertEquals(0, new BigDecimal("4.00").compareTo(accountRepository.findBalanceByAccountNumber(sender.getAccountNumber())));
+        assertEquals(1, committer.getStats().getTransfers());
+    }
+
+    @Test
+    void testTransfer_TimedOutWhileBeingCommittedIsReportedAsUnknown() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        committer = new GroupCommitter(1, 0, 1, 200, blockingBatches(release));
+        Account sender = insertAccount(new BigDecimal("5.00"));
+        Account receiver = insertAccount(BigDecimal.ZERO);
+
+        SQLException e = assertThrows(SQLTransientException.class,
+                () -> committer.transfer(newTransfer(sender, receiver, BigDecimal.ONE)));
+        release.countDown();
+        committer.shutdown();
+
+        assertTrue(e.getMessage().contains("outcome unknown"), e.getMessage());
+        assertEquals(0, new BigDecimal("4.00").compareTo(accountRepository.findBalanceByAccountNumber(sender.getAccountNumber())));
+    }
+
+    @Test
+    void testSubmit_RejectedAfterShutdown() {
+        committer = new GroupCommitter(1, 0, 8, 10_000, new InMemoryTransactionRepository(store));
+        committer.shutdown();
+
+        Account account = new Account();
+        account.setAccountNumber(digits(16));
+        assertTrue(committer.submit(newTransfer(account, account, BigDecimal.ONE)).isCompletedExceptionally());
+    }
+
+    private InMemoryTransactionRepository blockingBatches(CountDownLatch release) {
+        return new InMemoryTransactionRepository(store) {
+            @Override
+            public List<TransferStatus> transferBatch(List<Transaction> transactions) throws SQLException {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.transferBatch(transactions);
+            }
+        };
+    }
+
+    private Account insertAccount(BigDecimal amount) throws SQLException {
+        Account account = new Account();
+        account.setAccountId("ACC_G" + SEQUENCE.incrementAndGet());
+        account.setCustomerId(customerId);
+        account.setAccountNumber(digits(16));
+        account.setAadharNumber(digits(12));
+        account.setIfscCode("SBIN0001234");
+        account.setPhoneNumberLinked(digits(10));
+        account.setAmount(amount);
+        account.setBankName("Group Bank");
+        account.setNameOnAccount("Group Holder");
+        account.setStatus("ACTIVE");
+        assertTrue(accountRepository.insert(account));
+        return account;
+    }
+
+    private static Transaction newTransfer(Account sender, Account receiver, BigDecimal amount) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId("TXN_G" + SEQUENCE.incrementAndGet());
+        transaction.setSenderAccountNumber(sender.getAccountNumber());
+        transaction.setReceiverAccountNumber(receiver.getAccountNumber());
+        transaction.setAmount(amount);
+        transaction.setCreatedDate(LocalDateTime.now().withNano(0));
+        return transaction;
+    }
+
+    private static String digits(int length) {
+        StringBuilder digits = new StringBuilder();
+        Random random = new Random();
+        for (int i = 0; i < length; i++) {
+            digits.append(random.nextInt(10));
+        }
+        return digits.toString();
+    }
+}
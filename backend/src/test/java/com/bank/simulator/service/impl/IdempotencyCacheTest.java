@@ -0,0 +1,102 @@
+package com.bank.simulator.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    @Test
+    void testClaim_FirstRequestOwnsKeyAndRetryReplaysOutcome() throws Exception {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(10, 60_000);
+
+        IdempotencyCache.Claim<String> first = cache.claim("key-1", "hash");
+        assertTrue(first.isOwner());
+        cache.complete(first, "TXN_1", true);
+
+        IdempotencyCache.Claim<String> retry = cache.claim("key-1", "hash");
+        assertFalse(retry.isOwner());
+        assertFalse(retry.isConflict());
+        assertEquals("TXN_1", retry.await(1000));
+    }
+
+    @Test
+    void testClaim_DifferentFingerprintIsConflict() {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(10, 60_000);
+
+        cache.claim("key-1", "hash");
+        IdempotencyCache.Claim<String> other = cache.claim("key-1", "other-hash");
+
+        assertTrue(other.isConflict());
+        assertFalse(other.isOwner());
+    }
+
+    @Test
+    void testClaim_InFlightRequestIsAwaitedNotRepeated() throws Exception {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(10, 60_000);
+        IdempotencyCache.Claim<String> owner = cache.claim("key-1", "hash");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<String> waiter = executor.submit(() -> {
+                IdempotencyCache.Claim<String> claim = cache.claim("key-1", "hash");
+                assertFalse(claim.isOwner());
+                return claim.await(5000);
+            });
+
+            Thread.sleep(50);
+            assertFalse(waiter.isDone());
+            cache.complete(owner, "TXN_1", true);
+            assertEquals("TXN_1", waiter.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testComplete_UnretainedOutcomeReachesWaitersButFreesKey() throws Exception {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(10, 60_000);
+        IdempotencyCache.Claim<String> owner = cache.claim("key-1", "hash");
+        IdempotencyCache.Claim<String> waiter = cache.claim("key-1", "hash");
+
+        cache.complete(owner, "FAILED", false);
+
+        assertEquals("FAILED", waiter.await(1000));
+        assertTrue(cache.claim("key-1", "hash").isOwner());
+    }
+
+    @Test
+    void testClaim_ExpiredOutcomeIsForgotten() {
+        AtomicLong clock = new AtomicLong(1_000);
+        IdempotencyCache<String> cache = new IdempotencyCache<>(10, 500, clock::get);
+
+        cache.complete(cache.claim("key-1", "hash"), "TXN_1", true);
+        clock.addAndGet(499);
+        assertFalse(cache.claim("key-1", "hash").isOwner());
+
+        clock.addAndGet(1);
+        assertTrue(cache.claim("key-1", "hash").isOwner());
+    }
+
+    @Test
+    void testClaim_SizeIsBoundedButInFlightKeysSurvive() {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(3, 60_000);
+
+        IdempotencyCache.Claim<String> inFlight = cache.claim("in-flight", "hash");
+        for (int i = 0; i < 10; i++) {
+            cache.complete(cache.claim("key-" + i, "hash"), "TXN_" + i, true);
+        }
+
+        assertEquals(3, cache.size());
+        assertFalse(cache.claim("in-flight", "hash").isOwner());
+        assertFalse(cache.claim("key-9", "hash").isOwner());
+        assertTrue(cache.claim("key-0", "hash").isOwner());
+        cache.complete(inFlight, "TXN_X", true);
+    }
+}
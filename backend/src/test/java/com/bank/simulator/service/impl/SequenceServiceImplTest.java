@@ -0,0 +1,157 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.repository.SequenceRepository;
+import com.bank.simulator.repository.memory.InMemorySequenceRepository;
+import com.bank.simulator.repository.memory.InMemoryStore;
+import com.bank.simulator.service.SequenceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequenceServiceImplTest {
+
+    private SequenceRepository repository;
+    private AtomicInteger blockAllocations;
+
+    @BeforeEach
+    void setUp() {
+        blockAllocations = new AtomicInteger();
+        SequenceRepository store = new InMemorySequenceRepository(new InMemoryStore(4));
+        repository = new SequenceRepository() {
+            @Override
+            public long allocateBlock(String sequenceName, int blockSize) throws SQLException {
+                blockAllocations.incrementAndGet();
+                return store.allocateBlock(sequenceName, blockSize);
+            }
+
+            @Override
+            public boolean createSequence(String sequenceName, long firstValue) throws SQLException {
+                return store.createSequence(sequenceName, firstValue);
+            }
+        };
+    }
+
+    @Test
+    void testNextValue_SeedsFromExistingMaximum() {
+        SequenceServiceImpl service = new SequenceServiceImpl(repository, 10,
+                Map.of(SequenceService.ACCOUNT_SEQUENCE, () -> 41));
+
+        assertEquals(42, service.nextValue(SequenceService.ACCOUNT_SEQUENCE));
+        assertEquals(43, service.nextValue(SequenceService.ACCOUNT_SEQUENCE));
+    }
+
+    @Test
+    void testNextValue_UnknownSequenceStartsAtOne() {
+        SequenceServiceImpl service = new SequenceServiceImpl(repository, 10, Map.of());
+
+        assertEquals(1, service.nextValue("OTHER"));
+    }
+
+    @Test
+    void testNextValue_OneRepositoryRoundTripPerBlock() {
+        SequenceServiceImpl service = new SequenceServiceImpl(repository, 5, Map.of());
+
+        for (int i = 1; i <= 12; i++) {
+            assertEquals(i, service.nextValue("ACC"));
+        }
+
+        // One miss before the sequence exists, then blocks [1,6), [6,11) and [11,16).
+        assertEquals(4, blockAllocations.get());
+    }
+
+    @Test
+    void testNextValue_SeedRunsOnlyOnce() {
+        AtomicInteger seedCalls = new AtomicInteger();
+        SequenceServiceImpl service = new SequenceServiceImpl(repository, 2,
+                Map.of("CUST", () -> { seedCalls.incrementAndGet(); return 0; }));
+
+        for (int i = 0; i < 7; i++) {
+            service.nextValue("CUST");
+        }
+
+        assertEquals(1, seedCalls.get());
+    }
+
+    @Test
+    void testNextValue_SequencesAreIndependent() {
+        SequenceServiceImpl service = new SequenceServiceImpl(repository, 10,
+                Map.of("ACC", () -> 100, "USER", () -> 5));
+
+        assertEquals(101, service.nextValue("ACC"));
+        assertEquals(6, service.nextValue("USER"));
+        assertEquals(102, service.nextValue("ACC"));
+    }
+
+    @Test
+    void testNextValue_TwoNodesNeverCollide() {
+        SequenceServiceImpl nodeA = new SequenceServiceImpl(repository, 3, Map.of());
+        SequenceServiceImpl nodeB = new SequenceServiceImpl(repository, 3, Map.of());
+        Set<Long> issued = ConcurrentHashMap.newKeySet();
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(issued.add(nodeA.nextValue("ACC")));
+            assertTrue(issued.add(nodeB.nextValue("ACC")));
+        }
+
+        assertEquals(40, issued.size());
+    }
+
+    @Test
+    void testNextValue_ConcurrentCallersGetUniqueValues() throws Exception {
+        SequenceServiceImpl service = new SequenceServiceImpl(repository, 7, Map.of());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<Long>>> results = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    List<Long> values = new ArrayList<>();
+                    for (int i = 0; i < 500; i++) {
+                        values.add(service.nextValue("USER"));
+                    }
+                    return values;
+                }));
+            }
+
+            Set<Long> issued = ConcurrentHashMap.newKeySet();
+            for (Future<List<Long>> result : results) {
+                for (Long value : result.get()) {
+                    assertTrue(issued.add(value), "duplicate value " + value);
+                }
+            }
+            assertEquals(4000, issued.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testNextValue_RepositoryFailureIsReported() {
+        SequenceRepository failing = new SequenceRepository() {
+            @Override
+            public long allocateBlock(String sequenceName, int blockSize) throws SQLException {
+                throw new SQLException("database unavailable");
+            }
+
+            @Override
+            public boolean createSequence(String sequenceName, long firstValue) {
+                return false;
+            }
+        };
+        SequenceServiceImpl service = new SequenceServiceImpl(failing, 10, Map.of());
+
+        assertThrows(IllegalStateException.class, () -> service.nextValue("ACC"));
+    }
+}
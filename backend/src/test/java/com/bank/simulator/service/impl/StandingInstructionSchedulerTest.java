@@ -0,0 +1,253 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.model.BatchTransferResult;
+import com.bank.simulator.model.StandingInstruction;
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.repository.TransactionRepository;
+import com.bank.simulator.repository.memory.InMemoryStandingInstructionRepository;
+import com.bank.simulator.repository.memory.InMemoryStore;
+import com.bank.simulator.service.TransactionService;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StandingInstructionSchedulerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 31, 9, 0);
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 31, 9, 0, 5);
+
+    private final StandingInstructionScheduler scheduler =
+            new StandingInstructionScheduler(null, null, null, 8, 100, 60000, 100, 10, 3, 60000, 600000);
+
+    @Test
+    void testOccurrenceAt_MonthlyIsCountedFromTheStart() {
+        assertEquals(LocalDateTime.of(2024, 2, 29, 9, 0), StandingInstructionScheduler.occurrenceAt("MONTHLY", START, 1));
+        assertEquals(LocalDateTime.of(2024, 3, 31, 9, 0), StandingInstructionScheduler.occurrenceAt("MONTHLY", START, 2));
+        assertEquals(LocalDateTime.of(2024, 2, 14, 9, 0), StandingInstructionScheduler.occurrenceAt("WEEKLY", START, 2));
+        assertEquals(LocalDateTime.of(2024, 2, 1, 9, 0), StandingInstructionScheduler.occurrenceAt("DAILY", START, 1));
+    }
+
+    @Test
+    void testApplyOutcome_CompletedAdvancesToNextOccurrence() {
+        StandingInstruction instruction = newInstruction("DAILY");
+
+        scheduler.applyOutcome(instruction, "COMPLETED", "TXN_1", null, NOW);
+
+        assertEquals(1, instruction.getOccurrence());
+        assertEquals(START.plusDays(1), instruction.getNextRunAt());
+        assertEquals("TXN_1", instruction.getLastTransactionId());
+        assertEquals("ACTIVE", instruction.getStatus());
+    }
+
+    @Test
+    void testApplyOutcome_OneOffCompletes() {
+        StandingInstruction instruction = newInstruction("ONCE");
+
+        scheduler.applyOutcome(instruction, "COMPLETED", "TXN_1", null, NOW);
+
+        assertEquals("COMPLETED", instruction.getStatus());
+    }
+
+    @Test
+    void testApplyOutcome_StopsAfterEndDate() {
+        StandingInstruction instruction = newInstruction("WEEKLY");
+        instruction.setEndAt(START.plusDays(6));
+
+        scheduler.applyOutcome(instruction, "COMPLETED", "TXN_1", null, NOW);
+
+        assertEquals("COMPLETED", instruction.getStatus());
+    }
+
+    @Test
+    void testApplyOutcome_FailureRetriesThenSkipsOccurrence() {
+        StandingInstruction instruction = newInstruction("DAILY");
+
+        scheduler.applyOutcome(instruction, "INSUFFICIENT_BALANCE", null, "Insufficient balance", NOW);
+        assertEquals(1, instruction.getFailureCount());
+        assertEquals(NOW.plusMinutes(1), instruction.getNextRunAt());
+        assertEquals(0, instruction.getOccurrence());
+        assertEquals("INSUFFICIENT_BALANCE: Insufficient balance", instruction.getLastError());
+
+        scheduler.applyOutcome(instruction, "INSUFFICIENT_BALANCE", null, null, NOW);
+        scheduler.applyOutcome(instruction, "INSUFFICIENT_BALANCE", null, null, NOW);
+
+        assertEquals(0, instruction.getFailureCount());
+        assertEquals(1, instruction.getOccurrence());
+        assertEquals(START.plusDays(1), instruction.getNextRunAt());
+        assertEquals("ACTIVE", instruction.getStatus());
+    }
+
+    @Test
+    void testApplyOutcome_OneOffFailsAfterLastAttempt() {
+        StandingInstruction instruction = newInstruction("ONCE");
+
+        for (int i = 0; i < 3; i++) {
+            scheduler.applyOutcome(instruction, "SENDER_NOT_FOUND", null, null, NOW);
+        }
+
+        assertEquals("FAILED", instruction.getStatus());
+        assertEquals(0, instruction.getOccurrence());
+    }
+
+    @Test
+    void testLoad_LeavesAFreshClaimToItsOwner() throws Exception {
+        Resume resume = new Resume();
+        StandingInstruction instruction = resume.claimed(LocalDateTime.now());
+
+        resume.scheduler.load(System.currentTimeMillis());
+
+        assertTrue(resume.paid.isEmpty());
+        assertEquals(0, resume.existenceChecks);
+        assertEquals("TXN_PENDING", resume.repository.findById(instruction.getInstructionId()).getPendingTransactionId());
+    }
+
+    @Test
+    void testLoad_StaleClaimIsTakenOverAndRunUnderItsPendingId() throws Exception {
+        Resume resume = new Resume();
+        StandingInstruction instruction = resume.claimed(LocalDateTime.now().minusHours(1));
+
+        resume.scheduler.load(System.currentTimeMillis());
+
+        assertEquals(List.of("TXN_PENDING"), resume.paid);
+        StandingInstruction stored = resume.repository.findById(instruction.getInstructionId());
+        assertNull(stored.getPendingTransactionId());
+        assertEquals("TXN_PENDING", stored.getLastTransactionId());
+    }
+
+    @Test
+    void testLoad_StaleClaimAlreadyPaidIsOnlyRecorded() throws Exception {
+        Resume resume = new Resume();
+        resume.committed = true;
+        StandingInstruction instruction = resume.claimed(LocalDateTime.now().minusHours(1));
+
+        resume.scheduler.load(System.currentTimeMillis());
+
+        assertTrue(resume.paid.isEmpty());
+        assertEquals(1, resume.repository.findById(instruction.getInstructionId()).getOccurrence());
+    }
+
+    @Test
+    void testLoad_FailedExistenceCheckSkipsUntilTheNextLoad() throws Exception {
+        Resume resume = new Resume();
+        resume.failChecks = true;
+        StandingInstruction instruction = resume.claimed(LocalDateTime.now().minusHours(1));
+
+        resume.scheduler.load(System.currentTimeMillis());
+        assertTrue(resume.paid.isEmpty());
+        assertEquals("TXN_PENDING", resume.repository.findById(instruction.getInstructionId()).getPendingTransactionId());
+
+        // The take-over made the claim fresh again, but this node still holds it.
+        resume.failChecks = false;
+        resume.scheduler.load(System.currentTimeMillis());
+        assertEquals(List.of("TXN_PENDING"), resume.paid);
+    }
+
+    @Test
+    void testLoad_FullPageContinuesAfterTheLastInstructionLoaded() throws Exception {
+        Resume resume = new Resume(2);
+        LocalDateTime due = LocalDateTime.now().minusMinutes(1).withNano(0);
+        for (int i = 1; i <= 5; i++) {
+            StandingInstruction instruction = newInstruction("DAILY");
+            instruction.setInstructionId("SI_" + i);
+            instruction.setNextRunAt(i == 5 ? due.minusMinutes(1) : due);
+            resume.repository.insert(instruction);
+        }
+
+        for (int i = 0; i < 3; i++) {
+            resume.scheduler.load(System.currentTimeMillis());
+        }
+        assertEquals(List.of("SI_5", "SI_1", "SI_2", "SI_3", "SI_4"), resume.loaded);
+
+        // The short third page was the last, so the next load starts from the earliest again.
+        resume.scheduler.load(System.currentTimeMillis());
+        assertEquals(List.of("SI_5", "SI_1"), resume.loaded.subList(5, 7));
+    }
+
+    // A scheduler over an in-memory instruction table, with a transaction side that records
+    // what it is asked to pay.
+    private static final class Resume {
+        final List<String> loaded = new ArrayList<>();
+        final InMemoryStandingInstructionRepository repository =
+                new InMemoryStandingInstructionRepository(new InMemoryStore(4)) {
+                    @Override
+                    public List<StandingInstruction> findDue(LocalDateTime through, LocalDateTime afterRunAt,
+                                                             String afterInstructionId, int limit) {
+                        List<StandingInstruction> due = super.findDue(through, afterRunAt, afterInstructionId, limit);
+                        for (StandingInstruction instruction : due) {
+                            loaded.add(instruction.getInstructionId());
+                        }
+                        return due;
+                    }
+                };
+        final List<String> paid = new ArrayList<>();
+        int existenceChecks;
+        boolean committed;
+        boolean failChecks;
+        final StandingInstructionScheduler scheduler;
+
+        Resume() {
+            this(100);
+        }
+
+        Resume(int loadLimit) {
+            TransactionRepository transactions = (TransactionRepository) Proxy.newProxyInstance(
+                    getClass().getClassLoader(), new Class<?>[] {TransactionRepository.class}, (proxy, method, args) -> {
+                        if (!method.getName().equals("existsById")) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        existenceChecks++;
+                        if (failChecks) {
+                            throw new SQLException("Communications link failure", "08S01");
+                        }
+                        return committed;
+                    });
+            TransactionService service = (TransactionService) Proxy.newProxyInstance(
+                    getClass().getClassLoader(), new Class<?>[] {TransactionService.class}, (proxy, method, args) -> {
+                        if (!method.getName().equals("createScheduledTransactionBatch")) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        List<BatchTransferResult> results = new ArrayList<>();
+                        @SuppressWarnings("unchecked")
+                        List<Transaction> transfers = (List<Transaction>) args[0];
+                        for (int i = 0; i < transfers.size(); i++) {
+                            paid.add(transfers.get(i).getTransactionId());
+                            results.add(new BatchTransferResult(i, "COMPLETED", transfers.get(i).getTransactionId(), null));
+                        }
+                        return results;
+                    });
+            scheduler = new StandingInstructionScheduler(repository, transactions, service,
+                    8, 100, 60000, loadLimit, 10, 3, 60000, 600000);
+        }
+
+        StandingInstruction claimed(LocalDateTime claimedAt) throws SQLException {
+            StandingInstruction instruction = newInstruction("DAILY");
+            instruction.setStartAt(claimedAt.minusMinutes(1));
+            instruction.setNextRunAt(claimedAt.minusMinutes(1));
+            instruction.setCreatedAt(claimedAt.minusMinutes(1));
+            repository.insert(instruction);
+            assertEquals(1, repository.claimDue(Map.of(instruction.getInstructionId(), "TXN_PENDING"), claimedAt).size());
+            return instruction;
+        }
+    }
+
+    private static StandingInstruction newInstruction(String frequency) {
+        StandingInstruction instruction = new StandingInstruction();
+        instruction.setInstructionId("SI_1");
+        instruction.setSenderAccountNumber("1234567890");
+        instruction.setReceiverAccountNumber("0987654321");
+        instruction.setAmount(new BigDecimal("100.00"));
+        instruction.setFrequency(frequency);
+        instruction.setStartAt(START);
+        instruction.setNextRunAt(START);
+        instruction.setStatus("ACTIVE");
+        return instruction;
+    }
+}
@@ -0,0 +1,56 @@
+package com.bank.simulator.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void testAdvance_FiresOnlyAfterTheTickHasElapsed() {
+        TimingWheel<String> wheel = new TimingWheel<>(8, 100, 0);
+        wheel.schedule("a", 250);
+
+        assertTrue(wheel.advance(299).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(300));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testAdvance_DeadlineSeveralTurnsAwayWaitsItsRounds() {
+        TimingWheel<String> wheel = new TimingWheel<>(4, 10, 0);
+        wheel.schedule("far", 105);
+        wheel.schedule("near", 5);
+
+        assertEquals(List.of("near"), wheel.advance(10));
+        assertTrue(wheel.advance(109).isEmpty());
+        assertEquals(List.of("far"), wheel.advance(110));
+    }
+
+    @Test
+    void testSchedule_PastDeadlineFiresOnNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(8, 100, 0);
+        assertTrue(wheel.advance(1000).isEmpty());
+
+        wheel.schedule("late", 50);
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("late"), wheel.advance(1100));
+    }
+
+    @Test
+    void testAdvance_ReturnsItemsInDeadlineOrder() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(16, 10, 0);
+        for (int i = 9; i >= 0; i--) {
+            wheel.schedule(i, i * 10L);
+        }
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), wheel.advance(1000));
+    }
+
+    @Test
+    void testConstructor_RejectsNonPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(10, 100, 0));
+    }
+}
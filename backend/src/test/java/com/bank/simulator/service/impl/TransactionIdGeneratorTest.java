@@ -0,0 +1,141 @@
+package com.bank.simulator.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIdGeneratorTest {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+
+    private static long millis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    @Test
+    void testNext_FormatKeepsReadableDatePrefix() {
+        AtomicLong clock = new AtomicLong(millis(LocalDateTime.of(2026, 10, 17, 9, 30)));
+        TransactionIdGenerator generator = new TransactionIdGenerator(42, ZONE, clock::get);
+
+        assertEquals("TXN_20261017_0042_0000000001", generator.next());
+        assertEquals("TXN_20261017_0042_0000000002", generator.next());
+    }
+
+    @Test
+    void testNext_StaysSortedPastOneThousandPerDay() {
+        AtomicLong clock = new AtomicLong(millis(LocalDateTime.of(2026, 10, 17, 9, 30)));
+        TransactionIdGenerator generator = new TransactionIdGenerator(1, ZONE, clock::get);
+
+        String previous = generator.next();
+        for (int i = 0; i < 2500; i++) {
+            String next = generator.next();
+            assertTrue(next.compareTo(previous) > 0, next + " should sort after " + previous);
+            previous = next;
+        }
+        assertEquals("TXN_20261017_0001_0000002501", previous);
+    }
+
+    @Test
+    void testNext_DayRolloverResetsCounter() {
+        AtomicLong clock = new AtomicLong(millis(LocalDateTime.of(2026, 10, 17, 23, 59, 59)));
+        TransactionIdGenerator generator = new TransactionIdGenerator(7, ZONE, clock::get);
+
+        generator.next();
+        assertEquals("TXN_20261017_0007_0000000002", generator.next());
+
+        clock.set(millis(LocalDateTime.of(2026, 10, 18, 0, 0, 1)));
+        assertEquals("TXN_20261018_0007_0000000001", generator.next());
+    }
+
+    @Test
+    void testNext_ClockMovingBackwardsNeverRepeats() {
+        AtomicLong clock = new AtomicLong(millis(LocalDateTime.of(2026, 10, 18, 0, 0, 1)));
+        TransactionIdGenerator generator = new TransactionIdGenerator(7, ZONE, clock::get);
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+
+        assertTrue(issued.add(generator.next()));
+        clock.set(millis(LocalDateTime.of(2026, 10, 17, 23, 59, 59)));
+        assertTrue(issued.add(generator.next()));
+        clock.set(millis(LocalDateTime.of(2026, 10, 18, 0, 0, 2)));
+        assertTrue(issued.add(generator.next()));
+    }
+
+    @Test
+    void testNext_DifferentNodesNeverCollide() {
+        AtomicLong clock = new AtomicLong(millis(LocalDateTime.of(2026, 10, 17, 12, 0)));
+        TransactionIdGenerator nodeA = new TransactionIdGenerator(1, ZONE, clock::get);
+        TransactionIdGenerator nodeB = new TransactionIdGenerator(2, ZONE, clock::get);
+
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(issued.add(nodeA.next()));
+            assertTrue(issued.add(nodeB.next()));
+        }
+    }
+
+    @Test
+    void testNext_NodeNumbersPastFourDigitsNeverWrap() {
+        AtomicLong clock = new AtomicLong(millis(LocalDateTime.of(2026, 10, 17, 12, 0)));
+        TransactionIdGenerator generator = new TransactionIdGenerator(123_456, ZONE, clock::get);
+        TransactionIdGenerator earlier = new TransactionIdGenerator(3_456, ZONE, clock::get);
+
+        assertEquals("TXN_20261017_123456_0000000001", generator.next());
+        assertEquals("TXN_20261017_3456_0000000001", earlier.next());
+    }
+
+    @Test
+    void testNext_FitsTransactionIdColumn() {
+        AtomicLong clock = new AtomicLong(millis(LocalDateTime.of(2026, 10, 17, 12, 0)));
+        TransactionIdGenerator generator = new TransactionIdGenerator(9999, ZONE, clock::get);
+        TransactionIdGenerator largest = new TransactionIdGenerator(Long.MAX_VALUE, ZONE, clock::get);
+
+        assertTrue(generator.next().length() <= 50);
+        assertTrue(largest.next().length() <= 50);
+    }
+
+    @Test
+    void testNext_ConcurrentCallersGetUniqueIds() throws Exception {
+        AtomicLong clock = new AtomicLong(millis(LocalDateTime.of(2026, 10, 17, 23, 59, 59)));
+        TransactionIdGenerator generator = new TransactionIdGenerator(3, ZONE, clock::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<String>>> results = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < 8; t++) {
+                final int thread = t;
+                results.add(executor.submit(() -> {
+                    List<String> ids = new ArrayList<>();
+                    for (int i = 0; i < 5000; i++) {
+                        if (thread == 0 && i == 2500) {
+                            clock.set(millis(LocalDateTime.of(2026, 10, 18, 0, 0, 1)));
+                        }
+                        ids.add(generator.next());
+                    }
+                    return ids;
+                }));
+            }
+
+            Set<String> issued = ConcurrentHashMap.newKeySet();
+            for (Future<List<String>> result : results) {
+                for (String id : result.get()) {
+                    assertTrue(issued.add(id), "duplicate id " + id);
+                }
+            }
+            assertEquals(40_000, issued.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.model.TransferSubmission;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferSubmissionQueueTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private TransferSubmissionQueue queue;
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null) {
+            queue.shutdown(5000);
+        }
+    }
+
+    @Test
+    void testSubmit_ReportsPendingThenOutcome() throws Exception {
+        queue = new TransferSubmissionQueue(1, 10, 60_000, 100, clock::get);
+        CountDownLatch release = new CountDownLatch(1);
+
+        TransferSubmission submitted = queue.submit(() -> {
+            await(release);
+            return TransferSubmissionQueue.Outcome.completed("TXN_1", "Transaction created successfully");
+        });
+        assertEquals(TransferSubmissionQueue.PENDING, submitted.getStatus());
+        assertEquals(TransferSubmissionQueue.PENDING, queue.getSubmission(submitted.getSubmissionId()).getStatus());
+
+        release.countDown();
+        TransferSubmission finished = waitForCompletion(submitted.getSubmissionId());
+        assertEquals(TransferSubmissionQueue.COMPLETED, finished.getStatus());
+        assertEquals("TXN_1", finished.getTransactionId());
+        assertNotNull(finished.getCompletedAt());
+    }
+
+    @Test
+    void testSubmit_FailuresAndExceptionsBecomeFailed() throws Exception {
+        queue = new TransferSubmissionQueue(2, 10, 60_000, 100, clock::get);
+
+        TransferSubmission rejected = queue.submit(() -> TransferSubmissionQueue.Outcome.failed("Insufficient balance for this transaction"));
+        TransferSubmission crashed = queue.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertEquals(TransferSubmissionQueue.FAILED, waitForCompletion(rejected.getSubmissionId()).getStatus());
+        assertEquals("Insufficient balance for this transaction", queue.getSubmission(rejected.getSubmissionId()).getMessage());
+        assertEquals(TransferSubmissionQueue.FAILED, waitForCompletion(crashed.getSubmissionId()).getStatus());
+    }
+
+    @Test
+    void testSubmit_FullQueueIsRefused() throws Exception {
+        queue = new TransferSubmissionQueue(1, 2, 60_000, 100, clock::get);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransferSubmissionQueue.Task blocked = () -> {
+            running.countDown();
+            await(release);
+            return TransferSubmissionQueue.Outcome.completed("TXN_1", "ok");
+        };
+
+        try {
+            assertNotNull(queue.submit(blocked));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+
+            assertNotNull(queue.submit(blocked));
+            assertNotNull(queue.submit(blocked));
+            assertEquals(2, queue.getQueueDepth());
+            assertNull(queue.submit(blocked));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testGetSubmission_FinishedEntriesExpire() throws Exception {
+        queue = new TransferSubmissionQueue(1, 10, 500, 100, clock::get);
+
+        TransferSubmission first = queue.submit(() -> TransferSubmissionQueue.Outcome.completed("TXN_1", "ok"));
+        waitForCompletion(first.getSubmissionId());
+
+        clock.addAndGet(499);
+        queue.submit(() -> TransferSubmissionQueue.Outcome.completed("TXN_2", "ok"));
+        assertNotNull(queue.getSubmission(first.getSubmissionId()));
+
+        clock.addAndGet(1);
+        queue.submit(() -> TransferSubmissionQueue.Outcome.completed("TXN_3", "ok"));
+        assertNull(queue.getSubmission(first.getSubmissionId()));
+    }
+
+    private TransferSubmission waitForCompletion(String submissionId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            TransferSubmission submission = queue.getSubmission(submissionId);
+            if (!TransferSubmissionQueue.PENDING.equals(submission.getStatus())) {
+                return submission;
+            }
+            Thread.sleep(5);
+        }
+        fail("submission " + submissionId + " did not finish");
+        return null;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}